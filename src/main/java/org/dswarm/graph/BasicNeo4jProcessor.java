@@ -19,12 +19,17 @@ package org.dswarm.graph;
 import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 import java.util.Optional;
+import java.util.Set;
 
+import com.carrotsearch.hppc.LongArrayList;
 import com.carrotsearch.hppc.LongLongMap;
 import com.carrotsearch.hppc.LongLongOpenHashMap;
+import com.carrotsearch.hppc.LongObjectOpenHashMap;
+import com.carrotsearch.hppc.LongOpenHashSet;
+import com.carrotsearch.hppc.cursors.LongObjectCursor;
 import com.google.common.collect.Maps;
 import org.mapdb.DB;
 import org.neo4j.graphdb.DynamicLabel;
@@ -39,16 +44,23 @@ import org.neo4j.graphdb.index.IndexHits;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.dswarm.common.model.AttributePath;
 import org.dswarm.common.types.Tuple;
 import org.dswarm.graph.hash.HashUtils;
+import org.dswarm.graph.hash.StreamingSipHash;
 import org.dswarm.graph.index.MapDBUtils;
 import org.dswarm.graph.index.NamespaceIndex;
+import org.dswarm.graph.index.OffHeapLongHashSet;
+import org.dswarm.graph.index.RecordIdentifierIndexUtils;
+import org.dswarm.graph.index.SharedLongIndex;
 import org.dswarm.graph.model.GraphStatics;
 import org.dswarm.graph.model.Statement;
 import org.dswarm.graph.tx.TransactionHandler;
 import org.dswarm.graph.utils.GraphDatabaseUtils;
 import org.dswarm.graph.utils.GraphUtils;
 import org.dswarm.graph.versioning.VersionHandler;
+import org.dswarm.graph.versioning.VersioningStatics;
+import org.dswarm.graph.versioning.utils.GraphVersionUtils;
 
 /**
  * @author tgaengler
@@ -57,18 +69,23 @@ public abstract class BasicNeo4jProcessor implements TransactionalNeo4jProcessor
 
 	private static final Logger LOG = LoggerFactory.getLogger(BasicNeo4jProcessor.class);
 
+	private static final int TEMP_STATEMENT_HASHES_EXPECTED_SIZE = 100000;
+
 	protected int addedLabels = 0;
 
 	protected final GraphDatabaseService database;
 	private         Index<Relationship>  statementUUIDs;
+	private         Index<Node>          recordIdentifiers;
 	protected final Map<String, Node>    bnodes;
 
 	// protected Index<Relationship> statementHashes;
-	final private Set<Long> statementHashes;
-	final private DB        statementHashesDB;
+	// with a Bloom filter in front of it, i.e., most of the new statements don't need to be looked up there
+	final private SharedLongIndex statementHashes;
 
-	final private Set<Long> tempStatementHashes;
-	final private DB        tempStatementHashesDB;
+	final private OffHeapLongHashSet tempStatementHashes;
+
+	// the statement hashes that were removed in the current tx (they are removed from the shared statement hashes index on commit)
+	final private LongOpenHashSet removedStatementHashes = new LongOpenHashSet();
 
 	private final NamespaceIndex namespaceIndex;
 
@@ -81,6 +98,23 @@ public abstract class BasicNeo4jProcessor implements TransactionalNeo4jProcessor
 
 	private final Map<String, Label> labelCache;
 
+	// reusable, i.e., statement hashes are calculated without intermediate hash strings
+	private final StreamingSipHash statementHash = HashUtils.newStreamingHash();
+
+	// node type, identifier and labels of the nodes that were touched in the current tx
+	private final NodeInfoCache nodeInfoCache = new NodeInfoCache();
+
+	// the record identifier attribute path whose record identifiers index entries are maintained by this processor (if any)
+	private Optional<AttributePath> optionalMaintainedRecordIdentifierAP = Optional.empty();
+	private String                  maintainedRecordIdentifiersDataModelURI;
+	private boolean                 maintainedRecordIdentifiersDataModelWasEmpty;
+
+	// the data models whose record identifiers index completeness was already adjusted in the current tx
+	private final Set<String> recordIdentifiersIndexAdjustedDataModels = new HashSet<>();
+
+	// the statements that were deprecated in the current tx per subject node, i.e., they are marked as historic in one go before the commit
+	private final LongObjectOpenHashMap<LongArrayList> pendingHistoricStatements = new LongObjectOpenHashMap<>();
+
 	protected final TransactionHandler tx;
 
 	public BasicNeo4jProcessor(final GraphDatabaseService database, final TransactionHandler txArg, final NamespaceIndex namespaceIndexArg) throws DMPGraphException {
@@ -104,14 +138,8 @@ public abstract class BasicNeo4jProcessor implements TransactionalNeo4jProcessor
 
 		try {
 
-			final Tuple<Set<Long>, DB> mapDBTuple = MapDBUtils
-					.createOrGetInMemoryLongIndexTreeSetNonTransactional(GraphIndexStatics.TEMP_STATEMENT_HASHES_INDEX_NAME);
-			tempStatementHashes = mapDBTuple.v1();
-			tempStatementHashesDB = mapDBTuple.v2();
-
-			final Tuple<Set<Long>, DB> mapDBTuple2 = getOrCreateLongIndex(GraphIndexStatics.STATEMENT_HASHES_INDEX_NAME);
-			statementHashes = mapDBTuple2.v1();
-			statementHashesDB = mapDBTuple2.v2();
+			tempStatementHashes = OffHeapLongHashSet.createInMemory(TEMP_STATEMENT_HASHES_EXPECTED_SIZE);
+			statementHashes = getOrCreateLongIndex(GraphIndexStatics.STATEMENT_HASHES_INDEX_NAME);
 		} catch (final IOException e) {
 
 			failTx();
@@ -125,15 +153,20 @@ public abstract class BasicNeo4jProcessor implements TransactionalNeo4jProcessor
 		try {
 
 			statementUUIDs = database.index().forRelationships(GraphIndexStatics.STATEMENT_UUIDS_INDEX_NAME);
+			recordIdentifiers = RecordIdentifierIndexUtils.getIndex(database);
 
 			tempResourcesIndex.clear();
 			tempResourcesWDataModelIndex.clear();
 			tempResourceTypesIndex.clear();
+			nodeInfoCache.clear();
+			recordIdentifiersIndexAdjustedDataModels.clear();
 
 			if (tempStatementHashes != null) {
 
 				tempStatementHashes.clear();
 			}
+
+			removedStatementHashes.clear();
 		} catch (final Exception e) {
 
 			failTx();
@@ -170,7 +203,7 @@ public abstract class BasicNeo4jProcessor implements TransactionalNeo4jProcessor
 
 	public void addHashToStatementIndex(final long hash) {
 
-		tempStatementHashes.add(hash);
+		tempStatementHashes.addKey(hash);
 	}
 
 	public Optional<String> optionalCreatePrefixedURI(final Optional<String> optionalFullURI) throws DMPGraphException {
@@ -191,11 +224,7 @@ public abstract class BasicNeo4jProcessor implements TransactionalNeo4jProcessor
 
 	public void removeHashFromStatementIndex(final long hash) {
 
-		// TODO: maybe cache removals and remove them in one rush
-		if (statementHashes.contains(hash)) {
-
-			statementHashes.remove(hash);
-		}
+		removedStatementHashes.add(hash);
 	}
 
 	public void addStatementToIndex(final Relationship rel, final long statementUUID) {
@@ -203,6 +232,101 @@ public abstract class BasicNeo4jProcessor implements TransactionalNeo4jProcessor
 		statementUUIDs.putIfAbsent(rel, GraphStatics.UUID, statementUUID);
 	}
 
+	/**
+	 * Adds (or replaces) the record identifier of the given record node in the record identifiers index.
+	 *
+	 * @param recordNode
+	 * @param prefixedDataModelUri
+	 * @param prefixedRecordIdentifierAP
+	 */
+	public void addNodeToRecordIdentifiersIndex(final Node recordNode, final String prefixedDataModelUri,
+			final AttributePath prefixedRecordIdentifierAP) {
+
+		RecordIdentifierIndexUtils.addRecordNode(recordIdentifiers, recordNode, prefixedDataModelUri, prefixedRecordIdentifierAP);
+	}
+
+	/**
+	 * Lets this processor maintain the record identifiers index entries of the given attribute path for the records of the given data
+	 * model, i.e., these entries are (or stay) complete, if the data model has no records yet (or these entries are already complete).
+	 * Otherwise, every resource that is added to a data model by this processor removes the complete marks of the data model (see
+	 * {@link RecordIdentifierIndexUtils#adjustCompleteness(GraphDatabaseService, String, Optional, boolean)}).
+	 *
+	 * @param prefixedDataModelUri
+	 * @param prefixedRecordIdentifierAP
+	 * @throws DMPGraphException
+	 */
+	public void maintainRecordIdentifiersIndex(final String prefixedDataModelUri, final AttributePath prefixedRecordIdentifierAP)
+			throws DMPGraphException {
+
+		ensureRunningTx();
+
+		optionalMaintainedRecordIdentifierAP = Optional.of(prefixedRecordIdentifierAP);
+		maintainedRecordIdentifiersDataModelURI = prefixedDataModelUri;
+		maintainedRecordIdentifiersDataModelWasEmpty = !RecordIdentifierIndexUtils.hasRecords(database, prefixedDataModelUri);
+		recordIdentifiersIndexAdjustedDataModels.clear();
+	}
+
+	/**
+	 * Adjusts the complete marks of the record identifiers index entries of the given data model once per tx, i.e., should be called when
+	 * a resource is added to this data model.<br/>
+	 * note: the data model node might not exist yet, i.e., the adjustment is retried with the next added resource then
+	 *
+	 * @param prefixedDataModelUri
+	 */
+	protected void adjustRecordIdentifiersIndexCompleteness(final String prefixedDataModelUri) {
+
+		if (recordIdentifiersIndexAdjustedDataModels.contains(prefixedDataModelUri)) {
+
+			return;
+		}
+
+		final boolean maintained = prefixedDataModelUri.equals(maintainedRecordIdentifiersDataModelURI);
+		final Optional<AttributePath> optionalMaintainedAP = maintained ? optionalMaintainedRecordIdentifierAP : Optional.empty();
+
+		if (RecordIdentifierIndexUtils.adjustCompleteness(database, prefixedDataModelUri, optionalMaintainedAP,
+				maintained && maintainedRecordIdentifiersDataModelWasEmpty)) {
+
+			recordIdentifiersIndexAdjustedDataModels.add(prefixedDataModelUri);
+		}
+	}
+
+	/**
+	 * Deprecates the given statement, i.e., sets its valid to version. Additionally, the statement will be marked as historic at its
+	 * subject node with the commit of the current tx (see {@link GraphVersionUtils#markHistoricStatements(Node, long[], int)}), if the data
+	 * model marks historic statements.<br/>
+	 * note: tx should be running
+	 *
+	 * @param rel                     the statement that should be deprecated
+	 * @param version                 the version from which the statement is not valid anymore
+	 * @param marksHistoricStatements true, if the data model marks historic statements
+	 */
+	public void deprecateStatement(final Relationship rel, final int version, final boolean marksHistoricStatements) {
+
+		rel.setProperty(VersioningStatics.VALID_TO_PROPERTY, version);
+
+		if (!marksHistoricStatements) {
+
+			return;
+		}
+
+		final long subjectNodeId = rel.getStartNode().getId();
+
+		LongArrayList historicStatements = pendingHistoricStatements.get(subjectNodeId);
+
+		if (historicStatements == null) {
+
+			historicStatements = new LongArrayList();
+			pendingHistoricStatements.put(subjectNodeId, historicStatements);
+		}
+
+		historicStatements.add(rel.getId());
+	}
+
+	public void removeNodeFromRecordIdentifiersIndex(final Node recordNode) {
+
+		recordIdentifiers.remove(recordNode);
+	}
+
 	public void clearMaps() {
 
 		nodeResourceMap.clear();
@@ -213,12 +337,13 @@ public abstract class BasicNeo4jProcessor implements TransactionalNeo4jProcessor
 		tempResourceTypesIndex.clear();
 
 		labelCache.clear();
+		nodeInfoCache.clear();
 
 		LOG.debug("start clearing and closing mapdb indices");
 
 		tempStatementHashes.clear();
-		closeMapDBIndex(tempStatementHashesDB);
-		closeMapDBIndex(statementHashesDB);
+		closeLongIndex(tempStatementHashes);
+		closeLongIndex(statementHashes);
 
 		namespaceIndex.clearMaps();
 
@@ -247,9 +372,13 @@ public abstract class BasicNeo4jProcessor implements TransactionalNeo4jProcessor
 
 		BasicNeo4jProcessor.LOG.error("tx failed; closing tx");
 
-		closeMapDBIndex(tempStatementHashesDB);
-		closeMapDBIndex(statementHashesDB);
-		namespaceIndex.closeMapDBIndices();
+		closeLongIndex(tempStatementHashes);
+		closeLongIndex(statementHashes);
+		removedStatementHashes.clear();
+		namespaceIndex.discardTXNamespaces();
+		nodeInfoCache.clear();
+		recordIdentifiersIndexAdjustedDataModels.clear();
+		pendingHistoricStatements.clear();
 		tx.failTx();
 
 		BasicNeo4jProcessor.LOG.error("tx failed; closed tx");
@@ -259,13 +388,32 @@ public abstract class BasicNeo4jProcessor implements TransactionalNeo4jProcessor
 
 		BasicNeo4jProcessor.LOG.debug("tx succeeded; closing tx");
 
+		markHistoricStatements();
 		pumpNFlushStatementIndex();
 		namespaceIndex.pumpNFlushNamespacePrefixIndex();
 		tx.succeedTx();
+		namespaceIndex.publishTXNamespaces();
 
 		BasicNeo4jProcessor.LOG.debug("tx succeeded; closed tx");
 	}
 
+	private void markHistoricStatements() {
+
+		if (pendingHistoricStatements.isEmpty()) {
+
+			return;
+		}
+
+		for (final LongObjectCursor<LongArrayList> cursor : pendingHistoricStatements) {
+
+			GraphVersionUtils.markHistoricStatements(database.getNodeById(cursor.key), cursor.value.buffer, cursor.value.size());
+		}
+
+		BasicNeo4jProcessor.LOG.debug("marked historic statements of '{}' subject nodes", pendingHistoricStatements.size());
+
+		pendingHistoricStatements.clear();
+	}
+
 	public void ensureRunningTx() throws DMPGraphException {
 
 		tx.ensureRunningTx();
@@ -362,28 +510,47 @@ public abstract class BasicNeo4jProcessor implements TransactionalNeo4jProcessor
 		return finalOptionalResourceHash;
 	}
 
-	public void addLabel(final Node node, final String labelString) {
+	/**
+	 * Creates a new node with the given label and registers it at the node info cache of the current tx.
+	 */
+	public Node createNode(final Label label) {
 
-		final Label label = getLabel(labelString);
-		boolean hit = false;
-		final Iterable<Label> labels = node.getLabels();
+		final Node node = database.createNode(label);
+		nodeInfoCache.putNewNode(node, label);
 
-		for (final Label lbl : labels) {
+		return node;
+	}
 
-			if (label.equals(lbl)) {
+	public void addLabel(final Node node, final String labelString) {
 
-				hit = true;
-				break;
-			}
-		}
+		final Label label = getLabel(labelString);
+		final NodeInfoCache.NodeInfo nodeInfo = nodeInfoCache.get(node);
 
-		if (!hit) {
+		if (!nodeInfoCache.hasLabel(node, nodeInfo, label)) {
 
 			node.addLabel(label);
+			nodeInfoCache.addLabel(nodeInfo, label);
 			addedLabels++;
 		}
 	}
 
+	/**
+	 * Determines the node type of the given node via the node info cache of the current tx, i.e., the labels of a node will be read only
+	 * once per tx.
+	 */
+	public NodeType determineNodeType(final Node node) throws DMPGraphException {
+
+		final NodeType nodeType = nodeInfoCache.getNodeType(nodeInfoCache.get(node));
+
+		if (nodeType == null) {
+
+			// the node info cache knows only node type labels, i.e., let the utils throw a proper exception
+			return GraphUtils.determineNodeType(node);
+		}
+
+		return nodeType;
+	}
+
 	public Label getLabel(final String labelString) {
 
 		if (!labelCache.containsKey(labelString)) {
@@ -396,9 +563,17 @@ public abstract class BasicNeo4jProcessor implements TransactionalNeo4jProcessor
 
 	public boolean checkStatementExists(final long hash) throws DMPGraphException {
 
-		return !(statementHashes == null && tempStatementHashes == null) && (tempStatementHashes != null && tempStatementHashes.contains(hash)
-				|| statementHashes != null && statementHashes.contains(hash));
+		if (tempStatementHashes != null && !tempStatementHashes.isClosed() && tempStatementHashes.containsKey(hash)) {
+
+			return true;
+		}
+
+		if (removedStatementHashes.contains(hash)) {
+
+			return false;
+		}
 
+		return statementHashes != null && !statementHashes.isClosed() && statementHashes.containsKey(hash);
 	}
 
 	public Relationship prepareRelationship(final Node subjectNode, final String predicateURI, final Node objectNode, final long statementUUID,
@@ -447,8 +622,8 @@ public abstract class BasicNeo4jProcessor implements TransactionalNeo4jProcessor
 		final Node subjectNode = rel.getStartNode();
 		final Node objectNode = rel.getEndNode();
 		final String predicateName = rel.getType().name();
-		final NodeType subjectNodeType = GraphUtils.determineNodeType(subjectNode);
-		final NodeType objectNodeType = GraphUtils.determineNodeType(objectNode);
+		final NodeType subjectNodeType = determineNodeType(subjectNode);
+		final NodeType objectNodeType = determineNodeType(objectNode);
 
 		return generateStatementHash(subjectNode, predicateName, objectNode, subjectNodeType, objectNodeType);
 	}
@@ -493,12 +668,21 @@ public abstract class BasicNeo4jProcessor implements TransactionalNeo4jProcessor
 			throw new DMPGraphException(message);
 		}
 
-		final String simpleHashString = optionalSubjectNodeType.get().toString() + ":" + optionalSubjectIdentifier.get() + " " + predicateName + " "
-				+ optionalObjectNodeType.get().toString() + ":" + optionalObjectIdentifier.get();
+		// i.e. the hash of "[subject node type]:[subject identifier] [predicate] [object node type]:[object identifier][salt]"
+		statementHash.reset()
+				.putString(optionalSubjectNodeType.get().toString())
+				.putChar(':')
+				.putString(optionalSubjectIdentifier.get())
+				.putChar(' ')
+				.putString(String.valueOf(predicateName))
+				.putChar(' ')
+				.putString(optionalObjectNodeType.get().toString())
+				.putChar(':')
+				.putString(optionalObjectIdentifier.get());
 
-		final String hashString = putSaltToStatementHash(simpleHashString);
+		putSaltToStatementHash(statementHash);
 
-		return HashUtils.generateHash(hashString);
+		return statementHash.digest();
 	}
 
 	public Optional<String> getIdentifier(final Node node, final Optional<NodeType> optionalNodeType) {
@@ -508,9 +692,18 @@ public abstract class BasicNeo4jProcessor implements TransactionalNeo4jProcessor
 			return Optional.empty();
 		}
 
+		final NodeType nodeType = optionalNodeType.get();
+		final NodeInfoCache.NodeInfo nodeInfo = nodeInfoCache.get(node);
+		final String cachedIdentifier = nodeInfoCache.getIdentifier(nodeInfo, nodeType);
+
+		if (cachedIdentifier != null) {
+
+			return Optional.of(cachedIdentifier);
+		}
+
 		final String identifier;
 
-		switch (optionalNodeType.get()) {
+		switch (nodeType) {
 
 			case Resource:
 			case TypeResource:
@@ -545,15 +738,34 @@ public abstract class BasicNeo4jProcessor implements TransactionalNeo4jProcessor
 				break;
 		}
 
+		if (identifier != null) {
+
+			nodeInfoCache.putIdentifier(nodeInfo, nodeType, identifier);
+		}
+
 		return Optional.ofNullable(identifier);
 	}
 
+	/**
+	 * Drops the cached identifier of the given node, e.g., when an identifying property (such as the data model) was set at the node.
+	 */
+	protected void invalidateIdentifier(final Node node) {
+
+		nodeInfoCache.invalidateIdentifier(node.getId());
+	}
+
 	public abstract void addObjectToResourceWDataModelIndex(final Node node, final String URI, final Optional<String> optionalDataModelURI);
 
 	public abstract void handleObjectDataModel(Node node, Optional<String> optionalDataModelURI);
 
 	public abstract void handleSubjectDataModel(final Node node, String URI, final Optional<String> optionalDataModelURI);
 
+	/**
+	 * Tags a new bnode subject with its data model, i.e., the bnode subjects of a data model can be found via schema index (e.g. the ones
+	 * that can't be reached from a resource node).
+	 */
+	public abstract void handleBNodeSubjectDataModel(final Node bnode, final Optional<String> optionalDataModelURI);
+
 	public abstract Optional<Node> getResourceNodeHits(final String resourceURI);
 
 	public abstract long generateResourceHash(final String resourceURI, final Optional<String> dataModelURI);
@@ -617,7 +829,12 @@ public abstract class BasicNeo4jProcessor implements TransactionalNeo4jProcessor
 		addNodeToResourcesIndex(key, node);
 	}
 
-	protected abstract String putSaltToStatementHash(final String hash);
+	/**
+	 * Feeds the salt (if any) of the statement hash into the given statement hash state.
+	 *
+	 * @param statementHash the statement hash state
+	 */
+	protected abstract void putSaltToStatementHash(final StreamingSipHash statementHash);
 
 	protected Optional<Node> getNodeFromSchemaIndex(final String key, final Map<String, Node> tempIndex, final Label nodeLabel,
 			final String nodeProperty) {
@@ -655,11 +872,11 @@ public abstract class BasicNeo4jProcessor implements TransactionalNeo4jProcessor
 		return optionalNode;
 	}
 
-	protected Tuple<Set<Long>, DB> getOrCreateLongIndex(final String name) throws IOException {
+	protected SharedLongIndex getOrCreateLongIndex(final String name) throws IOException {
 
 		final String storeDir = GraphDatabaseUtils.determineMapDBIndexStoreDir(database);
 
-		return MapDBUtils.createOrGetPersistentLongIndexTreeSetGlobalTransactional(storeDir + File.separator + name, name);
+		return SharedLongIndex.openOrCreate(storeDir + File.separator + name, name);
 	}
 
 	protected Tuple<Map<String, String>, DB> getOrCreateStringStringIndex(final String name) throws IOException {
@@ -679,34 +896,47 @@ public abstract class BasicNeo4jProcessor implements TransactionalNeo4jProcessor
 		tempIndex.put(key, node);
 	}
 
-	private void pumpNFlushStatementIndex() {
+	private void pumpNFlushStatementIndex() throws DMPGraphException {
 
 		LOG.debug("start pump'n'flushing statement index; size = '{}'", tempStatementHashes.size());
 
-		for (final Long hash : tempStatementHashes) {
+		final long start = System.currentTimeMillis();
+		final long[] hashes = tempStatementHashes.toLongArray();
 
-			statementHashes.add(hash);
-		}
+		try {
+
+			// (incl. the Bloom filter in front of the index)
+			final long newHashes = statementHashes.commit(hashes, removedStatementHashes.toArray());
+
+			removedStatementHashes.clear();
 
-		LOG.debug("finished pumping statement index");
+			LOG.info("merged '{}' statement hashes ('{}' new) into statement index of size '{}' in '{}' ms", hashes.length, newHashes,
+					statementHashes.longSize(), System.currentTimeMillis() - start);
+		} catch (final IOException e) {
+
+			final String message = "couldn't flush statement index";
 
-		tempStatementHashesDB.commit();
-		statementHashesDB.commit();
+			LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		}
 
 		LOG.debug("finished flushing statement index");
 	}
 
-	private void closeMapDBIndex(final DB mapDBIndex) {
+	private static void closeLongIndex(final OffHeapLongHashSet longIndex) {
 
-		if (mapDBIndex != null && !mapDBIndex.isClosed()) {
+		if (longIndex != null && !longIndex.isClosed()) {
 
-			try {
+			longIndex.close();
+		}
+	}
 
-				mapDBIndex.close();
-			} catch (final RuntimeException e) {
+	private static void closeLongIndex(final SharedLongIndex longIndex) {
 
-				LOG.error("could not close mapdb index properly.", e);
-			}
+		if (longIndex != null && !longIndex.isClosed()) {
+
+			longIndex.close();
 		}
 	}
 }
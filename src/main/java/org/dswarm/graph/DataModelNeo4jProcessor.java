@@ -26,11 +26,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.dswarm.graph.hash.HashUtils;
+import org.dswarm.graph.hash.StreamingSipHash;
 import org.dswarm.graph.index.NamespaceIndex;
 import org.dswarm.graph.model.GraphStatics;
 import org.dswarm.graph.tx.TransactionHandler;
 import org.dswarm.graph.versioning.VersionHandler;
 import org.dswarm.graph.versioning.VersioningStatics;
+import org.dswarm.graph.versioning.utils.GraphVersionUtils;
 
 /**
  * @author tgaengler
@@ -69,6 +71,8 @@ public class DataModelNeo4jProcessor extends BasicNeo4jProcessor {
 		final String finalPrefixedDataModelURI = getPrefixedDataModelURI(optionalPrefixedDataModelURI);
 
 		node.setProperty(GraphStatics.DATA_MODEL_PROPERTY, finalPrefixedDataModelURI);
+		invalidateIdentifier(node);
+		adjustRecordIdentifiersIndexCompleteness(finalPrefixedDataModelURI);
 	}
 
 	@Override
@@ -78,9 +82,17 @@ public class DataModelNeo4jProcessor extends BasicNeo4jProcessor {
 		final long resourceUriDataModelUriHash = generateResourceHash(prefixedURI, Optional.of(finalPrefixedDataModelURI));
 
 		node.setProperty(GraphStatics.DATA_MODEL_PROPERTY, finalPrefixedDataModelURI);
+		invalidateIdentifier(node);
+		adjustRecordIdentifiersIndexCompleteness(finalPrefixedDataModelURI);
 		addNodeToResourcesWDataModelIndex(prefixedURI, resourceUriDataModelUriHash, node);
 	}
 
+	@Override
+	public void handleBNodeSubjectDataModel(final Node bnode, final Optional<String> optionalPrefixedDataModelURI) {
+
+		bnode.setProperty(GraphStatics.DATA_MODEL_PROPERTY, getPrefixedDataModelURI(optionalPrefixedDataModelURI));
+	}
+
 	@Override
 	public Optional<Node> getResourceNodeHits(final String prefixedResourceURI) {
 
@@ -100,9 +112,9 @@ public class DataModelNeo4jProcessor extends BasicNeo4jProcessor {
 	}
 
 	@Override
-	protected String putSaltToStatementHash(final String hash) {
+	protected void putSaltToStatementHash(final StreamingSipHash statementHash) {
 
-		return hash + " " + this.prefixedDataModelURI;
+		statementHash.putChar(' ').putString(String.valueOf(this.prefixedDataModelURI));
 	}
 
 	@Override
@@ -116,6 +128,12 @@ public class DataModelNeo4jProcessor extends BasicNeo4jProcessor {
 		rel.setProperty(VersioningStatics.VALID_FROM_PROPERTY, versionHandler.getRange().from());
 		rel.setProperty(VersioningStatics.VALID_TO_PROPERTY, versionHandler.getRange().to());
 
+		if (versionHandler.marksHistoricStatements()) {
+
+			// i.e. a reused relationship id shouldn't be reported as historic
+			GraphVersionUtils.unmarkHistoricStatement(rel);
+		}
+
 		return rel;
 	}
 
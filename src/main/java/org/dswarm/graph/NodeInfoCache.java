@@ -0,0 +1,214 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph;
+
+import com.carrotsearch.hppc.LongObjectOpenHashMap;
+import com.carrotsearch.hppc.ObjectIntOpenHashMap;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+
+/**
+ * A per-transaction cache of the node type, the identifier and the labels (as bitmask) of the nodes that are touched on the write path,
+ * i.e., the labels and identifier properties of a node need to be read only once per transaction. Labels are mapped to bits on first
+ * sight; labels beyond the 64th one have no bit, i.e., they will be looked up at the node itself.
+ *
+ * @author tgaengler
+ */
+final class NodeInfoCache {
+
+	// note: the order of the node types is the precedence of the node type determination (see GraphUtils#determineNodeType)
+	private static final NodeType[] NODE_TYPES = { NodeType.TypeResource, NodeType.TypeBNode, NodeType.Resource, NodeType.BNode,
+			NodeType.Literal };
+
+	static final class NodeInfo {
+
+		private long labels;
+
+		private String   identifier;
+		private NodeType identifierNodeType;
+	}
+
+	private final LongObjectOpenHashMap<NodeInfo> nodeInfos = new LongObjectOpenHashMap<>();
+	private final ObjectIntOpenHashMap<String>    labelBits = new ObjectIntOpenHashMap<>();
+
+	NodeInfoCache() {
+
+		// node type labels get the first bits
+		for (final NodeType nodeType : NODE_TYPES) {
+
+			labelBits.put(nodeType.getName(), labelBits.size());
+		}
+	}
+
+	/**
+	 * Caches a node that was just created with the given label.
+	 */
+	NodeInfo putNewNode(final Node node, final Label label) {
+
+		final NodeInfo nodeInfo = new NodeInfo();
+		nodeInfo.labels = bitOf(label.name());
+
+		nodeInfos.put(node.getId(), nodeInfo);
+
+		return nodeInfo;
+	}
+
+	/**
+	 * @return the (cached) info of the given node; the labels of the node will be read once per transaction
+	 */
+	NodeInfo get(final Node node) {
+
+		final long nodeId = node.getId();
+
+		NodeInfo nodeInfo = nodeInfos.get(nodeId);
+
+		if (nodeInfo != null) {
+
+			return nodeInfo;
+		}
+
+		nodeInfo = new NodeInfo();
+
+		for (final Label label : node.getLabels()) {
+
+			nodeInfo.labels |= bitOf(label.name());
+		}
+
+		nodeInfos.put(nodeId, nodeInfo);
+
+		return nodeInfo;
+	}
+
+	/**
+	 * @return true, if the node has the given label (labels without bit are looked up at the node)
+	 */
+	boolean hasLabel(final Node node, final NodeInfo nodeInfo, final Label label) {
+
+		final long bit = bitOf(label.name());
+
+		if (bit != 0) {
+
+			return (nodeInfo.labels & bit) != 0;
+		}
+
+		for (final Label nodeLabel : node.getLabels()) {
+
+			if (label.equals(nodeLabel)) {
+
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	void addLabel(final NodeInfo nodeInfo, final Label label) {
+
+		nodeInfo.labels |= bitOf(label.name());
+	}
+
+	/**
+	 * @return the node type of the given node info or null, if the node has no node type label
+	 */
+	NodeType getNodeType(final NodeInfo nodeInfo) {
+
+		for (int i = 0; i < NODE_TYPES.length; i++) {
+
+			if ((nodeInfo.labels & (1L << i)) != 0) {
+
+				return NODE_TYPES[i];
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * @return the cached identifier of the given node info, if it was determined for a node type with the same identifier kind before
+	 */
+	String getIdentifier(final NodeInfo nodeInfo, final NodeType nodeType) {
+
+		if (nodeInfo.identifier != null && identifierKind(nodeInfo.identifierNodeType) == identifierKind(nodeType)) {
+
+			return nodeInfo.identifier;
+		}
+
+		return null;
+	}
+
+	void putIdentifier(final NodeInfo nodeInfo, final NodeType nodeType, final String identifier) {
+
+		nodeInfo.identifier = identifier;
+		nodeInfo.identifierNodeType = nodeType;
+	}
+
+	void invalidateIdentifier(final long nodeId) {
+
+		final NodeInfo nodeInfo = nodeInfos.get(nodeId);
+
+		if (nodeInfo != null) {
+
+			nodeInfo.identifier = null;
+			nodeInfo.identifierNodeType = null;
+		}
+	}
+
+	void clear() {
+
+		nodeInfos.clear();
+	}
+
+	private long bitOf(final String labelName) {
+
+		final int bit;
+
+		if (labelBits.containsKey(labelName)) {
+
+			bit = labelBits.lget();
+		} else {
+
+			if (labelBits.size() >= Long.SIZE) {
+
+				return 0;
+			}
+
+			bit = labelBits.size();
+			labelBits.put(labelName, bit);
+		}
+
+		return 1L << bit;
+	}
+
+	/**
+	 * resources and type resources (as well as bnodes and type bnodes) have the same identifier
+	 */
+	private static NodeType identifierKind(final NodeType nodeType) {
+
+		switch (nodeType) {
+
+			case TypeResource:
+
+				return NodeType.Resource;
+			case TypeBNode:
+
+				return NodeType.BNode;
+			default:
+
+				return nodeType;
+		}
+	}
+}
@@ -24,6 +24,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.dswarm.graph.hash.HashUtils;
+import org.dswarm.graph.hash.StreamingSipHash;
 import org.dswarm.graph.index.NamespaceIndex;
 import org.dswarm.graph.model.GraphStatics;
 import org.dswarm.graph.tx.TransactionHandler;
@@ -57,6 +58,8 @@ public class SimpleNeo4jProcessor extends BasicNeo4jProcessor {
 		if (optionalDataModelURI.isPresent()) {
 
 			node.setProperty(GraphStatics.DATA_MODEL_PROPERTY, optionalDataModelURI.get());
+			invalidateIdentifier(node);
+			adjustRecordIdentifiersIndexCompleteness(optionalDataModelURI.get());
 		}
 	}
 
@@ -68,10 +71,21 @@ public class SimpleNeo4jProcessor extends BasicNeo4jProcessor {
 			final long resourceUriDataModelUriHash = generateResourceHash(URI, optionalDataModelURI);
 
 			node.setProperty(GraphStatics.DATA_MODEL_PROPERTY, optionalDataModelURI.get());
+			invalidateIdentifier(node);
+			adjustRecordIdentifiersIndexCompleteness(optionalDataModelURI.get());
 			addNodeToResourcesWDataModelIndex(URI, resourceUriDataModelUriHash, node);
 		}
 	}
 
+	@Override
+	public void handleBNodeSubjectDataModel(final Node bnode, final Optional<String> optionalDataModelURI) {
+
+		if (optionalDataModelURI.isPresent()) {
+
+			bnode.setProperty(GraphStatics.DATA_MODEL_PROPERTY, optionalDataModelURI.get());
+		}
+	}
+
 	@Override
 	public Optional<Node> getResourceNodeHits(final String resourceURI) {
 
@@ -87,8 +101,8 @@ public class SimpleNeo4jProcessor extends BasicNeo4jProcessor {
 	}
 
 	@Override
-	protected String putSaltToStatementHash(final String hash) {
+	protected void putSaltToStatementHash(final StreamingSipHash statementHash) {
 
-		return hash;
+		// no salt
 	}
 }
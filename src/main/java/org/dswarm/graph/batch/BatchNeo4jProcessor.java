@@ -18,17 +18,13 @@ package org.dswarm.graph.batch;
 
 import java.io.File;
 import java.io.IOException;
-import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
-import java.util.Set;
 
 import com.carrotsearch.hppc.LongLongOpenHashMap;
 import com.carrotsearch.hppc.ObjectLongOpenHashMap;
-import com.google.common.io.Resources;
-import org.mapdb.DB;
 import org.neo4j.graphdb.DynamicLabel;
 import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.index.IndexHits;
@@ -46,9 +42,12 @@ import org.dswarm.graph.GraphIndexStatics;
 import org.dswarm.graph.Neo4jProcessor;
 import org.dswarm.graph.NodeType;
 import org.dswarm.graph.hash.HashUtils;
-import org.dswarm.graph.index.MapDBUtils;
+import org.dswarm.graph.hash.StreamingSipHash;
+import org.dswarm.graph.index.OffHeapLongHashSet;
+import org.dswarm.graph.index.SharedLongIndex;
 import org.dswarm.graph.model.GraphStatics;
 import org.dswarm.graph.model.Statement;
+import org.dswarm.graph.utils.GraphDatabaseUtils;
 
 /**
  * @author tgaengler
@@ -57,6 +56,8 @@ public abstract class BatchNeo4jProcessor implements Neo4jProcessor {
 
 	private static final Logger LOG = LoggerFactory.getLogger(BatchNeo4jProcessor.class);
 
+	private static final int TEMP_STATEMENT_HASHES_EXPECTED_SIZE = 100000;
+
 	protected int addedLabels = 0;
 
 	protected final BatchInserter inserter;
@@ -80,15 +81,17 @@ public abstract class BatchNeo4jProcessor implements Neo4jProcessor {
 
 	protected final ObjectLongOpenHashMap<String> bnodes;
 	// private BatchInserterIndex statementHashes;
-	private Set<Long> statementHashes;
-	private DB statementHashesDB;
+	// with a Bloom filter in front of it (that is updated together with the index)
+	private SharedLongIndex statementHashes;
 
-	protected final Set<Long> tempStatementHashes;
-	protected final DB tempStatementHashesDB;
+	protected final OffHeapLongHashSet tempStatementHashes;
 	//protected final LongLongOpenHashMap tempStatementHashes;
 
 	protected final LongLongOpenHashMap nodeResourceMap;
 
+	// reusable, i.e., statement hashes are calculated without intermediate hash strings
+	private final StreamingSipHash statementHash = HashUtils.newStreamingHash();
+
 	public BatchNeo4jProcessor(final BatchInserter inserter) throws DMPGraphException {
 
 		this.inserter = inserter;
@@ -102,10 +105,7 @@ public abstract class BatchNeo4jProcessor implements Neo4jProcessor {
 		tempResourcesWDataModelIndex = new ObjectLongOpenHashMap<>();
 		tempResourceTypes = new ObjectLongOpenHashMap<>();
 		//tempStatementHashes = new LongLongOpenHashMap();
-		final Tuple<Set<Long>, DB> mapDBTuple = MapDBUtils
-				.createOrGetInMemoryLongIndexTreeSetNonTransactional(GraphIndexStatics.TEMP_STATEMENT_HASHES_INDEX_NAME);
-		tempStatementHashes = mapDBTuple.v1();
-		tempStatementHashesDB = mapDBTuple.v2();
+		tempStatementHashes = OffHeapLongHashSet.createInMemory(TEMP_STATEMENT_HASHES_EXPECTED_SIZE);
 
 		// TODO: init all indices, when batch inserter should work on a pre-filled database (otherwise, the existing index would
 		// utilised in the first run)
@@ -114,7 +114,7 @@ public abstract class BatchNeo4jProcessor implements Neo4jProcessor {
 		initStatementIndex();
 	}
 
-	protected void pumpNFlushNClearIndices() {
+	protected void pumpNFlushNClearIndices() throws DMPGraphException {
 
 		BatchNeo4jProcessor.LOG.debug("start pumping indices");
 
@@ -122,8 +122,7 @@ public abstract class BatchNeo4jProcessor implements Neo4jProcessor {
 		copyNFlushNClearIndex(tempResourcesWDataModelIndex, resourcesWDataModel, GraphStatics.URI_W_DATA_MODEL,
 				GraphIndexStatics.RESOURCES_W_DATA_MODEL_INDEX_NAME);
 		copyNFlushNClearIndex(tempResourceTypes, resourceTypes, GraphStatics.URI, GraphIndexStatics.RESOURCE_TYPES_INDEX_NAME);
-		copyNFlushNClearLongIndex(tempStatementHashes, tempStatementHashesDB, statementHashes, GraphIndexStatics.STATEMENT_HASHES_INDEX_NAME,
-				statementHashesDB);
+		copyNFlushNClearLongIndex(tempStatementHashes, statementHashes, GraphIndexStatics.STATEMENT_HASHES_INDEX_NAME);
 
 		BatchNeo4jProcessor.LOG.debug("finished pumping indices");
 
@@ -185,46 +184,35 @@ public abstract class BatchNeo4jProcessor implements Neo4jProcessor {
 		BatchNeo4jProcessor.LOG.debug("finished flushing and clearing index");
 	}
 
-	private void copyNFlushNClearLongIndex(final Set<Long> tempIndex, final DB inMemoryDB, final Set<Long> persistentIndex, final String indexName,
-	                                       final DB persistentDB) {
+	private void copyNFlushNClearLongIndex(final OffHeapLongHashSet tempIndex, final SharedLongIndex persistentIndex, final String indexName)
+			throws DMPGraphException {
 
 		BatchNeo4jProcessor.LOG.debug("start pumping '{}' index of size '{}'", indexName, tempIndex.size());
 
-		int j = 0;
-		long tick = System.currentTimeMillis();
-		int sinceLast = 0;
+		final long start = System.currentTimeMillis();
+		final long[] keys = tempIndex.toLongArray();
 
-		for (final Long key : tempIndex) {
+		tempIndex.clear();
+		tempIndex.close();
 
-			persistentIndex.add(key);
+		try {
 
-			j++;
+			final long newKeys = persistentIndex.commit(keys);
 
-			final int entryDelta = j - sinceLast;
-			final long timeDelta = (System.currentTimeMillis() - tick) / 1000;
+			BatchNeo4jProcessor.LOG.info("merged '{}' entries ('{}' new) into '{}' index of size '{}' in '{}' ms", keys.length, newKeys, indexName,
+					persistentIndex.longSize(), System.currentTimeMillis() - start);
+		} catch (final IOException e) {
 
-			if (entryDelta >= 1000000 || timeDelta >= 60) {
+			final String message = String.format("couldn't flush '%s' index", indexName);
 
-				sinceLast = j;
-				final double duration = (double) entryDelta / timeDelta;
+			BatchNeo4jProcessor.LOG.error(message, e);
 
-				BatchNeo4jProcessor.LOG.debug("wrote '{}' entries @ ~{} entries/second.", j, duration);
+			throw new DMPGraphException(message, e);
+		} finally {
 
-				tick = System.currentTimeMillis();
-			}
+			persistentIndex.close();
 		}
 
-		BatchNeo4jProcessor.LOG.debug("finished pumping index '{}' index; wrote '{}' entries", indexName, tempIndex.size());
-
-		BatchNeo4jProcessor.LOG.debug("start flushing and clearing index");
-
-		//persistentIndex.flush();
-		tempIndex.clear();
-		inMemoryDB.commit();
-		inMemoryDB.close();
-		persistentDB.commit();
-		persistentDB.close();
-
 		BatchNeo4jProcessor.LOG.debug("finished flushing and clearing index");
 	}
 
@@ -297,9 +285,7 @@ public abstract class BatchNeo4jProcessor implements Neo4jProcessor {
 
 		try {
 
-			final Tuple<Set<Long>, DB> mapDBTuple = getOrCreateLongIndex(GraphIndexStatics.STATEMENT_HASHES_INDEX_NAME);
-			statementHashes = mapDBTuple.v1();
-			statementHashesDB = mapDBTuple.v2();
+			statementHashes = getOrCreateLongIndex(GraphIndexStatics.STATEMENT_HASHES_INDEX_NAME);
 		} catch (final IOException e) {
 
 			throw new DMPGraphException("couldn't create or get statement hashes index");
@@ -373,7 +359,7 @@ public abstract class BatchNeo4jProcessor implements Neo4jProcessor {
 
 	public void addToStatementIndex(final long key) {
 
-		tempStatementHashes.add(key);
+		tempStatementHashes.addKey(key);
 	}
 
 	public void flushIndices() throws DMPGraphException {
@@ -405,7 +391,7 @@ public abstract class BatchNeo4jProcessor implements Neo4jProcessor {
 
 	protected void clearTempStatementIndices() {
 
-		if (!tempStatementHashesDB.isClosed()) {
+		if (!tempStatementHashes.isClosed()) {
 
 			tempStatementHashes.clear();
 		}
@@ -589,12 +575,21 @@ public abstract class BatchNeo4jProcessor implements Neo4jProcessor {
 			throw new DMPGraphException(message);
 		}
 
-		final String simpleHashString = optionalSubjectNodeType.get() + ":" + optionalSubjectIdentifier.get() + " " + predicateName + " "
-				+ optionalObjectNodeType.get() + ":" + optionalObjectIdentifier.get();
+		// i.e. the hash of "[subject node type]:[subject identifier] [predicate] [object node type]:[object identifier][salt]"
+		statementHash.reset()
+				.putString(optionalSubjectNodeType.get().toString())
+				.putChar(':')
+				.putString(optionalSubjectIdentifier.get())
+				.putChar(' ')
+				.putString(String.valueOf(predicateName))
+				.putChar(' ')
+				.putString(optionalObjectNodeType.get().toString())
+				.putChar(':')
+				.putString(optionalObjectIdentifier.get());
 
-		final String hashString = putSaltToStatementHash(simpleHashString);
+		putSaltToStatementHash(statementHash);
 
-		return HashUtils.generateHash(hashString);
+		return statementHash.digest();
 	}
 
 	public Optional<String> getIdentifier(final long nodeId, final Optional<NodeType> optionalNodeType) {
@@ -664,7 +659,12 @@ public abstract class BatchNeo4jProcessor implements Neo4jProcessor {
 	@Override
 	public abstract long generateResourceHash(final String resourceURI, final Optional<String> dataModelURI);
 
-	protected abstract String putSaltToStatementHash(final String hash);
+	/**
+	 * Feeds the salt (if any) of the statement hash into the given statement hash state.
+	 *
+	 * @param statementHash the statement hash state
+	 */
+	protected abstract void putSaltToStatementHash(final StreamingSipHash statementHash);
 
 	protected Tuple<BatchInserterIndex, BatchInserterIndexProvider> getOrCreateIndex(final String name, final String property,
 	                                                                                 final boolean nodeIndex, final int cachSize) {
@@ -685,18 +685,9 @@ public abstract class BatchNeo4jProcessor implements Neo4jProcessor {
 		return Tuple.tuple(index, indexProvider);
 	}
 
-	protected Tuple<Set<Long>, DB> getOrCreateLongIndex(final String name) throws IOException {
-
-		final URL resource = Resources.getResource("dmpgraph.properties");
-		final Properties properties = new Properties();
-
-		try {
-
-			properties.load(resource.openStream());
-		} catch (final IOException e) {
+	protected SharedLongIndex getOrCreateLongIndex(final String name) throws IOException {
 
-			LOG.error("Could not load dmpgraph.properties", e);
-		}
+		final Properties properties = GraphDatabaseUtils.loadDMPGraphProperties();
 
 		final String indexStoreDir = properties.getProperty("index_store_dir");
 
@@ -712,7 +703,7 @@ public abstract class BatchNeo4jProcessor implements Neo4jProcessor {
 		}
 
 		// + File.separator + ChronicleMapUtils.INDEX_DIR
-		return MapDBUtils.createOrGetPersistentLongIndexTreeSetGlobalTransactional(storeDir + File.separator + name, name);
+		return SharedLongIndex.openOrCreate(storeDir + File.separator + name, name);
 	}
 
 	private static Object getProperty(final String key, final Map<String, Object> properties) {
@@ -770,8 +761,13 @@ public abstract class BatchNeo4jProcessor implements Neo4jProcessor {
 		return Optional.empty();
 	}
 
-	private static boolean checkLongIndex(final long key, final Set<Long> index) {
+	private static boolean checkLongIndex(final long key, final OffHeapLongHashSet index) {
+
+		return index != null && !index.isClosed() && index.containsKey(key);
+	}
+
+	private static boolean checkLongIndex(final long key, final SharedLongIndex index) {
 
-		return index != null && index.contains(key);
+		return index != null && !index.isClosed() && index.containsKey(key);
 	}
 }
@@ -25,6 +25,7 @@ import org.slf4j.LoggerFactory;
 
 import org.dswarm.graph.DMPGraphException;
 import org.dswarm.graph.hash.HashUtils;
+import org.dswarm.graph.hash.StreamingSipHash;
 import org.dswarm.graph.model.GraphStatics;
 
 /**
@@ -82,8 +83,8 @@ public class SimpleNeo4jProcessor extends BatchNeo4jProcessor {
 	}
 
 	@Override
-	protected String putSaltToStatementHash(final String hash) {
+	protected void putSaltToStatementHash(final StreamingSipHash statementHash) {
 
-		return hash;
+		// no salt
 	}
 }
@@ -333,6 +333,13 @@ public abstract class BaseNeo4jHandler implements Neo4jHandler {
 		return totalTriples;
 	}
 
+	@Override
+	public long getCommittedStatements() {
+
+		// note: batch inserts can't be rolled back, i.e., all handled statements are "committed"
+		return totalTriples;
+	}
+
 	@Override
 	public int getNodesAdded() {
 
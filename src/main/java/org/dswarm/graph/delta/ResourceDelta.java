@@ -0,0 +1,86 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.delta;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+
+import org.dswarm.graph.json.Resource;
+
+/**
+ * The outcome of the delta calculation for one resource (record), i.e., the new resource, the matched existing resource (if any), the
+ * working graphs of both and the calculated changeset.
+ *
+ * @author tgaengler
+ */
+public class ResourceDelta {
+
+	private final Resource             newResource;
+	private final Resource             existingResource;
+	private final GraphDatabaseService newResourceDB;
+	private final GraphDatabaseService existingResourceDB;
+	private final Changeset            changeset;
+
+	/**
+	 * Creates a delta for a resource that doesn't exist in the data model yet, i.e., the new resource can be written as it is.
+	 *
+	 * @param newResource the new resource
+	 */
+	public ResourceDelta(final Resource newResource) {
+
+		this(newResource, null, null, null, null);
+	}
+
+	public ResourceDelta(final Resource newResource, final Resource existingResource, final GraphDatabaseService newResourceDB,
+			final GraphDatabaseService existingResourceDB, final Changeset changeset) {
+
+		this.newResource = newResource;
+		this.existingResource = existingResource;
+		this.newResourceDB = newResourceDB;
+		this.existingResourceDB = existingResourceDB;
+		this.changeset = changeset;
+	}
+
+	public boolean isNewResource() {
+
+		return existingResource == null;
+	}
+
+	public Resource getNewResource() {
+
+		return newResource;
+	}
+
+	public Resource getExistingResource() {
+
+		return existingResource;
+	}
+
+	public GraphDatabaseService getNewResourceDB() {
+
+		return newResourceDB;
+	}
+
+	public GraphDatabaseService getExistingResourceDB() {
+
+		return existingResourceDB;
+	}
+
+	public Changeset getChangeset() {
+
+		return changeset;
+	}
+}
@@ -0,0 +1,337 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.delta;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.observables.ConnectableObservable;
+
+import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.json.Resource;
+import org.dswarm.graph.tx.TransactionHandler;
+
+/**
+ * Calculates the deltas of a model resource-wise: the deltas are calculated concurrently by delta workers (each one in its own read TX),
+ * while the calling thread (i.e. the one that holds the write TX of the permanent DB) writes them in model order.<br/>
+ * The pipeline releases the working DBs of every calculated resource delta exactly once, i.e., after it was written or, if the pipeline
+ * stops early (e.g. since the writer failed), when the pipeline shuts down. A delta calculation that fails releases the working DBs it
+ * acquired itself.
+ *
+ * @author tgaengler
+ */
+public class ResourceDeltaPipeline {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ResourceDeltaPipeline.class);
+
+	private static final String DELTA_WORKER_THREAD_NAME_FORMAT       = "delta-worker-%d";
+	private static final String DELTA_MODEL_READER_THREAD_NAME_FORMAT = "delta-model-reader-%d";
+	private static final long   DELTA_SHUTDOWN_TIMEOUT_SECONDS        = 30;
+
+	@FunctionalInterface
+	public interface ResourceDeltaCalculator {
+
+		/**
+		 * Calculates the delta for the given resource. If the calculation fails, the calculator needs to release the working DBs it
+		 * acquired.
+		 *
+		 * @param newResource the new resource
+		 * @param tx          the read TX of this delta calculation (it is committed or failed by the pipeline)
+		 * @return the delta of the resource
+		 * @throws DMPGraphException
+		 */
+		ResourceDelta calculate(final Resource newResource, final TransactionHandler tx) throws DMPGraphException;
+	}
+
+	@FunctionalInterface
+	public interface ResourceDeltaWriter {
+
+		/**
+		 * Writes the changes of the given delta of an existing resource (the pipeline releases its working DBs afterwards).
+		 *
+		 * @param resourceDelta the delta of an existing resource
+		 * @throws DMPGraphException
+		 */
+		void write(final ResourceDelta resourceDelta) throws DMPGraphException;
+	}
+
+	private final int                            deltaWorkers;
+	private final int                            deltaQueueDepth;
+	private final Supplier<TransactionHandler>   transactionHandlerFactory;
+	private final ResourceDeltaCalculator        calculator;
+	private final ResourceDeltaWriter            writer;
+	private final Consumer<GraphDatabaseService> workingDBReleaser;
+
+	/**
+	 * @param deltaWorkers              the number of delta workers
+	 * @param deltaQueueDepth           the maximum number of resources that are waiting (calculated or in calculation) to be written
+	 * @param transactionHandlerFactory creates the read TX of a delta calculation
+	 * @param calculator                calculates the delta of a resource
+	 * @param writer                    writes the changes of the delta of an existing resource
+	 * @param workingDBReleaser         releases a working DB of a resource delta
+	 */
+	public ResourceDeltaPipeline(final int deltaWorkers, final int deltaQueueDepth, final Supplier<TransactionHandler> transactionHandlerFactory,
+			final ResourceDeltaCalculator calculator, final ResourceDeltaWriter writer, final Consumer<GraphDatabaseService> workingDBReleaser) {
+
+		this.deltaWorkers = deltaWorkers;
+		this.deltaQueueDepth = deltaQueueDepth;
+		this.transactionHandlerFactory = transactionHandlerFactory;
+		this.calculator = calculator;
+		this.writer = writer;
+		this.workingDBReleaser = workingDBReleaser;
+	}
+
+	/**
+	 * Calculates and writes the deltas of the given model.
+	 *
+	 * @param model the new model
+	 * @return the new resources (i.e. the ones without a match in the data model), in model order
+	 * @throws DMPGraphException if a delta couldn't be calculated or written, or if the model couldn't be read
+	 */
+	public List<Resource> run(final ConnectableObservable<Resource> model) throws DMPGraphException {
+
+		LOG.debug("start calculating delta for model with '{}' delta workers and a delta queue depth of '{}'", deltaWorkers, deltaQueueDepth);
+
+		final List<Resource> newResources = new LinkedList<>();
+
+		// resource deltas in model order; bounded, i.e., reading the model pauses when the writer falls behind
+		final BlockingQueue<Future<ResourceDelta>> resourceDeltas = new ArrayBlockingQueue<>(deltaQueueDepth);
+		// resource deltas that couldn't be enqueued anymore, since the writer stopped
+		final Queue<Future<ResourceDelta>> orphanedResourceDeltas = new ConcurrentLinkedQueue<>();
+		final CompletableFuture<ResourceDelta> endOfModel = CompletableFuture.completedFuture(null);
+
+		final ExecutorService deltaWorkerService = Executors.newFixedThreadPool(deltaWorkers,
+				new ThreadFactoryBuilder().setNameFormat(DELTA_WORKER_THREAD_NAME_FORMAT).setDaemon(true).build());
+		final ExecutorService modelReaderService = Executors.newSingleThreadExecutor(
+				new ThreadFactoryBuilder().setNameFormat(DELTA_MODEL_READER_THREAD_NAME_FORMAT).setDaemon(true).build());
+
+		try {
+
+			modelReaderService.submit(() -> {
+
+				model.subscribe(newResource -> {
+
+					final Future<ResourceDelta> resourceDelta = deltaWorkerService.submit(() -> calculate(newResource));
+
+					enqueueResourceDelta(resourceDeltas, orphanedResourceDeltas, resourceDelta);
+				}, throwable -> {
+
+					final CompletableFuture<ResourceDelta> failure = new CompletableFuture<>();
+					failure.completeExceptionally(throwable);
+
+					enqueueResourceDelta(resourceDeltas, orphanedResourceDeltas, failure);
+				}, () -> enqueueResourceDelta(resourceDeltas, orphanedResourceDeltas, endOfModel));
+
+				model.connect();
+			});
+
+			while (true) {
+
+				final Future<ResourceDelta> nextResourceDelta = resourceDeltas.take();
+
+				if (nextResourceDelta == endOfModel) {
+
+					break;
+				}
+
+				final ResourceDelta resourceDelta = nextResourceDelta.get();
+
+				if (resourceDelta.isNewResource()) {
+
+					// take new resource model, since there was no match in the data model graph for this resource identifier
+					newResources.add(resourceDelta.getNewResource());
+
+					continue;
+				}
+
+				try {
+
+					writer.write(resourceDelta);
+				} finally {
+
+					release(resourceDelta);
+				}
+			}
+
+			return newResources;
+		} catch (final InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+
+			throw new DMPGraphException("interrupted while calculating delta for model", e);
+		} catch (final ExecutionException e) {
+
+			final Throwable cause = e.getCause();
+
+			if (cause instanceof DMPGraphException) {
+
+				throw (DMPGraphException) cause;
+			}
+
+			throw new DMPGraphException(cause.getMessage(), cause);
+		} finally {
+
+			modelReaderService.shutdownNow();
+			deltaWorkerService.shutdownNow();
+
+			releaseResourceDeltas(resourceDeltas, orphanedResourceDeltas, modelReaderService, deltaWorkerService);
+		}
+	}
+
+	/**
+	 * Calculates the delta of the given resource in its own read TX (executed by a delta worker).
+	 *
+	 * @param newResource the new resource
+	 * @return the delta of the resource
+	 * @throws DMPGraphException
+	 */
+	private ResourceDelta calculate(final Resource newResource) throws DMPGraphException {
+
+		final TransactionHandler tx = transactionHandlerFactory.get();
+
+		ResourceDelta resourceDelta = null;
+
+		try {
+
+			resourceDelta = calculator.calculate(newResource, tx);
+
+			tx.succeedTx();
+
+			return resourceDelta;
+		} catch (final DMPGraphException | RuntimeException e) {
+
+			tx.failTx();
+
+			// note: if the calculation itself failed, the calculator released the working DBs already
+			release(resourceDelta);
+
+			throw e;
+		}
+	}
+
+	/**
+	 * Releases the working DBs of the resource deltas that were calculated, but not written (e.g. since the writer failed).<br/>
+	 * note: the delta services need to be shut down already
+	 *
+	 * @param resourceDeltas         the remaining resource deltas
+	 * @param orphanedResourceDeltas the resource deltas that couldn't be enqueued anymore
+	 * @param modelReaderService     the model reader service
+	 * @param deltaWorkerService     the delta worker service
+	 */
+	private void releaseResourceDeltas(final BlockingQueue<Future<ResourceDelta>> resourceDeltas,
+			final Queue<Future<ResourceDelta>> orphanedResourceDeltas, final ExecutorService modelReaderService,
+			final ExecutorService deltaWorkerService) {
+
+		final List<Future<ResourceDelta>> remainingResourceDeltas = new LinkedList<>();
+
+		try {
+
+			final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DELTA_SHUTDOWN_TIMEOUT_SECONDS);
+
+			// the model reader might wait for free space in the queue
+			do {
+
+				resourceDeltas.drainTo(remainingResourceDeltas);
+			} while (!modelReaderService.awaitTermination(100, TimeUnit.MILLISECONDS) && System.nanoTime() < deadline);
+
+			resourceDeltas.drainTo(remainingResourceDeltas);
+			remainingResourceDeltas.addAll(orphanedResourceDeltas);
+
+			if (!deltaWorkerService.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+
+				LOG.warn("delta workers didn't terminate within {} seconds; their working DBs won't be released", DELTA_SHUTDOWN_TIMEOUT_SECONDS);
+			}
+		} catch (final InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+
+			LOG.warn("interrupted while waiting for the delta workers; only finished resource deltas will be released");
+		}
+
+		for (final Future<ResourceDelta> remainingResourceDelta : remainingResourceDeltas) {
+
+			// note: delta calculations that were never started (see shutdownNow) are not done
+			if (!remainingResourceDelta.isDone() || remainingResourceDelta.isCancelled()) {
+
+				continue;
+			}
+
+			try {
+
+				release(remainingResourceDelta.get());
+			} catch (final InterruptedException e) {
+
+				Thread.currentThread().interrupt();
+			} catch (final ExecutionException e) {
+
+				// failed delta calculations release their working DBs themselves
+			}
+		}
+	}
+
+	private void release(final ResourceDelta resourceDelta) {
+
+		if (resourceDelta == null) {
+
+			return;
+		}
+
+		release(resourceDelta.getNewResourceDB());
+		release(resourceDelta.getExistingResourceDB());
+	}
+
+	private void release(final GraphDatabaseService workingDB) {
+
+		if (workingDB != null) {
+
+			workingDBReleaser.accept(workingDB);
+		}
+	}
+
+	private static void enqueueResourceDelta(final BlockingQueue<Future<ResourceDelta>> resourceDeltas,
+			final Queue<Future<ResourceDelta>> orphanedResourceDeltas, final Future<ResourceDelta> resourceDelta) {
+
+		try {
+
+			resourceDeltas.put(resourceDelta);
+		} catch (final InterruptedException e) {
+
+			// i.e. the writer stopped; the resource delta will be released on shutdown
+			orphanedResourceDeltas.add(resourceDelta);
+
+			Thread.currentThread().interrupt();
+
+			throw new RuntimeException("interrupted while waiting for the delta writer", e);
+		}
+	}
+}
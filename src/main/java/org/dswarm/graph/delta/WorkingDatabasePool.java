@@ -0,0 +1,340 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.delta;
+
+import java.io.File;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.test.TestGraphDatabaseFactory;
+import org.neo4j.tooling.GlobalGraphOperations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.dswarm.graph.delta.memory.InMemoryGraphDatabase;
+import org.dswarm.graph.index.SchemaIndexUtils;
+import org.dswarm.graph.utils.GraphDatabaseUtils;
+
+/**
+ * Manages the lifecycle of the working graph DBs of the delta calculation (process-wide): working DBs are pre-created, wiped after usage and
+ * reused. Working DBs that don't fit into the pool anymore are shut down by one shared, bounded executor.<br/>
+ * Configuration (dmpgraph.properties):<br/>
+ * - "delta_working_db": "in_memory" (default) or "impermanent"<br/>
+ * - "delta_working_db_pool_size": maximum number of idle working DBs (default: 2 * available processors)<br/>
+ * - "delta_working_db_shutdown_threads": number of threads for shutting down working DBs (default: 2)
+ *
+ * @author tgaengler
+ */
+public final class WorkingDatabasePool {
+
+	private static final Logger LOG = LoggerFactory.getLogger(WorkingDatabasePool.class);
+
+	private static final String DELTA_WORKING_DB_PROPERTY                  = "delta_working_db";
+	private static final String DELTA_WORKING_DB_POOL_SIZE_PROPERTY        = "delta_working_db_pool_size";
+	private static final String DELTA_WORKING_DB_SHUTDOWN_THREADS_PROPERTY = "delta_working_db_shutdown_threads";
+
+	private static final String IMPERMANENT_DELTA_WORKING_DB    = "impermanent";
+	private static final String IMPERMANENT_GRAPH_DATABASE_PATH = "target/test-data/impermanent-db/";
+	private static final String WORKING_DB_IDENTIFIER_PREFIX    = "delta-working-db-";
+	private static final int    DEFAULT_SHUTDOWN_THREADS        = 2;
+	private static final int    SHUTDOWN_QUEUE_SIZE             = 100;
+	private static final int    SHUTDOWN_TIMEOUT_SECONDS        = 60;
+
+	private static final class Holder {
+
+		private static final WorkingDatabasePool INSTANCE = new WorkingDatabasePool(GraphDatabaseUtils.loadDMPGraphProperties());
+	}
+
+	private final boolean                             inMemory;
+	private final BlockingQueue<GraphDatabaseService> idleDBs;
+	private final ExecutorService                     shutdownService;
+	private final TestGraphDatabaseFactory            impermanentGraphDatabaseFactory;
+
+	private final AtomicLong createdDBs       = new AtomicLong(0);
+	private final AtomicLong hits             = new AtomicLong(0);
+	private final AtomicLong misses           = new AtomicLong(0);
+	private final AtomicLong wipes            = new AtomicLong(0);
+	private final AtomicLong shutdowns        = new AtomicLong(0);
+	private final AtomicLong shutdownNanos    = new AtomicLong(0);
+	private final AtomicLong maxShutdownNanos = new AtomicLong(0);
+
+	private WorkingDatabasePool(final Properties properties) {
+
+		final String workingDBType = properties.getProperty(DELTA_WORKING_DB_PROPERTY);
+		inMemory = !IMPERMANENT_DELTA_WORKING_DB.equals(workingDBType != null ? workingDBType.trim() : null);
+
+		final int poolSize = getPositiveIntProperty(properties, DELTA_WORKING_DB_POOL_SIZE_PROPERTY, 2 * Runtime.getRuntime().availableProcessors());
+		final int shutdownThreads = getPositiveIntProperty(properties, DELTA_WORKING_DB_SHUTDOWN_THREADS_PROPERTY, DEFAULT_SHUTDOWN_THREADS);
+
+		idleDBs = new ArrayBlockingQueue<>(poolSize);
+		impermanentGraphDatabaseFactory = inMemory ? null : new TestGraphDatabaseFactory();
+
+		// bounded: when too many shutdowns are pending, the releasing thread shuts down the working DB on its own
+		shutdownService = new ThreadPoolExecutor(shutdownThreads, shutdownThreads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(SHUTDOWN_QUEUE_SIZE),
+				new ThreadFactoryBuilder().setNameFormat("delta-working-db-shutdown-%d").setDaemon(true).build(),
+				new ThreadPoolExecutor.CallerRunsPolicy());
+
+		LOG.info("initialised delta working DB pool ('{}' working DBs; pool size = '{}'; shutdown threads = '{}')",
+				inMemory ? "in-memory" : "impermanent", poolSize, shutdownThreads);
+
+		// pre-create working DBs in the background, i.e., the first delta calculations don't need to wait for this
+		shutdownService.execute(() -> {
+
+			for (int i = 0; i < poolSize; i++) {
+
+				if (!idleDBs.offer(createDB())) {
+
+					break;
+				}
+			}
+
+			LOG.debug("pre-created '{}' delta working DBs", idleDBs.size());
+		});
+
+		Runtime.getRuntime().addShutdownHook(new Thread(this::close, "delta-working-db-pool-shutdown"));
+	}
+
+	public static WorkingDatabasePool getInstance() {
+
+		return Holder.INSTANCE;
+	}
+
+	public boolean isInMemory() {
+
+		return inMemory;
+	}
+
+	/**
+	 * Delivers an empty working DB (from the pool, if available).
+	 *
+	 * @return an empty working DB
+	 */
+	public GraphDatabaseService acquire() {
+
+		final GraphDatabaseService idleDB = idleDBs.poll();
+
+		if (idleDB != null) {
+
+			hits.incrementAndGet();
+
+			return idleDB;
+		}
+
+		misses.incrementAndGet();
+
+		return createDB();
+	}
+
+	/**
+	 * Hands the given working DB back, i.e., it will be wiped and reused or shut down, if the pool is full (or the wipe failed).
+	 *
+	 * @param workingDB a working DB that was acquired from this pool
+	 */
+	public void release(final GraphDatabaseService workingDB) {
+
+		if (workingDB == null) {
+
+			return;
+		}
+
+		if (wipe(workingDB) && idleDBs.offer(workingDB)) {
+
+			return;
+		}
+
+		shutdownService.execute(() -> shutdown(workingDB));
+	}
+
+	public long getHits() {
+
+		return hits.get();
+	}
+
+	public long getMisses() {
+
+		return misses.get();
+	}
+
+	public long getShutdowns() {
+
+		return shutdowns.get();
+	}
+
+	/**
+	 * @return the average shutdown latency (in ms)
+	 */
+	public double getAverageShutdownLatency() {
+
+		final long currentShutdowns = shutdowns.get();
+
+		return currentShutdowns == 0 ? 0 : (shutdownNanos.get() / (double) currentShutdowns) / 1_000_000;
+	}
+
+	/**
+	 * @return the maximum shutdown latency (in ms)
+	 */
+	public double getMaxShutdownLatency() {
+
+		return maxShutdownNanos.get() / 1_000_000d;
+	}
+
+	public String getStatistics() {
+
+		return String.format(
+				"delta working DB pool: idle = '%d'; created = '%d'; hits = '%d'; misses = '%d'; wipes = '%d'; shutdowns = '%d'; avg shutdown latency = '%.2f' ms; max shutdown latency = '%.2f' ms",
+				idleDBs.size(), createdDBs.get(), hits.get(), misses.get(), wipes.get(), shutdowns.get(), getAverageShutdownLatency(),
+				getMaxShutdownLatency());
+	}
+
+	private GraphDatabaseService createDB() {
+
+		final String identifier = WORKING_DB_IDENTIFIER_PREFIX + createdDBs.incrementAndGet();
+
+		if (inMemory) {
+
+			return new InMemoryGraphDatabase(identifier);
+		}
+
+		final String impermanentGraphDatabaseDir = IMPERMANENT_GRAPH_DATABASE_PATH + identifier;
+
+		final GraphDatabaseService impermanentDB = impermanentGraphDatabaseFactory.newImpermanentDatabaseBuilder(new File(impermanentGraphDatabaseDir))
+				.newGraphDatabase();
+
+		try {
+
+			SchemaIndexUtils.createSchemaIndices(impermanentDB, impermanentGraphDatabaseDir);
+		} catch (final Exception e) {
+
+			LOG.error("couldn't create schema indices for delta working DB '{}'", impermanentGraphDatabaseDir, e);
+		}
+
+		return impermanentDB;
+	}
+
+	private boolean wipe(final GraphDatabaseService workingDB) {
+
+		if (workingDB instanceof InMemoryGraphDatabase) {
+
+			((InMemoryGraphDatabase) workingDB).clear();
+
+			wipes.incrementAndGet();
+
+			return true;
+		}
+
+		try (final Transaction tx = workingDB.beginTx()) {
+
+			final GlobalGraphOperations globalGraphOperations = GlobalGraphOperations.at(workingDB);
+
+			for (final Relationship relationship : globalGraphOperations.getAllRelationships()) {
+
+				relationship.delete();
+			}
+
+			for (final Node node : globalGraphOperations.getAllNodes()) {
+
+				node.delete();
+			}
+
+			tx.success();
+		} catch (final Exception e) {
+
+			LOG.debug("couldn't wipe delta working DB; it will be shut down", e);
+
+			return false;
+		}
+
+		wipes.incrementAndGet();
+
+		return true;
+	}
+
+	private void shutdown(final GraphDatabaseService workingDB) {
+
+		final long start = System.nanoTime();
+
+		workingDB.shutdown();
+
+		final long duration = System.nanoTime() - start;
+
+		shutdowns.incrementAndGet();
+		shutdownNanos.addAndGet(duration);
+		maxShutdownNanos.accumulateAndGet(duration, Math::max);
+
+		LOG.debug("shut down delta working DB in '{}' ms", duration / 1_000_000);
+	}
+
+	private void close() {
+
+		shutdownService.shutdown();
+
+		try {
+
+			shutdownService.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		} catch (final InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+		}
+
+		GraphDatabaseService idleDB;
+
+		while ((idleDB = idleDBs.poll()) != null) {
+
+			shutdown(idleDB);
+		}
+
+		LOG.info(getStatistics());
+	}
+
+	private static int getPositiveIntProperty(final Properties properties, final String key, final int defaultValue) {
+
+		final String value = properties.getProperty(key);
+
+		if (value == null || value.trim().isEmpty()) {
+
+			return defaultValue;
+		}
+
+		try {
+
+			final int intValue = Integer.parseInt(value.trim());
+
+			if (intValue > 0) {
+
+				return intValue;
+			}
+		} catch (final NumberFormatException e) {
+
+			// fall through
+		}
+
+		LOG.warn("value '{}' of property '{}' is not a positive number; utilise default value '{}'", value, key, defaultValue);
+
+		return defaultValue;
+	}
+}
@@ -16,6 +16,7 @@
  */
 package org.dswarm.graph.delta.match;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
@@ -203,20 +204,32 @@ public class FirstDegreeExactSubGraphEntityMatcher extends Matcher<SubGraphEntit
 	private Collection<String> getEntityHierarchyLevelNodes(final GraphDatabaseService graphDB, final long nodeId, final int hierarchyLevel)
 			throws DMPGraphException {
 
-		final String entitHierarchyLevelNodesQuery = buildGetEntityHierarchyLevelNodesQuery(nodeId, hierarchyLevel);
+		final Collection<String> entityHierarchyLevelNodeIds = new ArrayList<>();
 
-		return GraphDBUtil.executeQueryWithMultipleResults(entitHierarchyLevelNodesQuery, "hierarchy_level_node", graphDB);
-	}
+		try (final Transaction tx = graphDB.beginTx()) {
 
-	private String buildGetEntityHierarchyLevelNodesQuery(final long nodeId, final int hierarchyLevel) {
+			final Collection<Node> entityHierarchyLevelNodes = GraphDBUtil.getReachableNodes(graphDB, nodeId, node -> {
 
-		// START n= node(2062) MATCH (n)-[r*]->(m) RETURN m;
+				final Object nodeHierarchyLevel = node.getProperty(DeltaStatics.HIERARCHY_LEVEL_PROPERTY, null);
 
-		final StringBuilder sb = new StringBuilder();
+				return nodeHierarchyLevel != null && ((Number) nodeHierarchyLevel).intValue() == hierarchyLevel;
+			});
 
-		sb.append("START n=node(").append(nodeId).append(")\nMATCH (n)-[r*]->(m)").append("\nWHERE m.").append(DeltaStatics.HIERARCHY_LEVEL_PROPERTY).append(" = ").append(hierarchyLevel)
-				.append("\nRETURN id(m) AS hierarchy_level_node");
+			for (final Node entityHierarchyLevelNode : entityHierarchyLevelNodes) {
+
+				entityHierarchyLevelNodeIds.add(String.valueOf(entityHierarchyLevelNode.getId()));
+			}
+
+			tx.success();
+		} catch (final Exception e) {
+
+			final String message = "couldn't determine entity hierarchy level nodes";
+
+			FirstDegreeExactSubGraphEntityMatcher.LOG.error(message, e);
+
+			throw new DMPGraphException(message);
+		}
 
-		return sb.toString();
+		return entityHierarchyLevelNodeIds;
 	}
 }
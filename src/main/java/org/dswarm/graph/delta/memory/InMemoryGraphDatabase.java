@@ -0,0 +1,522 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.delta.memory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.neo4j.graphdb.BidirectionalTraversalDescription;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.MultipleFoundException;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.NotFoundException;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.ResourceIterable;
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.graphdb.Result;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.event.KernelEventHandler;
+import org.neo4j.graphdb.event.TransactionEventHandler;
+import org.neo4j.graphdb.index.IndexManager;
+import org.neo4j.graphdb.schema.Schema;
+import org.neo4j.graphdb.traversal.TraversalDescription;
+import org.neo4j.kernel.impl.traversal.BidirectionalTraversalDescriptionImpl;
+import org.neo4j.kernel.impl.traversal.MonoDirectionalTraversalDescription;
+
+import org.dswarm.graph.model.GraphStatics;
+
+/**
+ * A lightweight, heap-only property graph that implements the parts of the Neo4j API that are utilised by the delta calculation, i.e., node +
+ * relationship CRUD, labels, (schema) index lookups via {@link #findNode(Label, String, Object)}, schema indices + uniqueness constraints
+ * (see {@link #schema()}) and (mono- or bidirectional) traversals. Creating such a working graph costs a few object allocations instead of a
+ * whole (impermanent) database lifecycle.<br/>
+ * Instances are not thread-safe; they are meant to be utilised by one thread (for one resource) at a time. Cypher and legacy indices are not
+ * supported, i.e., code that relies on them needs to run on impermanent working DBs (see "delta_working_db" in dmpgraph.properties).
+ *
+ * @author tgaengler
+ */
+public class InMemoryGraphDatabase implements GraphDatabaseService {
+
+	/**
+	 * the node properties that are indexed by default (i.e. the ones that are covered by schema indices at real databases)
+	 */
+	private static final List<String> DEFAULT_INDEXED_PROPERTIES = Arrays.asList(GraphStatics.URI_PROPERTY, GraphStatics.HASH,
+			GraphStatics.VALUE_PROPERTY);
+
+	private final List<InMemoryNode>         nodes         = new ArrayList<>();
+	private final List<InMemoryRelationship> relationships = new ArrayList<>();
+
+	private final Map<String, Set<InMemoryNode>>              labelIndex    = new HashMap<>();
+	private final Map<String, Map<Object, Set<InMemoryNode>>> propertyIndex = new HashMap<>();
+
+	private final InMemorySchema schema = new InMemorySchema(this);
+
+	private final String identifier;
+
+	private boolean available = true;
+
+	public InMemoryGraphDatabase(final String identifierArg) {
+
+		identifier = identifierArg;
+
+		for (final String indexedProperty : DEFAULT_INDEXED_PROPERTIES) {
+
+			propertyIndex.put(indexedProperty, new HashMap<>());
+		}
+	}
+
+	@Override
+	public Node createNode() {
+
+		final InMemoryNode node = new InMemoryNode(this, nodes.size());
+		nodes.add(node);
+
+		return node;
+	}
+
+	@Override
+	public Node createNode(final Label... labels) {
+
+		final Node node = createNode();
+
+		for (final Label label : labels) {
+
+			node.addLabel(label);
+		}
+
+		return node;
+	}
+
+	@Override
+	public Node getNodeById(final long id) {
+
+		final InMemoryNode node = id >= 0 && id < nodes.size() ? nodes.get((int) id) : null;
+
+		if (node == null) {
+
+			throw new NotFoundException(String.format("node '%d' not found in in-memory graph '%s'", id, identifier));
+		}
+
+		return node;
+	}
+
+	@Override
+	public Relationship getRelationshipById(final long id) {
+
+		final InMemoryRelationship relationship = id >= 0 && id < relationships.size() ? relationships.get((int) id) : null;
+
+		if (relationship == null) {
+
+			throw new NotFoundException(String.format("relationship '%d' not found in in-memory graph '%s'", id, identifier));
+		}
+
+		return relationship;
+	}
+
+	public Iterable<Node> getAllNodes() {
+
+		final List<Node> allNodes = new ArrayList<>(nodes.size());
+
+		for (final InMemoryNode node : nodes) {
+
+			if (node != null) {
+
+				allNodes.add(node);
+			}
+		}
+
+		return allNodes;
+	}
+
+	/**
+	 * note: relationships are returned in creation order
+	 *
+	 * @return all relationships of this graph
+	 */
+	public Iterable<Relationship> getAllRelationships() {
+
+		final List<Relationship> allRelationships = new ArrayList<>(relationships.size());
+
+		for (final InMemoryRelationship relationship : relationships) {
+
+			if (relationship != null) {
+
+				allRelationships.add(relationship);
+			}
+		}
+
+		return allRelationships;
+	}
+
+	@Override
+	public ResourceIterator<Node> findNodes(final Label label, final String key, final Object value) {
+
+		return new InMemoryResourceIterator<>(lookupNodes(label, key, value).iterator());
+	}
+
+	@Override
+	public Node findNode(final Label label, final String key, final Object value) {
+
+		final List<Node> hits = lookupNodes(label, key, value);
+
+		if (hits.isEmpty()) {
+
+			return null;
+		}
+
+		if (hits.size() > 1) {
+
+			throw new MultipleFoundException();
+		}
+
+		return hits.get(0);
+	}
+
+	@Override
+	public ResourceIterator<Node> findNodes(final Label label) {
+
+		final Set<InMemoryNode> labelledNodes = labelIndex.getOrDefault(label.name(), Collections.emptySet());
+
+		return new InMemoryResourceIterator<>(new ArrayList<Node>(labelledNodes).iterator());
+	}
+
+	public ResourceIterable<Node> findNodesByLabelAndProperty(final Label label, final String key, final Object value) {
+
+		final List<Node> hits = lookupNodes(label, key, value);
+
+		return () -> new InMemoryResourceIterator<>(hits.iterator());
+	}
+
+	public Iterable<RelationshipType> getRelationshipTypes() {
+
+		final Map<String, RelationshipType> types = new LinkedHashMap<>();
+
+		for (final InMemoryRelationship relationship : relationships) {
+
+			if (relationship != null) {
+
+				types.putIfAbsent(relationship.getType().name(), relationship.getType());
+			}
+		}
+
+		return types.values();
+	}
+
+	@Override
+	public boolean isAvailable(final long timeout) {
+
+		return available;
+	}
+
+	/**
+	 * Releases all nodes and relationships of this graph.
+	 */
+	@Override
+	public void shutdown() {
+
+		available = false;
+
+		nodes.clear();
+		relationships.clear();
+		labelIndex.clear();
+		propertyIndex.clear();
+	}
+
+	/**
+	 * Removes all nodes and relationships of this graph, i.e., the graph can be reused afterwards (ids start from 0 again). The schema is
+	 * kept.
+	 */
+	public void clear() {
+
+		nodes.clear();
+		relationships.clear();
+		labelIndex.clear();
+
+		for (final Map<Object, Set<InMemoryNode>> valueIndex : propertyIndex.values()) {
+
+			valueIndex.clear();
+		}
+	}
+
+	@Override
+	public Transaction beginTx() {
+
+		return InMemoryTransaction.INSTANCE;
+	}
+
+	@Override
+	public Result execute(final String query) {
+
+		throw new UnsupportedOperationException(String.format("Cypher queries are not supported by in-memory graph '%s'", identifier));
+	}
+
+	@Override
+	public Result execute(final String query, final Map<String, Object> parameters) {
+
+		throw new UnsupportedOperationException(String.format("Cypher queries are not supported by in-memory graph '%s'", identifier));
+	}
+
+	@Override
+	public <T> TransactionEventHandler<T> registerTransactionEventHandler(final TransactionEventHandler<T> handler) {
+
+		return handler;
+	}
+
+	@Override
+	public <T> TransactionEventHandler<T> unregisterTransactionEventHandler(final TransactionEventHandler<T> handler) {
+
+		return handler;
+	}
+
+	@Override
+	public KernelEventHandler registerKernelEventHandler(final KernelEventHandler handler) {
+
+		return handler;
+	}
+
+	@Override
+	public KernelEventHandler unregisterKernelEventHandler(final KernelEventHandler handler) {
+
+		return handler;
+	}
+
+	@Override
+	public Schema schema() {
+
+		return schema;
+	}
+
+	@Override
+	public IndexManager index() {
+
+		throw new UnsupportedOperationException(String.format("legacy indices are not supported by in-memory graph '%s'", identifier));
+	}
+
+	@Override
+	public TraversalDescription traversalDescription() {
+
+		return new MonoDirectionalTraversalDescription();
+	}
+
+	@Override
+	public BidirectionalTraversalDescription bidirectionalTraversalDescription() {
+
+		return new BidirectionalTraversalDescriptionImpl();
+	}
+
+	@Override
+	public String toString() {
+
+		return "InMemoryGraphDatabase[" + identifier + "]";
+	}
+
+	InMemoryNode checkNode(final Node node) {
+
+		if (!(node instanceof InMemoryNode) || ((InMemoryNode) node).database != this) {
+
+			throw new IllegalArgumentException(String.format("node '%s' is not part of in-memory graph '%s'", node, identifier));
+		}
+
+		return (InMemoryNode) node;
+	}
+
+	Relationship createRelationship(final InMemoryNode startNode, final InMemoryNode endNode, final RelationshipType type) {
+
+		final InMemoryRelationship relationship = new InMemoryRelationship(this, relationships.size(), startNode, endNode, type);
+		relationships.add(relationship);
+
+		startNode.addOutgoing(relationship);
+		endNode.addIncoming(relationship);
+
+		return relationship;
+	}
+
+	void removeNode(final InMemoryNode node) {
+
+		for (final Label label : node.getLabels()) {
+
+			unindexLabel(node, label.name());
+		}
+
+		for (final String key : node.getPropertyKeys()) {
+
+			updateNodePropertyIndex(node, key, node.getProperty(key), null);
+		}
+
+		nodes.set((int) node.getId(), null);
+	}
+
+	void removeRelationship(final InMemoryRelationship relationship) {
+
+		((InMemoryNode) relationship.getStartNode()).removeRelationship(relationship);
+		((InMemoryNode) relationship.getEndNode()).removeRelationship(relationship);
+
+		relationships.set((int) relationship.getId(), null);
+	}
+
+	void indexLabel(final InMemoryNode node, final String label) {
+
+		labelIndex.computeIfAbsent(label, key -> new LinkedHashSet<>()).add(node);
+	}
+
+	void unindexLabel(final InMemoryNode node, final String label) {
+
+		final Set<InMemoryNode> labelledNodes = labelIndex.get(label);
+
+		if (labelledNodes != null) {
+
+			labelledNodes.remove(node);
+		}
+	}
+
+	void checkUniqueness(final InMemoryNode node, final String label, final String key, final Object value) {
+
+		schema.checkUniqueness(node, label, key, value);
+	}
+
+	/**
+	 * Indexes the given node property (for all nodes), if it isn't indexed yet.
+	 *
+	 * @param key the property key
+	 */
+	void addIndexedProperty(final String key) {
+
+		if (propertyIndex.containsKey(key)) {
+
+			return;
+		}
+
+		final Map<Object, Set<InMemoryNode>> valueIndex = new HashMap<>();
+		propertyIndex.put(key, valueIndex);
+
+		for (final InMemoryNode node : nodes) {
+
+			if (node != null) {
+
+				final Object value = node.getProperty(key, null);
+
+				if (value != null) {
+
+					valueIndex.computeIfAbsent(value, v -> new LinkedHashSet<>()).add(node);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes the index of the given node property (default indexed properties stay indexed).
+	 *
+	 * @param key the property key
+	 */
+	void removeIndexedProperty(final String key) {
+
+		if (!DEFAULT_INDEXED_PROPERTIES.contains(key)) {
+
+			propertyIndex.remove(key);
+		}
+	}
+
+	void updateNodePropertyIndex(final InMemoryNode node, final String key, final Object oldValue, final Object newValue) {
+
+		final Map<Object, Set<InMemoryNode>> valueIndex = propertyIndex.get(key);
+
+		if (valueIndex == null) {
+
+			// property is not indexed
+			return;
+		}
+
+		if (oldValue != null) {
+
+			final Set<InMemoryNode> valueNodes = valueIndex.get(oldValue);
+
+			if (valueNodes != null) {
+
+				valueNodes.remove(node);
+			}
+		}
+
+		if (newValue != null) {
+
+			valueIndex.computeIfAbsent(newValue, value -> new LinkedHashSet<>()).add(node);
+		}
+	}
+
+	List<Node> lookupNodes(final Label label, final String key, final Object value) {
+
+		final Map<Object, Set<InMemoryNode>> valueIndex = propertyIndex.get(key);
+		final Set<InMemoryNode> candidates;
+
+		if (valueIndex != null) {
+
+			candidates = valueIndex.getOrDefault(value, Collections.emptySet());
+		} else {
+
+			candidates = labelIndex.getOrDefault(label.name(), Collections.emptySet());
+		}
+
+		final List<Node> hits = new ArrayList<>(1);
+
+		for (final InMemoryNode candidate : candidates) {
+
+			if (candidate.hasLabel(label) && value.equals(candidate.getProperty(key, null))) {
+
+				hits.add(candidate);
+			}
+		}
+
+		return hits;
+	}
+
+	private static final class InMemoryResourceIterator<T> implements ResourceIterator<T> {
+
+		private final Iterator<T> iterator;
+
+		private InMemoryResourceIterator(final Iterator<T> iteratorArg) {
+
+			iterator = iteratorArg;
+		}
+
+		@Override
+		public boolean hasNext() {
+
+			return iterator.hasNext();
+		}
+
+		@Override
+		public T next() {
+
+			return iterator.next();
+		}
+
+		@Override
+		public void close() {
+
+			// nothing to release
+		}
+	}
+}
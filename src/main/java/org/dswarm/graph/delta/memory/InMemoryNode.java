@@ -0,0 +1,390 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.delta.memory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.neo4j.graphdb.ConstraintViolationException;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.NotFoundException;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.ReturnableEvaluator;
+import org.neo4j.graphdb.StopEvaluator;
+import org.neo4j.graphdb.Traverser;
+import org.neo4j.kernel.OldTraverserWrapper;
+
+/**
+ * A node of an {@link InMemoryGraphDatabase}. Relationships are kept (and iterated) in creation order.
+ *
+ * @author tgaengler
+ */
+public class InMemoryNode extends InMemoryPropertyContainer implements Node {
+
+	private final Map<String, Label>             labels   = new LinkedHashMap<>();
+	private final List<InMemoryRelationship> outgoing = new ArrayList<>();
+	private final List<InMemoryRelationship> incoming = new ArrayList<>();
+
+	InMemoryNode(final InMemoryGraphDatabase databaseArg, final long idArg) {
+
+		super(databaseArg, idArg);
+	}
+
+	@Override
+	public void delete() {
+
+		if (!outgoing.isEmpty() || !incoming.isEmpty()) {
+
+			throw new ConstraintViolationException(String.format("node '%d' still has relationships", id));
+		}
+
+		database.removeNode(this);
+	}
+
+	@Override
+	public Iterable<Relationship> getRelationships() {
+
+		return getRelationships(Direction.BOTH);
+	}
+
+	@Override
+	public boolean hasRelationship() {
+
+		return hasRelationship(Direction.BOTH);
+	}
+
+	@Override
+	public Iterable<Relationship> getRelationships(final RelationshipType... types) {
+
+		return getRelationships(Direction.BOTH, types);
+	}
+
+	@Override
+	public Iterable<Relationship> getRelationships(final Direction direction, final RelationshipType... types) {
+
+		return collectRelationships(direction, types);
+	}
+
+	private List<Relationship> collectRelationships(final Direction direction, final RelationshipType... types) {
+
+		final List<Relationship> result = new ArrayList<>();
+
+		if (direction != Direction.INCOMING) {
+
+			for (final InMemoryRelationship relationship : outgoing) {
+
+				if (matches(relationship, types)) {
+
+					result.add(relationship);
+				}
+			}
+		}
+
+		if (direction != Direction.OUTGOING) {
+
+			for (final InMemoryRelationship relationship : incoming) {
+
+				// loops are already part of the outgoing relationships
+				if ((direction == Direction.INCOMING || relationship.getStartNode() != this) && matches(relationship, types)) {
+
+					result.add(relationship);
+				}
+			}
+		}
+
+		return result;
+	}
+
+	@Override
+	public boolean hasRelationship(final RelationshipType... types) {
+
+		return hasRelationship(Direction.BOTH, types);
+	}
+
+	@Override
+	public boolean hasRelationship(final Direction direction, final RelationshipType... types) {
+
+		if (direction != Direction.INCOMING) {
+
+			for (final InMemoryRelationship relationship : outgoing) {
+
+				if (matches(relationship, types)) {
+
+					return true;
+				}
+			}
+		}
+
+		if (direction != Direction.OUTGOING) {
+
+			for (final InMemoryRelationship relationship : incoming) {
+
+				if (matches(relationship, types)) {
+
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public Iterable<Relationship> getRelationships(final Direction dir) {
+
+		return getRelationships(dir, new RelationshipType[0]);
+	}
+
+	@Override
+	public boolean hasRelationship(final Direction dir) {
+
+		switch (dir) {
+
+			case OUTGOING:
+
+				return !outgoing.isEmpty();
+			case INCOMING:
+
+				return !incoming.isEmpty();
+			default:
+
+				return !outgoing.isEmpty() || !incoming.isEmpty();
+		}
+	}
+
+	@Override
+	public Iterable<Relationship> getRelationships(final RelationshipType type, final Direction dir) {
+
+		return getRelationships(dir, type);
+	}
+
+	@Override
+	public boolean hasRelationship(final RelationshipType type, final Direction dir) {
+
+		return hasRelationship(dir, type);
+	}
+
+	@Override
+	public Relationship getSingleRelationship(final RelationshipType type, final Direction dir) {
+
+		final Iterable<Relationship> relationships = getRelationships(dir, type);
+
+		Relationship single = null;
+
+		for (final Relationship relationship : relationships) {
+
+			if (single != null) {
+
+				throw new NotFoundException(String.format("more than one relationship of type '%s' and direction '%s' at node '%d'", type.name(),
+						dir, id));
+			}
+
+			single = relationship;
+		}
+
+		return single;
+	}
+
+	@Override
+	public Relationship createRelationshipTo(final Node otherNode, final RelationshipType type) {
+
+		return database.createRelationship(this, database.checkNode(otherNode), type);
+	}
+
+	@Override
+	public Iterable<RelationshipType> getRelationshipTypes() {
+
+		final Map<String, RelationshipType> types = new LinkedHashMap<>();
+
+		for (final Relationship relationship : getRelationships(Direction.BOTH)) {
+
+			types.putIfAbsent(relationship.getType().name(), relationship.getType());
+		}
+
+		return types.values();
+	}
+
+	@Override
+	public int getDegree() {
+
+		return getDegree(Direction.BOTH);
+	}
+
+	@Override
+	public int getDegree(final RelationshipType type) {
+
+		return getDegree(type, Direction.BOTH);
+	}
+
+	@Override
+	public int getDegree(final Direction direction) {
+
+		return collectRelationships(direction).size();
+	}
+
+	@Override
+	public int getDegree(final RelationshipType type, final Direction direction) {
+
+		return collectRelationships(direction, type).size();
+	}
+
+	@Override
+	public Traverser traverse(final Traverser.Order traversalOrder, final StopEvaluator stopEvaluator,
+			final ReturnableEvaluator returnableEvaluator, final RelationshipType relationshipType, final Direction direction) {
+
+		return OldTraverserWrapper.traverse(this, traversalOrder, stopEvaluator, returnableEvaluator, relationshipType, direction);
+	}
+
+	@Override
+	public Traverser traverse(final Traverser.Order traversalOrder, final StopEvaluator stopEvaluator,
+			final ReturnableEvaluator returnableEvaluator, final RelationshipType firstRelationshipType, final Direction firstDirection,
+			final RelationshipType secondRelationshipType, final Direction secondDirection) {
+
+		return OldTraverserWrapper.traverse(this, traversalOrder, stopEvaluator, returnableEvaluator, firstRelationshipType, firstDirection,
+				secondRelationshipType, secondDirection);
+	}
+
+	@Override
+	public Traverser traverse(final Traverser.Order traversalOrder, final StopEvaluator stopEvaluator,
+			final ReturnableEvaluator returnableEvaluator, final Object... relationshipTypesAndDirections) {
+
+		return OldTraverserWrapper.traverse(this, traversalOrder, stopEvaluator, returnableEvaluator, relationshipTypesAndDirections);
+	}
+
+	@Override
+	public void addLabel(final Label label) {
+
+		final String labelName = label.name();
+
+		if (labels.containsKey(labelName)) {
+
+			return;
+		}
+
+		for (final String key : getPropertyKeys()) {
+
+			database.checkUniqueness(this, labelName, key, getProperty(key));
+		}
+
+		labels.put(labelName, label);
+		database.indexLabel(this, labelName);
+	}
+
+	@Override
+	public void removeLabel(final Label label) {
+
+		if (labels.remove(label.name()) != null) {
+
+			database.unindexLabel(this, label.name());
+		}
+	}
+
+	@Override
+	public boolean hasLabel(final Label label) {
+
+		return labels.containsKey(label.name());
+	}
+
+	@Override
+	public Iterable<Label> getLabels() {
+
+		return new ArrayList<>(labels.values());
+	}
+
+	/**
+	 * @return the names of all labels of this node (in insertion order)
+	 */
+	public Set<String> getLabelNames() {
+
+		return new LinkedHashSet<>(labels.keySet());
+	}
+
+	@Override
+	public void setProperty(final String key, final Object value) {
+
+		if (value != null) {
+
+			for (final String labelName : labels.keySet()) {
+
+				database.checkUniqueness(this, labelName, key, value);
+			}
+		}
+
+		super.setProperty(key, value);
+	}
+
+	@Override
+	protected void onPropertyChange(final String key, final Object oldValue, final Object newValue) {
+
+		database.updateNodePropertyIndex(this, key, oldValue, newValue);
+	}
+
+	void addOutgoing(final InMemoryRelationship relationship) {
+
+		outgoing.add(relationship);
+	}
+
+	void addIncoming(final InMemoryRelationship relationship) {
+
+		incoming.add(relationship);
+	}
+
+	void removeRelationship(final InMemoryRelationship relationship) {
+
+		outgoing.remove(relationship);
+		incoming.remove(relationship);
+	}
+
+	private static boolean matches(final Relationship relationship, final RelationshipType... types) {
+
+		if (types == null || types.length == 0) {
+
+			return true;
+		}
+
+		final String typeName = relationship.getType().name();
+
+		for (final RelationshipType type : types) {
+
+			if (typeName.equals(type.name())) {
+
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+
+		return this == o || o instanceof InMemoryNode && ((InMemoryNode) o).database == database && ((InMemoryNode) o).id == id;
+	}
+
+	@Override
+	public String toString() {
+
+		return "Node[" + id + "]";
+	}
+}
@@ -0,0 +1,154 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.delta.memory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.NotFoundException;
+import org.neo4j.graphdb.PropertyContainer;
+
+/**
+ * Common property handling of nodes and relationships of an {@link InMemoryGraphDatabase}.
+ *
+ * @author tgaengler
+ */
+abstract class InMemoryPropertyContainer implements PropertyContainer {
+
+	protected final InMemoryGraphDatabase database;
+	protected final long                  id;
+
+	private final Map<String, Object> properties = new HashMap<>();
+
+	InMemoryPropertyContainer(final InMemoryGraphDatabase databaseArg, final long idArg) {
+
+		database = databaseArg;
+		id = idArg;
+	}
+
+	public long getId() {
+
+		return id;
+	}
+
+	@Override
+	public GraphDatabaseService getGraphDatabase() {
+
+		return database;
+	}
+
+	@Override
+	public boolean hasProperty(final String key) {
+
+		return properties.containsKey(key);
+	}
+
+	@Override
+	public Object getProperty(final String key) {
+
+		final Object value = properties.get(key);
+
+		if (value == null) {
+
+			throw new NotFoundException(String.format("property '%s' not found at '%s'", key, this));
+		}
+
+		return value;
+	}
+
+	@Override
+	public Object getProperty(final String key, final Object defaultValue) {
+
+		final Object value = properties.get(key);
+
+		return value != null ? value : defaultValue;
+	}
+
+	@Override
+	public void setProperty(final String key, final Object value) {
+
+		if (value == null) {
+
+			throw new IllegalArgumentException(String.format("null value for property '%s' at '%s'", key, this));
+		}
+
+		final Object oldValue = properties.put(key, value);
+
+		onPropertyChange(key, oldValue, value);
+	}
+
+	@Override
+	public Object removeProperty(final String key) {
+
+		final Object oldValue = properties.remove(key);
+
+		if (oldValue != null) {
+
+			onPropertyChange(key, oldValue, null);
+		}
+
+		return oldValue;
+	}
+
+	@Override
+	public Iterable<String> getPropertyKeys() {
+
+		return new ArrayList<>(properties.keySet());
+	}
+
+	public Map<String, Object> getProperties(final String... keys) {
+
+		final Map<String, Object> result = new HashMap<>();
+
+		for (final String key : keys) {
+
+			final Object value = properties.get(key);
+
+			if (value != null) {
+
+				result.put(key, value);
+			}
+		}
+
+		return result;
+	}
+
+	public Map<String, Object> getAllProperties() {
+
+		return new HashMap<>(properties);
+	}
+
+	/**
+	 * Hook for keeping property indices of the database in sync.
+	 *
+	 * @param key      the property key
+	 * @param oldValue the former value or null, if there was none
+	 * @param newValue the new value or null, if the property was removed
+	 */
+	protected void onPropertyChange(final String key, final Object oldValue, final Object newValue) {
+
+		// nothing to do by default
+	}
+
+	@Override
+	public int hashCode() {
+
+		return (int) (id ^ (id >>> 32));
+	}
+}
@@ -0,0 +1,109 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.delta.memory;
+
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.NotFoundException;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+
+/**
+ * A relationship of an {@link InMemoryGraphDatabase}.
+ *
+ * @author tgaengler
+ */
+public class InMemoryRelationship extends InMemoryPropertyContainer implements Relationship {
+
+	private final InMemoryNode     startNode;
+	private final InMemoryNode     endNode;
+	private final RelationshipType type;
+
+	InMemoryRelationship(final InMemoryGraphDatabase databaseArg, final long idArg, final InMemoryNode startNodeArg, final InMemoryNode endNodeArg,
+			final RelationshipType typeArg) {
+
+		super(databaseArg, idArg);
+
+		startNode = startNodeArg;
+		endNode = endNodeArg;
+		type = typeArg;
+	}
+
+	@Override
+	public void delete() {
+
+		database.removeRelationship(this);
+	}
+
+	@Override
+	public Node getStartNode() {
+
+		return startNode;
+	}
+
+	@Override
+	public Node getEndNode() {
+
+		return endNode;
+	}
+
+	@Override
+	public Node getOtherNode(final Node node) {
+
+		if (startNode.equals(node)) {
+
+			return endNode;
+		}
+
+		if (endNode.equals(node)) {
+
+			return startNode;
+		}
+
+		throw new NotFoundException(String.format("node '%d' is not connected to relationship '%d'", node.getId(), id));
+	}
+
+	@Override
+	public Node[] getNodes() {
+
+		return new Node[] { startNode, endNode };
+	}
+
+	@Override
+	public RelationshipType getType() {
+
+		return type;
+	}
+
+	@Override
+	public boolean isType(final RelationshipType typeArg) {
+
+		return type.name().equals(typeArg.name());
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+
+		return this == o || o instanceof InMemoryRelationship && ((InMemoryRelationship) o).database == database
+				&& ((InMemoryRelationship) o).id == id;
+	}
+
+	@Override
+	public String toString() {
+
+		return "(" + startNode.getId() + ")-[" + type.name() + "," + id + "]->(" + endNode.getId() + ")";
+	}
+}
@@ -0,0 +1,428 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.delta.memory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.ConstraintViolationException;
+import org.neo4j.graphdb.DynamicLabel;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.NotFoundException;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.schema.ConstraintCreator;
+import org.neo4j.graphdb.schema.ConstraintDefinition;
+import org.neo4j.graphdb.schema.ConstraintType;
+import org.neo4j.graphdb.schema.IndexCreator;
+import org.neo4j.graphdb.schema.IndexDefinition;
+import org.neo4j.graphdb.schema.Schema;
+
+/**
+ * The schema of an {@link InMemoryGraphDatabase}, i.e., (single property) schema indices and uniqueness constraints on nodes. Indices are
+ * online as soon as they are created; they are backed by the property index of the database. The schema survives
+ * {@link InMemoryGraphDatabase#clear()}.
+ *
+ * @author tgaengler
+ */
+final class InMemorySchema implements Schema {
+
+	private final InMemoryGraphDatabase database;
+
+	private final List<InMemoryIndexDefinition>      indices     = new ArrayList<>();
+	private final List<InMemoryConstraintDefinition> constraints = new ArrayList<>();
+
+	InMemorySchema(final InMemoryGraphDatabase databaseArg) {
+
+		database = databaseArg;
+	}
+
+	@Override
+	public IndexCreator indexFor(final Label label) {
+
+		return new InMemoryIndexCreator(label, null);
+	}
+
+	@Override
+	public Iterable<IndexDefinition> getIndexes(final Label label) {
+
+		final List<IndexDefinition> labelIndices = new ArrayList<>();
+
+		for (final InMemoryIndexDefinition index : indices) {
+
+			if (index.labelName.equals(label.name())) {
+
+				labelIndices.add(index);
+			}
+		}
+
+		return labelIndices;
+	}
+
+	@Override
+	public Iterable<IndexDefinition> getIndexes() {
+
+		return new ArrayList<>(indices);
+	}
+
+	@Override
+	public IndexState getIndexState(final IndexDefinition index) {
+
+		checkIndex(index);
+
+		return IndexState.ONLINE;
+	}
+
+	@Override
+	public String getIndexFailure(final IndexDefinition index) {
+
+		checkIndex(index);
+
+		// in-memory indices are populated synchronously, i.e., they can't fail
+		return "";
+	}
+
+	@Override
+	public ConstraintCreator constraintFor(final Label label) {
+
+		return new InMemoryConstraintCreator(label, null);
+	}
+
+	@Override
+	public Iterable<ConstraintDefinition> getConstraints() {
+
+		return new ArrayList<>(constraints);
+	}
+
+	@Override
+	public Iterable<ConstraintDefinition> getConstraints(final Label label) {
+
+		final List<ConstraintDefinition> labelConstraints = new ArrayList<>();
+
+		for (final InMemoryConstraintDefinition constraint : constraints) {
+
+			if (constraint.index.labelName.equals(label.name())) {
+
+				labelConstraints.add(constraint);
+			}
+		}
+
+		return labelConstraints;
+	}
+
+	@Override
+	public Iterable<ConstraintDefinition> getConstraints(final RelationshipType type) {
+
+		// constraints are only supported on nodes
+		return Collections.emptyList();
+	}
+
+	@Override
+	public void awaitIndexOnline(final IndexDefinition index, final long duration, final TimeUnit unit) {
+
+		checkIndex(index);
+	}
+
+	@Override
+	public void awaitIndexesOnline(final long duration, final TimeUnit unit) {
+
+		// in-memory indices are online as soon as they are created
+	}
+
+	/**
+	 * Checks whether the given property value would violate a uniqueness constraint, if it would be set at the given node with the given
+	 * label.
+	 *
+	 * @param node      the node
+	 * @param labelName the name of a label of the node
+	 * @param key       the property key
+	 * @param value     the new property value
+	 */
+	void checkUniqueness(final InMemoryNode node, final String labelName, final String key, final Object value) {
+
+		if (constraints.isEmpty()) {
+
+			return;
+		}
+
+		for (final InMemoryConstraintDefinition constraint : constraints) {
+
+			final InMemoryIndexDefinition index = constraint.index;
+
+			if (!index.labelName.equals(labelName) || !index.key.equals(key)) {
+
+				continue;
+			}
+
+			for (final Node existingNode : database.lookupNodes(index.label, key, value)) {
+
+				if (!existingNode.equals(node)) {
+
+					throw new ConstraintViolationException(String.format(
+							"node '%d' already exists with label '%s' and property '%s' = '%s' in in-memory graph '%s'", existingNode.getId(),
+							labelName, key, value, database));
+				}
+			}
+		}
+	}
+
+	private InMemoryIndexDefinition createIndex(final Label label, final String key, final boolean constraintIndex) {
+
+		if (key == null) {
+
+			throw new ConstraintViolationException("an index needs a property key to index");
+		}
+
+		for (final InMemoryIndexDefinition index : indices) {
+
+			if (index.labelName.equals(label.name()) && index.key.equals(key)) {
+
+				throw new ConstraintViolationException(String.format("there is already an index for label '%s' on property '%s'", label.name(),
+						key));
+			}
+		}
+
+		final InMemoryIndexDefinition index = new InMemoryIndexDefinition(label, key, constraintIndex);
+		indices.add(index);
+
+		database.addIndexedProperty(key);
+
+		return index;
+	}
+
+	private void dropIndex(final InMemoryIndexDefinition index) {
+
+		if (!indices.remove(index)) {
+
+			throw new NotFoundException(String.format("index '%s' not found in in-memory graph '%s'", index, database));
+		}
+
+		for (final InMemoryIndexDefinition otherIndex : indices) {
+
+			if (otherIndex.key.equals(index.key)) {
+
+				// property is still indexed
+				return;
+			}
+		}
+
+		database.removeIndexedProperty(index.key);
+	}
+
+	private void checkIndex(final IndexDefinition index) {
+
+		if (!indices.contains(index)) {
+
+			throw new NotFoundException(String.format("index '%s' not found in in-memory graph '%s'", index, database));
+		}
+	}
+
+	private final class InMemoryIndexCreator implements IndexCreator {
+
+		private final Label  label;
+		private final String key;
+
+		private InMemoryIndexCreator(final Label labelArg, final String keyArg) {
+
+			label = labelArg;
+			key = keyArg;
+		}
+
+		@Override
+		public IndexCreator on(final String propertyKey) {
+
+			if (key != null) {
+
+				throw new UnsupportedOperationException("compound indices are not supported");
+			}
+
+			return new InMemoryIndexCreator(label, propertyKey);
+		}
+
+		@Override
+		public IndexDefinition create() throws ConstraintViolationException {
+
+			return createIndex(label, key, false);
+		}
+	}
+
+	private final class InMemoryConstraintCreator implements ConstraintCreator {
+
+		private final Label  label;
+		private final String key;
+
+		private InMemoryConstraintCreator(final Label labelArg, final String keyArg) {
+
+			label = labelArg;
+			key = keyArg;
+		}
+
+		@Override
+		public ConstraintCreator assertPropertyIsUnique(final String propertyKey) {
+
+			if (key != null) {
+
+				throw new UnsupportedOperationException("compound constraints are not supported");
+			}
+
+			return new InMemoryConstraintCreator(label, propertyKey);
+		}
+
+		@Override
+		public ConstraintDefinition create() throws ConstraintViolationException {
+
+			if (key == null) {
+
+				throw new ConstraintViolationException("a constraint needs a property key");
+			}
+
+			// the existing nodes need to comply with the new constraint
+			final List<Node> labelledNodes = new ArrayList<>();
+			database.findNodes(label).forEachRemaining(labelledNodes::add);
+
+			final InMemoryIndexDefinition index = createIndex(label, key, true);
+
+			for (final Node labelledNode : labelledNodes) {
+
+				final Object value = labelledNode.getProperty(key, null);
+
+				if (value != null && database.lookupNodes(label, key, value).size() > 1) {
+
+					dropIndex(index);
+
+					throw new ConstraintViolationException(String.format(
+							"can't create uniqueness constraint for label '%s' on property '%s', since value '%s' is not unique", label.name(), key,
+							value));
+				}
+			}
+
+			final InMemoryConstraintDefinition constraint = new InMemoryConstraintDefinition(index);
+			constraints.add(constraint);
+
+			return constraint;
+		}
+	}
+
+	private final class InMemoryIndexDefinition implements IndexDefinition {
+
+		private final Label   label;
+		private final String  labelName;
+		private final String  key;
+		private final boolean constraintIndex;
+
+		private InMemoryIndexDefinition(final Label labelArg, final String keyArg, final boolean constraintIndexArg) {
+
+			label = DynamicLabel.label(labelArg.name());
+			labelName = labelArg.name();
+			key = keyArg;
+			constraintIndex = constraintIndexArg;
+		}
+
+		@Override
+		public Label getLabel() {
+
+			return label;
+		}
+
+		@Override
+		public Iterable<String> getPropertyKeys() {
+
+			return Collections.singletonList(key);
+		}
+
+		@Override
+		public void drop() {
+
+			if (constraintIndex) {
+
+				throw new IllegalStateException("constraint indices can't be dropped directly, please drop the owning uniqueness constraint");
+			}
+
+			dropIndex(this);
+		}
+
+		@Override
+		public boolean isConstraintIndex() {
+
+			return constraintIndex;
+		}
+
+		@Override
+		public String toString() {
+
+			return "IndexDefinition[label:" + labelName + ", on:" + key + "]";
+		}
+	}
+
+	private final class InMemoryConstraintDefinition implements ConstraintDefinition {
+
+		private final InMemoryIndexDefinition index;
+
+		private InMemoryConstraintDefinition(final InMemoryIndexDefinition indexArg) {
+
+			index = indexArg;
+		}
+
+		@Override
+		public Label getLabel() {
+
+			return index.label;
+		}
+
+		public RelationshipType getRelationshipType() {
+
+			throw new IllegalStateException("constraint is associated with nodes");
+		}
+
+		@Override
+		public Iterable<String> getPropertyKeys() {
+
+			return index.getPropertyKeys();
+		}
+
+		@Override
+		public void drop() {
+
+			if (!constraints.remove(this)) {
+
+				throw new NotFoundException(String.format("constraint '%s' not found in in-memory graph '%s'", this, database));
+			}
+
+			dropIndex(index);
+		}
+
+		@Override
+		public ConstraintType getConstraintType() {
+
+			return ConstraintType.UNIQUENESS;
+		}
+
+		@Override
+		public boolean isConstraintType(final ConstraintType type) {
+
+			return ConstraintType.UNIQUENESS == type;
+		}
+
+		@Override
+		public String toString() {
+
+			return "ConstraintDefinition[label:" + index.labelName + ", unique:" + index.key + "]";
+		}
+	}
+}
@@ -0,0 +1,80 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.delta.memory;
+
+import org.neo4j.graphdb.Lock;
+import org.neo4j.graphdb.PropertyContainer;
+import org.neo4j.graphdb.Transaction;
+
+/**
+ * In-memory graphs are confined to a single thread and don't need any isolation or durability, i.e., transactions are just placebos.
+ *
+ * @author tgaengler
+ */
+final class InMemoryTransaction implements Transaction {
+
+	static final InMemoryTransaction INSTANCE = new InMemoryTransaction();
+
+	private static final Lock NO_LOCK = () -> {
+
+		// nothing to release
+	};
+
+	private InMemoryTransaction() {
+
+	}
+
+	public void terminate() {
+
+		// nothing to do
+	}
+
+	@Override
+	public void failure() {
+
+		// nothing to do
+	}
+
+	@Override
+	public void success() {
+
+		// nothing to do
+	}
+
+	public void finish() {
+
+		// nothing to do
+	}
+
+	@Override
+	public void close() {
+
+		// nothing to do
+	}
+
+	@Override
+	public Lock acquireWriteLock(final PropertyContainer entity) {
+
+		return NO_LOCK;
+	}
+
+	@Override
+	public Lock acquireReadLock(final PropertyContainer entity) {
+
+		return NO_LOCK;
+	}
+}
@@ -28,7 +28,6 @@ import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.RelationshipType;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.graphdb.traversal.Paths;
-import org.neo4j.tooling.GlobalGraphOperations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,7 +48,7 @@ public final class GraphDBPrintUtil {
 
 		try (final Transaction tx = graphDB.beginTx()) {
 
-			final Iterable<Relationship> relationships = GlobalGraphOperations.at(graphDB).getAllRelationships();
+			final Iterable<Relationship> relationships = GraphDBUtil.getAllRelationships(graphDB);
 
 			for (final Relationship relationship : relationships) {
 
@@ -82,7 +81,7 @@ public final class GraphDBPrintUtil {
 
 		try (final Transaction tx = graphDB.beginTx()) {
 
-			final Iterable<Relationship> relationships = GlobalGraphOperations.at(graphDB).getAllRelationships();
+			final Iterable<Relationship> relationships = GraphDBUtil.getAllRelationships(graphDB);
 
 			for (final Relationship relationship : relationships) {
 
@@ -106,7 +105,7 @@ public final class GraphDBPrintUtil {
 
 		try (final Transaction tx = graphDB.beginTx()) {
 
-			final Iterable<Relationship> relationships = GlobalGraphOperations.at(graphDB).getAllRelationships();
+			final Iterable<Relationship> relationships = GraphDBUtil.getAllRelationships(graphDB);
 
 			final StringBuilder sb = new StringBuilder();
 
@@ -135,7 +134,7 @@ public final class GraphDBPrintUtil {
 
 		try (final Transaction tx = graphDB.beginTx()) {
 
-			final Iterable<Node> nodes = GlobalGraphOperations.at(graphDB).getAllNodes();
+			final Iterable<Node> nodes = GraphDBUtil.getAllNodes(graphDB);
 
 			for (final Node node : nodes) {
 
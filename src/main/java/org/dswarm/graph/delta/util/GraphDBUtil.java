@@ -17,12 +17,14 @@
 package org.dswarm.graph.delta.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -31,6 +33,9 @@ import java.util.Set;
 
 import ch.lambdaj.Lambda;
 import ch.lambdaj.group.Group;
+import com.carrotsearch.hppc.LongOpenHashSet;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.DynamicRelationshipType;
@@ -68,9 +73,12 @@ import org.dswarm.graph.delta.match.model.KeyEntity;
 import org.dswarm.graph.delta.match.model.SubGraphEntity;
 import org.dswarm.graph.delta.match.model.SubGraphLeafEntity;
 import org.dswarm.graph.delta.match.model.ValueEntity;
+import org.dswarm.graph.delta.memory.InMemoryGraphDatabase;
 import org.dswarm.graph.hash.HashUtils;
+import org.dswarm.graph.index.RecordIdentifierIndexUtils;
 import org.dswarm.graph.model.GraphStatics;
 import org.dswarm.graph.utils.GraphUtils;
+import org.dswarm.graph.versioning.VersionPredicate;
 
 /**
  * @author tgaengler
@@ -82,6 +90,28 @@ public final class GraphDBUtil {
 	// http://www.w3.org/1999/02/22-rdf-syntax-ns#type
 	public static final RelationshipType RDF_TYPE_REL_TYPE = DynamicRelationshipType.withName("rdf:type");
 
+	private static final String VALUE_PARAMETER      = "value";
+	private static final String DATA_MODEL_PARAMETER = "data_model";
+
+	private static final String RECORD_URI_VARIABLE = "record_uri";
+	private static final String RECORD_ID_VARIABLE  = "record_id";
+
+	private static final String RECORD_URI_RETURN_CLAUSE = "n." + GraphStatics.URI_PROPERTY + " AS " + RECORD_URI_VARIABLE;
+	private static final String RECORD_ID_RETURN_CLAUSE  = "id(n) AS " + RECORD_ID_VARIABLE;
+
+	private static final int MAX_RECORDS_QUERY_TEMPLATES = 256;
+
+	/**
+	 * record lookups via attribute paths up to this length are done via traversal (core API) instead of Cypher
+	 */
+	public static final int MAX_TRAVERSAL_LOOKUP_PATH_LENGTH = 3;
+
+	/**
+	 * the record lookup queries are parameterised, i.e., there is one query text (and thereby one cached query plan) per attribute path
+	 * (and return clause)
+	 */
+	private static final Cache<String, String> RECORDS_QUERY_TEMPLATES = CacheBuilder.newBuilder().maximumSize(MAX_RECORDS_QUERY_TEMPLATES).build();
+
 	public static final Optional<String> determineTypeLabel(final Node node) throws DMPGraphException {
 
 		final Iterable<Label> labels = node.getLabels();
@@ -298,7 +328,7 @@ public final class GraphDBUtil {
 
 		try (final Transaction tx = graphDB.beginTx()) {
 
-			final Iterable<Relationship> rels = GlobalGraphOperations.at(graphDB).getAllRelationships();
+			final Iterable<Relationship> rels = getAllRelationships(graphDB);
 
 			boolean incomplete = false;
 
@@ -595,27 +625,152 @@ public final class GraphDBUtil {
 	}
 
 	/**
+	 * Determines the leaf nodes of an entity, i.e., all leaf nodes that are reachable via outgoing relationships from the given node.
+	 *
 	 * @param graphDB
 	 * @param nodeId
-	 * @return
+	 * @return the node ids of the entity leafs
 	 */
 	public static Collection<String> getEntityLeafs(final GraphDatabaseService graphDB, final long nodeId) throws DMPGraphException {
 
-		final String entityLeafsQuery = buildGetEntityLeafsQuery(nodeId);
+		final Set<String> entityLeafs = new HashSet<>();
+
+		try (final Transaction tx = graphDB.beginTx()) {
 
-		return executeQueryWithMultipleResults(entityLeafsQuery, "leaf_node", graphDB);
+			for (final Node leafNode : getReachableNodes(graphDB, nodeId, node -> node.hasLabel(GraphProcessingStatics.LEAF_LABEL))) {
+
+				entityLeafs.add(String.valueOf(leafNode.getId()));
+			}
+
+			tx.success();
+		} catch (final Exception e) {
+
+			final String message = "couldn't determine entity leafs";
+
+			GraphDBUtil.LOG.error(message, e);
+
+			throw new DMPGraphException(message);
+		}
+
+		return entityLeafs;
 	}
 
 	/**
+	 * Determines the leaf nodes of an entity with their values (i.e. the literal value or resource URI).
+	 *
 	 * @param graphDB
 	 * @param nodeId
-	 * @return
+	 * @return the node ids of the entity leafs with their values
 	 */
 	private static Map<String, String> getEntityLeafsWithValue(final GraphDatabaseService graphDB, final long nodeId) throws DMPGraphException {
 
-		final String entityLeafsQuery = buildGetEntityLeafsWithValueQuery(nodeId);
+		final Map<String, String> entityLeafs = new HashMap<>();
+
+		try (final Transaction tx = graphDB.beginTx()) {
+
+			for (final Node leafNode : getReachableNodes(graphDB, nodeId, node -> node.hasLabel(GraphProcessingStatics.LEAF_LABEL))) {
+
+				Object value = leafNode.getProperty(GraphStatics.VALUE_PROPERTY, null);
+
+				if (value == null) {
+
+					value = leafNode.getProperty(GraphStatics.URI_PROPERTY, null);
+				}
+
+				if (value != null) {
 
-		return executeQueryWithMultipleResultsWithValues(entityLeafsQuery, "leaf_node", "leaf_uri", "leaf_value", graphDB);
+					entityLeafs.put(String.valueOf(leafNode.getId()), value.toString());
+				}
+			}
+
+			tx.success();
+		} catch (final Exception e) {
+
+			final String message = "couldn't determine entity leafs with values";
+
+			GraphDBUtil.LOG.error(message, e);
+
+			throw new DMPGraphException(message);
+		}
+
+		return entityLeafs;
+	}
+
+	/**
+	 * Collects all nodes that are reachable via outgoing relationships (of any length >= 1) from the given node and that fulfil the given
+	 * filter, i.e., this is a Core API equivalent of "START n=node(x) MATCH (n)-[r*]->(m) RETURN m" that also works on in-memory graphs.<br/>
+	 * note: should be run in transaction scope
+	 *
+	 * @param graphDB
+	 * @param nodeId
+	 * @param filter
+	 * @return
+	 */
+	public static List<Node> getReachableNodes(final GraphDatabaseService graphDB, final long nodeId, final java.util.function.Predicate<Node> filter) {
+
+		final List<Node> reachableNodes = new ArrayList<>();
+		final Set<Long> visitedNodeIds = new HashSet<>();
+		final LinkedList<Node> queue = new LinkedList<>();
+
+		queue.add(graphDB.getNodeById(nodeId));
+
+		while (!queue.isEmpty()) {
+
+			final Node node = queue.removeFirst();
+
+			for (final Relationship rel : node.getRelationships(Direction.OUTGOING)) {
+
+				final Node endNode = rel.getEndNode();
+
+				if (!visitedNodeIds.add(endNode.getId())) {
+
+					continue;
+				}
+
+				if (filter.test(endNode)) {
+
+					reachableNodes.add(endNode);
+				}
+
+				queue.add(endNode);
+			}
+		}
+
+		return reachableNodes;
+	}
+
+	/**
+	 * Delivers all relationships of the given graph DB (in id order).<br/>
+	 * note: should be run in transaction scope
+	 *
+	 * @param graphDB
+	 * @return
+	 */
+	public static Iterable<Relationship> getAllRelationships(final GraphDatabaseService graphDB) {
+
+		if (graphDB instanceof InMemoryGraphDatabase) {
+
+			return ((InMemoryGraphDatabase) graphDB).getAllRelationships();
+		}
+
+		return GlobalGraphOperations.at(graphDB).getAllRelationships();
+	}
+
+	/**
+	 * Delivers all nodes of the given graph DB (in id order).<br/>
+	 * note: should be run in transaction scope
+	 *
+	 * @param graphDB
+	 * @return
+	 */
+	public static Iterable<Node> getAllNodes(final GraphDatabaseService graphDB) {
+
+		if (graphDB instanceof InMemoryGraphDatabase) {
+
+			return ((InMemoryGraphDatabase) graphDB).getAllNodes();
+		}
+
+		return GlobalGraphOperations.at(graphDB).getAllNodes();
 	}
 
 	/**
@@ -933,25 +1088,379 @@ public final class GraphDBUtil {
 	                                               final String prefixedRecordURI)
 			throws DMPGraphException {
 
-		final String query = buildGetRecordIdentifierQuery(prefixedRecordIdentifierAP, prefixedRecordURI);
+		// note: this is the Core API equivalent of
+		//		MATCH (n:RESOURCE {uri:"ns2:18d68601-0623-42b4-ad89-f8954cc25912"})
+		//		WITH n
+		//		MATCH (n)-[:`oaipmh:header`]->()-[:`oaipmh:identifier`]->()-[:`rdf:value`]->(o:LITERAL)
+		//		RETURN o.value AS record_identifier;
+		// i.e., it can also be applied on in-memory graphs
+
+		try (final Transaction tx = graphDB.beginTx()) {
+
+			final ResourceIterator<Node> recordNodes = graphDB.findNodes(GraphProcessingStatics.RESOURCE_LABEL, GraphStatics.URI_PROPERTY,
+					prefixedRecordURI);
+
+			String recordIdentifier = null;
+
+			while (recordIdentifier == null && recordNodes.hasNext()) {
+
+				recordIdentifier = followAttributePath(recordNodes.next(), prefixedRecordIdentifierAP.getAttributes());
+			}
 
-		return executeQueryWithSingleResult(query, "record_identifier", graphDB);
+			recordNodes.close();
+
+			tx.success();
+
+			return recordIdentifier;
+		} catch (final Exception e) {
+
+			final String message = "couldn't determine record identifier";
+
+			GraphDBUtil.LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		}
+	}
+
+	/**
+	 * note: should be run in transaction scope; only statements of the current version range are followed (see
+	 * {@link VersionPredicate#isCurrent}), i.e., a deprecated record has no value
+	 *
+	 * @param node       the start node, e.g., a record node
+	 * @param attributes the attribute path from the start node
+	 * @return the (first) literal value at the end of the attribute path or null, if there is none
+	 */
+	public static String followAttributePath(final Node node, final List<Attribute> attributes) {
+
+		for (final Node endNode : collectAttributePathEndNodes(node, attributes)) {
+
+			if (endNode.hasLabel(GraphProcessingStatics.LITERAL_LABEL)) {
+
+				final Object value = endNode.getProperty(GraphStatics.VALUE_PROPERTY, null);
+
+				if (value != null) {
+
+					return value.toString();
+				}
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * note: should be run in transaction scope; only statements of the current version range are followed (see
+	 * {@link VersionPredicate#isCurrent})
+	 *
+	 * @param node       the start node, e.g., a record node
+	 * @param attributes the attribute path from the start node
+	 * @param value      a literal value
+	 * @return true, if the given value is (one of) the literal value(s) at the end of the attribute path
+	 */
+	public static boolean hasAttributePathValue(final Node node, final List<Attribute> attributes, final String value) {
+
+		for (final Node endNode : collectAttributePathEndNodes(node, attributes)) {
+
+			if (endNode.hasLabel(GraphProcessingStatics.LITERAL_LABEL) && value.equals(endNode.getProperty(GraphStatics.VALUE_PROPERTY, null))) {
+
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static List<Node> collectAttributePathEndNodes(final Node node, final List<Attribute> attributes) {
+
+		List<Node> currentNodes = Collections.singletonList(node);
+
+		for (final Attribute attribute : attributes) {
+
+			final RelationshipType relType = DynamicRelationshipType.withName(attribute.getUri());
+			final List<Node> nextNodes = new ArrayList<>();
+
+			for (final Node currentNode : currentNodes) {
+
+				for (final Relationship rel : currentNode.getRelationships(Direction.OUTGOING, relType)) {
+
+					if (VersionPredicate.isCurrent(rel)) {
+
+						nextNodes.add(rel.getEndNode());
+					}
+				}
+			}
+
+			if (nextNodes.isEmpty()) {
+
+				return Collections.emptyList();
+			}
+
+			currentNodes = nextNodes;
+		}
+
+		return currentNodes;
 	}
 
+	/**
+	 * Determines the URI of the record (of the current version range) with the given record identifier, i.e., via the record identifiers
+	 * index and only if the index entries aren't complete, via the graph (see
+	 * {@link #determineRecordUriViaGraph(String, AttributePath, String, GraphDatabaseService)}).
+	 *
+	 * @param recordId
+	 * @param prefixedRecordIdentifierAP
+	 * @param prefixedDataModelUri
+	 * @param graphDB
+	 * @return the record URI or null, if there is no such record
+	 * @throws DMPGraphException
+	 */
 	public static String determineRecordUri(final String recordId, final AttributePath prefixedRecordIdentifierAP, final String prefixedDataModelUri,
 	                                        final GraphDatabaseService graphDB) throws DMPGraphException {
 
-		final String query = buildGetRecordUriQuery(recordId, prefixedRecordIdentifierAP, prefixedDataModelUri);
-		return executeQueryWithSingleResult(query, "record_uri", graphDB);
+		final Optional<String> optionalIndexedRecordUri = determineRecordUriViaIndex(recordId, prefixedRecordIdentifierAP, prefixedDataModelUri,
+				graphDB);
+
+		if (optionalIndexedRecordUri.isPresent()) {
+
+			return optionalIndexedRecordUri.get();
+		}
+
+		if (isRecordIdentifiersIndexComplete(prefixedRecordIdentifierAP, prefixedDataModelUri, graphDB)) {
+
+			// i.e. there is no such record
+			return null;
+		}
+
+		return determineRecordUriViaGraph(recordId, prefixedRecordIdentifierAP, prefixedDataModelUri, graphDB);
+	}
+
+	/**
+	 * Determines the URI of a record with the given record identifier via traversal or Cypher (without the record identifiers index), i.e.,
+	 * records of former versions are considered as well.
+	 *
+	 * @param recordId
+	 * @param prefixedRecordIdentifierAP
+	 * @param prefixedDataModelUri
+	 * @param graphDB
+	 * @return the record URI or null, if there is no such record
+	 * @throws DMPGraphException
+	 */
+	public static String determineRecordUriViaGraph(final String recordId, final AttributePath prefixedRecordIdentifierAP,
+	                                                final String prefixedDataModelUri, final GraphDatabaseService graphDB) throws DMPGraphException {
+
+		if (isTraversalLookupPath(prefixedRecordIdentifierAP)) {
+
+			final Iterator<String> recordURIsIter = determineRecordUrisViaTraversal(recordId, prefixedRecordIdentifierAP, prefixedDataModelUri,
+					graphDB).iterator();
+
+			return recordURIsIter.hasNext() ? recordURIsIter.next() : null;
+		}
+
+		final String query = getRecordsQueryTemplate(prefixedRecordIdentifierAP, RECORD_URI_RETURN_CLAUSE);
+		final Map<String, Object> parameters = buildRecordsQueryParameters(recordId, prefixedDataModelUri);
+
+		return executeQueryWithSingleResult(query, parameters, RECORD_URI_VARIABLE, graphDB);
+	}
+
+	/**
+	 * Looks up the record node via the record identifiers index, i.e., no result means that there is no (valid) index entry (and not
+	 * that there is no record with this identifier).
+	 *
+	 * @param recordId
+	 * @param prefixedRecordIdentifierAP
+	 * @param prefixedDataModelUri
+	 * @param graphDB
+	 * @return the record URI or nothing, if the record couldn't be found via the index
+	 * @throws DMPGraphException
+	 */
+	private static Optional<String> determineRecordUriViaIndex(final String recordId, final AttributePath prefixedRecordIdentifierAP,
+	                                                           final String prefixedDataModelUri,
+	                                                           final GraphDatabaseService graphDB) throws DMPGraphException {
+
+		try (final Transaction tx = graphDB.beginTx()) {
+
+			final Optional<Node> optionalRecordNode = RecordIdentifierIndexUtils.getRecordNode(graphDB, prefixedDataModelUri,
+					prefixedRecordIdentifierAP, recordId);
+
+			final Optional<String> optionalRecordUri = optionalRecordNode
+					.map(recordNode -> (String) recordNode.getProperty(GraphStatics.URI_PROPERTY, null));
+
+			tx.success();
+
+			return optionalRecordUri;
+		} catch (final Exception e) {
+
+			final String message = "couldn't determine record uri via record identifiers index";
+
+			GraphDBUtil.LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		}
+	}
+
+	private static boolean isRecordIdentifiersIndexComplete(final AttributePath prefixedRecordIdentifierAP, final String prefixedDataModelUri,
+	                                                        final GraphDatabaseService graphDB) throws DMPGraphException {
+
+		try (final Transaction tx = graphDB.beginTx()) {
+
+			final boolean complete = RecordIdentifierIndexUtils.isComplete(graphDB, prefixedDataModelUri, prefixedRecordIdentifierAP);
+
+			tx.success();
+
+			return complete;
+		} catch (final Exception e) {
+
+			final String message = "couldn't determine completeness of record identifiers index";
+
+			GraphDBUtil.LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		}
 	}
 
+	/**
+	 * Determines the URIs of the record nodes (of the given data model) that have the search value at the given key attribute path, i.e.,
+	 * short paths are looked up via traversal (see {@link #determineRecordUrisViaTraversal(String, AttributePath, String, GraphDatabaseService)})
+	 * and longer ones via Cypher (see {@link #determineRecordUrisViaCypher(String, AttributePath, String, GraphDatabaseService)}).
+	 *
+	 * @param searchValue
+	 * @param prefixedKeyAttributePath
+	 * @param prefixedDataModelUri
+	 * @param graphDB
+	 * @return the (distinct) record URIs
+	 * @throws DMPGraphException
+	 */
 	public static Collection<String> determineRecordUris(final String searchValue, final AttributePath prefixedKeyAttributePath,
 	                                                     final String prefixedDataModelUri,
 	                                                     final GraphDatabaseService graphDB) throws DMPGraphException {
 
-		final String query = buildGetRecordUrisQuery(searchValue, prefixedKeyAttributePath, prefixedDataModelUri);
+		if (isTraversalLookupPath(prefixedKeyAttributePath)) {
+
+			return determineRecordUrisViaTraversal(searchValue, prefixedKeyAttributePath, prefixedDataModelUri, graphDB);
+		}
+
+		return determineRecordUrisViaCypher(searchValue, prefixedKeyAttributePath, prefixedDataModelUri, graphDB);
+	}
+
+	public static Collection<String> determineRecordUrisViaCypher(final String searchValue, final AttributePath prefixedKeyAttributePath,
+	                                                              final String prefixedDataModelUri,
+	                                                              final GraphDatabaseService graphDB) throws DMPGraphException {
+
+		final String query = getRecordsQueryTemplate(prefixedKeyAttributePath, RECORD_URI_RETURN_CLAUSE);
+		final Map<String, Object> parameters = buildRecordsQueryParameters(searchValue, prefixedDataModelUri);
+
+		return executeQueryWithMultipleResults(query, parameters, RECORD_URI_VARIABLE, graphDB);
+	}
+
+	public static Collection<String> determineRecordUrisViaTraversal(final String searchValue, final AttributePath prefixedKeyAttributePath,
+	                                                                 final String prefixedDataModelUri,
+	                                                                 final GraphDatabaseService graphDB) throws DMPGraphException {
+
+		final Set<String> recordURIs = new LinkedHashSet<>();
+
+		try (final Transaction tx = graphDB.beginTx()) {
+
+			for (final Node recordNode : findRecordNodes(searchValue, prefixedKeyAttributePath, prefixedDataModelUri, graphDB)) {
+
+				final String recordURI = (String) recordNode.getProperty(GraphStatics.URI_PROPERTY, null);
+
+				if (recordURI != null) {
 
-		return executeQueryWithMultipleResults(query, "record_uri", graphDB);
+					recordURIs.add(recordURI);
+				}
+			}
+
+			tx.success();
+		} catch (final Exception e) {
+
+			final String message = "couldn't determine record uris via traversal";
+
+			GraphDBUtil.LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		}
+
+		return recordURIs;
+	}
+
+	/**
+	 * Determines the record nodes (of the given data model) that have the search value at the given key attribute path.
+	 *
+	 * @param searchValue
+	 * @param prefixedKeyAttributePath
+	 * @param prefixedDataModelUri
+	 * @param graphDB
+	 * @return the (distinct) ids of the record nodes in ascending order
+	 * @throws DMPGraphException
+	 */
+	public static long[] determineRecordIds(final String searchValue, final AttributePath prefixedKeyAttributePath,
+	                                        final String prefixedDataModelUri,
+	                                        final GraphDatabaseService graphDB) throws DMPGraphException {
+
+		if (isTraversalLookupPath(prefixedKeyAttributePath)) {
+
+			final LongOpenHashSet recordIds = new LongOpenHashSet();
+
+			try (final Transaction tx = graphDB.beginTx()) {
+
+				for (final Node recordNode : findRecordNodes(searchValue, prefixedKeyAttributePath, prefixedDataModelUri, graphDB)) {
+
+					recordIds.add(recordNode.getId());
+				}
+
+				tx.success();
+			} catch (final Exception e) {
+
+				final String message = "couldn't determine record ids via traversal";
+
+				GraphDBUtil.LOG.error(message, e);
+
+				throw new DMPGraphException(message, e);
+			}
+
+			final long[] sortedRecordIds = recordIds.toArray();
+			Arrays.sort(sortedRecordIds);
+
+			return sortedRecordIds;
+		}
+
+		final String query = getRecordsQueryTemplate(prefixedKeyAttributePath, RECORD_ID_RETURN_CLAUSE);
+		final Map<String, Object> parameters = buildRecordsQueryParameters(searchValue, prefixedDataModelUri);
+
+		final LongOpenHashSet recordIds = new LongOpenHashSet();
+
+		try (final Transaction tx = graphDB.beginTx()) {
+
+			final Result result = graphDB.execute(query, parameters);
+
+			if (result != null) {
+
+				while (result.hasNext()) {
+
+					final Object recordId = result.next().get(RECORD_ID_VARIABLE);
+
+					if (recordId != null) {
+
+						recordIds.add(((Number) recordId).longValue());
+					}
+				}
+
+				result.close();
+			}
+
+			tx.success();
+		} catch (final Exception e) {
+
+			final String message = "couldn't determine record ids";
+
+			GraphDBUtil.LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		}
+
+		final long[] sortedRecordIds = recordIds.toArray();
+		Arrays.sort(sortedRecordIds);
+
+		return sortedRecordIds;
 	}
 
 	public static Collection<ValueEntity> getFlatResourceNodeValues(final String prefixedResourceURI, final GraphDatabaseService graphDB)
@@ -1183,97 +1692,125 @@ public final class GraphDBUtil {
 		}
 	}
 
-	private static String buildGetRecordIdentifierQuery(final AttributePath prefixedRecordIdentifierAP, final String prefixedRecordURI)
-			throws DMPGraphException {
+	private static boolean isTraversalLookupPath(final AttributePath prefixedKeyAttributePath) {
 
-		//		MATCH (n:RESOURCE {uri;"ns2:18d68601-0623-42b4-ad89-f8954cc25912"})
-		//      WITH n
-		//		MATCH (n)-[:`oaipmh:header`]->()-[:`oaipmh:identifier`]->()-[:`rdf:value`]->(o:LITERAL)
-		//		RETURN o.value AS record_identifier;
+		final List<Attribute> attributes = prefixedKeyAttributePath.getAttributes();
+
+		return attributes != null && !attributes.isEmpty() && attributes.size() <= MAX_TRAVERSAL_LOOKUP_PATH_LENGTH;
+	}
 
-		final StringBuilder sb = new StringBuilder("MATCH ");
+	/**
+	 * Looks up the literals with the search value via the schema index and walks the incoming relationships of the attribute path
+	 * (in reverse order) hop by hop to the record nodes of the given data model.<br/>
+	 * note: must be executed in transaction scope
+	 *
+	 * @param searchValue
+	 * @param prefixedKeyAttributePath the attribute path from the record node to the literal
+	 * @param prefixedDataModelUri
+	 * @param graphDB
+	 * @return the (distinct) record nodes
+	 */
+	private static Set<Node> findRecordNodes(final String searchValue, final AttributePath prefixedKeyAttributePath,
+	                                         final String prefixedDataModelUri, final GraphDatabaseService graphDB) {
 
-		sb.append("(n:").append(NodeType.Resource).append(" {").append(GraphStatics.URI_PROPERTY).append(":\"").append(prefixedRecordURI)
-				.append("\"})\n")
-				.append("WITH n\n")
-				.append("MATCH ").append("(n)");
+		final List<Attribute> attributes = prefixedKeyAttributePath.getAttributes();
+		final RelationshipType[] relTypes = new RelationshipType[attributes.size()];
 
-		final List<Attribute> attributes = prefixedRecordIdentifierAP.getAttributes();
-		int i = attributes.size();
+		for (int i = 0; i < relTypes.length; i++) {
 
-		for (final Attribute attribute : attributes) {
+			relTypes[i] = DynamicRelationshipType.withName(attributes.get(i).getUri());
+		}
 
-			final String prefixedAttributeUri = attribute.getUri();
+		final Set<Node> recordNodes = new LinkedHashSet<>();
 
-			sb.append("-[:`").append(prefixedAttributeUri).append("`]->");
+		final ResourceIterator<Node> literals = graphDB.findNodes(GraphProcessingStatics.LITERAL_LABEL, GraphStatics.VALUE_PROPERTY, searchValue);
 
-			if (--i > 0) {
+		if (literals == null) {
 
-				sb.append("()");
-			}
+			return recordNodes;
 		}
 
-		sb.append("(o:").append(NodeType.Literal).append(")\n")
-				.append("RETURN o.").append(GraphStatics.VALUE_PROPERTY).append(" AS record_identifier");
+		try {
 
-		return sb.toString();
-	}
+			while (literals.hasNext()) {
 
-	private static String buildGetRecordUriQuery(
-			final String recordId,
-			final AttributePath prefixedRecordIdentifierAP,
-			final String prefixedDataModelUri) throws DMPGraphException {
+				List<Node> currentNodes = Collections.singletonList(literals.next());
 
-		// MATCH (o:LITERAL {value : "ID06978834"})
-		// WITH o
-		// MATCH (o)<-[:`mabxml:id`]-(n:RESOURCE)
-		// WHERE n.datamodel = "ns1:1"
-		// RETURN n.uri;
+				for (int i = relTypes.length - 1; i >= 0 && !currentNodes.isEmpty(); i--) {
 
-		final StringBuilder sb = new StringBuilder();
-		sb.append("MATCH (o:").append(NodeType.Literal).append(" {").append(GraphStatics.VALUE_PROPERTY).append(":\"").append(recordId)
-				.append("\"})\n")
-				.append("WITH o\n")
-				.append("MATCH (o)");
+					final List<Node> nextNodes = new ArrayList<>();
 
-		final List<Attribute> attributes = prefixedRecordIdentifierAP.getAttributes();
-		int i = attributes.size() - 1;
+					for (final Node currentNode : currentNodes) {
 
-		while (i >= 0) {
+						for (final Relationship rel : currentNode.getRelationships(Direction.INCOMING, relTypes[i])) {
 
-			final Attribute attribute = attributes.get(i);
-			final String prefixedAttributeURI = attribute.getUri();
+							nextNodes.add(rel.getStartNode());
+						}
+					}
 
-			sb.append("<-[:`").append(prefixedAttributeURI).append("`]-");
+					currentNodes = nextNodes;
+				}
 
-			if (i > 0) {
+				for (final Node node : currentNodes) {
 
-				sb.append("()");
+					if (node.hasLabel(GraphProcessingStatics.RESOURCE_LABEL) && prefixedDataModelUri
+							.equals(node.getProperty(GraphStatics.DATA_MODEL_PROPERTY, null))) {
+
+						recordNodes.add(node);
+					}
+				}
 			}
+		} finally {
 
-			i--;
+			literals.close();
 		}
 
-		sb.append("(n:").append(NodeType.Resource).append(")\n")
-				.append("WITH n\n")
-				.append("MATCH n\n")
-				.append("WHERE n.").append(GraphStatics.DATA_MODEL_PROPERTY).append(" = \"").append(prefixedDataModelUri).append("\"\n")
-				.append("RETURN ").append("n.").append(GraphStatics.URI_PROPERTY).append(" AS record_uri");
+		return recordNodes;
+	}
 
-		return sb.toString();
+	/**
+	 * @param prefixedKeyAttributePath the attribute path from the record node to the literal
+	 * @param returnClause             the return clause of the query (with the record node as 'n')
+	 * @return the (cached) parameterised query text, i.e., it requires the parameters of {@link #buildRecordsQueryParameters(String, String)}
+	 */
+	private static String getRecordsQueryTemplate(final AttributePath prefixedKeyAttributePath, final String returnClause) {
+
+		final List<Attribute> attributes = prefixedKeyAttributePath.getAttributes();
+
+		final StringBuilder keySB = new StringBuilder(returnClause);
+
+		for (final Attribute attribute : attributes) {
+
+			keySB.append('\n').append(attribute.getUri());
+		}
+
+		final String key = keySB.toString();
+
+		String queryTemplate = RECORDS_QUERY_TEMPLATES.getIfPresent(key);
+
+		if (queryTemplate == null) {
+
+			queryTemplate = buildRecordsQueryTemplate(attributes, returnClause);
+			RECORDS_QUERY_TEMPLATES.put(key, queryTemplate);
+		}
+
+		return queryTemplate;
 	}
 
-	private static String buildGetRecordUrisQuery(final String searchValue, final AttributePath prefixedKeyAttributePath,
-	                                              final String prefixedDataModelUri)
-			throws DMPGraphException {
+	private static String buildRecordsQueryTemplate(final List<Attribute> attributes, final String returnClause) {
+
+		// MATCH (o:LITERAL {value : {value}})
+		// WITH o
+		// MATCH (o)<-[:`mabxml:id`]-(n:RESOURCE)
+		// WHERE n.datamodel = {data_model}
+		// RETURN n.uri AS record_uri;
 
 		final StringBuilder sb = new StringBuilder();
-		sb.append("MATCH (o:").append(NodeType.Literal).append(" {").append(GraphStatics.VALUE_PROPERTY).append(":\"").append(searchValue)
-				.append("\"})\n")
+		sb.append("MATCH (o:").append(NodeType.Literal).append(" {").append(GraphStatics.VALUE_PROPERTY).append(":{").append(VALUE_PARAMETER)
+				.append("}})\n")
 				.append("WITH o\n")
 				.append("MATCH (o)");
 
-		final List<Attribute> attributes = prefixedKeyAttributePath.getAttributes();
 		int i = attributes.size() - 1;
 
 		while (i >= 0) {
@@ -1294,45 +1831,29 @@ public final class GraphDBUtil {
 		sb.append("(n:").append(NodeType.Resource).append(")\n")
 				.append("WITH n\n")
 				.append("MATCH n\n")
-				.append("WHERE n.").append(GraphStatics.DATA_MODEL_PROPERTY).append(" = \"").append(prefixedDataModelUri).append("\"\n")
-				.append("RETURN ").append("n.").append(GraphStatics.URI_PROPERTY).append(" AS record_uri");
+				.append("WHERE n.").append(GraphStatics.DATA_MODEL_PROPERTY).append(" = {").append(DATA_MODEL_PARAMETER).append("}\n")
+				.append("RETURN ").append(returnClause);
 
 		return sb.toString();
 	}
 
-	private static String buildGetEntityLeafsQuery(final long nodeId) {
-
-		// START n= node(2062) MATCH (n)-[r*]->(m) RETURN m;
-
-		final StringBuilder sb = new StringBuilder();
-
-		sb.append("START n=node(").append(nodeId).append(")\nMATCH (n)-[r*]->(m:`").append(GraphProcessingStatics.LEAF_IDENTIFIER)
-				.append("`)\nRETURN id(m) AS leaf_node");
-
-		return sb.toString();
-	}
-
-	private static String buildGetEntityLeafsWithValueQuery(final long nodeId) {
-
-		// START n= node(2062) MATCH (n)-[r*]->(m) RETURN m;
+	private static Map<String, Object> buildRecordsQueryParameters(final String value, final String prefixedDataModelUri) {
 
-		final StringBuilder sb = new StringBuilder();
-
-		sb.append("START n=node(").append(nodeId).append(")\nMATCH (n)-[r*]->(m:`").append(GraphProcessingStatics.LEAF_IDENTIFIER)
-				.append("`)\nRETURN id(m) AS leaf_node, m.")
-				.append(GraphStatics.URI_PROPERTY).append(" AS leaf_uri, m.").append(GraphStatics.VALUE_PROPERTY).append(" AS leaf_value");
+		final Map<String, Object> parameters = new HashMap<>();
+		parameters.put(VALUE_PARAMETER, value);
+		parameters.put(DATA_MODEL_PARAMETER, prefixedDataModelUri);
 
-		return sb.toString();
+		return parameters;
 	}
 
-	private static String executeQueryWithSingleResult(final String query, final String resultVariableName, final GraphDatabaseService graphDB)
-			throws DMPGraphException {
+	private static String executeQueryWithSingleResult(final String query, final Map<String, Object> parameters, final String resultVariableName,
+	                                                   final GraphDatabaseService graphDB) throws DMPGraphException {
 
 		String resultValue = null;
 
 		try (final Transaction tx = graphDB.beginTx()) {
 
-			final Result result = graphDB.execute(query);
+			final Result result = graphDB.execute(query, parameters);
 
 			if (result != null) {
 
@@ -1377,55 +1898,18 @@ public final class GraphDBUtil {
 	public static Collection<String> executeQueryWithMultipleResults(final String query, final String resultVariableName,
 	                                                                 final GraphDatabaseService graphDB) throws DMPGraphException {
 
-		final Set<String> resultSet = new HashSet<>();
-
-		try (final Transaction tx = graphDB.beginTx()) {
-
-			final Result result = graphDB.execute(query);
-
-			if (result != null) {
-
-				while (result.hasNext()) {
-
-					final Map<String, Object> row = result.next();
-
-					for (final Map.Entry<String, Object> column : row.entrySet()) {
-
-						if (column.getValue() != null) {
-
-							if (column.getKey().equals(resultVariableName)) {
-
-								resultSet.add(column.getValue().toString());
-							}
-						}
-					}
-				}
-
-				result.close();
-			}
-
-			tx.success();
-		} catch (final Exception e) {
-
-			final String message = "couldn't execute query with multiple results";
-
-			GraphDBUtil.LOG.error(message, e);
-
-			throw new DMPGraphException(message);
-		}
-
-		return resultSet;
+		return executeQueryWithMultipleResults(query, Collections.emptyMap(), resultVariableName, graphDB);
 	}
 
-	private static Map<String, String> executeQueryWithMultipleResultsWithValues(final String query, final String resultVariableName,
-	                                                                             final String uriVariableName, final String valueVariableName, final GraphDatabaseService graphDB)
-			throws DMPGraphException {
+	public static Collection<String> executeQueryWithMultipleResults(final String query, final Map<String, Object> parameters,
+	                                                                 final String resultVariableName,
+	                                                                 final GraphDatabaseService graphDB) throws DMPGraphException {
 
-		final Map<String, String> resultSet = new HashMap<>();
+		final Set<String> resultSet = new HashSet<>();
 
 		try (final Transaction tx = graphDB.beginTx()) {
 
-			final Result result = graphDB.execute(query);
+			final Result result = graphDB.execute(query, parameters);
 
 			if (result != null) {
 
@@ -1433,29 +1917,16 @@ public final class GraphDBUtil {
 
 					final Map<String, Object> row = result.next();
 
-					String identifier = null;
-					String value = null;
-
 					for (final Map.Entry<String, Object> column : row.entrySet()) {
 
 						if (column.getValue() != null) {
 
 							if (column.getKey().equals(resultVariableName)) {
 
-								identifier = column.getValue().toString();
-							}
-
-							if (column.getKey().equals(uriVariableName) || column.getKey().equals(valueVariableName)) {
-
-								value = column.getValue().toString();
+								resultSet.add(column.getValue().toString());
 							}
 						}
 					}
-
-					if (identifier != null && value != null) {
-
-						resultSet.put(identifier, value);
-					}
 				}
 
 				result.close();
@@ -1464,7 +1935,7 @@ public final class GraphDBUtil {
 			tx.success();
 		} catch (final Exception e) {
 
-			final String message = "couldn't execute query with multiple results with values";
+			final String message = "couldn't execute query with multiple results";
 
 			GraphDBUtil.LOG.error(message, e);
 
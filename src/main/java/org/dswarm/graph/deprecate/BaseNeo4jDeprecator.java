@@ -29,10 +29,8 @@ import org.dswarm.graph.NodeType;
 import org.dswarm.graph.model.GraphStatics;
 import org.dswarm.graph.read.NodeHandler;
 import org.dswarm.graph.read.RelationshipHandler;
-import org.dswarm.graph.utils.GraphUtils;
-import org.dswarm.graph.versioning.Range;
 import org.dswarm.graph.versioning.VersionHandler;
-import org.dswarm.graph.versioning.VersioningStatics;
+import org.dswarm.graph.versioning.VersionPredicate;
 
 /**
  * @author tgaengler
@@ -87,7 +85,7 @@ public abstract class BaseNeo4jDeprecator implements RelationshipDeprecator {
 
 		try {
 
-			rel.setProperty(VersioningStatics.VALID_TO_PROPERTY, version);
+			processor.deprecateStatement(rel, version, versionHandler.marksHistoricStatements());
 			final Long hashedUUID = (Long) rel.getProperty(GraphStatics.UUID_PROPERTY, null);
 
 			if (hashedUUID == null) {
@@ -150,18 +148,8 @@ public abstract class BaseNeo4jDeprecator implements RelationshipDeprecator {
 
 				for (final Relationship relationship : relationships) {
 
-					final Integer validFrom = (Integer) relationship.getProperty(VersioningStatics.VALID_FROM_PROPERTY, null);
-					final Integer validTo = (Integer) relationship.getProperty(VersioningStatics.VALID_TO_PROPERTY, null);
+					if (VersionPredicate.isValid(relationship, previousVersion)) {
 
-					if (validFrom != null && validTo != null) {
-
-						if (Range.range(validFrom, validTo).contains(previousVersion)) {
-
-							relationshipHandler.handleRelationship(relationship);
-						}
-					} else {
-
-						// TODO: remove this later, when every stmt is versioned
 						relationshipHandler.handleRelationship(relationship);
 					}
 				}
@@ -183,18 +171,8 @@ public abstract class BaseNeo4jDeprecator implements RelationshipDeprecator {
 
 				for (final Relationship relationship : relationships) {
 
-					final Integer validFrom = (Integer) relationship.getProperty(VersioningStatics.VALID_FROM_PROPERTY, null);
-					final Integer validTo = (Integer) relationship.getProperty(VersioningStatics.VALID_TO_PROPERTY, null);
-
-					if (validFrom != null && validTo != null) {
-
-						if (Range.range(validFrom, validTo).contains(previousVersion)) {
-
-							relationshipHandler.handleRelationship(relationship);
-						}
-					} else {
+					if (VersionPredicate.isValid(relationship, previousVersion)) {
 
-						// TODO: remove this later, when every stmt is versioned
 						relationshipHandler.handleRelationship(relationship);
 					}
 				}
@@ -210,7 +188,7 @@ public abstract class BaseNeo4jDeprecator implements RelationshipDeprecator {
 			deprecateStatement(rel);
 
 			final Node objectNode = rel.getEndNode();
-			final NodeType objectNodeType = GraphUtils.determineNodeType(objectNode);
+			final NodeType objectNodeType = processor.determineNodeType(objectNode);
 
 			if(!objectNodeType.equals(NodeType.Literal)) {
 
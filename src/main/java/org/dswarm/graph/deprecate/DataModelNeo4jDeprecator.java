@@ -77,6 +77,7 @@ public class DataModelNeo4jDeprecator extends BaseNeo4jDeprecator {
 
 			final Node seedNode = seedNodes.next();
 
+			processor.removeNodeFromRecordIdentifiersIndex(seedNode);
 			startNodeHandler.handleNode(seedNode);
 		}
 
@@ -17,6 +17,7 @@
 package org.dswarm.graph.deprecate;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
@@ -41,6 +42,14 @@ public class RecordsNeo4jDeprecator extends BaseNeo4jDeprecator {
 	private static final Logger LOG = LoggerFactory.getLogger(RecordsNeo4jDeprecator.class);
 	public static final String RECORD_VARIABLE = "record";
 
+	private static final String URI_PARAMETER        = "uri";
+	private static final String DATA_MODEL_PARAMETER = "data_model";
+
+	/**
+	 * parameterised, i.e., the query plan is cached for all record lookups
+	 */
+	private static final String RECORD_QUERY = buildQuery();
+
 	private final String             prefixedDataModelUri;
 	private final Collection<String> prefixedRecordURIs;
 
@@ -81,6 +90,7 @@ public class RecordsNeo4jDeprecator extends BaseNeo4jDeprecator {
 
 			final Node record = optionalRecord.get();
 
+			processor.removeNodeFromRecordIdentifiersIndex(record);
 			startNodeHandler.handleNode(record);
 		}
 
@@ -89,9 +99,11 @@ public class RecordsNeo4jDeprecator extends BaseNeo4jDeprecator {
 
 	private Optional<Node> getRecord(final GraphDatabaseService database, final String prefixedRecordURI) {
 
-		final String query = buildQuery(prefixedRecordURI);
+		final Map<String, Object> parameters = new HashMap<>();
+		parameters.put(URI_PARAMETER, prefixedRecordURI);
+		parameters.put(DATA_MODEL_PARAMETER, prefixedDataModelUri);
 
-		final Result result = database.execute(query);
+		final Result result = database.execute(RECORD_QUERY, parameters);
 
 		return evaluateSingleNodeResult(prefixedRecordURI, result);
 	}
@@ -152,12 +164,12 @@ public class RecordsNeo4jDeprecator extends BaseNeo4jDeprecator {
 		return Optional.ofNullable(record);
 	}
 
-	private String buildQuery(final String prefixedRecordURI) {
+	private static String buildQuery() {
 
 		final StringBuilder sb = new StringBuilder();
 
-		sb.append("MATCH ").append("(n:").append(NodeType.Resource).append(" {").append(GraphStatics.URI_PROPERTY).append(" : \"").append(prefixedRecordURI).append("\"})\n")
-				.append("WHERE n.").append(GraphStatics.DATA_MODEL_PROPERTY).append(" = \"").append(prefixedDataModelUri).append("\"\n")
+		sb.append("MATCH ").append("(n:").append(NodeType.Resource).append(" {").append(GraphStatics.URI_PROPERTY).append(" : {").append(URI_PARAMETER).append("}})\n")
+				.append("WHERE n.").append(GraphStatics.DATA_MODEL_PROPERTY).append(" = {").append(DATA_MODEL_PARAMETER).append("}\n")
 				.append("RETURN n AS ").append(RECORD_VARIABLE);
 
 		return sb.toString();
@@ -16,7 +16,13 @@
  */
 package org.dswarm.graph.gdm.parse;
 
+import java.util.Optional;
+
+import org.neo4j.graphdb.Node;
+
+import org.dswarm.common.model.AttributePath;
 import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.DataModelNeo4jProcessor;
 import org.dswarm.graph.gdm.GDMNeo4jProcessor;
 import org.dswarm.graph.parse.DataModelNeo4jHandler;
 import org.slf4j.Logger;
@@ -29,8 +35,51 @@ public class DataModelGDMNeo4jHandler extends GDMNeo4jHandler {
 
 	private static final Logger	LOG	= LoggerFactory.getLogger(DataModelGDMNeo4jHandler.class);
 
+	private Optional<AttributePath> optionalPrefixedRecordIdentifierAP = Optional.empty();
+
 	public DataModelGDMNeo4jHandler(final GDMNeo4jProcessor processorArg, final boolean enableVersioning) throws DMPGraphException {
 
 		super(new DataModelNeo4jHandler(processorArg.getProcessor(), enableVersioning), processorArg);
 	}
+
+	/**
+	 * Enables the maintenance of the record identifiers index for the handled records.
+	 *
+	 * @param optionalPrefixedRecordIdentifierAP the (prefixed) record identifier attribute path of the content schema of the data model
+	 * @throws DMPGraphException
+	 */
+	public void setRecordIdentifierAttributePath(final Optional<AttributePath> optionalPrefixedRecordIdentifierAP) throws DMPGraphException {
+
+		this.optionalPrefixedRecordIdentifierAP = optionalPrefixedRecordIdentifierAP;
+
+		if (optionalPrefixedRecordIdentifierAP.isPresent()) {
+
+			final DataModelNeo4jProcessor dataModelProcessor = (DataModelNeo4jProcessor) processor.getProcessor();
+
+			dataModelProcessor.maintainRecordIdentifiersIndex(dataModelProcessor.getPrefixedDataModelURI(),
+					optionalPrefixedRecordIdentifierAP.get());
+		}
+	}
+
+	@Override
+	public void handleResourceEnd(final String prefixedResourceUri) throws DMPGraphException {
+
+		if (!optionalPrefixedRecordIdentifierAP.isPresent()) {
+
+			return;
+		}
+
+		final DataModelNeo4jProcessor dataModelProcessor = (DataModelNeo4jProcessor) processor.getProcessor();
+		final Optional<Node> optionalRecordNode = dataModelProcessor.getResourceNodeHits(prefixedResourceUri);
+
+		if (!optionalRecordNode.isPresent()) {
+
+			DataModelGDMNeo4jHandler.LOG.debug("couldn't find record node for resource '{}'", prefixedResourceUri);
+
+			return;
+		}
+
+		dataModelProcessor.addNodeToRecordIdentifiersIndex(optionalRecordNode.get(), dataModelProcessor.getPrefixedDataModelURI(),
+				optionalPrefixedRecordIdentifierAP.get());
+	}
 }
@@ -26,7 +26,6 @@ import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.RelationshipType;
 import org.neo4j.graphdb.Transaction;
-import org.neo4j.tooling.GlobalGraphOperations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -93,9 +92,9 @@ public class GDMChangesetParser implements GDMUpdateParser {
 
 		try {
 
-			final Iterable<Relationship> existingRelationships = GlobalGraphOperations.at(existingResourceDB).getAllRelationships();
+			final Iterable<Relationship> existingRelationships = GraphDBUtil.getAllRelationships(existingResourceDB);
 			final Iterator<Relationship> existingRelationshipsIter = existingRelationships.iterator();
-			final Iterable<Relationship> newRelationships = GlobalGraphOperations.at(newResourceDB).getAllRelationships();
+			final Iterable<Relationship> newRelationships = GraphDBUtil.getAllRelationships(newResourceDB);
 			final Iterator<Relationship> newRelationshipsIter = newRelationships.iterator();
 
 			final Set<Long> alreadyAddedStatementUUIDs = new HashSet<>();
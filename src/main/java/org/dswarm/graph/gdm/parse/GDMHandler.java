@@ -27,6 +27,14 @@ public interface GDMHandler extends TransactionalHandler {
 
 	void handleStatement(final Statement st, final long resourceHash, final long index) throws DMPGraphException;
 
+	/**
+	 * Is called after all statements of a resource were handled.
+	 *
+	 * @param prefixedResourceUri the (prefixed) URI of the handled resource
+	 * @throws DMPGraphException
+	 */
+	void handleResourceEnd(final String prefixedResourceUri) throws DMPGraphException;
+
 	long getCountedStatements();
 
 	int getRelationshipsAdded();
@@ -93,6 +93,8 @@ public class GDMModelParser implements GDMParser {
 					gdmHandler.handleStatement(statement, resourceHash, i);
 
 				}
+
+				gdmHandler.handleResourceEnd(prefixedResourceUri);
 			} catch (final DMPGraphException e) {
 
 				throw new RuntimeException(e);
@@ -105,6 +105,12 @@ public abstract class GDMNeo4jHandler implements GDMHandler, GDMUpdateHandler {
 		handler.handleStatement(statement);
 	}
 
+	@Override
+	public void handleResourceEnd(final String prefixedResourceUri) throws DMPGraphException {
+
+		// nothing to do by default
+	}
+
 	@Override
 	public long getCountedStatements() {
 		return handler.getCountedStatements();
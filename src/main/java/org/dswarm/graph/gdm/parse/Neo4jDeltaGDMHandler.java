@@ -30,13 +30,10 @@ import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.RelationshipType;
 import org.neo4j.graphdb.Transaction;
-import org.neo4j.graphdb.index.Index;
-import org.neo4j.graphdb.index.IndexHits;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.dswarm.graph.DMPGraphException;
-import org.dswarm.graph.GraphIndexStatics;
 import org.dswarm.graph.GraphProcessingStatics;
 import org.dswarm.graph.NodeType;
 import org.dswarm.graph.hash.HashUtils;
@@ -69,8 +66,11 @@ public class Neo4jDeltaGDMHandler implements GDMHandler {
 	private long tick = System.currentTimeMillis();
 	private final GraphDatabaseService database;
 	private final Map<String, Node>    bnodes;
-	private final Index<Relationship>  statementHashes;
-	private final Index<Relationship>  statementUUIDs;
+	/**
+	 * statement hash -> relationship; a plain map is sufficient here, since the delta working graph is only alive for one delta
+	 * calculation (legacy indices are not available on in-memory graphs)
+	 */
+	private final Map<Long, Relationship> statementHashes;
 	private final Map<Long, Long>      nodeResourceMap;
 	private final NamespaceIndex namespaceIndex;
 
@@ -89,8 +89,7 @@ public class Neo4jDeltaGDMHandler implements GDMHandler {
 			LOG.debug("start write TX");
 
 			bnodes = new HashMap<>();
-			statementHashes = database.index().forRelationships(GraphIndexStatics.STATEMENT_HASHES_INDEX_NAME);
-			statementUUIDs = database.index().forRelationships(GraphIndexStatics.STATEMENT_UUIDS_INDEX_NAME);
+			statementHashes = new HashMap<>();
 			nodeResourceMap = new HashMap<>();
 		} catch (final Exception e) {
 
@@ -311,6 +310,12 @@ public class Neo4jDeltaGDMHandler implements GDMHandler {
 		tx.close();
 	}
 
+	@Override
+	public void handleResourceEnd(final String prefixedResourceUri) throws DMPGraphException {
+
+		// nothing to do here
+	}
+
 	@Override
 	public long getCountedStatements() {
 
@@ -372,11 +377,9 @@ public class Neo4jDeltaGDMHandler implements GDMHandler {
 
 		final long hash = HashUtils.generateHash(sb.toString());
 
-		final Relationship rel;
-
-		final IndexHits<Relationship> hits = statementHashes.get(GraphStatics.HASH, hash);
+		Relationship rel = statementHashes.get(hash);
 
-		if (hits == null || !hits.hasNext()) {
+		if (rel == null) {
 
 			final RelationshipType relType = DynamicRelationshipType.withName(predicateName);
 			rel = subjectNode.createRelationshipTo(objectNode, relType);
@@ -400,20 +403,11 @@ public class Neo4jDeltaGDMHandler implements GDMHandler {
 
 			rel.setProperty(GraphStatics.INDEX_PROPERTY, index);
 
-			statementHashes.add(rel, GraphStatics.HASH, hash);
-			statementUUIDs.add(rel, GraphStatics.UUID, finalStatementUUID);
+			statementHashes.put(hash, rel);
 
 			addedRelationships++;
 
 			addResourceProperty(subjectNode, subject, rel, optionalResourceHash, resourceHash);
-		} else {
-
-			rel = hits.next();
-		}
-
-		if (hits != null) {
-
-			hits.close();
 		}
 
 		return rel;
@@ -0,0 +1,111 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.gdm.read;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.dswarm.graph.DMPGraphException;
+
+/**
+ * An opaque cursor for paging through the records of a data model, i.e., the id of the last record node of a page and the version the
+ * page was read with. Records are paged in node id order, so that a following page can directly start after the last record node.
+ *
+ * @author tgaengler
+ */
+public class ContinuationToken {
+
+	private static final char DELIMITER = '.';
+
+	private final long lastRecordNodeId;
+	private final int  version;
+
+	public ContinuationToken(final long lastRecordNodeIdArg, final int versionArg) {
+
+		lastRecordNodeId = lastRecordNodeIdArg;
+		version = versionArg;
+	}
+
+	public long getLastRecordNodeId() {
+
+		return lastRecordNodeId;
+	}
+
+	public int getVersion() {
+
+		return version;
+	}
+
+	public String encode() {
+
+		final String token = String.valueOf(lastRecordNodeId) + DELIMITER + version;
+
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static ContinuationToken decode(final String encodedToken) throws DMPGraphException {
+
+		try {
+
+			final String token = new String(Base64.getUrlDecoder().decode(encodedToken), StandardCharsets.UTF_8);
+			final int delimiterIndex = token.indexOf(DELIMITER);
+
+			if (delimiterIndex < 0) {
+
+				throw new DMPGraphException(String.format("couldn't decode continuation token '%s'", encodedToken));
+			}
+
+			final long lastRecordNodeId = Long.parseLong(token.substring(0, delimiterIndex));
+			final int version = Integer.parseInt(token.substring(delimiterIndex + 1));
+
+			return new ContinuationToken(lastRecordNodeId, version);
+		} catch (final IllegalArgumentException e) {
+
+			throw new DMPGraphException(String.format("couldn't decode continuation token '%s'", encodedToken), e);
+		}
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+
+		if (this == o) {
+
+			return true;
+		}
+
+		if (!(o instanceof ContinuationToken)) {
+
+			return false;
+		}
+
+		final ContinuationToken that = (ContinuationToken) o;
+
+		return lastRecordNodeId == that.lastRecordNodeId && version == that.version;
+	}
+
+	@Override
+	public int hashCode() {
+
+		return 31 * Long.hashCode(lastRecordNodeId) + version;
+	}
+
+	@Override
+	public String toString() {
+
+		return encode();
+	}
+}
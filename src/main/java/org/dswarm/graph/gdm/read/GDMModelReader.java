@@ -26,5 +26,23 @@ public interface GDMModelReader extends GDMReader {
 
 	Optional<ModelBuilder> read(final OutputStream outputStream) throws DMPGraphException;
 
+	/**
+	 * Writes the GDM model (as JSON array of resources) statement by statement to the given output stream, i.e., without materialising
+	 * the resources.
+	 *
+	 * @param outputStream the output stream for the GDM JSON
+	 * @throws DMPGraphException
+	 */
+	void stream(final OutputStream outputStream) throws DMPGraphException;
+
+	/**
+	 * Restricts the following read to one page of records (in record node order), i.e., 'at most' records after the record node of the
+	 * continuation token (if any). 'At most' (a positive page size) is required.
+	 *
+	 * @return the continuation token for the following page or nothing, if this is the last page
+	 * @throws DMPGraphException
+	 */
+	Optional<ContinuationToken> selectPage() throws DMPGraphException;
+
 	long readResources();
 }
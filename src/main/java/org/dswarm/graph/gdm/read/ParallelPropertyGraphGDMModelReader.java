@@ -0,0 +1,404 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.gdm.read;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.carrotsearch.hppc.LongArrayList;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.neo4j.graphdb.DynamicLabel;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.ResourceIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.index.NamespaceIndex;
+import org.dswarm.graph.json.Resource;
+import org.dswarm.graph.json.util.Util;
+import org.dswarm.graph.model.GraphStatics;
+import org.dswarm.graph.tx.Neo4jTransactionHandler;
+import org.dswarm.graph.tx.TransactionHandler;
+import org.dswarm.graph.utils.GraphDatabaseUtils;
+import org.dswarm.graph.versioning.utils.GraphVersionUtils;
+
+/**
+ * Reads a GDM model with several workers, i.e., the record node ids are split into chunks that are traversed by the workers (each in an
+ * own read transaction and with an own reader helper). The serialised chunks are written in record order (ordered merge) or as soon as
+ * they are finished (unordered merge).
+ *
+ * @author tgaengler
+ */
+public class ParallelPropertyGraphGDMModelReader implements GDMReader {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ParallelPropertyGraphGDMModelReader.class);
+
+	private static final String TYPE = "parallel GDM model";
+
+	private static final String WORKER_THREAD_NAME_FORMAT = "gdm-model-reader-%d";
+
+	private static final int RECORDS_PER_CHUNK = 100;
+
+	private final String               recordClassUri;
+	private final String               prefixedDataModelUri;
+	private final Optional<Integer>    optionalVersion;
+	private final Optional<Integer>    optionalAtMost;
+	private final int                  parallelism;
+	private final boolean              ordered;
+	private final GraphDatabaseService database;
+	private final TransactionHandler   tx;
+	private final NamespaceIndex       namespaceIndex;
+
+	/**
+	 * if present, these record nodes are read instead of the record nodes of the record class
+	 */
+	private final Optional<long[]> optionalRecordNodeIds;
+
+	private final ObjectMapper objectMapper = Util.getJSONObjectMapper();
+
+	private long size          = 0;
+	private long readResources = 0;
+
+	public ParallelPropertyGraphGDMModelReader(final String recordClassUriArg, final String prefixedDataModelUriArg,
+			final Optional<Integer> optionalVersionArg, final Optional<Integer> optionalAtMostArg, final int parallelismArg, final boolean orderedArg,
+			final GraphDatabaseService databaseArg, final TransactionHandler txArg, final NamespaceIndex namespaceIndexArg) {
+
+		recordClassUri = recordClassUriArg;
+		prefixedDataModelUri = prefixedDataModelUriArg;
+		optionalVersion = optionalVersionArg;
+		optionalAtMost = optionalAtMostArg;
+		parallelism = GraphDatabaseUtils.boundParallelism(parallelismArg);
+		ordered = orderedArg;
+		database = databaseArg;
+		tx = txArg;
+		namespaceIndex = namespaceIndexArg;
+		optionalRecordNodeIds = Optional.empty();
+	}
+
+	/**
+	 * Reads the given record nodes (in the given order).
+	 */
+	ParallelPropertyGraphGDMModelReader(final long[] recordNodeIdsArg, final String prefixedDataModelUriArg, final int versionArg,
+			final int parallelismArg, final boolean orderedArg, final GraphDatabaseService databaseArg, final TransactionHandler txArg,
+			final NamespaceIndex namespaceIndexArg) {
+
+		recordClassUri = null;
+		prefixedDataModelUri = prefixedDataModelUriArg;
+		optionalVersion = Optional.of(versionArg);
+		optionalAtMost = Optional.empty();
+		parallelism = GraphDatabaseUtils.boundParallelism(parallelismArg);
+		ordered = orderedArg;
+		database = databaseArg;
+		tx = txArg;
+		namespaceIndex = namespaceIndexArg;
+		optionalRecordNodeIds = Optional.of(recordNodeIdsArg);
+	}
+
+	/**
+	 * Writes the GDM model (as JSON array of resources) to the given output stream.
+	 *
+	 * @param outputStream the output stream for the GDM JSON
+	 * @throws DMPGraphException
+	 */
+	public void stream(final OutputStream outputStream) throws DMPGraphException {
+
+		size = 0;
+		readResources = 0;
+
+		final int version;
+		final long[] recordNodeIds;
+
+		tx.ensureRunningTx();
+
+		try {
+
+			version = optionalVersion.isPresent() ? optionalVersion.get() : GraphVersionUtils.getLatestVersion(prefixedDataModelUri, database);
+			recordNodeIds = findRecordNodeIds();
+
+			tx.succeedTx();
+		} catch (final Exception e) {
+
+			tx.failTx();
+
+			final String message = String.format("couldn't determine record nodes for %s read", TYPE);
+
+			LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		}
+
+		LOG.debug("try to read '{}' resources for class '{}' in data model '{}' with version '{}' with '{}' workers ({} merge)",
+				recordNodeIds.length, recordClassUri, prefixedDataModelUri, version, parallelism, ordered ? "ordered" : "unordered");
+
+		final ExecutorService workerService = Executors.newFixedThreadPool(parallelism,
+				new ThreadFactoryBuilder().setNameFormat(WORKER_THREAD_NAME_FORMAT).setDaemon(true).build());
+
+		try {
+
+			outputStream.write('[');
+
+			final Chunk.Writer chunkWriter = new Chunk.Writer(outputStream);
+
+			// i.e. at most two chunks per worker are waiting to be written
+			final int window = 2 * parallelism;
+
+			if (ordered) {
+
+				final Deque<Future<Chunk>> pendingChunks = new ArrayDeque<>();
+
+				for (int from = 0; from < recordNodeIds.length; from += RECORDS_PER_CHUNK) {
+
+					if (pendingChunks.size() >= window) {
+
+						writeChunk(chunkWriter, pendingChunks.poll().get());
+					}
+
+					pendingChunks.add(workerService.submit(createChunkTask(recordNodeIds, from, version)));
+				}
+
+				while (!pendingChunks.isEmpty()) {
+
+					writeChunk(chunkWriter, pendingChunks.poll().get());
+				}
+			} else {
+
+				final CompletionService<Chunk> completionService = new ExecutorCompletionService<>(workerService);
+				int pendingChunks = 0;
+
+				for (int from = 0; from < recordNodeIds.length; from += RECORDS_PER_CHUNK) {
+
+					if (pendingChunks >= window) {
+
+						writeChunk(chunkWriter, completionService.take().get());
+						pendingChunks--;
+					}
+
+					completionService.submit(createChunkTask(recordNodeIds, from, version));
+					pendingChunks++;
+				}
+
+				for (; pendingChunks > 0; pendingChunks--) {
+
+					writeChunk(chunkWriter, completionService.take().get());
+				}
+			}
+
+			outputStream.write(']');
+			outputStream.flush();
+
+			LOG.debug("finished read {} successfully", TYPE);
+		} catch (final InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+
+			throw new DMPGraphException(String.format("%s read was interrupted", TYPE), e);
+		} catch (final ExecutionException | IOException e) {
+
+			final String message = String.format("couldn't finish %s read successfully", TYPE);
+
+			LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		} finally {
+
+			workerService.shutdownNow();
+		}
+	}
+
+	public long readResources() {
+
+		return readResources;
+	}
+
+	@Override
+	public long countStatements() {
+
+		return size;
+	}
+
+	/**
+	 * note: should be run in transaction scope
+	 */
+	private long[] findRecordNodeIds() {
+
+		if (optionalRecordNodeIds.isPresent()) {
+
+			return optionalRecordNodeIds.get();
+		}
+
+		final Label recordClassLabel = DynamicLabel.label(recordClassUri);
+		final LongArrayList recordNodeIds = new LongArrayList();
+		final int atMost = optionalAtMost.orElse(Integer.MAX_VALUE);
+
+		final ResourceIterator<Node> recordNodesIter = database.findNodes(recordClassLabel, GraphStatics.DATA_MODEL_PROPERTY, prefixedDataModelUri);
+
+		if (recordNodesIter == null) {
+
+			return new long[0];
+		}
+
+		try {
+
+			while (recordNodesIter.hasNext() && recordNodeIds.size() < atMost) {
+
+				recordNodeIds.add(recordNodesIter.next().getId());
+			}
+		} finally {
+
+			recordNodesIter.close();
+		}
+
+		return recordNodeIds.toArray();
+	}
+
+	private Callable<Chunk> createChunkTask(final long[] recordNodeIds, final int from, final int version) {
+
+		final long[] chunkRecordNodeIds = Arrays.copyOfRange(recordNodeIds, from, Math.min(from + RECORDS_PER_CHUNK, recordNodeIds.length));
+
+		return () -> readChunk(chunkRecordNodeIds, version);
+	}
+
+	/**
+	 * Reads and serialises the records of a chunk (executed by a worker).
+	 */
+	private Chunk readChunk(final long[] chunkRecordNodeIds, final int version) throws DMPGraphException, IOException {
+
+		// the namespace index is shared with the other workers, i.e., lookups from this thread need to happen in an own transaction
+		final TransactionHandler workerTx = new Neo4jTransactionHandler(database);
+		namespaceIndex.bindTransactionHandler(workerTx);
+
+		workerTx.ensureRunningTx();
+
+		try {
+
+			// a reader per chunk, i.e., it is bound to the transaction of this chunk
+			final PropertyGraphGDMRecordReader reader = new PropertyGraphGDMRecordReader(prefixedDataModelUri, version, database, workerTx,
+					namespaceIndex);
+
+			final ByteArrayOutputStream chunkOutputStream = new ByteArrayOutputStream();
+			final JsonGenerator generator = objectMapper.getFactory().createGenerator(chunkOutputStream);
+			generator.setRootValueSeparator(null);
+
+			int chunkResources = 0;
+			long chunkStatements = 0;
+
+			for (final long recordNodeId : chunkRecordNodeIds) {
+
+				final Optional<Resource> optionalResource = reader.read(database.getNodeById(recordNodeId));
+
+				if (!optionalResource.isPresent()) {
+
+					continue;
+				}
+
+				final Resource resource = optionalResource.get();
+
+				if (chunkResources > 0) {
+
+					generator.writeRaw(',');
+				}
+
+				PropertyGraphGDMRecordReader.writeResource(resource, generator);
+
+				chunkResources++;
+				chunkStatements += resource.size();
+			}
+
+			generator.close();
+			workerTx.succeedTx();
+
+			return new Chunk(chunkOutputStream.toByteArray(), chunkResources, chunkStatements);
+		} catch (final Exception e) {
+
+			workerTx.failTx();
+
+			throw e;
+		} finally {
+
+			namespaceIndex.unbindTransactionHandler();
+		}
+	}
+
+	private void writeChunk(final Chunk.Writer chunkWriter, final Chunk chunk) throws IOException {
+
+		chunkWriter.write(chunk);
+
+		readResources += chunk.resources;
+		size += chunk.statements;
+	}
+
+	private static final class Chunk {
+
+		private final byte[] json;
+		private final int    resources;
+		private final long   statements;
+
+		private Chunk(final byte[] jsonArg, final int resourcesArg, final long statementsArg) {
+
+			json = jsonArg;
+			resources = resourcesArg;
+			statements = statementsArg;
+		}
+
+		/**
+		 * writes the (comma-separated) resources of the chunks as elements of one JSON array
+		 */
+		private static final class Writer {
+
+			private final OutputStream outputStream;
+			private       boolean      first = true;
+
+			private Writer(final OutputStream outputStreamArg) {
+
+				outputStream = outputStreamArg;
+			}
+
+			private void write(final Chunk chunk) throws IOException {
+
+				if (chunk.resources == 0) {
+
+					return;
+				}
+
+				if (!first) {
+
+					outputStream.write(',');
+				}
+
+				outputStream.write(chunk.json);
+				first = false;
+			}
+		}
+	}
+}
@@ -16,13 +16,17 @@
  */
 package org.dswarm.graph.gdm.read;
 
+import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.google.common.collect.Iterators;
 import org.neo4j.graphdb.DynamicLabel;
 import org.neo4j.graphdb.GraphDatabaseService;
@@ -37,6 +41,7 @@ import org.dswarm.graph.index.NamespaceIndex;
 import org.dswarm.graph.json.Resource;
 import org.dswarm.graph.json.Statement;
 import org.dswarm.graph.json.stream.ModelBuilder;
+import org.dswarm.graph.json.util.Util;
 import org.dswarm.graph.model.GraphStatics;
 import org.dswarm.graph.tx.TransactionHandler;
 
@@ -51,6 +56,12 @@ public class PropertyGraphGDMModelReader extends PropertyGraphGDMReader implemen
 
 	private final String recordClassUri;
 	private Optional<Integer> optionalAtMost;
+	private final Optional<ContinuationToken> optionalContinuationToken;
+
+	/**
+	 * the record node ids of the selected page (in node id order) or null, if the records are read in index order
+	 */
+	private long[] pageRecordNodeIds;
 
 	private long size = 0;
 	private long readResources = 0;
@@ -61,10 +72,92 @@ public class PropertyGraphGDMModelReader extends PropertyGraphGDMReader implemen
 	                                   final Optional<Integer> optionalAtMostArg, final GraphDatabaseService databaseArg, final TransactionHandler tx, final NamespaceIndex namespaceIndexArg)
 			throws DMPGraphException {
 
-		super(dataModelUriArg, optionalVersionArg, databaseArg, tx, namespaceIndexArg, TYPE);
+		this(recordClassUriArg, dataModelUriArg, optionalVersionArg, optionalAtMostArg, Optional.empty(), databaseArg, tx, namespaceIndexArg);
+	}
+
+	public PropertyGraphGDMModelReader(final String recordClassUriArg, final String dataModelUriArg, final Optional<Integer> optionalVersionArg,
+	                                   final Optional<Integer> optionalAtMostArg, final Optional<ContinuationToken> optionalContinuationTokenArg,
+	                                   final GraphDatabaseService databaseArg, final TransactionHandler tx, final NamespaceIndex namespaceIndexArg)
+			throws DMPGraphException {
+
+		// a following page needs to be read with the version of the first page
+		super(dataModelUriArg, determineVersion(optionalVersionArg, optionalContinuationTokenArg), databaseArg, tx, namespaceIndexArg, TYPE);
 
 		recordClassUri = recordClassUriArg;
 		optionalAtMost = optionalAtMostArg;
+		optionalContinuationToken = optionalContinuationTokenArg;
+	}
+
+	/**
+	 * note: only the record node ids after the continuation token are considered and only the next at_most of them are kept (in a bounded
+	 * heap of primitive ids), i.e., the records of previous pages are neither re-read nor sorted again
+	 */
+	@Override
+	public Optional<ContinuationToken> selectPage() throws DMPGraphException {
+
+		if (!optionalAtMost.isPresent() || optionalAtMost.get() < 1) {
+
+			throw new DMPGraphException(String.format("couldn't select page for %s read; a page requires a positive 'at most'", type));
+		}
+
+		tx.ensureRunningTx();
+
+		final long lastRecordNodeId = optionalContinuationToken.isPresent() ? optionalContinuationToken.get().getLastRecordNodeId() : -1;
+
+		// max-heap of the smallest record node ids after the continuation token
+		final PageHeap pageHeap = new PageHeap(optionalAtMost.get());
+		long followingRecordNodes = 0;
+
+		try {
+
+			final Label recordClassLabel = DynamicLabel.label(recordClassUri);
+
+			final ResourceIterator<Node> recordNodesIter = database.findNodes(recordClassLabel, GraphStatics.DATA_MODEL_PROPERTY,
+					prefixedDataModelUri);
+
+			if (recordNodesIter != null) {
+
+				while (recordNodesIter.hasNext()) {
+
+					final long recordNodeId = recordNodesIter.next().getId();
+
+					if (recordNodeId <= lastRecordNodeId) {
+
+						continue;
+					}
+
+					followingRecordNodes++;
+
+					pageHeap.offer(recordNodeId);
+				}
+
+				recordNodesIter.close();
+			}
+
+			tx.succeedTx();
+		} catch (final Exception e) {
+
+			tx.failTx();
+
+			final String message = String.format("couldn't select page for %s read", type);
+
+			PropertyGraphGDMModelReader.LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		}
+
+		pageRecordNodeIds = pageHeap.toSortedArray();
+
+		PropertyGraphGDMModelReader.LOG
+				.debug("selected page with '{}' of '{}' following records for class '{}' in data model '{}' with version '{}'",
+						pageRecordNodeIds.length, followingRecordNodes, recordClassUri, prefixedDataModelUri, version);
+
+		if (pageRecordNodeIds.length > 0 && followingRecordNodes > pageRecordNodeIds.length) {
+
+			return Optional.of(new ContinuationToken(pageRecordNodeIds[pageRecordNodeIds.length - 1], version));
+		}
+
+		return Optional.empty();
 	}
 
 	@Override
@@ -84,8 +177,7 @@ public class PropertyGraphGDMModelReader extends PropertyGraphGDMReader implemen
 					.debug("try to read resources for class '{}' in data model '{}' with version '{}'", recordClassLabel, prefixedDataModelUri,
 							version);
 
-			recordNodesIter = database.findNodes(recordClassLabel, GraphStatics.DATA_MODEL_PROPERTY,
-					prefixedDataModelUri);
+			recordNodesIter = findRecordNodes(recordClassLabel);
 
 			if (recordNodesIter == null) {
 
@@ -190,6 +282,294 @@ public class PropertyGraphGDMModelReader extends PropertyGraphGDMReader implemen
 		return Optional.of(modelBuilder);
 	}
 
+	@Override
+	public void stream(final OutputStream outputStream) throws DMPGraphException {
+
+		readResources = 0;
+		size = 0;
+
+		tx.ensureRunningTx();
+
+		ResourceIterator<Node> recordNodesIter = null;
+		JsonGenerator generator = null;
+
+		try {
+
+			final Label recordClassLabel = DynamicLabel.label(recordClassUri);
+
+			PropertyGraphGDMModelReader.LOG
+					.debug("try to stream resources for class '{}' in data model '{}' with version '{}'", recordClassLabel, prefixedDataModelUri,
+							version);
+
+			recordNodesIter = findRecordNodes(recordClassLabel);
+
+			generator = Util.getJSONObjectMapper().getFactory().createGenerator(outputStream);
+			// i.e. the output stream is owned by the caller and a failed stream shouldn't be completed to valid JSON
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+			generator.writeStartArray();
+
+			if (recordNodesIter != null) {
+
+				final Iterator<Node> nodeIterator;
+
+				if (optionalAtMost.isPresent()) {
+
+					nodeIterator = Iterators.limit(recordNodesIter, optionalAtMost.get());
+				} else {
+
+					nodeIterator = recordNodesIter;
+				}
+
+				statementBuffer = new StatementIndexBuffer();
+
+				while (nodeIterator.hasNext()) {
+
+					final Node recordNode = nodeIterator.next();
+					final String resourceUri = (String) recordNode.getProperty(GraphStatics.URI_PROPERTY, null);
+
+					if (resourceUri == null) {
+
+						LOG.debug("there is no resource URI at record node '{}'", recordNode.getId());
+
+						continue;
+					}
+
+					clearStatementBuffer();
+					startNodeHandler.handleNode(recordNode);
+
+					if (statementBuffer.isEmpty()) {
+
+						LOG.debug("couldn't find any statement for resource '{}' in data model '{}' with version '{}'", resourceUri,
+								prefixedDataModelUri, version);
+
+						continue;
+					}
+
+					// i.e. the statements will be emitted in index order
+					statementBuffer.sort();
+
+					final String fullResourceURI = namespaceIndex.createFullURI(resourceUri);
+
+					generator.writeStartObject();
+					generator.writeArrayFieldStart(fullResourceURI);
+
+					for (int i = 0; i < statementBuffer.size(); i++) {
+
+						final Optional<Statement> optionalStatement = readBufferedStatement(statementBuffer.getReference(i));
+
+						if (optionalStatement.isPresent()) {
+
+							generator.writeObject(optionalStatement.get());
+							size++;
+						}
+					}
+
+					generator.writeEndArray();
+					generator.writeEndObject();
+
+					readResources++;
+				}
+
+				recordNodesIter.close();
+			}
+
+			generator.writeEndArray();
+			generator.flush();
+
+			tx.succeedTx();
+
+			PropertyGraphGDMModelReader.LOG.debug("finished stream {} TX successfully", type);
+		} catch (final Exception e) {
+
+			final String message = String.format("couldn't finished stream %s TX successfully", type);
+
+			PropertyGraphGDMModelReader.LOG.error(message, e);
+
+			if (recordNodesIter != null) {
+
+				recordNodesIter.close();
+			}
+
+			tx.failTx();
+
+			throw new DMPGraphException(message, e);
+		} finally {
+
+			statementBuffer = null;
+
+			if (generator != null) {
+
+				try {
+
+					generator.close();
+				} catch (final IOException e) {
+
+					PropertyGraphGDMModelReader.LOG.error("couldn't close JSON generator of {} stream", type, e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * note: should be run in transaction scope
+	 */
+	private ResourceIterator<Node> findRecordNodes(final Label recordClassLabel) {
+
+		if (pageRecordNodeIds == null) {
+
+			return database.findNodes(recordClassLabel, GraphStatics.DATA_MODEL_PROPERTY, prefixedDataModelUri);
+		}
+
+		return new PageRecordNodesIterator();
+	}
+
+	private static Optional<Integer> determineVersion(final Optional<Integer> optionalVersion,
+			final Optional<ContinuationToken> optionalContinuationToken) throws DMPGraphException {
+
+		if (!optionalContinuationToken.isPresent()) {
+
+			return optionalVersion;
+		}
+
+		final int tokenVersion = optionalContinuationToken.get().getVersion();
+
+		if (optionalVersion.isPresent() && optionalVersion.get() != tokenVersion) {
+
+			throw new DMPGraphException(String.format("the continuation token was issued for version '%d' and not for version '%d'", tokenVersion,
+					optionalVersion.get()));
+		}
+
+		return Optional.of(tokenVersion);
+	}
+
+	private class PageRecordNodesIterator implements ResourceIterator<Node> {
+
+		private int position = 0;
+
+		@Override
+		public boolean hasNext() {
+
+			return position < pageRecordNodeIds.length;
+		}
+
+		@Override
+		public Node next() {
+
+			if (!hasNext()) {
+
+				throw new NoSuchElementException();
+			}
+
+			return database.getNodeById(pageRecordNodeIds[position++]);
+		}
+
+		@Override
+		public void remove() {
+
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close() {
+
+			// nothing to release
+		}
+	}
+
+	/**
+	 * A bounded max-heap of primitive record node ids that keeps the smallest ids offered, i.e., the ids of a page (without boxing them). The
+	 * heap array grows on demand (up to the bound), i.e., a large page size doesn't allocate a large array for a small data model.
+	 */
+	private static final class PageHeap {
+
+		private static final int INITIAL_CAPACITY = 1024;
+
+		private final int bound;
+
+		private long[] heap;
+		private int    size;
+
+		private PageHeap(final int boundArg) {
+
+			bound = boundArg;
+			heap = new long[Math.min(bound, INITIAL_CAPACITY)];
+		}
+
+		private void offer(final long value) {
+
+			if (size < bound) {
+
+				if (size == heap.length) {
+
+					heap = Arrays.copyOf(heap, (int) Math.min(bound, 2L * heap.length));
+				}
+
+				int child = size++;
+
+				// sift up
+				while (child > 0) {
+
+					final int parent = (child - 1) >>> 1;
+
+					if (heap[parent] >= value) {
+
+						break;
+					}
+
+					heap[child] = heap[parent];
+					child = parent;
+				}
+
+				heap[child] = value;
+
+				return;
+			}
+
+			if (value >= heap[0]) {
+
+				return;
+			}
+
+			// replace the largest id and sift down
+			int parent = 0;
+
+			while (true) {
+
+				int child = (parent << 1) + 1;
+
+				if (child >= size) {
+
+					break;
+				}
+
+				if (child + 1 < size && heap[child + 1] > heap[child]) {
+
+					child++;
+				}
+
+				if (heap[child] <= value) {
+
+					break;
+				}
+
+				heap[parent] = heap[child];
+				parent = child;
+			}
+
+			heap[parent] = value;
+		}
+
+		private long[] toSortedArray() {
+
+			final long[] sorted = Arrays.copyOf(heap, size);
+
+			Arrays.sort(sorted);
+
+			return sorted;
+		}
+	}
+
 	@Override
 	public long readResources() {
 
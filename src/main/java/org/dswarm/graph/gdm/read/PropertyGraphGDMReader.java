@@ -24,7 +24,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
 
-import org.apache.jena.vocabulary.RDF;
+import com.carrotsearch.hppc.LongObjectOpenHashMap;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
@@ -33,18 +33,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.NodeType;
 import org.dswarm.graph.delta.util.GraphDBUtil;
 import org.dswarm.graph.index.NamespaceIndex;
 import org.dswarm.graph.json.Predicate;
 import org.dswarm.graph.json.Resource;
-import org.dswarm.graph.json.ResourceNode;
 import org.dswarm.graph.json.Statement;
 import org.dswarm.graph.model.GraphStatics;
 import org.dswarm.graph.read.NodeHandler;
 import org.dswarm.graph.read.RelationshipHandler;
 import org.dswarm.graph.tx.TransactionHandler;
-import org.dswarm.graph.versioning.Range;
-import org.dswarm.graph.versioning.VersioningStatics;
+import org.dswarm.graph.utils.GraphUtils;
+import org.dswarm.graph.versioning.VersionPredicate;
 import org.dswarm.graph.versioning.utils.GraphVersionUtils;
 
 /**
@@ -60,6 +60,13 @@ public abstract class PropertyGraphGDMReader implements GDMReader {
 
 	protected final String prefixedDataModelUri;
 	protected Integer version;
+	protected final VersionPredicate versionPredicate;
+
+	/**
+	 * true, if the latest version of a data model that marks its historic statements is read, i.e., the statements can be filtered
+	 * without loading their version properties
+	 */
+	protected final boolean historicStatementsMarked;
 
 	protected final GraphDatabaseService database;
 	protected final NamespaceIndex namespaceIndex;
@@ -67,12 +74,26 @@ public abstract class PropertyGraphGDMReader implements GDMReader {
 	protected Resource currentResource;
 	protected final Map<Long, List<Statement>> currentResourceStatements = new TreeMap<>();
 
+	/**
+	 * if present, the traversal only collects (index, relationship id) pairs of the statements of the current resource, i.e., the
+	 * statements can be streamed in index order afterwards (see {@link #readBufferedStatement(long)}); rdf:type statements are collected
+	 * with the complement of the id of their subject node
+	 */
+	protected StatementIndexBuffer statementBuffer;
+
+	protected final PropertyGraphGDMReaderHelper propertyGraphGDMReaderHelper;
+
 	protected final TransactionHandler tx;
 
 	protected final String type;
 
 	private final Set<Long> processedNodes = new HashSet<>();
-	private final Predicate rdfType = new Predicate(RDF.type.getURI());
+
+	/**
+	 * the node types of the nodes of the buffered statements of the current resource, i.e., the type of a node is only determined once
+	 * while buffering and reading its statements
+	 */
+	private final LongObjectOpenHashMap<NodeType> bufferedNodeTypes = new LongObjectOpenHashMap<>();
 
 	public PropertyGraphGDMReader(final String prefixedDataModelUriArg, final Optional<Integer> optionalVersionArg,
 	                              final GraphDatabaseService databaseArg,
@@ -87,6 +108,8 @@ public abstract class PropertyGraphGDMReader implements GDMReader {
 		namespaceIndex = namespaceIndexArg;
 		type = typeArg;
 
+		boolean marksHistoricStatements = false;
+
 		if (optionalVersionArg.isPresent()) {
 
 			version = optionalVersionArg.get();
@@ -99,6 +122,7 @@ public abstract class PropertyGraphGDMReader implements GDMReader {
 			try {
 
 				version = GraphVersionUtils.getLatestVersion(prefixedDataModelUri, database);
+				marksHistoricStatements = GraphVersionUtils.marksHistoricStatements(prefixedDataModelUri, database);
 			} catch (final Exception e) {
 
 				final String message = "couldn't retrieve latest version successfully";
@@ -112,11 +136,29 @@ public abstract class PropertyGraphGDMReader implements GDMReader {
 			}
 		}
 
+		versionPredicate = new VersionPredicate(version);
+		historicStatementsMarked = marksHistoricStatements;
+		propertyGraphGDMReaderHelper = new PropertyGraphGDMReaderHelper(namespaceIndex);
 		nodeHandler = new CBDNodeHandler();
 		startNodeHandler = new CBDStartNodeHandler();
 		relationshipHandler = new CBDRelationshipHandler();
 	}
 
+	/**
+	 * @param relationship       an outgoing relationship of a node
+	 * @param historicStatements the historic statements of this node (only utilised, if historic statements are marked)
+	 * @return true, if the given statement is valid in the version that is read
+	 */
+	protected boolean isCurrentStatement(final Relationship relationship, final long[] historicStatements) {
+
+		if (historicStatementsMarked) {
+
+			return !GraphVersionUtils.isHistoricStatement(historicStatements, relationship);
+		}
+
+		return versionPredicate.test(relationship);
+	}
+
 	private class CBDNodeHandler implements NodeHandler {
 
 		@Override
@@ -128,21 +170,12 @@ public abstract class PropertyGraphGDMReader implements GDMReader {
 			if (!node.hasProperty(GraphStatics.URI_PROPERTY)) {
 
 				final Iterable<Relationship> relationships = node.getRelationships(Direction.OUTGOING);
+				final long[] historicStatements = historicStatementsMarked ? GraphVersionUtils.getHistoricStatements(node) : null;
 
 				for (final Relationship relationship : relationships) {
 
-					final Integer validFrom = (Integer) relationship.getProperty(VersioningStatics.VALID_FROM_PROPERTY, null);
-					final Integer validTo = (Integer) relationship.getProperty(VersioningStatics.VALID_TO_PROPERTY, null);
-
-					if (validFrom != null && validTo != null) {
-
-						if (Range.range(validFrom, validTo).contains(version)) {
+					if (isCurrentStatement(relationship, historicStatements)) {
 
-							relationshipHandler.handleRelationship(relationship);
-						}
-					} else {
-
-						// TODO: remove this later, when every stmt is versioned
 						relationshipHandler.handleRelationship(relationship);
 					}
 				}
@@ -161,21 +194,12 @@ public abstract class PropertyGraphGDMReader implements GDMReader {
 			if (node.hasProperty(GraphStatics.URI_PROPERTY)) {
 
 				final Iterable<Relationship> relationships = node.getRelationships(Direction.OUTGOING);
+				final long[] historicStatements = historicStatementsMarked ? GraphVersionUtils.getHistoricStatements(node) : null;
 
 				for (final Relationship relationship : relationships) {
 
-					final Integer validFrom = (Integer) relationship.getProperty(VersioningStatics.VALID_FROM_PROPERTY, null);
-					final Integer validTo = (Integer) relationship.getProperty(VersioningStatics.VALID_TO_PROPERTY, null);
-
-					if (validFrom != null && validTo != null) {
-
-						if (Range.range(validFrom, validTo).contains(version)) {
+					if (isCurrentStatement(relationship, historicStatements)) {
 
-							relationshipHandler.handleRelationship(relationship);
-						}
-					} else {
-
-						// TODO: remove this later, when every stmt is versioned
 						relationshipHandler.handleRelationship(relationship);
 					}
 				}
@@ -185,8 +209,6 @@ public abstract class PropertyGraphGDMReader implements GDMReader {
 
 	private class CBDRelationshipHandler implements RelationshipHandler {
 
-		private final PropertyGraphGDMReaderHelper propertyGraphGDMReaderHelper = new PropertyGraphGDMReaderHelper(namespaceIndex);
-
 		@Override
 		public void handleRelationship(final Relationship rel) throws DMPGraphException {
 
@@ -194,53 +216,24 @@ public abstract class PropertyGraphGDMReader implements GDMReader {
 			// written right now for model that came as GDM JSON)
 			if (rel.getProperty(GraphStatics.DATA_MODEL_PROPERTY).equals(prefixedDataModelUri)) {
 
-				final long statementId = rel.getId();
+				if (statementBuffer != null) {
+
+					bufferStatement(rel);
+
+					return;
+				}
 
 				// subject
 
 				final Node subjectNode = rel.getStartNode();
 				final org.dswarm.graph.json.Node subjectGDMNode = propertyGraphGDMReaderHelper.readSubject(subjectNode);
 
-				// predicate
-
-				final String predicate = rel.getType().name();
-				final String fullPredicateURI = namespaceIndex.createFullURI(predicate);
-				final Predicate predicateProperty = new Predicate(fullPredicateURI);
-
 				// object
 
 				final Node objectNode = rel.getEndNode();
 				final org.dswarm.graph.json.Node objectGDMNode = propertyGraphGDMReaderHelper.readObject(objectNode);
 
-				// qualified properties at relationship (statement)
-
-				final Long uuid = (Long) rel.getProperty(GraphStatics.UUID_PROPERTY, null);
-				final Long order = (Long) rel.getProperty(GraphStatics.ORDER_PROPERTY, null);
-				final String confidence = (String) rel.getProperty(GraphStatics.CONFIDENCE_PROPERTY, null);
-				final String evidence = (String) rel.getProperty(GraphStatics.EVIDENCE_PROPERTY, null);
-
-				final Statement statement = new Statement(subjectGDMNode, predicateProperty, objectGDMNode);
-				statement.setId(statementId);
-
-				if (order != null) {
-
-					statement.setOrder(order);
-				}
-
-				if (uuid != null) {
-
-					statement.setUUID(uuid.toString());
-				}
-
-				if (confidence != null) {
-
-					statement.setConfidence(confidence);
-				}
-
-				if (evidence != null) {
-
-					statement.setEvidence(evidence);
-				}
+				final Statement statement = createStatement(rel, subjectGDMNode, objectGDMNode);
 
 				// index should never be null (when resource was written as GDM JSON)
 				final Long index = (Long) rel.getProperty(GraphStatics.INDEX_PROPERTY, null);
@@ -278,6 +271,139 @@ public abstract class PropertyGraphGDMReader implements GDMReader {
 		}
 	}
 
+	/**
+	 * Forgets the nodes whose rdf:type statements were already emitted, i.e., the next resource will be read independently from the
+	 * previous ones.
+	 */
+	protected void clearProcessedNodes() {
+
+		processedNodes.clear();
+	}
+
+	/**
+	 * Clears the statement buffer (and the node types of its nodes) for buffering the statements of the next resource.
+	 */
+	protected void clearStatementBuffer() {
+
+		statementBuffer.clear();
+		bufferedNodeTypes.clear();
+	}
+
+	private NodeType determineBufferedNodeType(final Node node) throws DMPGraphException {
+
+		final long nodeId = node.getId();
+
+		if (bufferedNodeTypes.containsKey(nodeId)) {
+
+			return bufferedNodeTypes.lget();
+		}
+
+		final NodeType nodeType = GraphUtils.determineNodeType(node);
+
+		bufferedNodeTypes.put(nodeId, nodeType);
+
+		return nodeType;
+	}
+
+	private void bufferStatement(final Relationship rel) throws DMPGraphException {
+
+		// note: statements without index (i.e. of models that were written from RDF) are emitted after the indexed ones in traversal order
+		final Long index = (Long) rel.getProperty(GraphStatics.INDEX_PROPERTY, null);
+		final long finalIndex = index != null ? index : Long.MAX_VALUE;
+
+		optionallyBufferRDFTypeStatement(rel.getStartNode(), finalIndex);
+
+		statementBuffer.add(finalIndex, rel.getId());
+
+		final Node objectNode = rel.getEndNode();
+
+		if (!NodeType.Literal.equals(determineBufferedNodeType(objectNode))) {
+
+			optionallyBufferRDFTypeStatement(objectNode, finalIndex);
+
+			// continue traversal with object node
+			nodeHandler.handleNode(objectNode);
+		}
+	}
+
+	private void optionallyBufferRDFTypeStatement(final Node node, final long index) {
+
+		final long nodeId = node.getId();
+
+		if (processedNodes.add(nodeId)) {
+
+			statementBuffer.add(index, ~nodeId);
+		}
+	}
+
+	/**
+	 * Materialises a buffered statement, i.e., a statement of a relationship (reference = relationship id) or an rdf:type statement
+	 * (reference = complement of the node id).
+	 *
+	 * @param reference a reference from the statement buffer
+	 * @return the statement or nothing, if the referenced node has no type
+	 */
+	protected Optional<Statement> readBufferedStatement(final long reference) throws DMPGraphException {
+
+		if (reference < 0) {
+
+			final Node node = database.getNodeById(~reference);
+
+			// i.e. the node is the subject of its rdf:type statement
+			return createRDFTypeStatement(node, propertyGraphGDMReaderHelper.readSubject(node, determineBufferedNodeType(node)));
+		}
+
+		final Relationship rel = database.getRelationshipById(reference);
+		final Node subjectNode = rel.getStartNode();
+		final Node objectNode = rel.getEndNode();
+		final org.dswarm.graph.json.Node subjectGDMNode = propertyGraphGDMReaderHelper.readSubject(subjectNode,
+				determineBufferedNodeType(subjectNode));
+		final org.dswarm.graph.json.Node objectGDMNode = propertyGraphGDMReaderHelper.readObject(objectNode,
+				determineBufferedNodeType(objectNode));
+
+		return Optional.of(createStatement(rel, subjectGDMNode, objectGDMNode));
+	}
+
+	private Statement createStatement(final Relationship rel, final org.dswarm.graph.json.Node subjectGDMNode,
+			final org.dswarm.graph.json.Node objectGDMNode) throws DMPGraphException {
+
+		// predicate
+
+		final Predicate predicateProperty = propertyGraphGDMReaderHelper.getFullPredicate(rel.getType().name());
+
+		// qualified properties at relationship (statement)
+
+		final Long uuid = (Long) rel.getProperty(GraphStatics.UUID_PROPERTY, null);
+		final Long order = (Long) rel.getProperty(GraphStatics.ORDER_PROPERTY, null);
+		final String confidence = (String) rel.getProperty(GraphStatics.CONFIDENCE_PROPERTY, null);
+		final String evidence = (String) rel.getProperty(GraphStatics.EVIDENCE_PROPERTY, null);
+
+		final Statement statement = new Statement(subjectGDMNode, predicateProperty, objectGDMNode);
+		statement.setId(rel.getId());
+
+		if (order != null) {
+
+			statement.setOrder(order);
+		}
+
+		if (uuid != null) {
+
+			statement.setUUID(uuid.toString());
+		}
+
+		if (confidence != null) {
+
+			statement.setConfidence(confidence);
+		}
+
+		if (evidence != null) {
+
+			statement.setEvidence(evidence);
+		}
+
+		return statement;
+	}
+
 	private void optionallyAddRDFTypeStatement(final Node node, final org.dswarm.graph.json.Node gdmNode, final long index) throws DMPGraphException {
 
 		final long nodeId = node.getId();
@@ -324,11 +450,7 @@ public abstract class PropertyGraphGDMReader implements GDMReader {
 
 			return Optional.empty();
 		}
-		final String typeLabel = optionalTypeLabel.get();
-		final String fullTypeURI = namespaceIndex.createFullURI(typeLabel);
-		final org.dswarm.graph.json.Node typeNode = new ResourceNode(fullTypeURI);
-
-		return Optional.of(new Statement(gdmNode, rdfType, typeNode));
+		return Optional.of(propertyGraphGDMReaderHelper.createRDFTypeStatement(gdmNode, optionalTypeLabel.get()));
 	}
 
 	private void addStatement(final long index, final Statement statement) {
@@ -19,6 +19,8 @@ package org.dswarm.graph.gdm.read;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.jena.vocabulary.RDF;
+
 import org.dswarm.graph.DMPGraphException;
 import org.dswarm.graph.NodeType;
 import org.dswarm.graph.index.NamespaceIndex;
@@ -44,6 +46,16 @@ public class PropertyGraphGDMReaderHelper {
 	private final Map<String, ResourceNode>             resourceNodes = new HashMap<>();
 	private final Map<String, Predicate>                predicates    = new HashMap<>();
 
+	/**
+	 * read-scoped caches of the expanded URIs, the predicates (with expanded URIs) and the type nodes, i.e., each of them is only
+	 * expanded/created once per read (keyed by prefixed URI)
+	 */
+	private final Map<String, String>       fullURIs       = new HashMap<>();
+	private final Map<String, Predicate>    fullPredicates = new HashMap<>();
+	private final Map<String, ResourceNode> typeNodes      = new HashMap<>();
+
+	private final Predicate rdfType = new Predicate(RDF.type.getURI());
+
 	private final NamespaceIndex namespaceIndex;
 
 	public PropertyGraphGDMReaderHelper(final NamespaceIndex namespaceIndexArg) {
@@ -53,8 +65,18 @@ public class PropertyGraphGDMReaderHelper {
 
 	public org.dswarm.graph.json.Node readSubject(final Node subjectNode) throws DMPGraphException {
 
+		return readSubject(subjectNode, GraphUtils.determineNodeType(subjectNode));
+	}
+
+	/**
+	 * @param subjectNode     the subject node
+	 * @param subjectNodeType the (already determined) node type of the subject node
+	 * @return the GDM node of the subject node
+	 * @throws DMPGraphException
+	 */
+	public org.dswarm.graph.json.Node readSubject(final Node subjectNode, final NodeType subjectNodeType) throws DMPGraphException {
+
 		final long subjectId = subjectNode.getId();
-		final NodeType subjectNodeType = GraphUtils.determineNodeType(subjectNode);
 
 		final org.dswarm.graph.json.Node subjectGDMNode;
 
@@ -86,8 +108,18 @@ public class PropertyGraphGDMReaderHelper {
 
 	public org.dswarm.graph.json.Node readObject(final Node objectNode) throws DMPGraphException {
 
+		return readObject(objectNode, GraphUtils.determineNodeType(objectNode));
+	}
+
+	/**
+	 * @param objectNode     the object node
+	 * @param objectNodeType the (already determined) node type of the object node
+	 * @return the GDM node of the object node
+	 * @throws DMPGraphException
+	 */
+	public org.dswarm.graph.json.Node readObject(final Node objectNode, final NodeType objectNodeType) throws DMPGraphException {
+
 		final long objectId = objectNode.getId();
-		final NodeType objectNodeType = GraphUtils.determineNodeType(objectNode);
 
 		final org.dswarm.graph.json.Node objectGDMNode;
 
@@ -164,6 +196,63 @@ public class PropertyGraphGDMReaderHelper {
 		return statement;
 	}
 
+	/**
+	 * @param prefixedPredicateURI the (prefixed) predicate URI, i.e., the relationship type name
+	 * @return the (shared) predicate with the expanded URI
+	 * @throws DMPGraphException
+	 */
+	public Predicate getFullPredicate(final String prefixedPredicateURI) throws DMPGraphException {
+
+		Predicate predicate = fullPredicates.get(prefixedPredicateURI);
+
+		if (predicate == null) {
+
+			predicate = new Predicate(createFullURI(prefixedPredicateURI));
+			fullPredicates.put(prefixedPredicateURI, predicate);
+		}
+
+		return predicate;
+	}
+
+	/**
+	 * Creates an rdf:type statement with the (shared) rdf:type predicate and the (shared) type node of the given type label.
+	 *
+	 * @param gdmNode   the subject
+	 * @param typeLabel the (prefixed) type URI
+	 * @return the rdf:type statement
+	 * @throws DMPGraphException
+	 */
+	public Statement createRDFTypeStatement(final org.dswarm.graph.json.Node gdmNode, final String typeLabel) throws DMPGraphException {
+
+		ResourceNode typeNode = typeNodes.get(typeLabel);
+
+		if (typeNode == null) {
+
+			typeNode = new ResourceNode(createFullURI(typeLabel));
+			typeNodes.put(typeLabel, typeNode);
+		}
+
+		return new Statement(gdmNode, rdfType, typeNode);
+	}
+
+	/**
+	 * @param prefixedURI a prefixed URI
+	 * @return the (cached) expanded URI
+	 * @throws DMPGraphException
+	 */
+	public String createFullURI(final String prefixedURI) throws DMPGraphException {
+
+		String fullURI = fullURIs.get(prefixedURI);
+
+		if (fullURI == null) {
+
+			fullURI = namespaceIndex.createFullURI(prefixedURI);
+			fullURIs.put(prefixedURI, fullURI);
+		}
+
+		return fullURI;
+	}
+
 	private Predicate getPredicate(final String predicateName) {
 
 		if(!predicates.containsKey(predicateName)) {
@@ -188,20 +277,16 @@ public class PropertyGraphGDMReaderHelper {
 			throw new DMPGraphException(message);
 		}
 
-		final String fullResourceURI = namespaceIndex.createFullURI(resourceURI);
-
 		final String dataModelURI = (String) node.getProperty(GraphStatics.DATA_MODEL_PROPERTY, null);
 
 		final ResourceNode resourceNode;
 
 		if (dataModelURI == null) {
 
-			resourceNode = createResourceFromURI(node.getId(), resourceURI, fullResourceURI);
+			resourceNode = createResourceFromURI(node.getId(), resourceURI);
 		} else {
 
-			final String fullDataModelURI = namespaceIndex.createFullURI(dataModelURI);
-
-			resourceNode = createResourceFromURIAndDataModel(node.getId(), resourceURI, fullResourceURI, dataModelURI, fullDataModelURI);
+			resourceNode = createResourceFromURIAndDataModel(node.getId(), resourceURI, dataModelURI);
 		}
 
 		return resourceNode;
@@ -217,26 +302,32 @@ public class PropertyGraphGDMReaderHelper {
 		return bnodes.get(bnodeId);
 	}
 
-	private ResourceNode createResourceFromURI(final long id, final String uri, final String fullURI) {
+	private ResourceNode createResourceFromURI(final long id, final String uri) throws DMPGraphException {
+
+		ResourceNode resourceNode = resourceNodes.get(uri);
 
-		if (!resourceNodes.containsKey(uri)) {
+		if (resourceNode == null) {
 
-			resourceNodes.put(uri, new ResourceNode(id, fullURI));
+			// note: resource URIs are rather unique, i.e., they are only expanded once, but not cached separately
+			resourceNode = new ResourceNode(id, namespaceIndex.createFullURI(uri));
+			resourceNodes.put(uri, resourceNode);
 		}
 
-		return resourceNodes.get(uri);
+		return resourceNode;
 	}
 
-	private ResourceNode createResourceFromURIAndDataModel(final long id, final String uri, final String fullURI, final String dataModel, final String fullDataModelURI) {
-
-		if (!resourceNodes.containsKey(uri + dataModel)) {
+	private ResourceNode createResourceFromURIAndDataModel(final long id, final String uri, final String dataModel) throws DMPGraphException {
 
-			resourceNodes.put(uri + dataModel, new ResourceNode(id, fullURI, fullDataModelURI));
-		}
+		final String key = uri + dataModel;
 
-		return resourceNodes.get(uri + dataModel);
-	}
+		ResourceNode resourceNode = resourceNodes.get(key);
 
+		if (resourceNode == null) {
 
+			resourceNode = new ResourceNode(id, namespaceIndex.createFullURI(uri), createFullURI(dataModel));
+			resourceNodes.put(key, resourceNode);
+		}
 
+		return resourceNode;
+	}
 }
@@ -0,0 +1,132 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.gdm.read;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.index.NamespaceIndex;
+import org.dswarm.graph.json.Resource;
+import org.dswarm.graph.json.Statement;
+import org.dswarm.graph.model.GraphStatics;
+import org.dswarm.graph.tx.TransactionHandler;
+
+/**
+ * retrieves the CBD of a record node in the transaction of the caller, i.e., one reader can be utilised for reading many records (one
+ * after another)
+ *
+ * @author tgaengler
+ */
+class PropertyGraphGDMRecordReader extends PropertyGraphGDMReader {
+
+	private static final Logger LOG = LoggerFactory.getLogger(PropertyGraphGDMRecordReader.class);
+
+	private static final String TYPE = "GDM record";
+
+	PropertyGraphGDMRecordReader(final String prefixedDataModelUriArg, final int versionArg, final GraphDatabaseService databaseArg,
+			final TransactionHandler tx, final NamespaceIndex namespaceIndexArg) throws DMPGraphException {
+
+		super(prefixedDataModelUriArg, Optional.of(versionArg), databaseArg, tx, namespaceIndexArg, TYPE);
+	}
+
+	/**
+	 * note: should be run in transaction scope
+	 *
+	 * @param recordNode the record node to start traversal
+	 * @return the resource of the record node or nothing, if there is no resource URI or there are no statements
+	 * @throws DMPGraphException
+	 */
+	Optional<Resource> read(final Node recordNode) throws DMPGraphException {
+
+		final String resourceUri = (String) recordNode.getProperty(GraphStatics.URI_PROPERTY, null);
+
+		if (resourceUri == null) {
+
+			LOG.debug("there is no resource URI at record node '{}'", recordNode.getId());
+
+			return Optional.empty();
+		}
+
+		final String fullResourceURI = namespaceIndex.createFullURI(resourceUri);
+
+		currentResource = new Resource(fullResourceURI);
+		currentResourceStatements.clear();
+		clearProcessedNodes();
+
+		startNodeHandler.handleNode(recordNode);
+
+		if (!currentResourceStatements.isEmpty()) {
+
+			final Set<Statement> statements = new LinkedHashSet<>();
+
+			for (final List<Statement> statementList : currentResourceStatements.values()) {
+
+				statements.addAll(statementList);
+			}
+
+			currentResource.setStatements(statements);
+			currentResourceStatements.clear();
+		}
+
+		if (currentResource.size() == 0) {
+
+			LOG.debug("couldn't find any statement for resource '{}' ('{}') in data model '{}' with version '{}'", fullResourceURI, resourceUri,
+					prefixedDataModelUri, version);
+
+			return Optional.empty();
+		}
+
+		return Optional.of(currentResource);
+	}
+
+	/**
+	 * Writes the given resource as GDM JSON object, i.e., { "resource URI" : [ statements ] }.
+	 *
+	 * @param resource  the resource
+	 * @param generator the JSON generator
+	 * @throws IOException
+	 */
+	static void writeResource(final Resource resource, final JsonGenerator generator) throws IOException {
+
+		generator.writeStartObject();
+		generator.writeArrayFieldStart(resource.getUri());
+
+		for (final Statement statement : resource.getStatements()) {
+
+			generator.writeObject(statement);
+		}
+
+		generator.writeEndArray();
+		generator.writeEndObject();
+	}
+
+	@Override
+	public long countStatements() {
+
+		return currentResource != null ? currentResource.size() : 0;
+	}
+}
@@ -0,0 +1,196 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.gdm.read;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.NotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.index.NamespaceIndex;
+import org.dswarm.graph.json.Resource;
+import org.dswarm.graph.json.util.Util;
+import org.dswarm.graph.tx.TransactionHandler;
+import org.dswarm.graph.versioning.utils.GraphVersionUtils;
+
+/**
+ * Reads a batch of records (given by their record node ids), e.g., the result of a record search, in one go, i.e., the version is only
+ * determined once and all records are read in one read transaction (or in chunks by several workers, see
+ * {@link ParallelPropertyGraphGDMModelReader}) and streamed out as GDM model.
+ *
+ * @author tgaengler
+ */
+public class PropertyGraphGDMRecordsReader implements GDMReader {
+
+	private static final Logger LOG = LoggerFactory.getLogger(PropertyGraphGDMRecordsReader.class);
+
+	private static final String TYPE = "GDM records";
+
+	private final long[]               recordNodeIds;
+	private final String               prefixedDataModelUri;
+	private final Optional<Integer>    optionalVersion;
+	private final int                  parallelism;
+	private final boolean              ordered;
+	private final GraphDatabaseService database;
+	private final TransactionHandler   tx;
+	private final NamespaceIndex       namespaceIndex;
+
+	private long size          = 0;
+	private long readResources = 0;
+
+	public PropertyGraphGDMRecordsReader(final long[] recordNodeIdsArg, final String prefixedDataModelUriArg,
+			final Optional<Integer> optionalVersionArg, final int parallelismArg, final boolean orderedArg, final GraphDatabaseService databaseArg,
+			final TransactionHandler txArg, final NamespaceIndex namespaceIndexArg) {
+
+		recordNodeIds = recordNodeIdsArg;
+		prefixedDataModelUri = prefixedDataModelUriArg;
+		optionalVersion = optionalVersionArg;
+		parallelism = Math.max(1, parallelismArg);
+		ordered = orderedArg;
+		database = databaseArg;
+		tx = txArg;
+		namespaceIndex = namespaceIndexArg;
+	}
+
+	/**
+	 * Writes the records (as JSON array of resources) to the given output stream.
+	 *
+	 * @param outputStream the output stream for the GDM JSON
+	 * @throws DMPGraphException
+	 */
+	public void stream(final OutputStream outputStream) throws DMPGraphException {
+
+		size = 0;
+		readResources = 0;
+
+		tx.ensureRunningTx();
+
+		LOG.debug("start read {} TX", TYPE);
+
+		JsonGenerator generator = null;
+
+		try {
+
+			final int version = optionalVersion.isPresent() ? optionalVersion.get() : GraphVersionUtils.getLatestVersion(prefixedDataModelUri, database);
+
+			if (parallelism > 1) {
+
+				tx.succeedTx();
+
+				final ParallelPropertyGraphGDMModelReader parallelReader = new ParallelPropertyGraphGDMModelReader(recordNodeIds, prefixedDataModelUri,
+						version, parallelism, ordered, database, tx, namespaceIndex);
+
+				parallelReader.stream(outputStream);
+
+				readResources = parallelReader.readResources();
+				size = parallelReader.countStatements();
+
+				return;
+			}
+
+			LOG.debug("try to read '{}' resources in data model '{}' with version '{}'", recordNodeIds.length, prefixedDataModelUri, version);
+
+			final PropertyGraphGDMRecordReader reader = new PropertyGraphGDMRecordReader(prefixedDataModelUri, version, database, tx, namespaceIndex);
+
+			generator = Util.getJSONObjectMapper().getFactory().createGenerator(outputStream);
+			// i.e. the output stream is owned by the caller and a failed stream shouldn't be completed to valid JSON
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+			generator.writeStartArray();
+
+			for (final long recordNodeId : recordNodeIds) {
+
+				final Node recordNode;
+
+				try {
+
+					recordNode = database.getNodeById(recordNodeId);
+				} catch (final NotFoundException e) {
+
+					LOG.debug("couldn't find record node '{}'", recordNodeId);
+
+					continue;
+				}
+
+				final Optional<Resource> optionalResource = reader.read(recordNode);
+
+				if (!optionalResource.isPresent()) {
+
+					continue;
+				}
+
+				final Resource resource = optionalResource.get();
+
+				PropertyGraphGDMRecordReader.writeResource(resource, generator);
+
+				readResources++;
+				size += resource.size();
+			}
+
+			generator.writeEndArray();
+			generator.flush();
+
+			tx.succeedTx();
+
+			LOG.debug("finished read {} TX successfully", TYPE);
+		} catch (final DMPGraphException e) {
+
+			tx.failTx();
+
+			throw e;
+		} catch (final IOException | RuntimeException e) {
+
+			tx.failTx();
+
+			final String message = String.format("couldn't finish read %s TX successfully", TYPE);
+
+			LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		} finally {
+
+			if (generator != null) {
+
+				try {
+
+					generator.close();
+				} catch (final IOException e) {
+
+					LOG.error("couldn't close JSON generator of {} stream", TYPE, e);
+				}
+			}
+		}
+	}
+
+	public long readResources() {
+
+		return readResources;
+	}
+
+	@Override
+	public long countStatements() {
+
+		return size;
+	}
+}
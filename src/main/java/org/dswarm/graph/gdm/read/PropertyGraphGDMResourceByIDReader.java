@@ -28,6 +28,7 @@ import org.dswarm.graph.DMPGraphException;
 import org.dswarm.graph.delta.util.GraphDBUtil;
 import org.dswarm.graph.index.NamespaceIndex;
 import org.dswarm.graph.tx.TransactionHandler;
+import org.dswarm.graph.versioning.utils.GraphVersionUtils;
 
 /**
  * @author tgaengler
@@ -73,6 +74,32 @@ public class PropertyGraphGDMResourceByIDReader extends PropertyGraphGDMResource
 
 	private void determineRecordUri() throws DMPGraphException {
 
-		prefixedRecordURI = GraphDBUtil.determineRecordUri(recordId, prefixedRecordIdentifierAP, prefixedDataModelUri, database);
+		if (isLatestVersion()) {
+
+			prefixedRecordURI = GraphDBUtil.determineRecordUri(recordId, prefixedRecordIdentifierAP, prefixedDataModelUri, database);
+		} else {
+
+			// i.e. the record identifiers index only covers the records of the current version range
+			prefixedRecordURI = GraphDBUtil.determineRecordUriViaGraph(recordId, prefixedRecordIdentifierAP, prefixedDataModelUri, database);
+		}
+	}
+
+	private boolean isLatestVersion() throws DMPGraphException {
+
+		tx.ensureRunningTx();
+
+		try {
+
+			return version >= GraphVersionUtils.getLatestVersion(prefixedDataModelUri, database);
+		} catch (final Exception e) {
+
+			final String message = "couldn't retrieve latest version successfully";
+
+			LOG.error(message, e);
+
+			tx.failTx();
+
+			throw new DMPGraphException(message, e);
+		}
 	}
 }
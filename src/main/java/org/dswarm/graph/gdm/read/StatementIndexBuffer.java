@@ -0,0 +1,169 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.gdm.read;
+
+import java.util.Arrays;
+
+/**
+ * A reusable buffer of (index, reference) pairs of primitive longs that can be (stable) sorted by index, i.e., the statements of a
+ * resource can be collected in traversal order and emitted in index order without keeping any statement object.
+ *
+ * @author tgaengler
+ */
+public class StatementIndexBuffer {
+
+	private static final int DEFAULT_INITIAL_CAPACITY = 1024;
+
+	private long[] indices;
+	private long[] references;
+
+	// scratch space of the merge sort (will be allocated lazily)
+	private long[] tempIndices;
+	private long[] tempReferences;
+
+	private int size = 0;
+
+	public StatementIndexBuffer() {
+
+		this(DEFAULT_INITIAL_CAPACITY);
+	}
+
+	public StatementIndexBuffer(final int initialCapacity) {
+
+		final int capacity = Math.max(1, initialCapacity);
+
+		indices = new long[capacity];
+		references = new long[capacity];
+	}
+
+	public void add(final long index, final long reference) {
+
+		if (size == indices.length) {
+
+			final int newCapacity = indices.length << 1;
+
+			indices = Arrays.copyOf(indices, newCapacity);
+			references = Arrays.copyOf(references, newCapacity);
+		}
+
+		indices[size] = index;
+		references[size] = reference;
+		size++;
+	}
+
+	public int size() {
+
+		return size;
+	}
+
+	public boolean isEmpty() {
+
+		return size == 0;
+	}
+
+	public long getIndex(final int position) {
+
+		return indices[position];
+	}
+
+	public long getReference(final int position) {
+
+		return references[position];
+	}
+
+	/**
+	 * Sorts the buffer by index; pairs with the same index keep their insertion order.
+	 */
+	public void sort() {
+
+		if (isSorted()) {
+
+			return;
+		}
+
+		if (tempIndices == null || tempIndices.length < size) {
+
+			tempIndices = new long[indices.length];
+			tempReferences = new long[indices.length];
+		}
+
+		long[] srcIndices = indices;
+		long[] srcReferences = references;
+		long[] dstIndices = tempIndices;
+		long[] dstReferences = tempReferences;
+
+		// bottom-up merge sort, i.e., stable and without recursion
+		for (int width = 1; width < size; width <<= 1) {
+
+			for (int low = 0; low < size; low += width << 1) {
+
+				final int middle = Math.min(low + width, size);
+				final int high = Math.min(low + (width << 1), size);
+
+				int left = low;
+				int right = middle;
+
+				for (int i = low; i < high; i++) {
+
+					if (left < middle && (right >= high || srcIndices[left] <= srcIndices[right])) {
+
+						dstIndices[i] = srcIndices[left];
+						dstReferences[i] = srcReferences[left];
+						left++;
+					} else {
+
+						dstIndices[i] = srcIndices[right];
+						dstReferences[i] = srcReferences[right];
+						right++;
+					}
+				}
+			}
+
+			final long[] swapIndices = srcIndices;
+			final long[] swapReferences = srcReferences;
+
+			srcIndices = dstIndices;
+			srcReferences = dstReferences;
+			dstIndices = swapIndices;
+			dstReferences = swapReferences;
+		}
+
+		// keep the sorted arrays as buffer and the other ones as scratch space
+		indices = srcIndices;
+		references = srcReferences;
+		tempIndices = dstIndices;
+		tempReferences = dstReferences;
+	}
+
+	public void clear() {
+
+		size = 0;
+	}
+
+	private boolean isSorted() {
+
+		for (int i = 1; i < size; i++) {
+
+			if (indices[i - 1] > indices[i]) {
+
+				return false;
+			}
+		}
+
+		return true;
+	}
+}
@@ -27,9 +27,11 @@ public final class HashUtils {
 
 	// Values from Appendix A of https://131002.net/siphash/siphash.pdf
 	// as well as http://git.io/siphash-spec-key-ref#L12
-	public static final SipKey	SPEC_KEY	= new SipKey(HashUtils.bytesOf(
+	private static final byte[]	SPEC_KEY_BYTES	= HashUtils.bytesOf(
 			0x00, 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07,
-			0x08, 0x09, 0x0a, 0x0b, 0x0c, 0x0d, 0x0e, 0x0f));
+			0x08, 0x09, 0x0a, 0x0b, 0x0c, 0x0d, 0x0e, 0x0f);
+
+	public static final SipKey	SPEC_KEY	= new SipKey(SPEC_KEY_BYTES.clone());
 
 	private HashUtils() {
 	}
@@ -39,6 +41,17 @@ public final class HashUtils {
 		return SipHash.digest(HashUtils.SPEC_KEY, hashString.getBytes(Charsets.UTF_8));
 	}
 
+	/**
+	 * Creates a new (reusable) streaming hash state, i.e., parts can be fed without building an intermediate hash string. The digest of all
+	 * parts is bit-identical to {@link #generateHash(String)} of their concatenation.
+	 *
+	 * @return a new streaming hash state (with the same key as {@link #generateHash(String)})
+	 */
+	public static StreamingSipHash newStreamingHash() {
+
+		return new StreamingSipHash(SPEC_KEY_BYTES);
+	}
+
 	public static byte[] bytesOf(final Integer... bytes) {
 
 		final byte[] ret = new byte[bytes.length];
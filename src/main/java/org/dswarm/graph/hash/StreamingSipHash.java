@@ -0,0 +1,245 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.hash;
+
+/**
+ * A reusable, streaming SipHash-2-4 state, i.e., strings and chars are UTF-8 encoded on the fly and fed block-wise into the hash state
+ * without any intermediate string or byte array. The digest is bit-identical to {@link HashUtils#generateHash(String)} of the concatenation
+ * of all parts (incl. the replacement of unpaired surrogates with '?' as {@link String#getBytes(java.nio.charset.Charset)} does).<br/>
+ * note: an instance is not thread-safe, i.e., it should be utilised by one thread (e.g. per processor) only.
+ *
+ * @author tgaengler
+ */
+public final class StreamingSipHash {
+
+	private static final byte UTF8_REPLACEMENT = '?';
+
+	private final long k0;
+	private final long k1;
+
+	private long v0;
+	private long v1;
+	private long v2;
+	private long v3;
+
+	// the pending (incomplete) little-endian block
+	private long block;
+	private int  blockBytes;
+	private long length;
+
+	/**
+	 * @param key the 16 byte SipHash key
+	 */
+	public StreamingSipHash(final byte[] key) {
+
+		k0 = littleEndianLong(key, 0);
+		k1 = littleEndianLong(key, 8);
+
+		reset();
+	}
+
+	/**
+	 * Resets this state, i.e., a new hash can be calculated.
+	 *
+	 * @return this state
+	 */
+	public StreamingSipHash reset() {
+
+		v0 = k0 ^ 0x736f6d6570736575L;
+		v1 = k1 ^ 0x646f72616e646f6dL;
+		v2 = k0 ^ 0x6c7967656e657261L;
+		v3 = k1 ^ 0x7465646279746573L;
+
+		block = 0;
+		blockBytes = 0;
+		length = 0;
+
+		return this;
+	}
+
+	public StreamingSipHash putByte(final byte b) {
+
+		block |= (b & 0xffL) << (blockBytes << 3);
+		blockBytes++;
+		length++;
+
+		if (blockBytes == 8) {
+
+			compress(block);
+
+			block = 0;
+			blockBytes = 0;
+		}
+
+		return this;
+	}
+
+	/**
+	 * Feeds the UTF-8 encoding of the given (BMP) char, e.g., a delimiter.
+	 *
+	 * @param c a char that is no surrogate
+	 * @return this state
+	 */
+	public StreamingSipHash putChar(final char c) {
+
+		if (Character.isSurrogate(c)) {
+
+			return putByte(UTF8_REPLACEMENT);
+		}
+
+		return putCodePoint(c);
+	}
+
+	/**
+	 * Feeds the UTF-8 encoding of the given string.
+	 *
+	 * @param s the string
+	 * @return this state
+	 */
+	public StreamingSipHash putString(final String s) {
+
+		final int length = s.length();
+
+		for (int i = 0; i < length; i++) {
+
+			final char c = s.charAt(i);
+
+			if (c < 0x80) {
+
+				putByte((byte) c);
+
+				continue;
+			}
+
+			if (!Character.isSurrogate(c)) {
+
+				putCodePoint(c);
+
+				continue;
+			}
+
+			if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+
+				putCodePoint(Character.toCodePoint(c, s.charAt(++i)));
+
+				continue;
+			}
+
+			// unpaired surrogate
+			putByte(UTF8_REPLACEMENT);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Finishes the hash calculation and resets this state afterwards.
+	 *
+	 * @return the SipHash-2-4 digest of all parts since the last reset
+	 */
+	public long digest() {
+
+		final long lastBlock = ((length & 0xffL) << 56) | block;
+
+		compress(lastBlock);
+
+		v2 ^= 0xff;
+
+		sipRound();
+		sipRound();
+		sipRound();
+		sipRound();
+
+		final long digest = v0 ^ v1 ^ v2 ^ v3;
+
+		reset();
+
+		return digest;
+	}
+
+	private StreamingSipHash putCodePoint(final int codePoint) {
+
+		if (codePoint < 0x80) {
+
+			return putByte((byte) codePoint);
+		}
+
+		if (codePoint < 0x800) {
+
+			putByte((byte) (0xc0 | (codePoint >> 6)));
+
+			return putByte((byte) (0x80 | (codePoint & 0x3f)));
+		}
+
+		if (codePoint < 0x10000) {
+
+			putByte((byte) (0xe0 | (codePoint >> 12)));
+			putByte((byte) (0x80 | ((codePoint >> 6) & 0x3f)));
+
+			return putByte((byte) (0x80 | (codePoint & 0x3f)));
+		}
+
+		putByte((byte) (0xf0 | (codePoint >> 18)));
+		putByte((byte) (0x80 | ((codePoint >> 12) & 0x3f)));
+		putByte((byte) (0x80 | ((codePoint >> 6) & 0x3f)));
+
+		return putByte((byte) (0x80 | (codePoint & 0x3f)));
+	}
+
+	private void compress(final long m) {
+
+		v3 ^= m;
+
+		sipRound();
+		sipRound();
+
+		v0 ^= m;
+	}
+
+	private void sipRound() {
+
+		v0 += v1;
+		v1 = Long.rotateLeft(v1, 13);
+		v1 ^= v0;
+		v0 = Long.rotateLeft(v0, 32);
+
+		v2 += v3;
+		v3 = Long.rotateLeft(v3, 16);
+		v3 ^= v2;
+
+		v0 += v3;
+		v3 = Long.rotateLeft(v3, 21);
+		v3 ^= v0;
+
+		v2 += v1;
+		v1 = Long.rotateLeft(v1, 17);
+		v1 ^= v2;
+		v2 = Long.rotateLeft(v2, 32);
+	}
+
+	private static long littleEndianLong(final byte[] bytes, final int offset) {
+
+		long value = 0;
+
+		for (int i = 7; i >= 0; i--) {
+
+			value = (value << 8) | (bytes[offset + i] & 0xffL);
+		}
+
+		return value;
+	}
+}
@@ -0,0 +1,417 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.index;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A persistent (memory-mapped) Bloom filter for primitive long keys that is utilised in front of a {@link OffHeapLongHashSet}, i.e., keys
+ * that are definitely not part of the index don't need to be looked up there.<br/>
+ * The filter is a superset of its index: keys are added before the index commit and a dirty flag marks the time span in between, i.e., a
+ * filter that wasn't committed completely (or whose recorded index generation and size don't match the index, e.g., because the index
+ * was written without the filter) will be rebuilt from the index on opening. Removed keys stay in the filter (they only increase the
+ * false positive rate); the filter will be rebuilt (and resized), when too many keys were removed or added or when the false positive
+ * rate exceeds its bound.<br/>
+ * Lookups can happen concurrently; updates need to be exclusive (see {@link SharedLongIndex}).
+ *
+ * @author tgaengler
+ */
+public final class LongBloomFilter implements Closeable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(LongBloomFilter.class);
+
+	public static final String FILE_ENDING = ".bloom";
+
+	private static final long MAGIC   = 0x444D50424C4D3031L; // DMPBLM01
+	private static final int  VERSION = 1;
+
+	// header layout: magic (long), version (int), flags (int), bits (long), hashes (int), expected keys (long), inserted keys (long),
+	// stale keys (long), index size (long), index generation (long)
+	private static final int HEADER_SIZE             = 128;
+	private static final int MAGIC_OFFSET            = 0;
+	private static final int VERSION_OFFSET          = 8;
+	private static final int FLAGS_OFFSET            = 12;
+	private static final int BITS_OFFSET             = 16;
+	private static final int HASHES_OFFSET           = 24;
+	private static final int EXPECTED_KEYS_OFFSET    = 28;
+	private static final int INSERTED_KEYS_OFFSET    = 36;
+	private static final int STALE_KEYS_OFFSET       = 44;
+	private static final int INDEX_SIZE_OFFSET       = 52;
+	private static final int INDEX_GENERATION_OFFSET = 60;
+	private static final int DIRTY                   = 1;
+
+	private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+	private static final long   MIN_EXPECTED_KEYS          = 1 << 20;
+	// a single mapping can't exceed 2 GiB (i.e. 1 GiB of bits)
+	private static final long   MAX_BITS                   = 1L << 33;
+	private static final double MAX_STALE_KEYS_RATIO       = 0.25;
+	// the false positive rate (observed or expected) that triggers a rebuild; the observed rate needs some lookups to be meaningful
+	private static final double MAX_FALSE_POSITIVE_RATE    = 4 * FALSE_POSITIVE_PROBABILITY;
+	private static final long   MIN_OBSERVED_LOOKUPS       = 10000;
+	private static final String REBUILD_FILE_ENDING        = ".rebuild";
+
+	private final File             file;
+	private final RandomAccessFile randomAccessFile;
+	private final MappedByteBuffer header;
+	private final MappedByteBuffer bitsBuffer;
+	private final LongBuffer       words;
+
+	private final long numBits;
+	private final long mask;
+	private final int  numHashes;
+	private final long expectedKeys;
+
+	private long insertedKeys;
+	private long staleKeys;
+
+	// keys that were removed from the index in the running (uncommitted) update
+	private long pendingStaleKeys;
+
+	// metrics (since opening); note: lookups might happen concurrently
+	private final LongAdder negatives      = new LongAdder();
+	private final LongAdder falsePositives = new LongAdder();
+
+	private LongBloomFilter(final File fileArg, final RandomAccessFile randomAccessFileArg, final MappedByteBuffer headerArg,
+			final MappedByteBuffer bitsBufferArg) {
+
+		file = fileArg;
+		randomAccessFile = randomAccessFileArg;
+		header = headerArg;
+		bitsBuffer = bitsBufferArg;
+		words = bitsBufferArg.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+
+		numBits = header.getLong(BITS_OFFSET);
+		mask = numBits - 1;
+		numHashes = header.getInt(HASHES_OFFSET);
+		expectedKeys = header.getLong(EXPECTED_KEYS_OFFSET);
+		insertedKeys = header.getLong(INSERTED_KEYS_OFFSET);
+		staleKeys = header.getLong(STALE_KEYS_OFFSET);
+	}
+
+	/**
+	 * Maps the filter of the given index or (re-)builds it from the index, if it doesn't exist yet or if it's out of sync with the index.
+	 *
+	 * @param file  the filter file
+	 * @param index the (committed) index
+	 * @return the filter
+	 * @throws IOException
+	 */
+	public static LongBloomFilter openOrRebuild(final File file, final OffHeapLongHashSet index) throws IOException {
+
+		if (file.exists() && file.length() > HEADER_SIZE) {
+
+			final LongBloomFilter filter;
+
+			try {
+
+				filter = open(file);
+			} catch (final IOException e) {
+
+				LOG.info("couldn't open Bloom filter '{}' ({}); rebuild it", file, e.getMessage());
+
+				return rebuild(file, index);
+			}
+
+			if (filter.isInSyncWith(index)) {
+
+				return filter;
+			}
+
+			LOG.info("Bloom filter '{}' is out of sync with its index; rebuild it", file);
+
+			filter.close();
+		}
+
+		return rebuild(file, index);
+	}
+
+	/**
+	 * Builds a new filter from the given (committed) index (sized for twice the index size) and replaces the given filter file with it.
+	 *
+	 * @param file  the filter file
+	 * @param index the (committed) index
+	 * @return the new filter
+	 * @throws IOException
+	 */
+	public static LongBloomFilter rebuild(final File file, final OffHeapLongHashSet index) throws IOException {
+
+		final long start = System.currentTimeMillis();
+		final long indexSize = index.longSize();
+		final File rebuildFile = new File(file.getPath() + REBUILD_FILE_ENDING);
+
+		final LongBloomFilter newFilter = create(rebuildFile, Math.max(MIN_EXPECTED_KEYS, 2 * indexSize));
+
+		index.forEachKey(newFilter::put);
+
+		newFilter.commit(indexSize, index.getGeneration());
+		newFilter.close();
+
+		Files.move(rebuildFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		final LongBloomFilter filter = open(file);
+
+		LOG.info("built Bloom filter '{}' for '{}' keys ('{}' bits, '{}' hash functions) in '{}' ms", file, indexSize, filter.numBits,
+				filter.numHashes, System.currentTimeMillis() - start);
+
+		return filter;
+	}
+
+	public boolean mightContain(final long key) {
+
+		final long h1 = mix(key);
+		final long h2 = mix(key ^ 0x9E3779B97F4A7C15L) | 1;
+
+		for (int i = 0; i < numHashes; i++) {
+
+			final long bit = (h1 + i * h2) & mask;
+
+			if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+
+				negatives.increment();
+
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	public void put(final long key) {
+
+		final long h1 = mix(key);
+		final long h2 = mix(key ^ 0x9E3779B97F4A7C15L) | 1;
+
+		for (int i = 0; i < numHashes; i++) {
+
+			final long bit = (h1 + i * h2) & mask;
+			final int word = (int) (bit >>> 6);
+
+			words.put(word, words.get(word) | (1L << bit));
+		}
+
+		insertedKeys++;
+	}
+
+	/**
+	 * Notes that a key was removed from the index (the key stays in the filter). The removal only counts, when the update is committed (see
+	 * {@link #commit(long, long)}).
+	 */
+	public void markStale() {
+
+		pendingStaleKeys++;
+	}
+
+	/**
+	 * Discards the removals of the running update, i.e., their index changes were rolled back.
+	 */
+	public void rollback() {
+
+		pendingStaleKeys = 0;
+	}
+
+	/**
+	 * Notes that the index lookup for a key of this filter was negative.
+	 */
+	public void recordFalsePositive() {
+
+		falsePositives.increment();
+	}
+
+	/**
+	 * Marks the filter as dirty (durable), i.e., before keys are added that are not committed to the index yet.
+	 */
+	public void beginUpdate() {
+
+		header.putInt(FLAGS_OFFSET, DIRTY);
+		header.force();
+	}
+
+	/**
+	 * Forces the filter to disk and marks it as in sync with the given index state.
+	 *
+	 * @param indexSize       the size of the committed index
+	 * @param indexGeneration the generation of the committed index
+	 */
+	public void commit(final long indexSize, final long indexGeneration) {
+
+		staleKeys += pendingStaleKeys;
+		pendingStaleKeys = 0;
+
+		header.putLong(INSERTED_KEYS_OFFSET, insertedKeys);
+		header.putLong(STALE_KEYS_OFFSET, staleKeys);
+		header.putLong(INDEX_SIZE_OFFSET, indexSize);
+		header.putLong(INDEX_GENERATION_OFFSET, indexGeneration);
+
+		bitsBuffer.force();
+
+		header.putInt(FLAGS_OFFSET, 0);
+		header.force();
+	}
+
+	/**
+	 * @return true, if the filter is overfilled, contains too many removed keys or its (observed or expected) false positive rate exceeds
+	 * its bound (and a rebuild can lower it, i.e., the filter can still grow or contains removed keys)
+	 */
+	public boolean needsRebuild() {
+
+		if ((insertedKeys > expectedKeys && numBits < MAX_BITS) || staleKeys > insertedKeys * MAX_STALE_KEYS_RATIO) {
+
+			return true;
+		}
+
+		if (numBits >= MAX_BITS && staleKeys == 0) {
+
+			return false;
+		}
+
+		if (getExpectedFalsePositiveRate() > MAX_FALSE_POSITIVE_RATE) {
+
+			return true;
+		}
+
+		return falsePositives.sum() + negatives.sum() >= MIN_OBSERVED_LOOKUPS && getObservedFalsePositiveRate() > MAX_FALSE_POSITIVE_RATE;
+	}
+
+	/**
+	 * @return the observed false positive rate, i.e., false positives / (false positives + negatives) since opening
+	 */
+	public double getObservedFalsePositiveRate() {
+
+		final long falsePositiveCount = falsePositives.sum();
+		final long lookups = falsePositiveCount + negatives.sum();
+
+		return lookups == 0 ? 0 : falsePositiveCount / (double) lookups;
+	}
+
+	/**
+	 * @return the theoretical false positive rate for the current number of inserted keys
+	 */
+	public double getExpectedFalsePositiveRate() {
+
+		return Math.pow(1 - Math.exp(-numHashes * (double) insertedKeys / numBits), numHashes);
+	}
+
+	public String getStatistics() {
+
+		return String.format(
+				"Bloom filter '%s': keys = '%d'; stale keys = '%d'; negatives = '%d'; false positives = '%d'; observed fpp = '%.5f'; expected fpp = '%.5f'",
+				file.getName(), insertedKeys, staleKeys, negatives.sum(), falsePositives.sum(), getObservedFalsePositiveRate(),
+				getExpectedFalsePositiveRate());
+	}
+
+	@Override
+	public void close() {
+
+		OffHeapLongHashSet.unmap(header);
+		OffHeapLongHashSet.unmap(bitsBuffer);
+
+		try {
+
+			randomAccessFile.close();
+		} catch (final IOException e) {
+
+			LOG.error("couldn't close Bloom filter file '{}'", file, e);
+		}
+	}
+
+	private boolean isInSyncWith(final OffHeapLongHashSet index) {
+
+		return (header.getInt(FLAGS_OFFSET) & DIRTY) == 0 && header.getLong(INDEX_GENERATION_OFFSET) == index.getGeneration()
+				&& header.getLong(INDEX_SIZE_OFFSET) == index.longSize();
+	}
+
+	private static LongBloomFilter create(final File file, final long expectedKeys) throws IOException {
+
+		// m = -n * ln(p) / ln(2)^2, rounded up to a power of 2 (cheap modulo); k = m / n * ln(2)
+		final double optimalBits = -expectedKeys * Math.log(FALSE_POSITIVE_PROBABILITY) / (Math.log(2) * Math.log(2));
+		final long numBits = Math.min(MAX_BITS, Long.highestOneBit((long) Math.ceil(optimalBits) - 1) << 1);
+		final int numHashes = Math.max(1, (int) Math.round((double) numBits / expectedKeys * Math.log(2)));
+
+		final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+		randomAccessFile.setLength(0);
+		randomAccessFile.setLength(HEADER_SIZE + numBits / Byte.SIZE);
+
+		final MappedByteBuffer header = mapHeader(randomAccessFile);
+
+		header.putLong(MAGIC_OFFSET, MAGIC);
+		header.putInt(VERSION_OFFSET, VERSION);
+		header.putInt(FLAGS_OFFSET, DIRTY);
+		header.putLong(BITS_OFFSET, numBits);
+		header.putInt(HASHES_OFFSET, numHashes);
+		header.putLong(EXPECTED_KEYS_OFFSET, expectedKeys);
+		header.putLong(INSERTED_KEYS_OFFSET, 0);
+		header.putLong(STALE_KEYS_OFFSET, 0);
+		header.putLong(INDEX_SIZE_OFFSET, -1);
+		header.putLong(INDEX_GENERATION_OFFSET, -1);
+
+		return new LongBloomFilter(file, randomAccessFile, header, mapBits(randomAccessFile, numBits));
+	}
+
+	private static LongBloomFilter open(final File file) throws IOException {
+
+		final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+		final MappedByteBuffer header = mapHeader(randomAccessFile);
+
+		if (header.getLong(MAGIC_OFFSET) != MAGIC || header.getInt(VERSION_OFFSET) != VERSION) {
+
+			randomAccessFile.close();
+
+			throw new IOException(String.format("'%s' is not a Bloom filter file (of version %d)", file, VERSION));
+		}
+
+		return new LongBloomFilter(file, randomAccessFile, header, mapBits(randomAccessFile, header.getLong(BITS_OFFSET)));
+	}
+
+	private static MappedByteBuffer mapHeader(final RandomAccessFile randomAccessFile) throws IOException {
+
+		final MappedByteBuffer header = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+		header.order(ByteOrder.LITTLE_ENDIAN);
+
+		return header;
+	}
+
+	private static MappedByteBuffer mapBits(final RandomAccessFile randomAccessFile, final long numBits) throws IOException {
+
+		return randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE, numBits / Byte.SIZE);
+	}
+
+	private static long mix(final long key) {
+
+		// finalizer of MurmurHash3
+		long h = key;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+
+		return h;
+	}
+}
@@ -17,6 +17,7 @@
 package org.dswarm.graph.index;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Map;
 import java.util.Set;
 
@@ -26,6 +27,9 @@ import org.mapdb.DB;
 import org.mapdb.DBMaker;
 import org.mapdb.Serializer;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import org.dswarm.common.types.Tuple;
 
 /**
@@ -33,6 +37,8 @@ import org.dswarm.common.types.Tuple;
  */
 public final class MapDBUtils {
 
+	private static final Logger LOG = LoggerFactory.getLogger(MapDBUtils.class);
+
 	public static final String INDEX_DIR = "index/mapdb";
 
 	public static Tuple<Set<Long>, DB> createOrGetInMemoryLongIndexTreeSetNonTransactional(final String indexName) {
@@ -56,6 +62,60 @@ public final class MapDBUtils {
 		return Tuple.tuple(createTreeSet(db, indexName), db);
 	}
 
+	/**
+	 * Maps the persistent off-heap long index (hash set) with the given file name. If it doesn't exist yet, but a MapDB long index (tree set)
+	 * with this name exists, the content of the MapDB index will be imported once.
+	 *
+	 * @param indexFileName the index file name (without file ending)
+	 * @param indexName     the index name
+	 * @return the persistent off-heap long index
+	 * @throws IOException
+	 */
+	public static OffHeapLongHashSet createOrGetPersistentOffHeapLongIndex(final String indexFileName, final String indexName) throws IOException {
+
+		final File file = new File(indexFileName + OffHeapLongHashSet.FILE_ENDING);
+		final boolean exists = file.exists();
+
+		final OffHeapLongHashSet index = OffHeapLongHashSet.openOrCreate(file);
+
+		final File mapDBFile = createFile(indexFileName);
+
+		if (!exists && mapDBFile.exists()) {
+
+			LOG.info("import mapdb long index '{}' into off-heap long index '{}'", mapDBFile, file);
+
+			final DB db = createGlobalTransactionalPermanentMapDB(indexFileName);
+
+			try {
+
+				for (final Long key : createTreeSet(db, indexName)) {
+
+					index.addKey(key);
+				}
+
+				index.commit();
+			} catch (final IOException | RuntimeException e) {
+
+				// the import needs to be repeated next time
+				index.close();
+
+				if (!file.delete()) {
+
+					LOG.error("couldn't delete incomplete off-heap long index '{}'", file);
+				}
+
+				throw e;
+			} finally {
+
+				db.close();
+			}
+
+			LOG.info("imported '{}' keys into off-heap long index '{}'", index.longSize(), file);
+		}
+
+		return index;
+	}
+
 	public static Tuple<Map<String, String>, DB> createOrGetPersistentStringStringIndexTreeMapGlobalTransactional(final String indexFileName,
 			final String indexName) {
 
@@ -16,25 +16,28 @@
  */
 package org.dswarm.graph.index;
 
-import java.io.File;
+import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.common.collect.Maps;
 import org.apache.jena.vocabulary.RDFS;
-import org.mapdb.Atomic;
-import org.mapdb.DB;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.dswarm.common.model.Attribute;
+import org.dswarm.common.model.AttributePath;
 import org.dswarm.common.types.Tuple;
+import org.dswarm.common.web.URI;
 import org.dswarm.graph.DMPGraphException;
-import org.dswarm.graph.GraphIndexStatics;
 import org.dswarm.graph.GraphProcessingStatics;
 import org.dswarm.graph.model.GraphStatics;
 import org.dswarm.graph.tx.TransactionHandler;
-import org.dswarm.graph.utils.GraphDatabaseUtils;
 import org.dswarm.graph.utils.NamespaceUtils;
 
 /**
@@ -44,16 +47,13 @@ public class NamespaceIndex {
 
 	private static final Logger LOG = LoggerFactory.getLogger(NamespaceIndex.class);
 
-	// for caching per TX
+	// for caching per TX, i.e., new namespace prefixes that are not committed yet
 	private final Map<String, String> tempNamespacePrefixes;
-	private final DB                  tempNamespacePrefixesDB;
+	// namespaces of temp namespace prefixes whose prefix nodes are already written (but not committed yet)
+	private final Set<String>         writtenNamespaces;
 
-	// for caching over the whole process
-	private final Map<String, String> inMemoryNamespacePrefixes;
-	private final DB                  inMemoryNamespacePrefixesDB;
-
-	private final Tuple<Atomic.Long, DB> prefixCounterTuple;
-	private final DB                     prefixCounterDB;
+	// for caching over the whole process (committed namespace prefixes only)
+	private final NamespacePrefixCache namespacePrefixCache;
 
 	private final Map<String, String> uriPrefixedURIMap;
 	private final Map<String, String> prefixedURIURIMap;
@@ -61,55 +61,215 @@ public class NamespaceIndex {
 	private final GraphDatabaseService database;
 	private final TransactionHandler   tx;
 
+	/**
+	 * transaction handlers of other threads (e.g. delta calculation workers) that share this namespace index, i.e., DB lookups of such
+	 * threads need to happen in their own transaction
+	 */
+	private final ThreadLocal<TransactionHandler> boundTx = new ThreadLocal<>();
+
 	public NamespaceIndex(final GraphDatabaseService databaseArg, final TransactionHandler txArg) {
 
 		database = databaseArg;
 		tx = txArg;
 
-		uriPrefixedURIMap = Maps.newHashMap();
-		prefixedURIURIMap = Maps.newHashMap();
+		uriPrefixedURIMap = new ConcurrentHashMap<>();
+		prefixedURIURIMap = new ConcurrentHashMap<>();
 
-		final Tuple<Map<String, String>, DB> mapDBTuple3 = MapDBUtils.createOrGetInMemoryStringStringIndexTreeMapNonTransactional(
-				GraphIndexStatics.TEMP_NAMESPACE_PREFIXES_INDEX_NAME);
-		tempNamespacePrefixes = mapDBTuple3.v1();
-		tempNamespacePrefixesDB = mapDBTuple3.v2();
+		tempNamespacePrefixes = Maps.newHashMap();
+		writtenNamespaces = new HashSet<>();
 
-		final Tuple<Map<String, String>, DB> mapDBTuple4 = MapDBUtils.createOrGetInMemoryStringStringIndexTreeMapNonTransactional(
-				GraphIndexStatics.IN_MEMORY_NAMESPACE_PREFIXES_INDEX_NAME);
-		inMemoryNamespacePrefixes = mapDBTuple4.v1();
-		inMemoryNamespacePrefixesDB = mapDBTuple4.v2();
+		namespacePrefixCache = NamespacePrefixCache.getInstance(database);
+	}
 
-		final String storeDir = GraphDatabaseUtils.determineMapDBIndexStoreDir(database);
+	/**
+	 * Binds the given transaction handler to the current thread, i.e., lookups of this thread will utilise this transaction handler instead
+	 * of the one of the namespace index owner.
+	 *
+	 * @param threadTx the transaction handler of the current thread
+	 */
+	public void bindTransactionHandler(final TransactionHandler threadTx) {
 
-		prefixCounterTuple = MapDBUtils
-				.createOrGetPersistentLongIndexGlobalTransactional(storeDir + File.separator + GraphIndexStatics.PREFIX_COUNTER_INDEX_NAME,
-						GraphIndexStatics.PREFIX_COUNTER_INDEX_NAME);
-		prefixCounterDB = prefixCounterTuple.v2();
+		boundTx.set(threadTx);
 	}
 
-	public void resetTXNamespaces() throws DMPGraphException {
+	public void unbindTransactionHandler() {
 
-		if (tempNamespacePrefixes != null) {
+		boundTx.remove();
+	}
 
-			if (!tempNamespacePrefixes.isEmpty()) {
+	public synchronized void resetTXNamespaces() throws DMPGraphException {
 
-				// to ensure that no namespace prefix mapping get lost
-				pumpNFlushNamespacePrefixIndex();
-			}
+		if (!tempNamespacePrefixes.isEmpty()) {
 
-			tempNamespacePrefixes.clear();
+			// to ensure that no namespace prefix mapping get lost (they'll be published with the commit of the running TX)
+			pumpNFlushNamespacePrefixIndex();
 		}
 	}
 
+	/**
+	 * Lock-free for namespaces of the process-wide namespace prefix cache; only new namespaces need to be looked up in the graph or minted.
+	 *
+	 * @param fullURI the full URI
+	 * @return the prefixed URI
+	 * @throws DMPGraphException
+	 */
 	public String createPrefixedURI(final String fullURI) throws DMPGraphException {
 
-		return NamespaceUtils
-				.createPrefixedURI(fullURI, uriPrefixedURIMap, tempNamespacePrefixes, inMemoryNamespacePrefixes, prefixCounterTuple, database, tx);
+		if (fullURI == null) {
+
+			throw new DMPGraphException("full URI shouldn't be null");
+		}
+
+		final String cachedPrefixedURI = uriPrefixedURIMap.get(fullURI);
+
+		if (cachedPrefixedURI != null) {
+
+			return cachedPrefixedURI;
+		}
+
+		return createPrefixedURIInternal(fullURI);
+	}
+
+	/**
+	 * Determines the prefixed URI without minting a new namespace prefix, i.e., for operations that shouldn't write namespaces (e.g.
+	 * lookups).
+	 *
+	 * @param fullURI the full URI
+	 * @return the prefixed URI or nothing, if there is no namespace prefix for the namespace of the given URI (yet)
+	 * @throws DMPGraphException
+	 */
+	public Optional<String> getPrefixedURI(final String fullURI) throws DMPGraphException {
+
+		if (fullURI == null) {
+
+			throw new DMPGraphException("full URI shouldn't be null");
+		}
+
+		final String cachedPrefixedURI = uriPrefixedURIMap.get(fullURI);
+
+		if (cachedPrefixedURI != null) {
+
+			return Optional.of(cachedPrefixedURI);
+		}
+
+		return getPrefixedURIInternal(fullURI);
+	}
+
+	/**
+	 * Prefixes the attribute URIs of the given attribute path (new namespace prefixes will be minted).
+	 *
+	 * @param attributePath            the attribute path with full attribute URIs
+	 * @param prefixedAttributePathMap the already prefixed attribute paths (will be updated)
+	 * @param prefixedAttributeMap     the already prefixed attributes (will be updated)
+	 * @return the prefixed attribute path
+	 * @throws DMPGraphException
+	 */
+	public AttributePath createPrefixedAttributePath(final AttributePath attributePath,
+			final Map<AttributePath, AttributePath> prefixedAttributePathMap, final Map<Attribute, Attribute> prefixedAttributeMap)
+			throws DMPGraphException {
+
+		if (!prefixedAttributePathMap.containsKey(attributePath)) {
+
+			final LinkedList<Attribute> prefixedAttributes = new LinkedList<>();
+
+			for (final Attribute attribute : attributePath.getAttributes()) {
+
+				if (!prefixedAttributeMap.containsKey(attribute)) {
+
+					prefixedAttributeMap.put(attribute, new Attribute(createPrefixedURI(getAttributeURI(attribute))));
+				}
+
+				prefixedAttributes.add(prefixedAttributeMap.get(attribute));
+			}
+
+			prefixedAttributePathMap.put(attributePath, new AttributePath(prefixedAttributes));
+		}
+
+		return prefixedAttributePathMap.get(attributePath);
 	}
 
+	/**
+	 * Prefixes the attribute URIs of the given attribute path without minting new namespace prefixes (see {@link #getPrefixedURI(String)}).
+	 *
+	 * @param attributePath the attribute path with full attribute URIs
+	 * @return the prefixed attribute path or nothing, if there is no namespace prefix for the namespace of an attribute (yet)
+	 * @throws DMPGraphException
+	 */
+	public Optional<AttributePath> getPrefixedAttributePath(final AttributePath attributePath) throws DMPGraphException {
+
+		final LinkedList<Attribute> prefixedAttributes = new LinkedList<>();
+
+		for (final Attribute attribute : attributePath.getAttributes()) {
+
+			final Optional<String> optionalPrefixedAttributeURI = getPrefixedURI(getAttributeURI(attribute));
+
+			if (!optionalPrefixedAttributeURI.isPresent()) {
+
+				return Optional.empty();
+			}
+
+			prefixedAttributes.add(new Attribute(optionalPrefixedAttributeURI.get()));
+		}
+
+		return Optional.of(new AttributePath(prefixedAttributes));
+	}
+
+	/**
+	 * Lock-free for prefixes of the process-wide namespace prefix cache.
+	 *
+	 * @param prefixedURI the prefixed URI
+	 * @return the full URI
+	 * @throws DMPGraphException
+	 */
 	public String createFullURI(final String prefixedURI) throws DMPGraphException {
 
-		return NamespaceUtils.createFullURI(prefixedURI, prefixedURIURIMap, database, tx);
+		return createFullURI(prefixedURI, true);
+	}
+
+	/**
+	 * Lock-free for prefixes of the process-wide namespace prefix cache.
+	 *
+	 * @param prefixedURI the prefixed URI
+	 * @param memoize     false, if the full URI shouldn't be kept in this namespace index, e.g., for callers that have their own
+	 *                    (bounded) cache and touch lots of different URIs (as exports do)
+	 * @return the full URI
+	 * @throws DMPGraphException
+	 */
+	public String createFullURI(final String prefixedURI, final boolean memoize) throws DMPGraphException {
+
+		if (prefixedURI == null) {
+
+			throw new DMPGraphException("prefixed URI shouldn't be null");
+		}
+
+		final String cachedFullURI = prefixedURIURIMap.get(prefixedURI);
+
+		if (cachedFullURI != null) {
+
+			return cachedFullURI;
+		}
+
+		final int delimiterIndex = prefixedURI.indexOf(NamespaceUtils.PREFIX_DELIMITER);
+
+		if (delimiterIndex > 0 && delimiterIndex < prefixedURI.length() - 1
+				&& prefixedURI.indexOf(NamespaceUtils.PREFIX_DELIMITER, delimiterIndex + 1) < 0) {
+
+			final String namespace = namespacePrefixCache.getNamespace(prefixedURI.substring(0, delimiterIndex));
+
+			if (namespace != null) {
+
+				final String fullURI = namespace + prefixedURI.substring(delimiterIndex + 1);
+
+				if (memoize) {
+
+					prefixedURIURIMap.put(prefixedURI, fullURI);
+				}
+
+				return fullURI;
+			}
+		}
+
+		return createFullURIInternal(prefixedURI, memoize);
 	}
 
 	public String getRDFCLASSPrefixedURI() throws DMPGraphException {
@@ -117,7 +277,13 @@ public class NamespaceIndex {
 		return createPrefixedURI(RDFS.Class.getURI());
 	}
 
-	public void pumpNFlushNamespacePrefixIndex() throws DMPGraphException {
+	/**
+	 * Writes the prefix nodes of new namespace prefixes into the running TX. The namespace prefixes will be published to the process-wide
+	 * namespace prefix cache via {@link #publishTXNamespaces()} after this TX was committed.
+	 *
+	 * @throws DMPGraphException
+	 */
+	public synchronized void pumpNFlushNamespacePrefixIndex() throws DMPGraphException {
 
 		LOG.debug("start pump'n'flushing namespace prefix index; size = '{}'", tempNamespacePrefixes.size());
 
@@ -126,16 +292,22 @@ public class NamespaceIndex {
 			final String namespace = entry.getKey();
 			final String prefix = entry.getValue();
 
-			inMemoryNamespacePrefixes.put(namespace, prefix);
+			if (writtenNamespaces.contains(namespace)) {
+
+				continue;
+			}
 
 			try {
 
 				tx.ensureRunningTx();
 
 				addPrefix(namespace, prefix);
+
+				writtenNamespaces.add(namespace);
 			} catch (final Exception e) {
 
 				tx.failTx();
+				discardTXNamespaces();
 
 				final String msg = "couldn't pump'n'flush namespace prefix index successfully";
 
@@ -145,14 +317,27 @@ public class NamespaceIndex {
 			}
 		}
 
-		LOG.debug("finished pumping namespace prefix index");
+		LOG.debug("finished pump'n'flushing namespace prefix index");
+	}
 
-		tempNamespacePrefixesDB.commit();
-		inMemoryNamespacePrefixesDB.commit();
+	/**
+	 * Makes the namespace prefixes, whose prefix nodes were committed with the last TX, available for all requests.
+	 */
+	public synchronized void publishTXNamespaces() {
 
-		LOG.debug("finished flushing namespace prefix index");
+		if (writtenNamespaces.isEmpty()) {
 
-		tempNamespacePrefixes.clear();
+			return;
+		}
+
+		for (final String namespace : writtenNamespaces) {
+
+			namespacePrefixCache.put(namespace, tempNamespacePrefixes.remove(namespace));
+		}
+
+		LOG.debug("published '{}' new namespace prefixes", writtenNamespaces.size());
+
+		writtenNamespaces.clear();
 	}
 
 	public void addPrefix(final String namespace, final String prefix) {
@@ -164,31 +349,92 @@ public class NamespaceIndex {
 		prefixNode.setProperty(GraphProcessingStatics.PREFIX_PROPERTY, prefix);
 	}
 
-	public void clearMaps() {
+	public synchronized void clearMaps() {
 
 		uriPrefixedURIMap.clear();
 		prefixedURIURIMap.clear();
 
 		tempNamespacePrefixes.clear();
-		inMemoryNamespacePrefixes.clear();
+		writtenNamespaces.clear();
+	}
+
+	/**
+	 * Discards the namespace prefixes of the failed TX.
+	 */
+	public synchronized void discardTXNamespaces() {
 
-		closeMapDBIndex(tempNamespacePrefixesDB);
-		closeMapDBIndex(inMemoryNamespacePrefixesDB);
+		if (!writtenNamespaces.isEmpty()) {
+
+			// the prefix nodes are rolled back, i.e., the namespaces need to be resolved again
+			tempNamespacePrefixes.keySet().removeAll(writtenNamespaces);
+			writtenNamespaces.clear();
+			uriPrefixedURIMap.clear();
+			prefixedURIURIMap.clear();
+		}
 	}
 
-	public void closeMapDBIndices() {
+	private synchronized String createPrefixedURIInternal(final String fullURI) throws DMPGraphException {
 
-		closeMapDBIndex(tempNamespacePrefixesDB);
-		closeMapDBIndex(inMemoryNamespacePrefixesDB);
-		closeMapDBIndex(prefixCounterDB);
+		return NamespaceUtils.createPrefixedURI(fullURI, uriPrefixedURIMap, tempNamespacePrefixes, namespacePrefixCache,
+				() -> PrefixAllocator.getInstance(database), database, currentTx());
 	}
 
-	private void closeMapDBIndex(final DB mapDBIndex) {
+	private static String getAttributeURI(final Attribute attribute) throws DMPGraphException {
+
+		final String attributeUri = attribute.getUri();
 
-		if (mapDBIndex != null && !mapDBIndex.isClosed()) {
+		if (attributeUri == null || attributeUri.trim().isEmpty()) {
 
-			mapDBIndex.close();
+			final String message = "attribute URI shouldn't be null or empty";
+
+			LOG.error(message);
+
+			throw new DMPGraphException(message);
+		}
+
+		return attributeUri;
+	}
+
+	private synchronized Optional<String> getPrefixedURIInternal(final String fullURI) throws DMPGraphException {
+
+		final Tuple<String, String> uriParts = URI.determineParts(fullURI);
+		final String namespace = uriParts.v1();
+
+		String prefix = tempNamespacePrefixes.get(namespace);
+
+		if (prefix == null) {
+
+			prefix = namespacePrefixCache.getPrefix(namespace);
+		}
+
+		if (prefix == null) {
+
+			currentTx().ensureRunningTx();
+
+			final Optional<Node> optionalPrefixNode = NamespaceUtils.getPrefix(namespace, database);
+
+			if (!optionalPrefixNode.isPresent()) {
+
+				return Optional.empty();
+			}
+
+			prefix = (String) optionalPrefixNode.get().getProperty(GraphProcessingStatics.PREFIX_PROPERTY);
 		}
+
+		return Optional.of(prefix + NamespaceUtils.PREFIX_DELIMITER + uriParts.v2());
+	}
+
+	private synchronized String createFullURIInternal(final String prefixedURI, final boolean memoize) throws DMPGraphException {
+
+		return NamespaceUtils.createFullURI(prefixedURI, memoize ? prefixedURIURIMap : null, tempNamespacePrefixes, namespacePrefixCache, database,
+				currentTx());
+	}
+
+	private TransactionHandler currentTx() {
+
+		final TransactionHandler threadTx = boundTx.get();
+
+		return threadTx != null ? threadTx : tx;
 	}
 
 }
@@ -0,0 +1,150 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.index;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.graphdb.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.dswarm.graph.GraphProcessingStatics;
+import org.dswarm.graph.model.GraphStatics;
+
+/**
+ * A process-wide, bidirectional namespace <-> prefix cache per graph database. It is loaded from the prefix nodes of the graph database on
+ * first access and only holds committed namespace prefix mappings, i.e., it can be shared by all requests (namespace indices) and reads
+ * don't need any lock.
+ *
+ * @author tgaengler
+ */
+public final class NamespacePrefixCache {
+
+	private static final Logger LOG = LoggerFactory.getLogger(NamespacePrefixCache.class);
+
+	private static final Map<GraphDatabaseService, NamespacePrefixCache> CACHES = Collections.synchronizedMap(new WeakHashMap<>());
+
+	private final Map<String, String> namespacePrefixes = new ConcurrentHashMap<>();
+	private final Map<String, String> prefixNamespaces  = new ConcurrentHashMap<>();
+
+	private NamespacePrefixCache() {
+
+	}
+
+	/**
+	 * Returns the namespace prefix cache of the given graph database (will be loaded from the graph database on first access).
+	 *
+	 * @param database the graph database
+	 * @return the namespace prefix cache of the given graph database
+	 */
+	public static NamespacePrefixCache getInstance(final GraphDatabaseService database) {
+
+		// note: this is once per request (namespace index) and not per lookup
+		return CACHES.computeIfAbsent(database, NamespacePrefixCache::load);
+	}
+
+	/**
+	 * Drops the namespace prefix cache of the given graph database, e.g., after the prefix nodes were deleted or (re-)initialised, i.e., it
+	 * will be reloaded on next access.
+	 *
+	 * @param database the graph database
+	 */
+	public static void invalidate(final GraphDatabaseService database) {
+
+		if (CACHES.remove(database) != null) {
+
+			LOG.debug("invalidated namespace prefix cache");
+		}
+	}
+
+	public String getPrefix(final String namespace) {
+
+		return namespacePrefixes.get(namespace);
+	}
+
+	public String getNamespace(final String prefix) {
+
+		return prefixNamespaces.get(prefix);
+	}
+
+	/**
+	 * Adds a committed namespace prefix mapping.
+	 *
+	 * @param namespace the namespace
+	 * @param prefix    the prefix of the namespace
+	 */
+	public void put(final String namespace, final String prefix) {
+
+		// the reverse mapping first, i.e., a prefix that can be read is always resolvable
+		prefixNamespaces.putIfAbsent(prefix, namespace);
+		namespacePrefixes.putIfAbsent(namespace, prefix);
+	}
+
+	public void putAll(final Map<String, String> committedNamespacePrefixes) {
+
+		for (final Map.Entry<String, String> entry : committedNamespacePrefixes.entrySet()) {
+
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	public int size() {
+
+		return namespacePrefixes.size();
+	}
+
+	private static NamespacePrefixCache load(final GraphDatabaseService database) {
+
+		final long start = System.currentTimeMillis();
+		final NamespacePrefixCache cache = new NamespacePrefixCache();
+
+		try (final Transaction tx = database.beginTx()) {
+
+			try (final ResourceIterator<Node> prefixNodes = database.findNodes(GraphProcessingStatics.PREFIX_LABEL)) {
+
+				while (prefixNodes.hasNext()) {
+
+					final Node prefixNode = prefixNodes.next();
+
+					final Object namespace = prefixNode.getProperty(GraphStatics.URI_PROPERTY, null);
+					final Object prefix = prefixNode.getProperty(GraphProcessingStatics.PREFIX_PROPERTY, null);
+
+					if (namespace == null || prefix == null) {
+
+						LOG.debug("prefix node '{}' is incomplete", prefixNode.getId());
+
+						continue;
+					}
+
+					cache.put((String) namespace, (String) prefix);
+				}
+			}
+
+			tx.success();
+		}
+
+		LOG.info("loaded '{}' namespace prefixes into namespace prefix cache in '{}' ms", cache.size(), System.currentTimeMillis() - start);
+
+		return cache;
+	}
+}
@@ -0,0 +1,1115 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.index;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+
+import com.carrotsearch.hppc.LongOpenHashSet;
+import com.carrotsearch.hppc.cursors.LongCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An open-addressing (linear probing) hash set of primitive longs that lives off-heap, i.e., in direct memory or in a memory-mapped
+ * file. Lookups ({@link #containsKey(long)}) don't allocate anything.<br/>
+ * A file-backed set is transactional within the process: changes are kept in a journal until {@link #commit()} applies them to the
+ * mapped table and forces them to disk; {@link #rollback()} (or {@link #close()} without commit) discards them. Opening an existing file
+ * maps it as it is (no rebuild). A commit is not atomic on disk, i.e., after a commit was interrupted (e.g. by a crash) only the stored
+ * size is repaired; the table might contain a part of the changes of that commit.<br/>
+ * Instances are not thread-safe and a file should only be mapped once per process (see {@link SharedLongIndex} for a shared instance per
+ * file).
+ *
+ * @author tgaengler
+ */
+public final class OffHeapLongHashSet extends AbstractSet<Long> implements Closeable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(OffHeapLongHashSet.class);
+
+	public static final String FILE_ENDING = ".lhs";
+
+	private static final long MAGIC   = 0x444D504C48533031L; // DMPLHS01
+	private static final int  VERSION = 1;
+
+	// header layout: magic (long), version (int), flags (int), capacity (long), size (long), generation (long)
+	private static final int HEADER_SIZE       = 64;
+	private static final int MAGIC_OFFSET      = 0;
+	private static final int VERSION_OFFSET    = 8;
+	private static final int FLAGS_OFFSET      = 12;
+	private static final int CAPACITY_OFFSET   = 16;
+	private static final int SIZE_OFFSET       = 24;
+	private static final int GENERATION_OFFSET = 32;
+	private static final int CONTAINS_ZERO     = 1;
+	private static final int DIRTY             = 1 << 1;
+
+	// 2^27 longs = 1 GiB per segment (a single mapping can't exceed 2 GiB)
+	private static final int  SEGMENT_SHIFT = 27;
+	private static final long SEGMENT_MASK  = (1L << SEGMENT_SHIFT) - 1;
+
+	private static final long MIX_MULTIPLIER         = 0xff51afd7ed558ccdL;
+	private static final long MIX_MULTIPLIER_INVERSE = inverse(MIX_MULTIPLIER);
+
+	private static final double LOAD_FACTOR      = 0.75;
+	private static final long   MIN_CAPACITY     = 1 << 10;
+	private static final String RESIZE_FILE_ENDING = ".resize";
+
+	private final File    file;
+	private final boolean transactional;
+
+	private final LongOpenHashSet pendingAdditions;
+	private final LongOpenHashSet pendingRemovals;
+
+	private Table table;
+
+	private OffHeapLongHashSet(final File fileArg, final Table tableArg) {
+
+		file = fileArg;
+		table = tableArg;
+		transactional = fileArg != null;
+		pendingAdditions = transactional ? new LongOpenHashSet() : null;
+		pendingRemovals = transactional ? new LongOpenHashSet() : null;
+	}
+
+	/**
+	 * Creates a (non-transactional) set in direct memory.
+	 *
+	 * @param expectedSize the expected number of elements
+	 * @return a new, empty set
+	 */
+	public static OffHeapLongHashSet createInMemory(final long expectedSize) {
+
+		try {
+
+			return new OffHeapLongHashSet(null, Table.create(null, capacityFor(expectedSize)));
+		} catch (final IOException e) {
+
+			// can't happen for direct memory tables
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Maps the given file as set or creates a new one, if the file doesn't exist yet.
+	 *
+	 * @param file the index file
+	 * @return the mapped set
+	 * @throws IOException
+	 */
+	public static OffHeapLongHashSet openOrCreate(final File file) throws IOException {
+
+		final Table table;
+
+		if (file.exists() && file.length() >= HEADER_SIZE) {
+
+			table = Table.open(file);
+		} else {
+
+			final File parent = file.getAbsoluteFile().getParentFile();
+
+			if (parent != null && !parent.exists() && !parent.mkdirs()) {
+
+				throw new IOException(String.format("couldn't create directory '%s'", parent));
+			}
+
+			table = Table.create(file, MIN_CAPACITY);
+			table.force();
+		}
+
+		return new OffHeapLongHashSet(file, table);
+	}
+
+	public boolean containsKey(final long key) {
+
+		if (transactional) {
+
+			if (pendingAdditions.contains(key)) {
+
+				return true;
+			}
+
+			if (pendingRemovals.contains(key)) {
+
+				return false;
+			}
+		}
+
+		return table.contains(key);
+	}
+
+	/**
+	 * @param key the key to add
+	 * @return true, if the key wasn't part of this set before
+	 */
+	public boolean addKey(final long key) {
+
+		if (!transactional) {
+
+			ensureCapacity(table.size + 1);
+
+			return table.add(key);
+		}
+
+		if (containsKey(key)) {
+
+			return false;
+		}
+
+		if (!pendingRemovals.remove(key)) {
+
+			pendingAdditions.add(key);
+		}
+
+		return true;
+	}
+
+	/**
+	 * @param key the key to remove
+	 * @return true, if the key was part of this set
+	 */
+	public boolean removeKey(final long key) {
+
+		if (!transactional) {
+
+			return table.remove(key);
+		}
+
+		if (pendingAdditions.remove(key)) {
+
+			return true;
+		}
+
+		if (!pendingRemovals.contains(key) && table.contains(key)) {
+
+			pendingRemovals.add(key);
+
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Applies all pending changes to the table and forces them to disk (no-op for sets in direct memory).
+	 *
+	 * @throws IOException
+	 */
+	public void commit() throws IOException {
+
+		if (!transactional || (pendingAdditions.isEmpty() && pendingRemovals.isEmpty())) {
+
+			return;
+		}
+
+		ensureCapacity(table.size + pendingAdditions.size());
+
+		table.setDirty(true);
+
+		for (final LongCursor cursor : pendingRemovals) {
+
+			table.remove(cursor.value);
+		}
+
+		for (final LongCursor cursor : pendingAdditions) {
+
+			table.add(cursor.value);
+		}
+
+		pendingRemovals.clear();
+		pendingAdditions.clear();
+
+		table.nextGeneration();
+		table.setDirty(false);
+		table.force();
+	}
+
+	/**
+	 * Merges the given keys (and all pending changes) into the table and commits the result (the commit is a no-op for sets in direct
+	 * memory). Unlike {@link #addKey(long)} + {@link #commit()}, the keys are not journaled one by one, but sorted by their home slot, i.e.,
+	 * the table is written in one sequential pass instead of a random probe per key.
+	 *
+	 * @param keys the keys to add (note: the array will be reordered)
+	 * @return the number of keys that weren't part of this set before
+	 * @throws IOException
+	 */
+	public long mergeAndCommit(final long[] keys) throws IOException {
+
+		final long sizeBefore = longSize();
+		final long[] additions;
+
+		if (transactional && !pendingAdditions.isEmpty()) {
+
+			final long[] pending = pendingAdditions.toArray();
+
+			additions = Arrays.copyOf(keys, keys.length + pending.length);
+			System.arraycopy(pending, 0, additions, keys.length, pending.length);
+		} else {
+
+			additions = keys;
+		}
+
+		final boolean hasRemovals = transactional && !pendingRemovals.isEmpty();
+
+		if (additions.length == 0 && !hasRemovals) {
+
+			return 0;
+		}
+
+		ensureCapacity(table.size + additions.length);
+
+		table.setDirty(true);
+
+		if (hasRemovals) {
+
+			for (final LongCursor cursor : pendingRemovals) {
+
+				table.remove(cursor.value);
+			}
+
+			pendingRemovals.clear();
+		}
+
+		if (transactional) {
+
+			pendingAdditions.clear();
+		}
+
+		sortByHomeSlot(additions, Long.numberOfTrailingZeros(table.capacity));
+
+		for (final long key : additions) {
+
+			table.add(key);
+		}
+
+		table.nextGeneration();
+		table.setDirty(false);
+
+		if (transactional) {
+
+			table.force();
+		}
+
+		return table.size - sizeBefore;
+	}
+
+	/**
+	 * Discards all pending changes.
+	 */
+	public void rollback() {
+
+		if (transactional) {
+
+			pendingAdditions.clear();
+			pendingRemovals.clear();
+		}
+	}
+
+	public boolean isClosed() {
+
+		return table == null;
+	}
+
+	/**
+	 * @return the generation of the committed state, i.e., it is increased by every commit that changed the table (and by the recovery
+	 * of an interrupted commit); derived structures (e.g. a {@link LongBloomFilter}) can detect changes they missed by it
+	 */
+	public long getGeneration() {
+
+		return table.generation;
+	}
+
+	/**
+	 * Discards pending changes and releases the table (i.e. unmaps the file).
+	 */
+	@Override
+	public void close() {
+
+		if (table == null) {
+
+			return;
+		}
+
+		rollback();
+
+		table.release();
+		table = null;
+	}
+
+	/**
+	 * Hands all keys (committed state + pending changes) to the given consumer (without boxing).
+	 *
+	 * @param consumer the key consumer
+	 */
+	public void forEachKey(final LongConsumer consumer) {
+
+		final PrimitiveIterator iterator = new PrimitiveIterator();
+
+		while (iterator.hasNext()) {
+
+			consumer.accept(iterator.nextLong());
+		}
+	}
+
+	/**
+	 * @return a copy of all keys (committed state + pending changes)
+	 */
+	public long[] toLongArray() {
+
+		final long[] keys = new long[size()];
+		int i = 0;
+
+		final PrimitiveIterator iterator = new PrimitiveIterator();
+
+		while (iterator.hasNext()) {
+
+			keys[i++] = iterator.nextLong();
+		}
+
+		return keys;
+	}
+
+	public long longSize() {
+
+		if (!transactional) {
+
+			return table.size;
+		}
+
+		return table.size + pendingAdditions.size() - pendingRemovals.size();
+	}
+
+	@Override
+	public int size() {
+
+		return (int) Math.min(Integer.MAX_VALUE, longSize());
+	}
+
+	@Override
+	public boolean contains(final Object o) {
+
+		return o instanceof Long && containsKey((Long) o);
+	}
+
+	@Override
+	public boolean add(final Long key) {
+
+		return addKey(key);
+	}
+
+	@Override
+	public boolean remove(final Object o) {
+
+		return o instanceof Long && removeKey((Long) o);
+	}
+
+	@Override
+	public void clear() {
+
+		if (transactional) {
+
+			// clear via journal, i.e., it can be rolled back
+			pendingAdditions.clear();
+
+			final Table.SlotIterator slots = table.iterator();
+
+			while (slots.hasNext()) {
+
+				pendingRemovals.add(slots.nextLong());
+			}
+
+			return;
+		}
+
+		table.clear();
+	}
+
+	@Override
+	public Iterator<Long> iterator() {
+
+		return new PrimitiveIterator();
+	}
+
+	private void ensureCapacity(final long expectedSize) {
+
+		if (expectedSize <= table.threshold()) {
+
+			return;
+		}
+
+		final long newCapacity = capacityFor(expectedSize);
+
+		LOG.debug("resize off-heap long hash set from capacity '{}' to '{}'", table.capacity, newCapacity);
+
+		try {
+
+			if (file == null) {
+
+				final Table newTable = Table.create(null, newCapacity);
+				newTable.addAll(table);
+
+				table.release();
+				table = newTable;
+
+				return;
+			}
+
+			final File resizeFile = new File(file.getPath() + RESIZE_FILE_ENDING);
+
+			final Table newTable = Table.create(resizeFile, newCapacity);
+			newTable.addAll(table);
+			newTable.setGeneration(table.generation);
+			newTable.force();
+			newTable.release();
+
+			table.release();
+			table = null;
+
+			Files.move(resizeFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+			table = Table.open(file);
+		} catch (final IOException e) {
+
+			throw new IllegalStateException(String.format("couldn't resize off-heap long hash set '%s'", file), e);
+		}
+	}
+
+	private static long capacityFor(final long expectedSize) {
+
+		final long minCapacity = Math.max(MIN_CAPACITY, (long) Math.ceil(expectedSize / LOAD_FACTOR) + 1);
+
+		return Long.highestOneBit(minCapacity - 1) << 1;
+	}
+
+	private static long mix(final long key) {
+
+		// finalizer of MurmurHash3 (statement hashes are hashes already, but this makes the distribution independent of the input)
+		long h = key;
+		h ^= h >>> 33;
+		h *= MIX_MULTIPLIER;
+		h ^= h >>> 33;
+
+		return h;
+	}
+
+	private static long unmix(final long mixed) {
+
+		// the xor-shifts are self-inverse, the multiplication is inverted by the modular inverse
+		long h = mixed;
+		h ^= h >>> 33;
+		h *= MIX_MULTIPLIER_INVERSE;
+		h ^= h >>> 33;
+
+		return h;
+	}
+
+	private static long inverse(final long oddMultiplier) {
+
+		// Newton iteration mod 2^64; each step doubles the number of correct low bits (3 -> 96)
+		long inverse = oddMultiplier;
+
+		for (int i = 0; i < 5; i++) {
+
+			inverse *= 2 - oddMultiplier * inverse;
+		}
+
+		return inverse;
+	}
+
+	/**
+	 * Sorts the given keys by their home slot (for a table with 2^capacityBits slots) with a primitive sort, i.e., the mixed keys are rotated
+	 * so that their slot bits become the most significant ones, sorted as unsigned values and mapped back afterwards.
+	 */
+	private static void sortByHomeSlot(final long[] keys, final int capacityBits) {
+
+		for (int i = 0; i < keys.length; i++) {
+
+			keys[i] = Long.rotateRight(mix(keys[i]), capacityBits) ^ Long.MIN_VALUE;
+		}
+
+		Arrays.sort(keys);
+
+		for (int i = 0; i < keys.length; i++) {
+
+			keys[i] = unmix(Long.rotateLeft(keys[i] ^ Long.MIN_VALUE, capacityBits));
+		}
+	}
+
+	/**
+	 * Iterates over committed keys (that are not removed in the journal) and pending additions.
+	 */
+	private final class PrimitiveIterator implements Iterator<Long> {
+
+		private final Table.SlotIterator     slots     = table.iterator();
+		private final Iterator<LongCursor>   additions = transactional ? pendingAdditions.iterator() : null;
+
+		private boolean hasNext;
+		private long    next;
+
+		private PrimitiveIterator() {
+
+			advance();
+		}
+
+		private void advance() {
+
+			while (slots.hasNext()) {
+
+				final long key = slots.nextLong();
+
+				if (!transactional || !pendingRemovals.contains(key)) {
+
+					hasNext = true;
+					next = key;
+
+					return;
+				}
+			}
+
+			if (additions != null && additions.hasNext()) {
+
+				hasNext = true;
+				next = additions.next().value;
+
+				return;
+			}
+
+			hasNext = false;
+		}
+
+		@Override
+		public boolean hasNext() {
+
+			return hasNext;
+		}
+
+		long nextLong() {
+
+			if (!hasNext) {
+
+				throw new NoSuchElementException();
+			}
+
+			final long current = next;
+
+			advance();
+
+			return current;
+		}
+
+		@Override
+		public Long next() {
+
+			return nextLong();
+		}
+	}
+
+	/**
+	 * The open-addressing table, i.e., header + slots (0 = empty slot; key 0 is tracked by a header flag).
+	 */
+	private static final class Table {
+
+		private final RandomAccessFile randomAccessFile;
+		private final ByteBuffer       header;
+		private final ByteBuffer[]     buffers;
+		private final LongBuffer[]     segments;
+
+		private final long capacity;
+		private final long mask;
+
+		private long    size;
+		private boolean containsZero;
+		private long    generation;
+
+		private Table(final RandomAccessFile randomAccessFileArg, final ByteBuffer headerArg, final ByteBuffer[] buffersArg, final long capacityArg) {
+
+			randomAccessFile = randomAccessFileArg;
+			header = headerArg;
+			buffers = buffersArg;
+			capacity = capacityArg;
+			mask = capacityArg - 1;
+
+			segments = new LongBuffer[buffersArg.length];
+
+			for (int i = 0; i < buffersArg.length; i++) {
+
+				segments[i] = buffersArg[i].order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+			}
+		}
+
+		static Table create(final File file, final long capacity) throws IOException {
+
+			final RandomAccessFile randomAccessFile;
+
+			if (file != null) {
+
+				randomAccessFile = new RandomAccessFile(file, "rw");
+				randomAccessFile.setLength(0);
+				randomAccessFile.setLength(HEADER_SIZE + capacity * Long.BYTES);
+			} else {
+
+				randomAccessFile = null;
+			}
+
+			final Table table = map(randomAccessFile, capacity);
+
+			table.header.putLong(MAGIC_OFFSET, MAGIC);
+			table.header.putInt(VERSION_OFFSET, VERSION);
+			table.header.putLong(CAPACITY_OFFSET, capacity);
+			table.writeSizeAndFlags(0);
+
+			return table;
+		}
+
+		static Table open(final File file) throws IOException {
+
+			final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+
+			final ByteBuffer header = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+			if (header.getLong(MAGIC_OFFSET) != MAGIC || header.getInt(VERSION_OFFSET) != VERSION) {
+
+				randomAccessFile.close();
+
+				throw new IOException(String.format("'%s' is not an off-heap long hash set file (of version %d)", file, VERSION));
+			}
+
+			final long capacity = header.getLong(CAPACITY_OFFSET);
+
+			unmap(header);
+
+			final Table table = map(randomAccessFile, capacity);
+
+			table.size = table.header.getLong(SIZE_OFFSET);
+			table.generation = table.header.getLong(GENERATION_OFFSET);
+
+			final int flags = table.header.getInt(FLAGS_OFFSET);
+
+			table.containsZero = (flags & CONTAINS_ZERO) != 0;
+
+			if ((flags & DIRTY) != 0) {
+
+				// a commit was interrupted, i.e., the stored size might be wrong and the table might contain a part of its changes (best effort)
+				LOG.warn("off-heap long hash set '{}' wasn't committed completely; recount its size", file);
+
+				table.recount();
+				table.nextGeneration();
+				table.setDirty(false);
+				table.force();
+			}
+
+			return table;
+		}
+
+		private static Table map(final RandomAccessFile randomAccessFile, final long capacity) throws IOException {
+
+			final int segmentCount = (int) Math.max(1, capacity >>> SEGMENT_SHIFT);
+			final long segmentLength = Math.min(capacity, 1L << SEGMENT_SHIFT);
+			final ByteBuffer[] buffers = new ByteBuffer[segmentCount];
+			final ByteBuffer header;
+
+			if (randomAccessFile != null) {
+
+				final FileChannel channel = randomAccessFile.getChannel();
+
+				header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+
+				for (int i = 0; i < segmentCount; i++) {
+
+					buffers[i] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + i * segmentLength * Long.BYTES, segmentLength * Long.BYTES);
+				}
+			} else {
+
+				header = ByteBuffer.allocateDirect(HEADER_SIZE);
+
+				for (int i = 0; i < segmentCount; i++) {
+
+					// note: direct buffers are zeroed
+					buffers[i] = ByteBuffer.allocateDirect((int) (segmentLength * Long.BYTES));
+				}
+			}
+
+			return new Table(randomAccessFile, header.order(ByteOrder.LITTLE_ENDIAN), buffers, capacity);
+		}
+
+		long threshold() {
+
+			return (long) (capacity * LOAD_FACTOR);
+		}
+
+		private long get(final long slot) {
+
+			return segments[(int) (slot >>> SEGMENT_SHIFT)].get((int) (slot & SEGMENT_MASK));
+		}
+
+		private void put(final long slot, final long value) {
+
+			segments[(int) (slot >>> SEGMENT_SHIFT)].put((int) (slot & SEGMENT_MASK), value);
+		}
+
+		boolean contains(final long key) {
+
+			if (key == 0) {
+
+				return containsZero;
+			}
+
+			long slot = mix(key) & mask;
+
+			while (true) {
+
+				final long value = get(slot);
+
+				if (value == 0) {
+
+					return false;
+				}
+
+				if (value == key) {
+
+					return true;
+				}
+
+				slot = (slot + 1) & mask;
+			}
+		}
+
+		boolean add(final long key) {
+
+			if (key == 0) {
+
+				if (containsZero) {
+
+					return false;
+				}
+
+				containsZero = true;
+				size++;
+				writeSizeAndFlags(currentFlags());
+
+				return true;
+			}
+
+			long slot = mix(key) & mask;
+
+			while (true) {
+
+				final long value = get(slot);
+
+				if (value == 0) {
+
+					put(slot, key);
+					size++;
+					header.putLong(SIZE_OFFSET, size);
+
+					return true;
+				}
+
+				if (value == key) {
+
+					return false;
+				}
+
+				slot = (slot + 1) & mask;
+			}
+		}
+
+		/**
+		 * Removes the given key with backward shift deletion, i.e., no tombstones are needed.
+		 */
+		boolean remove(final long key) {
+
+			if (key == 0) {
+
+				if (!containsZero) {
+
+					return false;
+				}
+
+				containsZero = false;
+				size--;
+				writeSizeAndFlags(currentFlags());
+
+				return true;
+			}
+
+			long slot = mix(key) & mask;
+
+			while (true) {
+
+				final long value = get(slot);
+
+				if (value == 0) {
+
+					return false;
+				}
+
+				if (value == key) {
+
+					break;
+				}
+
+				slot = (slot + 1) & mask;
+			}
+
+			long gap = slot;
+			long next = slot;
+
+			while (true) {
+
+				next = (next + 1) & mask;
+
+				final long value = get(next);
+
+				if (value == 0) {
+
+					break;
+				}
+
+				final long home = mix(value) & mask;
+
+				// move the entry into the gap, if its home slot isn't (cyclically) in (gap, next]
+				final boolean homeInRange = gap <= next ? (home > gap && home <= next) : (home > gap || home <= next);
+
+				if (!homeInRange) {
+
+					put(gap, value);
+					gap = next;
+				}
+			}
+
+			put(gap, 0);
+			size--;
+			header.putLong(SIZE_OFFSET, size);
+
+			return true;
+		}
+
+		void addAll(final Table other) {
+
+			final SlotIterator slots = other.iterator();
+
+			while (slots.hasNext()) {
+
+				add(slots.nextLong());
+			}
+		}
+
+		void clear() {
+
+			for (final LongBuffer segment : segments) {
+
+				for (int i = 0; i < segment.capacity(); i++) {
+
+					segment.put(i, 0);
+				}
+			}
+
+			size = 0;
+			containsZero = false;
+			writeSizeAndFlags(currentFlags());
+		}
+
+		void nextGeneration() {
+
+			setGeneration(generation + 1);
+		}
+
+		void setGeneration(final long generationArg) {
+
+			generation = generationArg;
+			header.putLong(GENERATION_OFFSET, generation);
+		}
+
+		void setDirty(final boolean dirty) {
+
+			header.putInt(FLAGS_OFFSET, dirty ? currentFlags() | DIRTY : currentFlags());
+
+			if (dirty) {
+
+				forceHeader();
+			}
+		}
+
+		private int currentFlags() {
+
+			return containsZero ? CONTAINS_ZERO : 0;
+		}
+
+		private void writeSizeAndFlags(final int flags) {
+
+			header.putLong(SIZE_OFFSET, size);
+			header.putInt(FLAGS_OFFSET, (header.getInt(FLAGS_OFFSET) & DIRTY) | flags);
+		}
+
+		private void recount() {
+
+			long count = containsZero ? 1 : 0;
+
+			for (long slot = 0; slot < capacity; slot++) {
+
+				if (get(slot) != 0) {
+
+					count++;
+				}
+			}
+
+			size = count;
+			header.putLong(SIZE_OFFSET, size);
+		}
+
+		void force() {
+
+			if (randomAccessFile == null) {
+
+				return;
+			}
+
+			for (final ByteBuffer buffer : buffers) {
+
+				((MappedByteBuffer) buffer).force();
+			}
+
+			forceHeader();
+		}
+
+		private void forceHeader() {
+
+			if (randomAccessFile != null) {
+
+				((MappedByteBuffer) header).force();
+			}
+		}
+
+		void release() {
+
+			unmap(header);
+
+			for (final ByteBuffer buffer : buffers) {
+
+				unmap(buffer);
+			}
+
+			if (randomAccessFile != null) {
+
+				try {
+
+					randomAccessFile.close();
+				} catch (final IOException e) {
+
+					LOG.error("couldn't close off-heap long hash set file", e);
+				}
+			}
+		}
+
+		SlotIterator iterator() {
+
+			return new SlotIterator();
+		}
+
+		/**
+		 * Iterates over the keys of this table (allocation-free, i.e., without boxing).
+		 */
+		final class SlotIterator {
+
+			private long    slot        = -1;
+			private boolean zeroPending = containsZero;
+
+			boolean hasNext() {
+
+				if (zeroPending) {
+
+					return true;
+				}
+
+				while (slot + 1 < capacity) {
+
+					if (get(slot + 1) != 0) {
+
+						return true;
+					}
+
+					slot++;
+				}
+
+				return false;
+			}
+
+			long nextLong() {
+
+				if (!hasNext()) {
+
+					throw new NoSuchElementException();
+				}
+
+				if (zeroPending) {
+
+					zeroPending = false;
+
+					return 0;
+				}
+
+				slot++;
+
+				return get(slot);
+			}
+		}
+	}
+
+	/**
+	 * Releases the memory (mapping) of the given direct buffer right away (instead of waiting for garbage collection), i.e., the mapped file
+	 * can be replaced afterwards.
+	 */
+	static void unmap(final ByteBuffer buffer) {
+
+		if (buffer == null || !buffer.isDirect()) {
+
+			return;
+		}
+
+		try {
+
+			final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+			cleanerMethod.setAccessible(true);
+
+			final Object cleaner = cleanerMethod.invoke(buffer);
+
+			if (cleaner != null) {
+
+				cleaner.getClass().getMethod("clean").invoke(cleaner);
+			}
+		} catch (final Exception e) {
+
+			// note: e.g. on Java 9+ (without access to sun.misc.Cleaner), the mapping stays until garbage collection, i.e., replacing the
+			// mapped file (on resize) might fail on some platforms
+			LOG.warn("couldn't unmap direct buffer; it will be released by garbage collection", e);
+		}
+	}
+}
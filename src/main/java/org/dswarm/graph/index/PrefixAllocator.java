@@ -0,0 +1,163 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.index;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.mapdb.Atomic;
+import org.mapdb.DB;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.dswarm.common.types.Tuple;
+import org.dswarm.graph.GraphIndexStatics;
+import org.dswarm.graph.utils.GraphDatabaseUtils;
+
+/**
+ * A process-wide allocator of prefix numbers per prefix counter file. Prefix numbers are handed out from an {@link AtomicLong} (lock-free);
+ * the persistent prefix counter only stores the end of the reserved block, i.e., it is only committed once per {@link #BLOCK_SIZE} prefix
+ * numbers. After a crash, the allocation continues after the last reserved block, i.e., the unused rest of this block will be skipped, but no
+ * prefix number will be handed out twice.
+ *
+ * @author tgaengler
+ */
+public final class PrefixAllocator {
+
+	private static final Logger LOG = LoggerFactory.getLogger(PrefixAllocator.class);
+
+	public static final long BLOCK_SIZE = 1000;
+
+	private static final Map<String, PrefixAllocator> ALLOCATORS = new ConcurrentHashMap<>();
+
+	static {
+
+		Runtime.getRuntime().addShutdownHook(new Thread(PrefixAllocator::closeAll, "prefix-allocator-shutdown"));
+	}
+
+	private final String                 prefixCounterFileName;
+	private final Tuple<Atomic.Long, DB> prefixCounterTuple;
+
+	private final AtomicLong nextPrefixNumber;
+
+	/**
+	 * exclusive end of the reserved (i.e. persisted) block
+	 */
+	private volatile long reservedUntil;
+
+	private PrefixAllocator(final String prefixCounterFileNameArg) {
+
+		prefixCounterFileName = prefixCounterFileNameArg;
+		prefixCounterTuple = MapDBUtils.createOrGetPersistentLongIndexGlobalTransactional(prefixCounterFileName,
+				GraphIndexStatics.PREFIX_COUNTER_INDEX_NAME);
+
+		final long persistedPrefixCount = prefixCounterTuple.v1().get();
+
+		nextPrefixNumber = new AtomicLong(persistedPrefixCount);
+		reservedUntil = persistedPrefixCount;
+
+		LOG.debug("opened prefix counter '{}' at '{}'", prefixCounterFileName, persistedPrefixCount);
+	}
+
+	/**
+	 * Returns the prefix allocator of the prefix counter file of the given graph database.
+	 *
+	 * @param database the graph database
+	 * @return the prefix allocator of the given graph database
+	 */
+	public static PrefixAllocator getInstance(final GraphDatabaseService database) {
+
+		final String storeDir = GraphDatabaseUtils.determineMapDBIndexStoreDir(database);
+		final String prefixCounterFileName = new File(storeDir + File.separator + GraphIndexStatics.PREFIX_COUNTER_INDEX_NAME).getAbsolutePath();
+
+		return ALLOCATORS.computeIfAbsent(prefixCounterFileName, PrefixAllocator::new);
+	}
+
+	/**
+	 * @return a new prefix number, that was never handed out before
+	 */
+	public long nextPrefixNumber() {
+
+		final long prefixNumber = nextPrefixNumber.getAndIncrement();
+
+		if (prefixNumber < reservedUntil) {
+
+			return prefixNumber;
+		}
+
+		reserveBlock(prefixNumber);
+
+		return prefixNumber;
+	}
+
+	/**
+	 * (Re-)Initialises the prefix counter, i.e., the next prefix number will be the given one (note: this might hand out prefix numbers
+	 * again, i.e., it should only be utilised for maintenance, e.g., with the biggest prefix number of the graph + 1).
+	 *
+	 * @param prefixNumber the next prefix number
+	 */
+	public synchronized void initialise(final long prefixNumber) {
+
+		nextPrefixNumber.set(prefixNumber);
+		prefixCounterTuple.v1().set(prefixNumber);
+		prefixCounterTuple.v2().commit();
+
+		reservedUntil = prefixNumber;
+
+		LOG.info("initialised prefix counter '{}' with '{}'", prefixCounterFileName, prefixNumber);
+	}
+
+	private synchronized void reserveBlock(final long prefixNumber) {
+
+		if (prefixNumber < reservedUntil) {
+
+			// another thread has reserved a block that contains this prefix number meanwhile
+			return;
+		}
+
+		final long newReservedUntil = prefixNumber + BLOCK_SIZE;
+
+		// persist first, i.e., no prefix number of the new block can be handed out twice after a crash
+		prefixCounterTuple.v1().set(newReservedUntil);
+		prefixCounterTuple.v2().commit();
+
+		reservedUntil = newReservedUntil;
+
+		LOG.debug("reserved prefix numbers '{}' - '{}'", prefixNumber, newReservedUntil - 1);
+	}
+
+	private synchronized void close() {
+
+		final DB prefixCounterDB = prefixCounterTuple.v2();
+
+		if (!prefixCounterDB.isClosed()) {
+
+			prefixCounterDB.close();
+		}
+	}
+
+	private static void closeAll() {
+
+		for (final PrefixAllocator allocator : ALLOCATORS.values()) {
+
+			allocator.close();
+		}
+	}
+}
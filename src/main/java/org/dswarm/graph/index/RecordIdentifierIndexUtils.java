@@ -0,0 +1,395 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.index;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import com.carrotsearch.hppc.LongArrayList;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.index.Index;
+import org.neo4j.graphdb.index.IndexHits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.dswarm.common.model.Attribute;
+import org.dswarm.common.model.AttributePath;
+import org.dswarm.graph.GraphIndexStatics;
+import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.GraphProcessingStatics;
+import org.dswarm.graph.delta.util.GraphDBUtil;
+import org.dswarm.graph.model.GraphStatics;
+import org.dswarm.graph.versioning.utils.GraphVersionUtils;
+
+/**
+ * Utilities for the (legacy) record identifiers index, i.e., the index from (data model, record identifier attribute path, record
+ * identifier value) to record node. It is maintained by the GDM write handlers (for data models with a content schema with record
+ * identifier attribute path), the deprecators remove deprecated records and it can be rebuilt via /maintain.<br/>
+ * The index entries of a data model and record identifier attribute path are complete, if this is marked at the data model node (see
+ * {@link #isComplete(GraphDatabaseService, String, AttributePath)}), i.e., a miss doesn't need to be double-checked in the graph then. The
+ * mark is set by a rebuild or by a maintaining writer that started with an empty data model and it is removed by every other writer that
+ * adds resources to the data model.<br/>
+ * The index only covers the records of the current version range (i.e. the record identifier statement isn't deprecated), i.e., records
+ * of former versions need to be looked up in the graph.<br/>
+ * note: index entries are verified on lookup, i.e., a stale entry (incl. the one of a record that was deprecated since) is never returned
+ *
+ * @author tgaengler
+ */
+public final class RecordIdentifierIndexUtils {
+
+	private static final Logger LOG = LoggerFactory.getLogger(RecordIdentifierIndexUtils.class);
+
+	private static final char KEY_SEPARATOR = ' ';
+
+	/**
+	 * the keys (see {@link #createKey(String, AttributePath)}) of the complete index entries of a data model (at its data model node)
+	 */
+	private static final String COMPLETE_INDEX_KEYS_PROPERTY = "complete_record_identifiers_index_keys";
+
+	private static final String[] NO_KEYS = new String[0];
+
+	private static final int REBUILD_BATCH_SIZE = 10000;
+
+	/**
+	 * note: must be in transaction scope
+	 *
+	 * @param database
+	 * @return the record identifiers index
+	 */
+	public static Index<Node> getIndex(final GraphDatabaseService database) {
+
+		return database.index().forNodes(GraphIndexStatics.RECORD_IDENTIFIERS_INDEX_NAME);
+	}
+
+	/**
+	 * @param prefixedDataModelUri
+	 * @param prefixedRecordIdentifierAP
+	 * @return the index key for the records of the given data model that are identified via the given attribute path
+	 */
+	public static String createKey(final String prefixedDataModelUri, final AttributePath prefixedRecordIdentifierAP) {
+
+		final StringBuilder sb = new StringBuilder(prefixedDataModelUri);
+
+		for (final Attribute attribute : prefixedRecordIdentifierAP.getAttributes()) {
+
+			sb.append(KEY_SEPARATOR).append(attribute.getUri());
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * note: must be in transaction scope
+	 *
+	 * @param database
+	 * @param prefixedDataModelUri
+	 * @param prefixedRecordIdentifierAP
+	 * @param recordIdentifier
+	 * @return the record node (of the current version range) with the given record identifier or nothing, if there is no (valid) index
+	 * entry
+	 */
+	public static Optional<Node> getRecordNode(final GraphDatabaseService database, final String prefixedDataModelUri,
+			final AttributePath prefixedRecordIdentifierAP, final String recordIdentifier) {
+
+		if (!database.index().existsForNodes(GraphIndexStatics.RECORD_IDENTIFIERS_INDEX_NAME)) {
+
+			return Optional.empty();
+		}
+
+		final IndexHits<Node> hits = getIndex(database).get(createKey(prefixedDataModelUri, prefixedRecordIdentifierAP), recordIdentifier);
+
+		if (hits == null) {
+
+			return Optional.empty();
+		}
+
+		try {
+
+			for (final Node recordNode : hits) {
+
+				if (prefixedDataModelUri.equals(recordNode.getProperty(GraphStatics.DATA_MODEL_PROPERTY, null)) && GraphDBUtil
+						.hasAttributePathValue(recordNode, prefixedRecordIdentifierAP.getAttributes(), recordIdentifier)) {
+
+					return Optional.of(recordNode);
+				}
+
+				LOG.debug("record node '{}' is not identified by '{}' anymore", recordNode.getId(), recordIdentifier);
+			}
+		} finally {
+
+			hits.close();
+		}
+
+		return Optional.empty();
+	}
+
+	/**
+	 * Adds the record identifier of the given record node (if there is one in the current version range) to the index.<br/>
+	 * note: must be in (write) transaction scope
+	 *
+	 * @param index
+	 * @param recordNode
+	 * @param prefixedDataModelUri
+	 * @param prefixedRecordIdentifierAP
+	 * @return true, if an index entry was added
+	 */
+	public static boolean addRecordNode(final Index<Node> index, final Node recordNode, final String prefixedDataModelUri,
+			final AttributePath prefixedRecordIdentifierAP) {
+
+		final String key = createKey(prefixedDataModelUri, prefixedRecordIdentifierAP);
+
+		// i.e. a record identifier that has changed (or was removed) is replaced
+		index.remove(recordNode, key);
+
+		final String recordIdentifier = GraphDBUtil.followAttributePath(recordNode, prefixedRecordIdentifierAP.getAttributes());
+
+		if (recordIdentifier == null) {
+
+			LOG.debug("couldn't determine record identifier for record node '{}'", recordNode.getId());
+
+			return false;
+		}
+
+		index.add(recordNode, key, recordIdentifier);
+
+		return true;
+	}
+
+	/**
+	 * Rebuilds the index entries of the records of the given data model that are identified via the given attribute path, i.e., the entry
+	 * of each resource node of the data model is replaced (or removed, if the record was deprecated). The entries are written in batches (each in its own transaction), i.e., a
+	 * rebuild of a large data model doesn't need to fit into one transaction. Finally, the index entries are marked as complete.<br/>
+	 * note: must not be in transaction scope; writes to this data model shouldn't happen during a rebuild
+	 *
+	 * @param database
+	 * @param prefixedDataModelUri
+	 * @param prefixedRecordIdentifierAP
+	 * @return the number of indexed records
+	 * @throws DMPGraphException
+	 */
+	public static long rebuild(final GraphDatabaseService database, final String prefixedDataModelUri,
+			final AttributePath prefixedRecordIdentifierAP) throws DMPGraphException {
+
+		final LongArrayList recordNodeIds = new LongArrayList();
+
+		try (final Transaction tx = database.beginTx()) {
+
+			final ResourceIterator<Node> recordNodes = database
+					.findNodes(GraphProcessingStatics.RESOURCE_LABEL, GraphStatics.DATA_MODEL_PROPERTY, prefixedDataModelUri);
+
+			if (recordNodes != null) {
+
+				try {
+
+					while (recordNodes.hasNext()) {
+
+						recordNodeIds.add(recordNodes.next().getId());
+					}
+				} finally {
+
+					recordNodes.close();
+				}
+			}
+
+			tx.success();
+		} catch (final Exception e) {
+
+			final String message = "couldn't determine records for rebuilding the record identifiers index";
+
+			LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		}
+
+		long indexedRecords = 0;
+
+		for (int batchStart = 0; batchStart < recordNodeIds.size(); batchStart += REBUILD_BATCH_SIZE) {
+
+			final int batchEnd = Math.min(batchStart + REBUILD_BATCH_SIZE, recordNodeIds.size());
+
+			try (final Transaction tx = database.beginTx()) {
+
+				final Index<Node> index = getIndex(database);
+
+				for (int i = batchStart; i < batchEnd; i++) {
+
+					if (addRecordNode(index, database.getNodeById(recordNodeIds.get(i)), prefixedDataModelUri, prefixedRecordIdentifierAP)) {
+
+						indexedRecords++;
+					}
+				}
+
+				tx.success();
+			} catch (final Exception e) {
+
+				final String message = String.format("couldn't finish rebuild record identifiers index TX successfully (after '%d' indexed records)",
+						indexedRecords);
+
+				LOG.error(message, e);
+
+				throw new DMPGraphException(message, e);
+			}
+
+			LOG.debug("indexed '{}' of '{}' records", batchEnd, recordNodeIds.size());
+		}
+
+		try (final Transaction tx = database.beginTx()) {
+
+			if (!markComplete(database, prefixedDataModelUri, prefixedRecordIdentifierAP)) {
+
+				LOG.debug("couldn't mark record identifiers index as complete, because there is no data model node for '{}'", prefixedDataModelUri);
+			}
+
+			tx.success();
+		} catch (final Exception e) {
+
+			final String message = "couldn't mark record identifiers index as complete";
+
+			LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		}
+
+		return indexedRecords;
+	}
+
+	/**
+	 * note: must be in transaction scope
+	 *
+	 * @param database
+	 * @param prefixedDataModelUri
+	 * @return true, if there is at least one resource node of the given data model
+	 */
+	public static boolean hasRecords(final GraphDatabaseService database, final String prefixedDataModelUri) {
+
+		final ResourceIterator<Node> recordNodes = database
+				.findNodes(GraphProcessingStatics.RESOURCE_LABEL, GraphStatics.DATA_MODEL_PROPERTY, prefixedDataModelUri);
+
+		if (recordNodes == null) {
+
+			return false;
+		}
+
+		try {
+
+			return recordNodes.hasNext();
+		} finally {
+
+			recordNodes.close();
+		}
+	}
+
+	/**
+	 * note: must be in transaction scope
+	 *
+	 * @param database
+	 * @param prefixedDataModelUri
+	 * @param prefixedRecordIdentifierAP
+	 * @return true, if every record (of the current version range) of the given data model has an index entry for the given attribute path, i.e., a
+	 * record that can't be found via the index doesn't exist
+	 */
+	public static boolean isComplete(final GraphDatabaseService database, final String prefixedDataModelUri,
+			final AttributePath prefixedRecordIdentifierAP) {
+
+		final Node dataModelNode = GraphVersionUtils.getDataModelNode(prefixedDataModelUri, database);
+
+		return dataModelNode != null
+				&& Arrays.asList(getCompleteKeys(dataModelNode)).contains(createKey(prefixedDataModelUri, prefixedRecordIdentifierAP));
+	}
+
+	/**
+	 * note: must be in (write) transaction scope
+	 *
+	 * @param database
+	 * @param prefixedDataModelUri
+	 * @param prefixedRecordIdentifierAP
+	 * @return true, if the index entries could be marked as complete, i.e., there is a data model node
+	 */
+	public static boolean markComplete(final GraphDatabaseService database, final String prefixedDataModelUri,
+			final AttributePath prefixedRecordIdentifierAP) {
+
+		final Node dataModelNode = GraphVersionUtils.getDataModelNode(prefixedDataModelUri, database);
+
+		if (dataModelNode == null) {
+
+			return false;
+		}
+
+		final String key = createKey(prefixedDataModelUri, prefixedRecordIdentifierAP);
+		final String[] completeKeys = getCompleteKeys(dataModelNode);
+
+		if (!Arrays.asList(completeKeys).contains(key)) {
+
+			final String[] newCompleteKeys = Arrays.copyOf(completeKeys, completeKeys.length + 1);
+			newCompleteKeys[completeKeys.length] = key;
+
+			dataModelNode.setProperty(COMPLETE_INDEX_KEYS_PROPERTY, newCompleteKeys);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Adjusts the complete marks of the index entries of the given data model for a writer that adds resources to this data model, i.e.,
+	 * only the index entries that are maintained by this writer (if any) stay complete.<br/>
+	 * note: must be in (write) transaction scope
+	 *
+	 * @param database
+	 * @param prefixedDataModelUri
+	 * @param optionalMaintainedRecordIdentifierAP the record identifier attribute path whose index entries are maintained by the writer
+	 * @param markComplete                         true, if the maintained index entries should be marked as complete (e.g. since the data
+	 *                                             model had no records before)
+	 * @return true, if the marks could be adjusted, i.e., there is a data model node
+	 */
+	public static boolean adjustCompleteness(final GraphDatabaseService database, final String prefixedDataModelUri,
+			final Optional<AttributePath> optionalMaintainedRecordIdentifierAP, final boolean markComplete) {
+
+		final Node dataModelNode = GraphVersionUtils.getDataModelNode(prefixedDataModelUri, database);
+
+		if (dataModelNode == null) {
+
+			return false;
+		}
+
+		final String[] completeKeys = getCompleteKeys(dataModelNode);
+		final Optional<String> optionalMaintainedKey = optionalMaintainedRecordIdentifierAP
+				.map(maintainedAP -> createKey(prefixedDataModelUri, maintainedAP));
+		final boolean maintainedKeyComplete = optionalMaintainedKey.isPresent()
+				&& (markComplete || Arrays.asList(completeKeys).contains(optionalMaintainedKey.get()));
+
+		if (maintainedKeyComplete) {
+
+			if (completeKeys.length != 1 || !completeKeys[0].equals(optionalMaintainedKey.get())) {
+
+				dataModelNode.setProperty(COMPLETE_INDEX_KEYS_PROPERTY, new String[] { optionalMaintainedKey.get() });
+			}
+		} else if (completeKeys.length > 0) {
+
+			dataModelNode.removeProperty(COMPLETE_INDEX_KEYS_PROPERTY);
+		}
+
+		return true;
+	}
+
+	private static String[] getCompleteKeys(final Node dataModelNode) {
+
+		return (String[]) dataModelNode.getProperty(COMPLETE_INDEX_KEYS_PROPERTY, NO_KEYS);
+	}
+}
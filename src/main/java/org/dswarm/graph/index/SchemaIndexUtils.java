@@ -41,6 +41,8 @@ public class SchemaIndexUtils {
 
 		getOrCreateSchemaIndex(GraphProcessingStatics.RESOURCE_LABEL, GraphStatics.URI_PROPERTY, database, databaseIdentifier);
 		getOrCreateSchemaIndex(GraphProcessingStatics.RESOURCE_LABEL, GraphStatics.HASH, database, databaseIdentifier);
+		getOrCreateSchemaIndex(GraphProcessingStatics.RESOURCE_LABEL, GraphStatics.DATA_MODEL_PROPERTY, database, databaseIdentifier);
+		getOrCreateSchemaIndex(GraphProcessingStatics.BNODE_LABEL, GraphStatics.DATA_MODEL_PROPERTY, database, databaseIdentifier);
 		getOrCreateSchemaIndex(GraphProcessingStatics.RESOURCE_TYPE_LABEL, GraphStatics.URI_PROPERTY, database, databaseIdentifier);
 		getOrCreateSchemaIndex(GraphProcessingStatics.LITERAL_LABEL, GraphStatics.VALUE_PROPERTY, database, databaseIdentifier);
 		getOrCreateSchemaIndex(GraphProcessingStatics.PREFIX_LABEL, GraphStatics.URI_PROPERTY, database, databaseIdentifier);
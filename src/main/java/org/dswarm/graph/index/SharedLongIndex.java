@@ -0,0 +1,344 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.index;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A persistent {@link OffHeapLongHashSet} that is mapped once per process and file, i.e., all handles of a file share one instance (guarded
+ * by a read-write lock), which is released with the last handle. Changes are not journaled in the shared instance; a writer keeps its
+ * uncommitted additions and removals itself and hands them over on commit (see {@link #commit(long[], long[])}).<br/>
+ * A {@link LongBloomFilter} sits in front of the index, i.e., keys that are definitely not part of the index don't need to be looked up
+ * there. All writers of the index should go through this class, so that the filter is updated together with the index (a change of the
+ * index that bypassed the filter is detected by the index generation and results in a rebuild of the filter on opening).
+ *
+ * @author tgaengler
+ */
+public final class SharedLongIndex implements Closeable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(SharedLongIndex.class);
+
+	private static final long[] NO_KEYS = new long[0];
+
+	// the shared instances per (canonical) index file name
+	private static final Map<String, SharedIndex> SHARED_INDICES = new HashMap<>();
+
+	private final SharedIndex sharedIndex;
+
+	private boolean closed = false;
+
+	private SharedLongIndex(final SharedIndex sharedIndexArg) {
+
+		sharedIndex = sharedIndexArg;
+	}
+
+	/**
+	 * Hands out a handle of the shared persistent off-heap long index with the given file name, i.e., the index (see
+	 * {@link MapDBUtils#createOrGetPersistentOffHeapLongIndex(String, String)}) and its Bloom filter (that will be (re-)built, if it doesn't
+	 * exist yet or if it is out of sync with the index) are only mapped by the first handle.
+	 *
+	 * @param indexFileName the index file name (without file ending)
+	 * @param indexName     the index name
+	 * @return a handle of the index with its filter
+	 * @throws IOException
+	 */
+	public static SharedLongIndex openOrCreate(final String indexFileName, final String indexName) throws IOException {
+
+		final String key = new File(indexFileName).getCanonicalPath();
+
+		synchronized (SHARED_INDICES) {
+
+			SharedIndex sharedIndex = SHARED_INDICES.get(key);
+
+			if (sharedIndex == null) {
+
+				sharedIndex = SharedIndex.open(key, indexName);
+
+				SHARED_INDICES.put(key, sharedIndex);
+			}
+
+			sharedIndex.references++;
+
+			return new SharedLongIndex(sharedIndex);
+		}
+	}
+
+	/**
+	 * Deletes the index with the given file name and its filter. Handles that are still open keep their (unlinked) mapping until they are
+	 * closed; new handles will utilise a new index.
+	 *
+	 * @param indexFileName the index file name (without file ending)
+	 * @return true, if the index file existed and was deleted
+	 * @throws IOException
+	 */
+	public static boolean delete(final String indexFileName) throws IOException {
+
+		final String key = new File(indexFileName).getCanonicalPath();
+
+		synchronized (SHARED_INDICES) {
+
+			SHARED_INDICES.remove(key);
+
+			final File indexFile = new File(key + OffHeapLongHashSet.FILE_ENDING);
+			final File filterFile = new File(key + LongBloomFilter.FILE_ENDING);
+
+			if (filterFile.exists() && !filterFile.delete()) {
+
+				LOG.error("couldn't delete Bloom filter '{}'", filterFile);
+			}
+
+			return indexFile.exists() && indexFile.delete();
+		}
+	}
+
+	public boolean containsKey(final long key) {
+
+		sharedIndex.lock.readLock().lock();
+
+		try {
+
+			final LongBloomFilter filter = sharedIndex.filter;
+
+			if (filter == null) {
+
+				// i.e. the rebuild of the filter failed
+				return sharedIndex.index.containsKey(key);
+			}
+
+			if (!filter.mightContain(key)) {
+
+				// definitely not part of the index
+				return false;
+			}
+
+			final boolean exists = sharedIndex.index.containsKey(key);
+
+			if (!exists) {
+
+				filter.recordFalsePositive();
+			}
+
+			return exists;
+		} finally {
+
+			sharedIndex.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @see #commit(long[], long[])
+	 */
+	public long commit(final long[] keys) throws IOException {
+
+		return commit(keys, NO_KEYS);
+	}
+
+	/**
+	 * Applies the given removals and merges the given additions into the index (see {@link OffHeapLongHashSet#mergeAndCommit(long[])}) in
+	 * one commit. The additions are put into the filter before and the filter is marked as dirty until the index is committed, i.e., it stays
+	 * a superset of its index; removed keys stay in the filter. The filter will be rebuilt afterwards, if needed (see
+	 * {@link LongBloomFilter#needsRebuild()}). A failed commit is rolled back.
+	 *
+	 * @param keys     the keys to add (note: the array will be reordered)
+	 * @param removals the keys to remove (they are removed before the additions are added)
+	 * @return the number of keys that weren't part of the index before
+	 * @throws IOException
+	 */
+	public long commit(final long[] keys, final long[] removals) throws IOException {
+
+		if (keys.length == 0 && removals.length == 0) {
+
+			return 0;
+		}
+
+		sharedIndex.lock.writeLock().lock();
+
+		try {
+
+			final OffHeapLongHashSet index = sharedIndex.index;
+			final LongBloomFilter filter = sharedIndex.filter;
+
+			if (filter != null) {
+
+				filter.beginUpdate();
+
+				for (final long key : keys) {
+
+					filter.put(key);
+				}
+			}
+
+			final long newKeys;
+
+			try {
+
+				for (final long removal : removals) {
+
+					if (index.removeKey(removal) && filter != null) {
+
+						filter.markStale();
+					}
+				}
+
+				newKeys = index.mergeAndCommit(keys);
+			} catch (final IOException | RuntimeException e) {
+
+				// the filter stays dirty, i.e., it will be rebuilt on next opening
+				index.rollback();
+
+				if (filter != null) {
+
+					filter.rollback();
+				}
+
+				throw e;
+			}
+
+			if (filter == null) {
+
+				// the index is out of sync with the filter file now, i.e., the filter will be rebuilt on next opening
+				return newKeys;
+			}
+
+			filter.commit(index.longSize(), index.getGeneration());
+
+			LOG.debug(filter.getStatistics());
+
+			if (filter.needsRebuild()) {
+
+				LOG.info("rebuild Bloom filter '{}' ({})", sharedIndex.filterFile, filter.getStatistics());
+
+				sharedIndex.closeFilter();
+				sharedIndex.filter = LongBloomFilter.rebuild(sharedIndex.filterFile, index);
+			}
+
+			return newKeys;
+		} finally {
+
+			sharedIndex.lock.writeLock().unlock();
+		}
+	}
+
+	public long longSize() {
+
+		sharedIndex.lock.readLock().lock();
+
+		try {
+
+			return sharedIndex.index.longSize();
+		} finally {
+
+			sharedIndex.lock.readLock().unlock();
+		}
+	}
+
+	public boolean isClosed() {
+
+		return closed;
+	}
+
+	/**
+	 * Releases this handle; the shared index and its filter are released with the last handle (idempotent).
+	 */
+	@Override
+	public void close() {
+
+		if (closed) {
+
+			return;
+		}
+
+		closed = true;
+
+		synchronized (SHARED_INDICES) {
+
+			sharedIndex.references--;
+
+			if (sharedIndex.references > 0) {
+
+				return;
+			}
+
+			// note: the index might have been deleted (and replaced by a new one) in the meantime
+			SHARED_INDICES.remove(sharedIndex.key, sharedIndex);
+
+			// i.e. the files are unmapped, before they can be mapped again
+			sharedIndex.closeFilter();
+			sharedIndex.index.close();
+
+			LOG.debug("released shared index '{}'", sharedIndex.key);
+		}
+	}
+
+	/**
+	 * The index and its filter that are shared by all handles of an index file.
+	 */
+	private static final class SharedIndex {
+
+		private final String             key;
+		private final OffHeapLongHashSet index;
+		private final File               filterFile;
+		private final ReadWriteLock      lock = new ReentrantReadWriteLock();
+
+		private LongBloomFilter filter;
+		private int             references = 0;
+
+		private SharedIndex(final String keyArg, final OffHeapLongHashSet indexArg, final File filterFileArg, final LongBloomFilter filterArg) {
+
+			key = keyArg;
+			index = indexArg;
+			filterFile = filterFileArg;
+			filter = filterArg;
+		}
+
+		private static SharedIndex open(final String indexFileName, final String indexName) throws IOException {
+
+			final OffHeapLongHashSet index = MapDBUtils.createOrGetPersistentOffHeapLongIndex(indexFileName, indexName);
+			final File filterFile = new File(indexFileName + LongBloomFilter.FILE_ENDING);
+
+			try {
+
+				return new SharedIndex(indexFileName, index, filterFile, LongBloomFilter.openOrRebuild(filterFile, index));
+			} catch (final IOException | RuntimeException e) {
+
+				index.close();
+
+				throw e;
+			}
+		}
+
+		private void closeFilter() {
+
+			if (filter != null) {
+
+				LOG.info(filter.getStatistics());
+
+				filter.close();
+				filter = null;
+			}
+		}
+	}
+}
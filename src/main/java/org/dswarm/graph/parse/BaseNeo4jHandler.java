@@ -36,7 +36,6 @@ import org.dswarm.graph.hash.HashUtils;
 import org.dswarm.graph.model.GraphStatics;
 import org.dswarm.graph.model.Statement;
 import org.dswarm.graph.versioning.VersionHandler;
-import org.dswarm.graph.versioning.VersioningStatics;
 
 /**
  * @author tgaengler
@@ -156,7 +155,7 @@ public abstract class BaseNeo4jHandler implements Neo4jHandler, Neo4jUpdateHandl
 			} else {
 
 				final Label subjectLabel = processor.getLabel(subjectNodeType.toString());
-				subjectNode = processor.getDatabase().createNode(subjectLabel);
+				subjectNode = processor.createNode(subjectLabel);
 
 				if (NodeType.Resource.equals(subjectNodeType) || NodeType.TypeResource.equals(subjectNodeType)) {
 
@@ -184,6 +183,8 @@ public abstract class BaseNeo4jHandler implements Neo4jHandler, Neo4jUpdateHandl
 
 					// subject is a blank node
 
+					processor.handleBNodeSubjectDataModel(subjectNode, optionalPrefixedSubjectDataModelURI);
+
 					// note: can I expect an id here?
 					processor.addNodeToBNodesIndex(statement.getOptionalSubjectId().get(), subjectNode);
 				}
@@ -277,7 +278,7 @@ public abstract class BaseNeo4jHandler implements Neo4jHandler, Neo4jUpdateHandl
 
 					final Label objectLabel = processor.getLabel(finalObjectNodeType.toString());
 
-					objectNode = processor.getDatabase().createNode(objectLabel);
+					objectNode = processor.createNode(objectLabel);
 
 					if (NodeType.Resource.equals(finalObjectNodeType) || NodeType.TypeResource.equals(finalObjectNodeType)) {
 
@@ -395,7 +396,7 @@ public abstract class BaseNeo4jHandler implements Neo4jHandler, Neo4jUpdateHandl
 
 			final Relationship rel = optionalRel.get();
 
-			rel.setProperty(VersioningStatics.VALID_TO_PROPERTY, versionHandler.getLatestVersion());
+			processor.deprecateStatement(rel, versionHandler.getLatestVersion(), versionHandler.marksHistoricStatements());
 
 			// remove statement hash from statement hashes index
 			final long statementHash = processor.generateStatementHash(rel);
@@ -430,6 +431,12 @@ public abstract class BaseNeo4jHandler implements Neo4jHandler, Neo4jUpdateHandl
 		return totalTriples;
 	}
 
+	@Override
+	public long getCommittedStatements() {
+
+		return sinceLastCommit;
+	}
+
 	@Override
 	public int getNodesAdded() {
 
@@ -493,7 +500,7 @@ public abstract class BaseNeo4jHandler implements Neo4jHandler, Neo4jUpdateHandl
 
 			final Label objectLabel = processor.getLabel(NodeType.Literal.toString());
 
-			final Node objectNode = processor.getDatabase().createNode(objectLabel);
+			final Node objectNode = processor.createNode(objectLabel);
 			objectNode.setProperty(GraphStatics.VALUE_PROPERTY, statement.getOptionalObjectValue().get());
 			//objectNode.setProperty(GraphStatics.NODETYPE_PROPERTY, NodeType.Literal.toString());
 			//processor.addNodeToValueIndex(objectNode, GraphStatics.VALUE, statement.getOptionalObjectValue().get());
@@ -39,6 +39,12 @@ public interface Neo4jHandler {
 
 	long getCountedStatements();
 
+	/**
+	 * @return the number of statements that were already committed, i.e., that would remain in the graph db, if the current write TX
+	 * fails
+	 */
+	long getCommittedStatements();
+
 	int getRelationshipsAdded();
 
 	int getNodesAdded();
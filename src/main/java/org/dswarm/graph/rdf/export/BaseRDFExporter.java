@@ -16,22 +16,33 @@
  */
 package org.dswarm.graph.rdf.export;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.carrotsearch.hppc.LongOpenHashSet;
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.query.Dataset;
-import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.ModelFactory;
-import org.apache.jena.rdf.model.Property;
-import org.apache.jena.rdf.model.RDFNode;
-import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.sparql.core.Quad;
+import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.ResourceIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.GraphProcessingStatics;
 import org.dswarm.graph.NodeType;
 import org.dswarm.graph.index.NamespaceIndex;
 import org.dswarm.graph.model.GraphStatics;
@@ -40,6 +51,9 @@ import org.dswarm.graph.read.RelationshipHandler;
 import org.dswarm.graph.utils.GraphUtils;
 
 /**
+ * Converts each relationship into a quad (one graph = one data model) and passes it to a {@link StreamRDF}, i.e., the statements can
+ * either be collected in an in-memory {@link Dataset} (see {@link #export()}) or directly be serialised (see {@link #export(StreamRDF)}).
+ *
  * @author polowins
  * @author tgaengler
  */
@@ -47,14 +61,27 @@ public abstract class BaseRDFExporter implements RDFExporter {
 
 	private static final Logger				LOG								= LoggerFactory.getLogger(BaseRDFExporter.class);
 
+	private static final String BNODE_LABEL_PREFIX = "b";
+
+	private static final int URI_CACHE_SIZE = 1 << 16;
+
 	protected final RelationshipHandler relationshipHandler;
 
+	private final CBDRelationshipHandler cbdRelationshipHandler;
+
 	protected final GraphDatabaseService database;
 
 	private final NamespaceIndex namespaceIndex;
 
 	protected Dataset dataset;
 
+	protected StreamRDF streamRDF;
+
+	/**
+	 * bnodes with more than one incoming relationship, i.e., they could be reached several times
+	 */
+	private final LongOpenHashSet sharedBNodes = new LongOpenHashSet();
+
 	private long processedStatements = 0;
 
 	protected long successfullyProcessedStatements = 0;
@@ -66,68 +93,205 @@ public abstract class BaseRDFExporter implements RDFExporter {
 
 		database = databaseArg;
 		namespaceIndex = namespaceIndexArg;
-		relationshipHandler = new CBDRelationshipHandler();
+		cbdRelationshipHandler = new CBDRelationshipHandler();
+		relationshipHandler = cbdRelationshipHandler;
 	}
 
 	@Override
-	public long countStatements() {
+	public Optional<Dataset> export() throws DMPGraphException {
 
-		return RDFUtils.determineDatasetSize(dataset);
+		dataset = DatasetFactory.createMem();
+
+		if (!export(StreamRDFLib.dataset(dataset.asDatasetGraph()))) {
+
+			return Optional.absent();
+		}
+
+		return Optional.fromNullable(dataset);
 	}
 
-	private class CBDRelationshipHandler implements RelationshipHandler {
+	@Override
+	public boolean export(final StreamRDF streamRDFArg) throws DMPGraphException {
 
-		// TODO: maybe a hash map is not appropriated for bigger exports
+		streamRDF = streamRDFArg;
 
-		final Map<Long, Resource>   bnodes    = new HashMap<>();
-		final Map<String, Resource> resources = new HashMap<>();
+		streamRDF.start();
 
-		@Override
-		public void handleRelationship(final Relationship rel) throws DMPGraphException {
+		try {
 
-			processedStatements++;
+			return exportStatements();
+		} finally {
 
-			// data model
+			streamRDF.finish();
+		}
+	}
 
-			final String prefixedDataModelURI = (String) rel.getProperty(GraphStatics.DATA_MODEL_PROPERTY, null);
+	/**
+	 * Passes all statements that should be exported to the relationship handler.
+	 *
+	 * @return false, if there is nothing to export, otherwise true
+	 * @throws DMPGraphException
+	 */
+	protected abstract boolean exportStatements() throws DMPGraphException;
 
-			if (prefixedDataModelURI == null) {
+	/**
+	 * Exports the outgoing relationships of the given resource node and the ones of the bnodes of its description, i.e., other
+	 * resource nodes need to be exported on their own.
+	 *
+	 * @param resourceNode a resource node (or an unreferenced bnode)
+	 * @throws DMPGraphException
+	 */
+	protected void exportResource(final Node resourceNode) throws DMPGraphException {
 
-				final String message = String.format("data model URI can't be null (relationship id = '%s')", rel.getId());
+		final Deque<Node> nodes = new ArrayDeque<>();
+		nodes.push(resourceNode);
 
-				BaseRDFExporter.LOG.error(message);
+		while (!nodes.isEmpty()) {
 
-				throw new DMPGraphException(message);
+			final Node node = nodes.pop();
+
+			for (final Relationship relationship : node.getRelationships(Direction.OUTGOING)) {
+
+				if (!isExported(relationship)) {
+
+					continue;
+				}
+
+				relationshipHandler.handleRelationship(relationship);
+
+				final Node objectNode = relationship.getEndNode();
+
+				// note: literals don't have outgoing relationships
+				if (objectNode.hasProperty(GraphStatics.URI_PROPERTY) || objectNode.hasLabel(GraphProcessingStatics.LITERAL_LABEL)) {
+
+					continue;
+				}
+
+				// bnodes are usually only referenced once, i.e., only the others need to be remembered
+				if (objectNode.getDegree(Direction.INCOMING) > 1 && !addSharedBNode(objectNode.getId())) {
+
+					continue;
+				}
+
+				nodes.push(objectNode);
 			}
+		}
+	}
 
-			final String dataModelURI = namespaceIndex.createFullURI(prefixedDataModelURI);
-			final Model model;
+	/**
+	 * Exports the descriptions of the bnodes of the given data model without any incoming relationship (e.g. top-level bnodes of RDF
+	 * data), since they can't be reached from a resource node. This requires a schema index lookup of the bnode subjects of the data model
+	 * (i.e. bnode subjects are tagged with their data model on write), but no scan over all bnodes of the graph.<br/>
+	 * note: bnodes that only reference each other (cycles) and bnodes that were written before the tagging aren't covered
+	 *
+	 * @param prefixedDataModelURI the prefixed URI of the data model
+	 * @throws DMPGraphException
+	 */
+	protected void exportUnreferencedBNodes(final String prefixedDataModelURI) throws DMPGraphException {
 
-			if (dataset.containsNamedModel(dataModelURI)) {
+		final ResourceIterator<Node> bnodesIter = database
+				.findNodes(GraphProcessingStatics.BNODE_LABEL, GraphStatics.DATA_MODEL_PROPERTY, prefixedDataModelURI);
 
-				model = dataset.getNamedModel(dataModelURI);
-			} else {
+		try {
 
-				model = ModelFactory.createDefaultModel();
+			while (bnodesIter.hasNext()) {
 
-				dataset.addNamedModel(dataModelURI, model);
+				final Node bnode = bnodesIter.next();
+
+				if (bnode.getDegree(Direction.INCOMING) == 0) {
+
+					exportResource(bnode);
+				}
 			}
+		} finally {
 
-			if (model == null) {
+			bnodesIter.close();
+		}
+	}
+
+	/**
+	 * @param relationship an outgoing relationship of a resource description
+	 * @return true, if the relationship should be exported
+	 */
+	protected boolean isExported(final Relationship relationship) {
 
-				final String message = String.format("RDF model for graph '%s' ('%s') can't be null (relationship id = '%s')", dataModelURI, prefixedDataModelURI, rel.getId());
+		return true;
+	}
+
+	/**
+	 * @param bnodeId the id of a bnode with more than one incoming relationship
+	 * @return true, if the bnode wasn't reached before
+	 */
+	protected boolean addSharedBNode(final long bnodeId) {
+
+		return sharedBNodes.add(bnodeId);
+	}
+
+	@Override
+	public long countStatements() {
+
+		if (dataset == null) {
+
+			// i.e., the statements were streamed
+			return successfullyProcessedStatements;
+		}
+
+		return RDFUtils.determineDatasetSize(dataset);
+	}
+
+	@Override
+	public double cacheHitRatio() {
+
+		return cacheStats().hitRate();
+	}
+
+	/**
+	 * @return the statistics of the URI cache
+	 */
+	CacheStats cacheStats() {
+
+		return cbdRelationshipHandler.uris.stats();
+	}
+
+	/**
+	 * note: the URI cache is bounded and bnodes aren't cached at all, i.e., the memory footprint of an export doesn't depend on the
+	 * size of the graph
+	 */
+	private class CBDRelationshipHandler implements RelationshipHandler {
+
+		// note: the number of data models is small, i.e., this map won't grow much
+		final Map<String, org.apache.jena.graph.Node> graphs = new HashMap<>();
+
+		// an exporter is utilised by one thread, i.e., one segment (= LRU eviction across the whole cache) is sufficient
+		final Cache<String, org.apache.jena.graph.Node> uris = CacheBuilder.newBuilder().concurrencyLevel(1).maximumSize(URI_CACHE_SIZE)
+				.recordStats().build();
+
+		@Override
+		public void handleRelationship(final Relationship rel) throws DMPGraphException {
+
+			processedStatements++;
+
+			// data model
+
+			final String prefixedDataModelURI = (String) rel.getProperty(GraphStatics.DATA_MODEL_PROPERTY, null);
+
+			if (prefixedDataModelURI == null) {
+
+				final String message = String.format("data model URI can't be null (relationship id = '%s')", rel.getId());
 
 				BaseRDFExporter.LOG.error(message);
 
 				throw new DMPGraphException(message);
 			}
 
+			final org.apache.jena.graph.Node graph = createGraph(prefixedDataModelURI);
+
 			// subject
 
 			final Node subjectNode = rel.getStartNode();
 			final NodeType subjectNodeType = GraphUtils.determineNodeType(subjectNode);
 
-			final Resource subjectResource;
+			final org.apache.jena.graph.Node subject;
 
 			switch (subjectNodeType) {
 
@@ -145,15 +309,14 @@ public abstract class BaseRDFExporter implements RDFExporter {
 						throw new DMPGraphException(message);
 					}
 
-					final String fullSubjectURI = namespaceIndex.createFullURI(prefixedSubjectURI);
-					subjectResource = createResourceFromURI(fullSubjectURI, model);
+					subject = createResourceFromURI(prefixedSubjectURI);
 
 					break;
 				case BNode:
 				case TypeBNode:
 
 					final long subjectId = subjectNode.getId();
-					subjectResource = createResourceFromBNode(subjectId, model);
+					subject = createResourceFromBNode(subjectId);
 
 					break;
 				default:
@@ -168,16 +331,15 @@ public abstract class BaseRDFExporter implements RDFExporter {
 			// predicateURI
 
 			final String prefixedPredicate = rel.getType().name();
-			final String predicateURI = namespaceIndex.createFullURI(prefixedPredicate);
 			//.getProperty(GraphStatics.URI_PROPERTY, null);
-			final Property predicate = model.createProperty(predicateURI);
+			final org.apache.jena.graph.Node predicate = createResourceFromURI(prefixedPredicate);
 
 			// object
 
 			final Node objectNode = rel.getEndNode();
 			final NodeType objectNodeType = GraphUtils.determineNodeType(objectNode);
 
-			final RDFNode objectRDFNode;
+			final org.apache.jena.graph.Node object;
 
 			switch (objectNodeType) {
 
@@ -194,8 +356,7 @@ public abstract class BaseRDFExporter implements RDFExporter {
 
 						throw new DMPGraphException(message);
 					}
-					final String fullObjectURI = namespaceIndex.createFullURI(prefixedObjectURI);
-					objectRDFNode = createResourceFromURI(fullObjectURI, model);
+					object = createResourceFromURI(prefixedObjectURI);
 
 					break;
 				case BNode:
@@ -203,14 +364,14 @@ public abstract class BaseRDFExporter implements RDFExporter {
 
 					final long objectId = objectNode.getId();
 
-					objectRDFNode = createResourceFromBNode(objectId, model);
+					object = createResourceFromBNode(objectId);
 
 					break;
 				case Literal:
 
-					final String object = (String) objectNode.getProperty(GraphStatics.VALUE_PROPERTY, null);
+					final String value = (String) objectNode.getProperty(GraphStatics.VALUE_PROPERTY, null);
 
-					if (object == null) {
+					if (value == null) {
 
 						final String message = "object value can't be null";
 
@@ -227,7 +388,7 @@ public abstract class BaseRDFExporter implements RDFExporter {
 
 							// object is a typed literal node
 
-							objectRDFNode = model.createTypedLiteral(object, literalType);
+							object = NodeFactory.createLiteral(value, TypeMapper.getInstance().getSafeTypeByName(literalType));
 
 							break;
 						}
@@ -235,7 +396,7 @@ public abstract class BaseRDFExporter implements RDFExporter {
 
 					// object is an untyped literal node
 
-					objectRDFNode = model.createLiteral(object);
+					object = NodeFactory.createLiteral(value);
 
 					break;
 				default:
@@ -247,7 +408,7 @@ public abstract class BaseRDFExporter implements RDFExporter {
 					throw new DMPGraphException(message);
 			}
 
-			if (subjectResource == null || predicate == null || objectRDFNode == null) {
+			if (subject == null || predicate == null || object == null) {
 
 				final String message = String.format("couldn't determine the complete statement (subject-predicateURI-object + data model) for relationship '%s'", rel.getId());
 
@@ -256,29 +417,54 @@ public abstract class BaseRDFExporter implements RDFExporter {
 				throw new DMPGraphException(message);
 			}
 
-			model.add(subjectResource, predicate, objectRDFNode);
+			streamRDF.quad(new Quad(graph, subject, predicate, object));
 
 			successfullyProcessedStatements++;
 		}
 
-		private Resource createResourceFromBNode(final long bnodeId, final Model model) {
+		private org.apache.jena.graph.Node createGraph(final String prefixedDataModelURI) throws DMPGraphException {
+
+			final org.apache.jena.graph.Node graph = graphs.get(prefixedDataModelURI);
 
-			if (!bnodes.containsKey(bnodeId)) {
+			if (graph != null) {
 
-				bnodes.put(bnodeId, model.createResource());
+				return graph;
 			}
 
-			return bnodes.get(bnodeId);
+			final org.apache.jena.graph.Node newGraph = NodeFactory.createURI(namespaceIndex.createFullURI(prefixedDataModelURI));
+
+			graphs.put(prefixedDataModelURI, newGraph);
+
+			return newGraph;
 		}
 
-		private Resource createResourceFromURI(final String uri, final Model model) {
+		/**
+		 * note: the bnode label is derived from the node id, i.e., it is stable within an export (without keeping a bnode map or
+		 * cache)
+		 *
+		 * @param bnodeId
+		 * @return
+		 */
+		private org.apache.jena.graph.Node createResourceFromBNode(final long bnodeId) {
 
-			if (!resources.containsKey(uri)) {
+			return NodeFactory.createBlankNode(BNODE_LABEL_PREFIX + bnodeId);
+		}
 
-				resources.put(uri, model.createResource(uri));
+		private org.apache.jena.graph.Node createResourceFromURI(final String prefixedURI) throws DMPGraphException {
+
+			final org.apache.jena.graph.Node cachedResource = uris.getIfPresent(prefixedURI);
+
+			if (cachedResource != null) {
+
+				return cachedResource;
 			}
 
-			return resources.get(uri);
+			// note: the full URI is only kept in the (bounded) URI cache
+			final org.apache.jena.graph.Node resource = NodeFactory.createURI(namespaceIndex.createFullURI(prefixedURI, false));
+
+			uris.put(prefixedURI, resource);
+
+			return resource;
 		}
 	}
 
@@ -16,29 +16,29 @@
  */
 package org.dswarm.graph.rdf.export;
 
-import java.util.Map;
-import java.util.Map.Entry;
-
-import com.google.common.base.Optional;
-import org.apache.jena.query.Dataset;
-import org.apache.jena.query.DatasetFactory;
 import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
-import org.neo4j.graphdb.Result;
+import org.neo4j.graphdb.ResourceIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.GraphProcessingStatics;
 import org.dswarm.graph.index.NamespaceIndex;
 import org.dswarm.graph.model.GraphStatics;
 import org.dswarm.graph.tx.TransactionHandler;
 
+/**
+ * Exports all statements of a data model in one linear pass, i.e., it starts at each resource node of the data model (via schema
+ * index) and follows the outgoing relationships of the data model (incl. the ones of the bnodes of the resource descriptions).
+ * Afterwards, the descriptions of unreferenced bnodes (i.e. bnode subjects that can't be reached from a resource node) are exported.
+ * Each relationship is handled exactly once and without any ordering.
+ */
 public class DataModelRDFExporter extends BaseRDFExporter {
 
 	private static final Logger LOG = LoggerFactory.getLogger(DataModelRDFExporter.class);
 
-	public static final int CYPHER_LIMIT = 1000;
-
 	private final String             dataModelURI;
 	private final String             prefixedDataModelURI;
 	private final TransactionHandler tx;
@@ -54,10 +54,10 @@ public class DataModelRDFExporter extends BaseRDFExporter {
 	/**
 	 * export a data model identified by dataModelURI
 	 *
-	 * @return a data model identified by dataModelURI
+	 * @return true, i.e., a data model identified by dataModelURI is always exported (even if it is empty)
 	 */
 	@Override
-	public Optional<Dataset> export() throws DMPGraphException {
+	protected boolean exportStatements() throws DMPGraphException {
 
 		DataModelRDFExporter.LOG.debug("start exporting data for dataModelURI \"{}\" ('{}')", dataModelURI, prefixedDataModelURI);
 
@@ -65,74 +65,39 @@ public class DataModelRDFExporter extends BaseRDFExporter {
 
 		try {
 
-			dataset = DatasetFactory.createMem();
+			final ResourceIterator<Node> resourceNodes = database
+					.findNodes(GraphProcessingStatics.RESOURCE_LABEL, GraphStatics.DATA_MODEL_PROPERTY, prefixedDataModelURI);
 
-			boolean requestResults = true;
-			long start = 0;
+			if (resourceNodes == null) {
 
-			while (requestResults) {
+				DataModelRDFExporter.LOG.debug("no results for '{}' ('{}')", dataModelURI, prefixedDataModelURI);
 
-				final Result result = database.execute("MATCH (n)-[r]->(m) WHERE r." + GraphStatics.DATA_MODEL_PROPERTY + " = \""
-						+ prefixedDataModelURI + "\" RETURN DISTINCT r ORDER BY id(r) SKIP " + start + " LIMIT " + DataModelRDFExporter.CYPHER_LIMIT);
+				tx.succeedTx();
 
-				if (result == null) {
+				return true;
+			}
 
-					DataModelRDFExporter.LOG.debug("no results for '{}' ('')", dataModelURI, prefixedDataModelURI);
+			boolean warned = false;
 
-					break;
-				}
+			while (resourceNodes.hasNext()) {
 
-				start += DataModelRDFExporter.CYPHER_LIMIT;
-				requestResults = false;
+				exportResource(resourceNodes.next());
 
 				// please note that the Jena model implementation has its size limits (~1 mio statements (?) -> so one graph (of
-				// one data resource) need to keep this size in mind)
-				if (BaseRDFExporter.JENA_MODEL_WARNING_SIZE == start) {
+				// one data resource) need to keep this size in mind); this doesn't apply to streamed exports
+				if (!warned && dataset != null && successfullyProcessedStatements >= BaseRDFExporter.JENA_MODEL_WARNING_SIZE) {
 					DataModelRDFExporter.LOG.warn("reached {} statements. This is approximately the jena model implementation size limit.",
 							BaseRDFExporter.JENA_MODEL_WARNING_SIZE);
-				}
-
-				// activate for debug
-				// StringBuilder rows = new StringBuilder("\n\n");
-
-				while (result.hasNext()) {
-
-					final Map<String, Object> row = result.next();
-
-					for (final Entry<String, Object> column : row.entrySet()) {
-
-						final Relationship relationship = (Relationship) column.getValue();
-
-						// rows.append(column.getKey()).append(": ");
-						// rows.append(relationship).append(": ");
-						// rows.append("has dataModelURI \"").append(relationship.getProperty("__DATA_MODEL__")).append("\", ");
-
-						// SR TODO to check: do we need to do all the stuff the RelationshipHandler does?
-						relationshipHandler.handleRelationship(relationship);
 
-						requestResults = true;
-
-						// for (Node node : relationship.getNodes()) {
-						// rows.append("NodeID ").append(node.getId()).append(" (is in relationships [");
-
-						// for (Relationship relation : node.getRelationships()) {
-						// rows.append(relation.getId()).append(", ");
-						// }
-
-						// rows.append("]), ");
-						// }
-
-						// rows.append(";\n");
-
-					}
-					// rows.append("\n");
+					warned = true;
 				}
-				// rows.append("\n");
-				// LOG.debug(rows.toString());
-
-				result.close();
 			}
 
+			resourceNodes.close();
+
+			// i.e., the statements of bnode subjects that can't be reached from a resource node of the data model
+			exportUnreferencedBNodes(prefixedDataModelURI);
+
 			tx.succeedTx();
 		} catch (final Exception e) {
 
@@ -145,7 +110,15 @@ public class DataModelRDFExporter extends BaseRDFExporter {
 			throw new DMPGraphException(mesage);
 		}
 
-		return Optional.fromNullable(dataset);
+		return true;
 	}
 
+	/**
+	 * only the relationships of this data model are exported
+	 */
+	@Override
+	protected boolean isExported(final Relationship relationship) {
+
+		return prefixedDataModelURI.equals(relationship.getProperty(GraphStatics.DATA_MODEL_PROPERTY, null));
+	}
 }
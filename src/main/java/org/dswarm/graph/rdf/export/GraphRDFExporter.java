@@ -16,9 +16,6 @@
  */
 package org.dswarm.graph.rdf.export;
 
-import com.google.common.base.Optional;
-import org.apache.jena.query.Dataset;
-import org.apache.jena.query.DatasetFactory;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.tooling.GlobalGraphOperations;
@@ -40,7 +37,7 @@ public class GraphRDFExporter extends BaseRDFExporter {
 	}
 
 	@Override
-	public Optional<Dataset> export() throws DMPGraphException {
+	protected boolean exportStatements() throws DMPGraphException {
 
 		tx.ensureRunningTx();
 
@@ -62,11 +59,9 @@ public class GraphRDFExporter extends BaseRDFExporter {
 
 				tx.succeedTx();
 
-				return Optional.absent();
+				return false;
 			}
 
-			dataset = DatasetFactory.createMem();
-
 			for (final Relationship recordNode : relations) {
 
 				relationshipHandler.handleRelationship(recordNode);
@@ -92,6 +87,6 @@ public class GraphRDFExporter extends BaseRDFExporter {
 			throw new DMPGraphException(mesage);
 		}
 
-		return Optional.fromNullable(dataset);
+		return true;
 	}
 }
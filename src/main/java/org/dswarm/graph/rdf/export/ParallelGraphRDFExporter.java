@@ -0,0 +1,354 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.rdf.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.carrotsearch.hppc.LongArrayList;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.tooling.GlobalGraphOperations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.GraphProcessingStatics;
+import org.dswarm.graph.index.NamespaceIndex;
+import org.dswarm.graph.tx.Neo4jTransactionHandler;
+import org.dswarm.graph.tx.TransactionHandler;
+import org.dswarm.graph.utils.GraphDatabaseUtils;
+
+/**
+ * Exports the whole graph with several workers, i.e., the resource nodes (and unreferenced bnodes) are split into partitions whose
+ * resource descriptions (incl. their bnodes) are exported by the workers (each in an own read transaction into an own buffer). The
+ * buffers are written in partition order, i.e., the output is the concatenation of the partitions. Bnode labels are derived from the
+ * node ids and are therefore stable across partitions.<br/>
+ * note: only N-Quads can be concatenated this way, since its writer serializes the given bnode labels; other writers (e.g. TriG)
+ * allocate bnode labels per writer, i.e., per partition
+ *
+ * @author tgaengler
+ */
+public class ParallelGraphRDFExporter {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ParallelGraphRDFExporter.class);
+
+	private static final String TYPE = "parallel RDF graph export";
+
+	private static final String WORKER_THREAD_NAME_FORMAT = "rdf-graph-exporter-%d";
+
+	private static final int RESOURCES_PER_PARTITION = 1000;
+
+	private final GraphDatabaseService database;
+	private final TransactionHandler   tx;
+	private final NamespaceIndex       namespaceIndex;
+	private final Lang                 exportLanguage;
+	private final int                  parallelism;
+
+	/**
+	 * bnodes with more than one incoming relationship could be reached from several partitions
+	 */
+	private final Set<Long> sharedBNodes = ConcurrentHashMap.newKeySet();
+
+	private static final CacheStats NO_CACHE_STATS = new CacheStats(0, 0, 0, 0, 0, 0);
+
+	private long       processedStatements             = 0;
+	private long       successfullyProcessedStatements = 0;
+	private CacheStats cacheStats                      = NO_CACHE_STATS;
+
+	public ParallelGraphRDFExporter(final GraphDatabaseService databaseArg, final TransactionHandler txArg, final NamespaceIndex namespaceIndexArg,
+			final Lang exportLanguageArg, final int parallelismArg) {
+
+		database = databaseArg;
+		tx = txArg;
+		namespaceIndex = namespaceIndexArg;
+		exportLanguage = exportLanguageArg;
+		parallelism = GraphDatabaseUtils.boundParallelism(parallelismArg);
+	}
+
+	/**
+	 * @param exportLanguage the language the data should be serialized in
+	 * @return true, if partitions that are serialized in this language can be concatenated
+	 */
+	public static boolean canConcatenate(final Lang exportLanguage) {
+
+		return Lang.NQUADS.equals(exportLanguage) && StreamRDFWriter.canWriteStream(exportLanguage);
+	}
+
+	/**
+	 * Writes all statements of the graph (serialized in the export language) to the given output stream.
+	 *
+	 * @param outputStream the output stream for the serialized statements
+	 * @throws DMPGraphException
+	 */
+	public void stream(final OutputStream outputStream) throws DMPGraphException {
+
+		processedStatements = 0;
+		successfullyProcessedStatements = 0;
+		cacheStats = NO_CACHE_STATS;
+		sharedBNodes.clear();
+
+		final long[] resourceNodeIds;
+
+		tx.ensureRunningTx();
+
+		try {
+
+			resourceNodeIds = findResourceNodeIds();
+
+			tx.succeedTx();
+		} catch (final Exception e) {
+
+			tx.failTx();
+
+			final String message = String.format("couldn't determine resource nodes for %s", TYPE);
+
+			LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		}
+
+		LOG.debug("try to export the descriptions of '{}' resources in '{}' partitions with '{}' workers", resourceNodeIds.length,
+				(resourceNodeIds.length + RESOURCES_PER_PARTITION - 1) / RESOURCES_PER_PARTITION, parallelism);
+
+		final ExecutorService workerService = Executors.newFixedThreadPool(parallelism,
+				new ThreadFactoryBuilder().setNameFormat(WORKER_THREAD_NAME_FORMAT).setDaemon(true).build());
+
+		try {
+
+			final Deque<Future<Partition>> pendingPartitions = new ArrayDeque<>();
+
+			// i.e. at most two partitions per worker are waiting to be written
+			final int window = 2 * parallelism;
+
+			for (int from = 0; from < resourceNodeIds.length; from += RESOURCES_PER_PARTITION) {
+
+				if (pendingPartitions.size() >= window) {
+
+					writePartition(outputStream, pendingPartitions.poll().get());
+				}
+
+				pendingPartitions.add(workerService.submit(createPartitionTask(resourceNodeIds, from)));
+			}
+
+			while (!pendingPartitions.isEmpty()) {
+
+				writePartition(outputStream, pendingPartitions.poll().get());
+			}
+
+			outputStream.flush();
+
+			LOG.debug("finished {} successfully", TYPE);
+		} catch (final InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+
+			throw new DMPGraphException(String.format("%s was interrupted", TYPE), e);
+		} catch (final ExecutionException | IOException e) {
+
+			final String message = String.format("couldn't finish %s successfully", TYPE);
+
+			LOG.error(message, e);
+
+			throw new DMPGraphException(message, e);
+		} finally {
+
+			workerService.shutdownNow();
+		}
+	}
+
+	public long processedStatements() {
+
+		return processedStatements;
+	}
+
+	public long successfullyProcessedStatements() {
+
+		return successfullyProcessedStatements;
+	}
+
+	/**
+	 * @return the ratio of the lookups in the URI caches (of all partitions) that could be answered by the caches (see
+	 * {@link RDFExporter#cacheHitRatio()})
+	 */
+	public double cacheHitRatio() {
+
+		return cacheStats.hitRate();
+	}
+
+	/**
+	 * Determines the resource nodes and the bnodes without any incoming relationship (e.g. top-level bnodes of RDF data), since the
+	 * latter can't be reached from a resource node.<br/>
+	 * note: should be run in transaction scope
+	 */
+	private long[] findResourceNodeIds() {
+
+		final LongArrayList resourceNodeIds = new LongArrayList();
+
+		final GlobalGraphOperations globalGraphOperations = GlobalGraphOperations.at(database);
+
+		final ResourceIterator<Node> resourceNodesIter = globalGraphOperations.getAllNodesWithLabel(GraphProcessingStatics.RESOURCE_LABEL)
+				.iterator();
+
+		try {
+
+			while (resourceNodesIter.hasNext()) {
+
+				resourceNodeIds.add(resourceNodesIter.next().getId());
+			}
+		} finally {
+
+			resourceNodesIter.close();
+		}
+
+		final ResourceIterator<Node> bnodesIter = globalGraphOperations.getAllNodesWithLabel(GraphProcessingStatics.BNODE_LABEL).iterator();
+
+		try {
+
+			while (bnodesIter.hasNext()) {
+
+				final Node bnode = bnodesIter.next();
+
+				if (bnode.getDegree(Direction.INCOMING) == 0) {
+
+					resourceNodeIds.add(bnode.getId());
+				}
+			}
+		} finally {
+
+			bnodesIter.close();
+		}
+
+		return resourceNodeIds.toArray();
+	}
+
+	private Callable<Partition> createPartitionTask(final long[] resourceNodeIds, final int from) {
+
+		final long[] partitionResourceNodeIds = Arrays
+				.copyOfRange(resourceNodeIds, from, Math.min(from + RESOURCES_PER_PARTITION, resourceNodeIds.length));
+
+		return () -> exportPartition(partitionResourceNodeIds);
+	}
+
+	/**
+	 * Exports and serializes the resource descriptions of a partition (executed by a worker).
+	 */
+	private Partition exportPartition(final long[] partitionResourceNodeIds) throws DMPGraphException {
+
+		// the namespace index is shared with the other workers, i.e., lookups from this thread need to happen in an own transaction
+		final TransactionHandler workerTx = new Neo4jTransactionHandler(database);
+		namespaceIndex.bindTransactionHandler(workerTx);
+
+		workerTx.ensureRunningTx();
+
+		try {
+
+			final ByteArrayOutputStream partitionOutputStream = new ByteArrayOutputStream();
+			final PartitionRDFExporter partitionExporter = new PartitionRDFExporter(partitionResourceNodeIds);
+
+			partitionExporter.export(StreamRDFWriter.getWriterStream(partitionOutputStream, exportLanguage));
+
+			workerTx.succeedTx();
+
+			return new Partition(partitionOutputStream.toByteArray(), partitionExporter.processedStatements(),
+					partitionExporter.successfullyProcessedStatements(), partitionExporter.cacheStats());
+		} catch (final Exception e) {
+
+			workerTx.failTx();
+
+			throw e;
+		} finally {
+
+			namespaceIndex.unbindTransactionHandler();
+		}
+	}
+
+	private void writePartition(final OutputStream outputStream, final Partition partition) throws IOException {
+
+		outputStream.write(partition.statements);
+
+		processedStatements += partition.processedStatements;
+		successfullyProcessedStatements += partition.successfullyProcessedStatements;
+		cacheStats = cacheStats.plus(partition.cacheStats);
+	}
+
+	/**
+	 * exports the descriptions of the resources of a partition (in the transaction of the worker)
+	 */
+	private final class PartitionRDFExporter extends BaseRDFExporter {
+
+		private final long[] resourceNodeIds;
+
+		private PartitionRDFExporter(final long[] resourceNodeIdsArg) {
+
+			super(database, namespaceIndex);
+
+			resourceNodeIds = resourceNodeIdsArg;
+		}
+
+		@Override
+		protected boolean exportStatements() throws DMPGraphException {
+
+			for (final long resourceNodeId : resourceNodeIds) {
+
+				exportResource(database.getNodeById(resourceNodeId));
+			}
+
+			return true;
+		}
+
+		@Override
+		protected boolean addSharedBNode(final long bnodeId) {
+
+			return sharedBNodes.add(bnodeId);
+		}
+	}
+
+	private static final class Partition {
+
+		private final byte[]     statements;
+		private final long       processedStatements;
+		private final long       successfullyProcessedStatements;
+		private final CacheStats cacheStats;
+
+		private Partition(final byte[] statementsArg, final long processedStatementsArg, final long successfullyProcessedStatementsArg,
+				final CacheStats cacheStatsArg) {
+
+			statements = statementsArg;
+			processedStatements = processedStatementsArg;
+			successfullyProcessedStatements = successfullyProcessedStatementsArg;
+			cacheStats = cacheStatsArg;
+		}
+	}
+}
@@ -18,6 +18,7 @@ package org.dswarm.graph.rdf.export;
 
 import com.google.common.base.Optional;
 import org.apache.jena.query.Dataset;
+import org.apache.jena.riot.system.StreamRDF;
 
 import org.dswarm.graph.DMPGraphException;
 
@@ -26,12 +27,33 @@ import org.dswarm.graph.DMPGraphException;
  */
 public interface RDFExporter {
 
+	/**
+	 * Exports the statements into an in-memory dataset.
+	 *
+	 * @return the dataset or nothing, if there is nothing to export
+	 * @throws DMPGraphException
+	 */
 	public Optional<Dataset> export() throws DMPGraphException;
 
+	/**
+	 * Exports the statements (as quads) into the given stream, i.e., without keeping them in memory.
+	 *
+	 * @param streamRDF the stream that should receive the statements
+	 * @return false, if there is nothing to export, otherwise true
+	 * @throws DMPGraphException
+	 */
+	public boolean export(final StreamRDF streamRDF) throws DMPGraphException;
+
 	public long countStatements();
 
 	public long processedStatements();
 
 	public long successfullyProcessedStatements();
 
+	/**
+	 * @return the ratio of the lookups in the URI cache of the export that could be answered by the cache (1.0, if there were no lookups;
+	 * see {@link com.google.common.cache.CacheStats#hitRate()})
+	 */
+	public double cacheHitRatio();
+
 }
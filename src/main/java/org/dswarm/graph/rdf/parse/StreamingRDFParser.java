@@ -0,0 +1,92 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.rdf.parse;
+
+import java.io.InputStream;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.system.StreamRDFBase;
+
+import org.dswarm.graph.DMPGraphException;
+
+/**
+ * A parser that hands over each statement to the RDF handler as soon as it was read from the input stream, i.e., in contrast to
+ * {@link JenaModelParser} the statements are never collected in a Jena model. Note that the processor still remembers the
+ * written bnodes (and the resources of the written nodes) until the write TX is closed finally, i.e., this part of the heap
+ * still grows with the input.
+ *
+ * @author tgaengler
+ */
+public class StreamingRDFParser implements RDFParser {
+
+	private RDFHandler        rdfHandler;
+	private final InputStream inputStream;
+	private final Lang        lang;
+
+	public StreamingRDFParser(final InputStream inputStreamArg, final Lang langArg) {
+
+		inputStream = inputStreamArg;
+		lang = langArg;
+	}
+
+	@Override
+	public void setRDFHandler(final RDFHandler handler) {
+
+		rdfHandler = handler;
+	}
+
+	@Override
+	public void parse() throws DMPGraphException {
+
+		// note: this model stays empty; it is only utilised to wrap the parsed triples as statements
+		final Model model = ModelFactory.createDefaultModel();
+
+		try {
+
+			RDFDataMgr.parse(new StreamRDFBase() {
+
+				@Override
+				public void triple(final Triple triple) {
+
+					try {
+
+						rdfHandler.handleStatement(model.asStatement(triple));
+					} catch (final DMPGraphException e) {
+
+						throw new RuntimeException(e);
+					}
+				}
+			}, inputStream, lang);
+		} catch (final RiotException e) {
+
+			throw new DMPGraphException(String.format("couldn't parse RDF statements: %s", e.getMessage()), e);
+		} catch (final RuntimeException e) {
+
+			if (e.getCause() instanceof DMPGraphException) {
+
+				throw (DMPGraphException) e.getCause();
+			}
+
+			throw e;
+		}
+	}
+}
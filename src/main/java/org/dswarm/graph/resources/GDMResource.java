@@ -18,7 +18,6 @@ package org.dswarm.graph.resources;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
@@ -30,9 +29,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
-import java.util.concurrent.Callable;
-import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.ws.rs.Consumes;
@@ -50,8 +46,6 @@ import javax.ws.rs.core.StreamingOutput;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.google.common.util.concurrent.ListeningExecutorService;
-import com.google.common.util.concurrent.MoreExecutors;
 import com.sun.jersey.multipart.BodyPart;
 import com.sun.jersey.multipart.BodyPartEntity;
 import com.sun.jersey.multipart.MultiPart;
@@ -61,7 +55,6 @@ import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.ResourceIterator;
-import org.neo4j.test.TestGraphDatabaseFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rx.Observable;
@@ -77,6 +70,9 @@ import org.dswarm.common.types.Tuple;
 import org.dswarm.graph.DMPGraphException;
 import org.dswarm.graph.delta.Changeset;
 import org.dswarm.graph.delta.DeltaState;
+import org.dswarm.graph.delta.ResourceDelta;
+import org.dswarm.graph.delta.ResourceDeltaPipeline;
+import org.dswarm.graph.delta.WorkingDatabasePool;
 import org.dswarm.graph.delta.match.FirstDegreeExactCSEntityMatcher;
 import org.dswarm.graph.delta.match.FirstDegreeExactCSValueMatcher;
 import org.dswarm.graph.delta.match.FirstDegreeExactGDMValueMatcher;
@@ -100,16 +96,18 @@ import org.dswarm.graph.gdm.parse.DataModelGDMNeo4jHandler;
 import org.dswarm.graph.gdm.parse.GDMChangesetParser;
 import org.dswarm.graph.gdm.parse.GDMHandler;
 import org.dswarm.graph.gdm.parse.GDMModelParser;
-import org.dswarm.graph.gdm.parse.GDMNeo4jHandler;
 import org.dswarm.graph.gdm.parse.GDMParser;
 import org.dswarm.graph.gdm.parse.GDMResourceParser;
 import org.dswarm.graph.gdm.parse.GDMUpdateHandler;
 import org.dswarm.graph.gdm.parse.GDMUpdateParser;
 import org.dswarm.graph.gdm.parse.Neo4jDeltaGDMHandler;
 import org.dswarm.graph.gdm.parse.SimpleGDMNeo4jHandler;
+import org.dswarm.graph.gdm.read.ContinuationToken;
 import org.dswarm.graph.gdm.read.GDMModelReader;
 import org.dswarm.graph.gdm.read.GDMResourceReader;
+import org.dswarm.graph.gdm.read.ParallelPropertyGraphGDMModelReader;
 import org.dswarm.graph.gdm.read.PropertyGraphGDMModelReader;
+import org.dswarm.graph.gdm.read.PropertyGraphGDMRecordsReader;
 import org.dswarm.graph.gdm.read.PropertyGraphGDMResourceByIDReader;
 import org.dswarm.graph.gdm.read.PropertyGraphGDMResourceByURIReader;
 import org.dswarm.graph.gdm.work.GDMWorker;
@@ -117,7 +115,6 @@ import org.dswarm.graph.gdm.work.PropertyEnrichGDMWorker;
 import org.dswarm.graph.gdm.work.PropertyGraphDeltaGDMSubGraphWorker;
 import org.dswarm.graph.hash.HashUtils;
 import org.dswarm.graph.index.NamespaceIndex;
-import org.dswarm.graph.index.SchemaIndexUtils;
 import org.dswarm.graph.json.Resource;
 import org.dswarm.graph.json.Statement;
 import org.dswarm.graph.json.stream.ModelBuilder;
@@ -127,7 +124,8 @@ import org.dswarm.graph.model.GraphStatics;
 import org.dswarm.graph.parse.Neo4jUpdateHandler;
 import org.dswarm.graph.tx.Neo4jTransactionHandler;
 import org.dswarm.graph.tx.TransactionHandler;
-import org.dswarm.graph.versioning.VersioningStatics;
+import org.dswarm.graph.utils.GraphDatabaseUtils;
+import org.dswarm.graph.versioning.VersionHandler;
 
 /**
  * @author tgaengler
@@ -144,8 +142,36 @@ public class GDMResource extends GraphResource {
 	 * The object mapper that can be utilised to de-/serialise JSON nodes.
 	 */
 	private final ObjectMapper objectMapper;
-	private final TestGraphDatabaseFactory impermanentGraphDatabaseFactory;
-	private static final String IMPERMANENT_GRAPH_DATABASE_PATH = "target/test-data/impermanent-db/";
+
+	/**
+	 * request metadata properties for tuning the delta calculation pipeline (versioning), i.e., the number of delta workers (default and
+	 * maximum: number of available processors) and the maximum number of resources that can be waiting to be written (default: 2 * delta
+	 * workers)
+	 */
+	public static final String DELTA_WORKERS_IDENTIFIER     = "delta_workers";
+	public static final String DELTA_QUEUE_DEPTH_IDENTIFIER = "delta_queue_depth";
+
+	/**
+	 * request property for reading a GDM model statement by statement, i.e., without materialising the resources (default: false)
+	 */
+	public static final String STREAMING_IDENTIFIER = "streaming";
+
+	/**
+	 * request properties for reading a GDM model with several workers, i.e., the degree of parallelism (default: 1, i.e., sequential read;
+	 * at most the number of available processors) and whether the records should be written in the order of the sequential read
+	 * (default: true); a parallel read can't be combined with paging
+	 */
+	public static final String PARALLELISM_IDENTIFIER = "parallelism";
+	public static final String ORDERED_IDENTIFIER     = "ordered";
+
+	/**
+	 * request properties for paging through the records of a data model (in record node order), i.e., 'at most' is the page size (required
+	 * for every page request) and the continuation token of the previous response (see response header) points to the start of the
+	 * following page
+	 */
+	public static final String PAGINATE_IDENTIFIER           = "paginate";
+	public static final String CONTINUATION_TOKEN_IDENTIFIER = "continuation_token";
+	public static final String CONTINUATION_TOKEN_HEADER     = "X-Continuation-Token";
 
 	private static final String READ_GDM_MODEL_TYPE = "read GDM record from graph DB request";
 	private static final String READ_GDM_RECORD_TYPE = "read GDM record from graph DB request";
@@ -154,7 +180,6 @@ public class GDMResource extends GraphResource {
 	public GDMResource() {
 
 		objectMapper = Util.getJSONObjectMapper();
-		impermanentGraphDatabaseFactory = new TestGraphDatabaseFactory();
 	}
 
 	@GET
@@ -174,6 +199,8 @@ public class GDMResource extends GraphResource {
 	 * - "content_schema" (obligatory)<br/>
 	 * - "deprecate_missing_records" (obligatory)<br/>
 	 * - "record_class_uri" (mandatory for "deprecate_missing_records")<br/>
+	 * - "delta_workers" (obligatory; number of threads that calculate the delta for versioning)<br/>
+	 * - "delta_queue_depth" (obligatory; maximum number of calculated deltas that are waiting to be written)<br/>
 	 * - second body part is the content (i.e. the real data)
 	 *
 	 * @param multiPart
@@ -241,7 +268,7 @@ public class GDMResource extends GraphResource {
 
 		try {
 
-			final GDMNeo4jHandler handler = new DataModelGDMNeo4jHandler(processor, enableVersioning);
+			final DataModelGDMNeo4jHandler handler = new DataModelGDMNeo4jHandler(processor, enableVersioning);
 			final Observable<Resource> newModel;
 			final Observable<Boolean> deprecateRecordsObservable;
 
@@ -252,11 +279,21 @@ public class GDMResource extends GraphResource {
 
 				final Optional<ContentSchema> optionalPrefixedContentSchema = getPrefixedContentSchema(metadata, namespaceIndex);
 
+				if (optionalPrefixedContentSchema.isPresent() && optionalPrefixedContentSchema.get().getRecordIdentifierAttributePath() != null) {
+
+					// maintain record identifiers index for (new) records
+					handler.setRecordIdentifierAttributePath(Optional.of(optionalPrefixedContentSchema.get().getRecordIdentifierAttributePath()));
+				}
+
 				// = new resources model, since existing, modified resources were already written to the DB
+				final int deltaWorkers = GraphDatabaseUtils.boundParallelism(getPositiveIntMetadataPart(DELTA_WORKERS_IDENTIFIER, metadata,
+						Runtime.getRuntime().availableProcessors()));
+				final int deltaQueueDepth = getPositiveIntMetadataPart(DELTA_QUEUE_DEPTH_IDENTIFIER, metadata, 2 * deltaWorkers);
+
 				final Tuple<Observable<Resource>, Observable<Long>> result = calculateDeltaForDataModel(model, optionalPrefixedContentSchema,
 						prefixedDataModelURI,
 						database,
-						handler, namespaceIndex);
+						handler, namespaceIndex, deltaWorkers, deltaQueueDepth);
 				final Observable<Resource> deltaModel = result.v1().onBackpressureBuffer(10000);
 
 				final Optional<Boolean> optionalDeprecateMissingRecords = getDeprecateMissingRecordsFlag(metadata);
@@ -274,9 +311,10 @@ public class GDMResource extends GraphResource {
 
 					final Observable<Long> processedResources = result.v2();
 
+					final VersionHandler versionHandler = ((Neo4jUpdateHandler) handler.getHandler()).getVersionHandler();
+
 					deprecateRecordsObservable = deprecateMissingRecords(processedResources, optionalRecordClassURI.get(), dataModelURI,
-							((Neo4jUpdateHandler) handler.getHandler())
-									.getVersionHandler().getLatestVersion(), processor);
+							versionHandler.getLatestVersion(), versionHandler.marksHistoricStatements(), processor);
 				} else {
 
 					deprecateRecordsObservable = Observable.empty();
@@ -478,6 +516,33 @@ public class GDMResource extends GraphResource {
 		final String dataModelUri = requestJSON.get(DMPStatics.DATA_MODEL_URI_IDENTIFIER).asText();
 		final Optional<Integer> optionalVersion = getIntValue(DMPStatics.VERSION_IDENTIFIER, requestJSON);
 		final Optional<Integer> optionalAtMost = getIntValue(DMPStatics.AT_MOST_IDENTIFIER, requestJSON);
+		final boolean streaming = getBooleanValue(STREAMING_IDENTIFIER, requestJSON).orElse(false);
+		final int parallelism = getIntValue(PARALLELISM_IDENTIFIER, requestJSON).orElse(1);
+		final boolean ordered = getBooleanValue(ORDERED_IDENTIFIER, requestJSON).orElse(true);
+		final Optional<String> optionalContinuationToken = getStringValue(CONTINUATION_TOKEN_IDENTIFIER, requestJSON);
+		final boolean paginate = optionalContinuationToken.isPresent() || getBooleanValue(PAGINATE_IDENTIFIER, requestJSON).orElse(false);
+
+		if (paginate && (!optionalAtMost.isPresent() || optionalAtMost.get() < 1)) {
+
+			// i.e. a page without size would hold all following records
+			final String message = String.format("paging (incl. continuation) requires a positive '%s' (page size)",
+					DMPStatics.AT_MOST_IDENTIFIER);
+
+			GDMResource.LOG.info(message);
+
+			return Response.status(400).entity(message).build();
+		}
+
+		if (paginate && parallelism > 1) {
+
+			// i.e. the parallel read doesn't select pages
+			final String message = String.format("paging (incl. continuation) can't be combined with a parallel read ('%s' > 1)",
+					PARALLELISM_IDENTIFIER);
+
+			GDMResource.LOG.info(message);
+
+			return Response.status(400).entity(message).build();
+		}
 
 		final TransactionHandler tx = new Neo4jTransactionHandler(database);
 		final NamespaceIndex namespaceIndex = new NamespaceIndex(database, tx);
@@ -488,8 +553,107 @@ public class GDMResource extends GraphResource {
 				.info("try to read GDM statements for data model uri = '{}' ('{}') and record class uri = '{}' ('{}') and version = '{}' from graph db",
 						dataModelUri, prefixedDataModelURI, recordClassUri, prefixedRecordClassURI, optionalVersion);
 
+		if (parallelism > 1) {
+
+			final ParallelPropertyGraphGDMModelReader parallelGDMReader = new ParallelPropertyGraphGDMModelReader(prefixedRecordClassURI,
+					prefixedDataModelURI, optionalVersion, optionalAtMost, parallelism, ordered, database, tx, namespaceIndex);
+
+			final StreamingOutput stream = os -> {
+
+				try {
+
+					final BufferedOutputStream bos = new BufferedOutputStream(os, 1024);
+					parallelGDMReader.stream(bos);
+					bos.flush();
+					os.flush();
+					bos.close();
+					os.close();
+
+					GDMResource.LOG
+							.info("finished reading '{}' resources with '{}' GDM statements with '{}' workers for data model uri = '{}' ('{}') and record class uri = '{}' ('{}') and version = '{}' from graph db",
+									parallelGDMReader.readResources(), parallelGDMReader.countStatements(), parallelism, dataModelUri,
+									prefixedDataModelURI, recordClassUri, prefixedRecordClassURI, optionalVersion);
+				} catch (final DMPGraphException e) {
+
+					throw new WebApplicationException(e);
+				}
+			};
+
+			return Response.ok(stream, MediaType.APPLICATION_JSON_TYPE).build();
+		}
+
+		final Optional<ContinuationToken> optionalDecodedContinuationToken;
+
+		if (optionalContinuationToken.isPresent()) {
+
+			final ContinuationToken continuationToken;
+
+			try {
+
+				continuationToken = ContinuationToken.decode(optionalContinuationToken.get());
+			} catch (final DMPGraphException e) {
+
+				GDMResource.LOG.info("invalid continuation token '{}' given: {}", optionalContinuationToken.get(), e.getMessage());
+
+				return Response.status(400).entity(e.getMessage()).build();
+			}
+
+			if (optionalVersion.isPresent() && optionalVersion.get() != continuationToken.getVersion()) {
+
+				final String message = String.format("the continuation token was issued for version '%d' and not for version '%d'",
+						continuationToken.getVersion(), optionalVersion.get());
+
+				GDMResource.LOG.info(message);
+
+				return Response.status(400).entity(message).build();
+			}
+
+			optionalDecodedContinuationToken = Optional.of(continuationToken);
+		} else {
+
+			optionalDecodedContinuationToken = Optional.empty();
+		}
+
 		final GDMModelReader gdmReader = new PropertyGraphGDMModelReader(prefixedRecordClassURI, prefixedDataModelURI, optionalVersion,
-				optionalAtMost, database, tx, namespaceIndex);
+				optionalAtMost, optionalDecodedContinuationToken, database, tx, namespaceIndex);
+
+		final Optional<ContinuationToken> optionalNextContinuationToken;
+
+		if (paginate) {
+
+			optionalNextContinuationToken = gdmReader.selectPage();
+
+			GDMResource.LOG.debug("continuation token for the following page is '{}'", optionalNextContinuationToken);
+		} else {
+
+			optionalNextContinuationToken = Optional.empty();
+		}
+
+		if (streaming) {
+
+			final StreamingOutput stream = os -> {
+
+				try {
+
+					final BufferedOutputStream bos = new BufferedOutputStream(os, 1024);
+					gdmReader.stream(bos);
+					bos.flush();
+					os.flush();
+					bos.close();
+					os.close();
+
+					GDMResource.LOG
+							.info("finished streaming '{}' resources with '{}' GDM statements for data model uri = '{}' ('{}') and record class uri = '{}' ('{}') and version = '{}' from graph db",
+									gdmReader.readResources(), gdmReader.countStatements(), dataModelUri, prefixedDataModelURI, recordClassUri,
+									prefixedRecordClassURI, optionalVersion);
+				} catch (final DMPGraphException e) {
+
+					throw new WebApplicationException(e);
+				}
+			};
+
+			return buildPageResponse(stream, optionalNextContinuationToken);
+		}
 
 		final StreamingOutput stream = os -> {
 
@@ -527,7 +691,19 @@ public class GDMResource extends GraphResource {
 			}
 		};
 
-		return Response.ok(stream, MediaType.APPLICATION_JSON_TYPE).build();
+		return buildPageResponse(stream, optionalNextContinuationToken);
+	}
+
+	private static Response buildPageResponse(final StreamingOutput stream, final Optional<ContinuationToken> optionalNextContinuationToken) {
+
+		final Response.ResponseBuilder responseBuilder = Response.ok(stream, MediaType.APPLICATION_JSON_TYPE);
+
+		if (optionalNextContinuationToken.isPresent()) {
+
+			responseBuilder.header(CONTINUATION_TOKEN_HEADER, optionalNextContinuationToken.get().encode());
+		}
+
+		return responseBuilder.build();
 	}
 
 	@POST
@@ -570,7 +746,8 @@ public class GDMResource extends GraphResource {
 		} else if (optionalLegacyRecordIdentifierAP.isPresent() && optionalRecordId.isPresent()) {
 
 			final AttributePath legacyRecordIdentifierAP = AttributePathUtil.parseAttributePathString(optionalLegacyRecordIdentifierAP.get());
-			final AttributePath prefixedLegacyRecordIdentifierAP = prefixAttributePath(legacyRecordIdentifierAP, namespaceIndex);
+			final AttributePath prefixedLegacyRecordIdentifierAP = namespaceIndex.createPrefixedAttributePath(legacyRecordIdentifierAP,
+					new HashMap<>(), new HashMap<>());
 			final String recordId = optionalRecordId.get();
 
 			requestParameter = String
@@ -623,6 +800,8 @@ public class GDMResource extends GraphResource {
 		final String searchValue = requestJSON.get(DMPStatics.SEARCH_VALUE_IDENTIFIER).asText();
 		final String dataModelUri = requestJSON.get(DMPStatics.DATA_MODEL_URI_IDENTIFIER).asText();
 		final Optional<Integer> optionalVersion = getIntValue(DMPStatics.VERSION_IDENTIFIER, requestJSON);
+		final int parallelism = getIntValue(PARALLELISM_IDENTIFIER, requestJSON).orElse(1);
+		final boolean ordered = getBooleanValue(ORDERED_IDENTIFIER, requestJSON).orElse(true);
 
 		final TransactionHandler tx = new Neo4jTransactionHandler(database);
 		final NamespaceIndex namespaceIndex = new NamespaceIndex(database, tx);
@@ -630,15 +809,15 @@ public class GDMResource extends GraphResource {
 		final String prefixedDataModelURI = namespaceIndex.createPrefixedURI(dataModelUri);
 
 		final AttributePath keyAP = AttributePathUtil.parseAttributePathString(keyAPString);
-		final AttributePath prefixedKeyAP = prefixAttributePath(keyAP, namespaceIndex);
+		final AttributePath prefixedKeyAP = namespaceIndex.createPrefixedAttributePath(keyAP, new HashMap<>(), new HashMap<>());
 
 		GDMResource.LOG
 				.info("try to search GDM records for key attribute path = '{}' ('{}') and search value = '{}' in data model '{}' ('{}') with version = '{}' from graph db",
 						keyAP, prefixedKeyAP, searchValue, dataModelUri, prefixedDataModelURI, optionalVersion);
 
-		final Collection<String> recordURIs = GraphDBUtil.determineRecordUris(searchValue, prefixedKeyAP, prefixedDataModelURI, database);
+		final long[] recordIds = GraphDBUtil.determineRecordIds(searchValue, prefixedKeyAP, prefixedDataModelURI, database);
 
-		if (recordURIs == null || recordURIs.isEmpty()) {
+		if (recordIds.length == 0) {
 
 			GDMResource.LOG
 					.info("couldn't find any record for key attribute path = '{}' ('{}') and search value = '{}' in data model '{}' ('{}') with version = '{}' from graph db",
@@ -659,41 +838,26 @@ public class GDMResource extends GraphResource {
 			return Response.ok(stream, MediaType.APPLICATION_JSON_TYPE).build();
 		}
 
+		// all found records are read at once, i.e., the version is only determined once and the records are read in one TX (or in parallel chunks)
+		final PropertyGraphGDMRecordsReader gdmReader = new PropertyGraphGDMRecordsReader(recordIds, prefixedDataModelURI, optionalVersion,
+				parallelism, ordered, database, tx, namespaceIndex);
+
 		final StreamingOutput stream = os -> {
 
 			try {
 
 				final BufferedOutputStream bos = new BufferedOutputStream(os, 1024);
-				final ModelBuilder modelBuilder = new ModelBuilder(bos);
-
-				int resourcesSize = 0;
-				long statementsSize = 0;
-
-				for (final String recordUri : recordURIs) {
-
-					final GDMResourceReader gdmReader = new PropertyGraphGDMResourceByURIReader(recordUri, prefixedDataModelURI,
-							optionalVersion, database, tx, namespaceIndex);
-
-					try {
-
-						final Resource resource = gdmReader.read();
-
-						modelBuilder.addResource(resource);
 
-						resourcesSize++;
-						statementsSize += resource.size();
-					} catch (final DMPGraphException e) {
+				gdmReader.stream(bos);
 
-						GDMResource.LOG.debug("couldn't retrieve record for record URI '{}'", recordUri);
-					}
-				}
-
-				modelBuilder.build();
 				bos.flush();
 				os.flush();
 				bos.close();
 				os.close();
 
+				final long resourcesSize = gdmReader.readResources();
+				final long statementsSize = gdmReader.countStatements();
+
 				if (resourcesSize > 0) {
 
 					GDMResource.LOG
@@ -715,128 +879,170 @@ public class GDMResource extends GraphResource {
 		return Response.ok(stream, MediaType.APPLICATION_JSON_TYPE).build();
 	}
 
+	/**
+	 * Calculates the delta for the given model resource-wise in a pipeline (see {@link ResourceDeltaPipeline}): the deltas (changesets) are
+	 * calculated concurrently by delta workers (they only read from the permanent DB and from their own working graphs), while the calling
+	 * thread (i.e. the one that holds the write transaction of the permanent DB) applies them in model order.<br/>
+	 * note: the delta workers read the permanent DB in their own transactions, i.e., they don't see changes of this import that are not
+	 * committed yet (records are expected to be unique within one model)
+	 *
+	 * @param model                         the new model
+	 * @param optionalPrefixedContentSchema the (prefixed) content schema of the model
+	 * @param prefixedDataModelURI          the (prefixed) data model URI
+	 * @param permanentDatabase             the permanent DB
+	 * @param handler                       the handler that writes the changes into the permanent DB
+	 * @param namespaceIndex                the namespace index
+	 * @param deltaWorkers                  the number of delta workers
+	 * @param deltaQueueDepth               the maximum number of resources that are waiting (calculated or in calculation) to be written
+	 * @return the model with the new resources (i.e. no match in the data model) + the hashes of the processed existing resources
+	 * @throws DMPGraphException
+	 */
 	private Tuple<Observable<Resource>, Observable<Long>> calculateDeltaForDataModel(
 			final ConnectableObservable<Resource> model,
 			final Optional<ContentSchema> optionalPrefixedContentSchema,
 			final String prefixedDataModelURI,
 			final GraphDatabaseService permanentDatabase,
 			final GDMUpdateHandler handler,
-			final NamespaceIndex namespaceIndex) throws DMPGraphException {
-
-		GDMResource.LOG.debug("start calculating delta for model");
+			final NamespaceIndex namespaceIndex,
+			final int deltaWorkers,
+			final int deltaQueueDepth) throws DMPGraphException {
 
 		final Set<Long> processedResources = new HashSet<>();
 
-		// calculate delta resource-wise
-		final Observable<Resource> newResources = model.flatMap(newResource -> {
-
-			try {
-
-				final String resourceURI = newResource.getUri();
-				final String prefixedResourceURI = namespaceIndex.createPrefixedURI(resourceURI);
-				final String hash = UUID.randomUUID().toString();
-				final GraphDatabaseService newResourceDB = loadResource(newResource, IMPERMANENT_GRAPH_DATABASE_PATH + hash + "-2",
-						namespaceIndex);
+		final ResourceDeltaPipeline pipeline = new ResourceDeltaPipeline(deltaWorkers, deltaQueueDepth,
+				() -> new Neo4jTransactionHandler(permanentDatabase),
+				(newResource, tx) -> calculateDeltaForResource(newResource, optionalPrefixedContentSchema, prefixedDataModelURI, permanentDatabase,
+						namespaceIndex, tx),
+				resourceDelta -> writeResourceDelta(resourceDelta, handler, processedResources),
+				this::shutDownDeltaDB);
 
-				final Resource existingResource;
-				final GDMResourceReader gdmReader;
+		final List<Resource> newResources = pipeline.run(model);
 
-				final TransactionHandler tx = new Neo4jTransactionHandler(permanentDatabase);
+		GDMResource.LOG.info("finished calculating delta for model and writing changes to graph DB");
+		GDMResource.LOG.info(WorkingDatabasePool.getInstance().getStatistics());
 
-				if (optionalPrefixedContentSchema.isPresent() && optionalPrefixedContentSchema.get().getRecordIdentifierAttributePath() != null) {
+		// return only model with new, non-existing resources
+		return Tuple.tuple(Observable.from(newResources), Observable.from(processedResources));
+	}
 
-					// determine legacy resource identifier via content schema
-					final String recordIdentifier = GraphDBUtil.determineRecordIdentifier(newResourceDB, optionalPrefixedContentSchema.get()
-							.getRecordIdentifierAttributePath(), prefixedResourceURI);
+	/**
+	 * Calculates the delta for one resource (executed by a delta worker). If the calculation fails, the acquired working DBs are released.
+	 *
+	 * @param newResource
+	 * @param optionalPrefixedContentSchema
+	 * @param prefixedDataModelURI
+	 * @param permanentDatabase
+	 * @param namespaceIndex
+	 * @param tx                            the read TX of this delta calculation (committed or failed by the pipeline)
+	 * @return
+	 * @throws DMPGraphException
+	 */
+	private ResourceDelta calculateDeltaForResource(final Resource newResource, final Optional<ContentSchema> optionalPrefixedContentSchema,
+			final String prefixedDataModelURI, final GraphDatabaseService permanentDatabase, final NamespaceIndex namespaceIndex,
+			final TransactionHandler tx) throws DMPGraphException {
 
-					// try to retrieve existing model via legacy record identifier
-					// note: version is absent -> should make use of latest version
-					gdmReader = new PropertyGraphGDMResourceByIDReader(recordIdentifier,
-							optionalPrefixedContentSchema.get().getRecordIdentifierAttributePath(),
-							prefixedDataModelURI, Optional.empty(), permanentDatabase, tx, namespaceIndex);
-				} else {
+		// the namespace index is shared with the writer, i.e., lookups from this thread need to happen in an own transaction
+		namespaceIndex.bindTransactionHandler(tx);
 
-					// try to retrieve existing model via resource uri
-					// note: version is absent -> should make use of latest version
-					gdmReader = new PropertyGraphGDMResourceByURIReader(prefixedResourceURI, prefixedDataModelURI, Optional.empty(),
-							permanentDatabase, tx, namespaceIndex);
-				}
+		GraphDatabaseService newResourceDB = null;
+		GraphDatabaseService existingResourceDB = null;
 
-				existingResource = gdmReader.read();
+		try {
 
-				if (existingResource == null) {
+			final String resourceURI = newResource.getUri();
+			final String prefixedResourceURI = namespaceIndex.createPrefixedURI(resourceURI);
+			newResourceDB = loadResource(newResource, namespaceIndex);
 
-					// we don't need to calculate the delta, since everything is new
+			final Resource existingResource;
+			final GDMResourceReader gdmReader;
 
-					shutDownDeltaDB(newResourceDB);
+			if (optionalPrefixedContentSchema.isPresent() && optionalPrefixedContentSchema.get().getRecordIdentifierAttributePath() != null) {
 
-					// take new resource model, since there was no match in the data model graph for this resource identifier
-					return Observable.just(newResource);
-				}
+				// determine legacy resource identifier via content schema
+				final String recordIdentifier = GraphDBUtil.determineRecordIdentifier(newResourceDB, optionalPrefixedContentSchema.get()
+						.getRecordIdentifierAttributePath(), prefixedResourceURI);
 
-				final String existingResourceURI = existingResource.getUri();
-				final String prefixedExistingResourceURI = handler.getHandler().getProcessor().createPrefixedURI(existingResourceURI);
-				final long existingResourceHash = handler.getHandler().getProcessor().generateResourceHash(prefixedExistingResourceURI,
-						Optional.empty());
-				processedResources.add(existingResourceHash);
+				// try to retrieve existing model via legacy record identifier
+				// note: version is absent -> should make use of latest version
+				gdmReader = new PropertyGraphGDMResourceByIDReader(recordIdentifier,
+						optionalPrefixedContentSchema.get().getRecordIdentifierAttributePath(),
+						prefixedDataModelURI, Optional.empty(), permanentDatabase, tx, namespaceIndex);
+			} else {
 
-				// final Model newResourceModel = new Model();
-				// newResourceModel.addResource(resource);
+				// try to retrieve existing model via resource uri
+				// note: version is absent -> should make use of latest version
+				gdmReader = new PropertyGraphGDMResourceByURIReader(prefixedResourceURI, prefixedDataModelURI, Optional.empty(),
+						permanentDatabase, tx, namespaceIndex);
+			}
 
-				final GraphDatabaseService existingResourceDB = loadResource(existingResource, IMPERMANENT_GRAPH_DATABASE_PATH + hash + "-1",
-						namespaceIndex);
+			existingResource = gdmReader.read();
 
-				final Changeset changeset = calculateDeltaForResource(existingResource, existingResourceDB, newResource, newResourceDB,
-						optionalPrefixedContentSchema, namespaceIndex);
+			if (existingResource == null) {
 
-				if (!changeset.hasChanges()) {
+				// we don't need to calculate the delta, since everything is new
 
-					// process changeset only, if it provides changes
+				shutDownDeltaDB(newResourceDB);
 
-					GDMResource.LOG.debug("no changes detected for this resource");
+				return new ResourceDelta(newResource);
+			}
 
-					shutDownDeltaDBs(existingResourceDB, newResourceDB);
+			// final Model newResourceModel = new Model();
+			// newResourceModel.addResource(resource);
 
-					return Observable.empty();
-				}
+			existingResourceDB = loadResource(existingResource, namespaceIndex);
 
-				// write modified resources resource-wise - instead of the whole model at once.
-				final GDMUpdateParser parser = new GDMChangesetParser(changeset, existingResourceHash, existingResourceDB,
-						newResourceDB);
-				parser.setGDMHandler(handler);
-				parser.parse();
+			final Changeset changeset = calculateDeltaForResource(existingResource, existingResourceDB, newResource, newResourceDB,
+					optionalPrefixedContentSchema, namespaceIndex);
 
-				shutDownDeltaDBs(existingResourceDB, newResourceDB);
+			return new ResourceDelta(newResource, existingResource, newResourceDB, existingResourceDB, changeset);
+		} catch (final DMPGraphException | RuntimeException e) {
 
-				return Observable.empty();
-			} catch (final DMPGraphException e) {
+			shutDownDeltaDB(newResourceDB);
+			shutDownDeltaDB(existingResourceDB);
 
-				throw new RuntimeException(e);
-			}
-		});
+			throw e;
+		} finally {
 
-		try {
+			namespaceIndex.unbindTransactionHandler();
+		}
+	}
 
-			final Observable<Resource> completedNewResources = newResources.doOnCompleted(() -> GDMResource.LOG.info("finished calculating delta for model and writing changes to graph DB")).cache();
+	/**
+	 * Writes the changes of the given resource delta into the permanent DB (executed by the delta writer, i.e., the thread that holds the
+	 * write transaction). The pipeline releases the working DBs of the resource delta afterwards.
+	 *
+	 * @param resourceDelta
+	 * @param handler
+	 * @param processedResources
+	 * @throws DMPGraphException
+	 */
+	private void writeResourceDelta(final ResourceDelta resourceDelta, final GDMUpdateHandler handler, final Set<Long> processedResources)
+			throws DMPGraphException {
 
-			// needed to make connectable observable to work?
-			completedNewResources.ignoreElements().subscribe();
+		final GraphDatabaseService existingResourceDB = resourceDelta.getExistingResourceDB();
+		final GraphDatabaseService newResourceDB = resourceDelta.getNewResourceDB();
 
-			final BlockingObservable<Resource> blockingObservable = completedNewResources.toBlocking();
+		final String existingResourceURI = resourceDelta.getExistingResource().getUri();
+		final String prefixedExistingResourceURI = handler.getHandler().getProcessor().createPrefixedURI(existingResourceURI);
+		final long existingResourceHash = handler.getHandler().getProcessor().generateResourceHash(prefixedExistingResourceURI,
+				Optional.empty());
+		processedResources.add(existingResourceHash);
 
-			model.connect();
+		final Changeset changeset = resourceDelta.getChangeset();
 
-			@SuppressWarnings("unused") final Resource runNewResources =
-					blockingObservable.lastOrDefault(null);
+		if (!changeset.hasChanges()) {
 
-			final Observable<Long> processedResourcesObservable = Observable.from(processedResources);
+			// process changeset only, if it provides changes
 
-			// return only model with new, non-existing resources
-			return Tuple.tuple(completedNewResources, processedResourcesObservable);
-		} catch (final RuntimeException e) {
+			GDMResource.LOG.debug("no changes detected for this resource");
 
-			throw new DMPGraphException(e.getMessage(), e.getCause());
+			return;
 		}
+
+		// write modified resources resource-wise - instead of the whole model at once.
+		final GDMUpdateParser parser = new GDMChangesetParser(changeset, existingResourceHash, existingResourceDB, newResourceDB);
+		parser.setGDMHandler(handler);
+		parser.parse();
 	}
 
 	private Changeset calculateDeltaForResource(final Resource existingResource, final GraphDatabaseService existingResourceDB,
@@ -1082,26 +1288,29 @@ public class GDMResource extends GraphResource {
 				preparedNewModifiedStatements);
 	}
 
-	private GraphDatabaseService loadResource(final Resource resource, final String impermanentGraphDatabaseDir, final NamespaceIndex namespaceIndex)
-			throws DMPGraphException {
+	private GraphDatabaseService loadResource(final Resource resource, final NamespaceIndex namespaceIndex) throws DMPGraphException {
 
-		// TODO: find proper graph database settings to hold everything in-memory only
-		final GraphDatabaseService impermanentDB = impermanentGraphDatabaseFactory.newImpermanentDatabaseBuilder(new File(impermanentGraphDatabaseDir)).newGraphDatabase();
+		final GraphDatabaseService workingDB = WorkingDatabasePool.getInstance().acquire();
 
-		SchemaIndexUtils.createSchemaIndices(impermanentDB, impermanentGraphDatabaseDir);
+		try {
 
-		// TODO: implement handler that enriches the GDM resource with useful information for changeset detection
-		final GDMHandler handler = new Neo4jDeltaGDMHandler(impermanentDB, namespaceIndex);
+			// TODO: implement handler that enriches the GDM resource with useful information for changeset detection
+			final GDMHandler handler = new Neo4jDeltaGDMHandler(workingDB, namespaceIndex);
 
-		final GDMParser parser = new GDMResourceParser(resource);
-		parser.setGDMHandler(handler);
-		parser.parse();
+			final GDMParser parser = new GDMResourceParser(resource);
+			parser.setGDMHandler(handler);
+			parser.parse();
 
-		LOG.debug("added '{}' statements ('{}' relationships; '{}' nodes; '{}' literals) to impermanent delta graph DB '{}'",
-				handler.getCountedStatements(), handler.getRelationshipsAdded(), handler.getNodesAdded(), handler.getCountedLiterals(),
-				impermanentGraphDatabaseDir);
+			LOG.debug("added '{}' statements ('{}' relationships; '{}' nodes; '{}' literals) to working delta graph DB",
+					handler.getCountedStatements(), handler.getRelationshipsAdded(), handler.getNodesAdded(), handler.getCountedLiterals());
+		} catch (final DMPGraphException | RuntimeException e) {
 
-		return impermanentDB;
+			WorkingDatabasePool.getInstance().release(workingDB);
+
+			throw e;
+		}
+
+		return workingDB;
 	}
 
 	private void enrichModel(final GraphDatabaseService graphDB, final NamespaceIndex namespaceIndex, final String prefixedResourceURI,
@@ -1111,44 +1320,16 @@ public class GDMResource extends GraphResource {
 		worker.work();
 	}
 
-	private void shutDownDeltaDBs(final GraphDatabaseService existingResourceDB, final GraphDatabaseService newResourceDB) {
-
-		GDMResource.LOG.debug("start shutting down working graph data model DBs for resources");
-
-		// should probably be delegated to a background worker thread, since it looks like that shutting down the working graph
-		// DBs take some time (for whatever reason)
-		final ListeningExecutorService service = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(10));
-		service.submit((Callable<Void>) () -> {
-
-			newResourceDB.shutdown();
-			existingResourceDB.shutdown();
-
-			return null;
-		});
-
-		GDMResource.LOG.debug("finished shutting down working graph data model DBs for resources");
-	}
-
 	private void shutDownDeltaDB(final GraphDatabaseService resourceDB) {
 
-		GDMResource.LOG.debug("start shutting down working graph data model DB for resource");
-
-		// should probably be delegated to a background worker thread, since it looks like that shutting down the working graph
-		// DBs take some time (for whatever reason)
-		final ListeningExecutorService service = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(10));
-		service.submit((Callable<Void>) () -> {
-
-			resourceDB.shutdown();
-
-			return null;
-		});
-
-		GDMResource.LOG.debug("finished shutting down working graph data model DB for resource");
+		// working DBs are wiped and reused or shut down by the pool's (bounded) shutdown executor
+		WorkingDatabasePool.getInstance().release(resourceDB);
 	}
 
 	private Observable<Boolean> deprecateMissingRecords(final Observable<Long> processedResources, final String recordClassUri,
 	                                                    final String dataModelUri,
-	                                                    final int latestVersion, final GDMNeo4jProcessor processor) throws DMPGraphException {
+	                                                    final int latestVersion, final boolean marksHistoricStatements,
+	                                                    final GDMNeo4jProcessor processor) throws DMPGraphException {
 
 		return processedResources.toList().map(processedResourcesSet -> {
 
@@ -1196,6 +1377,8 @@ public class GDMResource extends GraphResource {
 
 				for (final Node notProcessedResource : notProcessedResources) {
 
+					processor.getProcessor().removeNodeFromRecordIdentifiersIndex(notProcessedResource);
+
 					final Iterable<org.neo4j.graphdb.Path> notProcessedResourcePaths = GraphDBUtil.getResourcePaths(processor.getProcessor()
 							.getDatabase(), notProcessedResource);
 
@@ -1215,7 +1398,7 @@ public class GDMResource extends GraphResource {
 
 						for (final Relationship rel : rels) {
 
-							rel.setProperty(VersioningStatics.VALID_TO_PROPERTY, latestVersion);
+							processor.getProcessor().deprecateStatement(rel, latestVersion, marksHistoricStatements);
 						}
 					}
 				}
@@ -1422,6 +1605,30 @@ public class GDMResource extends GraphResource {
 		return Optional.of(metadataPartValue);
 	}
 
+	private int getPositiveIntMetadataPart(final String property, final ObjectNode metadata, final int defaultValue) throws DMPGraphException {
+
+		final Optional<JsonNode> optionalMetadataPartNode = getMetadataPartNode(property, metadata, false);
+
+		if (!optionalMetadataPartNode.isPresent()) {
+
+			return defaultValue;
+		}
+
+		final int value = optionalMetadataPartNode.get().asInt();
+
+		if (value <= 0) {
+
+			final String message = String.format("couldn't write GDM, value of property '%s' in request metadata needs to be a positive number",
+					property);
+
+			GDMResource.LOG.error(message);
+
+			throw new DMPGraphException(message);
+		}
+
+		return value;
+	}
+
 	private Optional<ContentSchema> getPrefixedContentSchema(final ObjectNode metadata, final NamespaceIndex namespaceIndex)
 			throws DMPGraphException {
 
@@ -1481,8 +1688,8 @@ public class GDMResource extends GraphResource {
 
 			for (final AttributePath keyAttributePath : keyAttributePaths) {
 
-				final AttributePath prefixedKeyAttributePath = prefixAttributePath(keyAttributePath, prefixedAttributePathMap, prefixedAttributeMap,
-						namespaceIndex);
+				final AttributePath prefixedKeyAttributePath = namespaceIndex.createPrefixedAttributePath(keyAttributePath,
+						prefixedAttributePathMap, prefixedAttributeMap);
 				prefixedKeyAttributePaths.add(prefixedKeyAttributePath);
 			}
 		} else {
@@ -1491,8 +1698,8 @@ public class GDMResource extends GraphResource {
 		}
 
 		final AttributePath recordIdentifierAttributePath = contentSchema.getRecordIdentifierAttributePath();
-		final AttributePath prefixedRecordIdentifierAttributePath = prefixAttributePath(recordIdentifierAttributePath, prefixedAttributePathMap,
-				prefixedAttributeMap, namespaceIndex);
+		final AttributePath prefixedRecordIdentifierAttributePath = namespaceIndex.createPrefixedAttributePath(recordIdentifierAttributePath,
+				prefixedAttributePathMap, prefixedAttributeMap);
 
 		final AttributePath valueAttributePath = contentSchema.getValueAttributePath();
 
@@ -1500,8 +1707,8 @@ public class GDMResource extends GraphResource {
 
 		if (valueAttributePath != null) {
 
-			prefixedValueAttributePath = prefixAttributePath(valueAttributePath, prefixedAttributePathMap, prefixedAttributeMap,
-					namespaceIndex);
+			prefixedValueAttributePath = namespaceIndex.createPrefixedAttributePath(valueAttributePath, prefixedAttributePathMap,
+					prefixedAttributeMap);
 		} else {
 
 			prefixedValueAttributePath = null;
@@ -1510,62 +1717,6 @@ public class GDMResource extends GraphResource {
 		return Optional.of(new ContentSchema(prefixedRecordIdentifierAttributePath, prefixedKeyAttributePaths, prefixedValueAttributePath));
 	}
 
-	private AttributePath prefixAttributePath(final AttributePath attributePath, final NamespaceIndex namespaceIndex) throws DMPGraphException {
-
-		final Map<AttributePath, AttributePath> prefixedAttributePathMap = new HashMap<>();
-		final Map<Attribute, Attribute> prefixedAttributeMap = new HashMap<>();
-
-		return prefixAttributePath(attributePath, prefixedAttributePathMap, prefixedAttributeMap, namespaceIndex);
-	}
-
-	private AttributePath prefixAttributePath(final AttributePath attributePath, final Map<AttributePath, AttributePath> prefixedAttributePathMap,
-	                                          final Map<Attribute, Attribute> prefixedAttributeMap, final NamespaceIndex namespaceIndex) throws DMPGraphException {
-
-		if (!prefixedAttributeMap.containsKey(attributePath)) {
-
-			final LinkedList<Attribute> attributes = attributePath.getAttributes();
-			final LinkedList<Attribute> prefixedAttributes = new LinkedList<>();
-
-			for (final Attribute attribute : attributes) {
-
-				final Attribute prefixedAttribute = prefixAttribute(attribute, prefixedAttributeMap, namespaceIndex);
-				prefixedAttributes.add(prefixedAttribute);
-			}
-
-			final AttributePath prefixedAttributePath = new AttributePath(prefixedAttributes);
-
-			prefixedAttributePathMap.put(attributePath, prefixedAttributePath);
-		}
-
-		return prefixedAttributePathMap.get(attributePath);
-	}
-
-	private Attribute prefixAttribute(final Attribute attribute, final Map<Attribute, Attribute> prefixedAttributeMap,
-	                                  final NamespaceIndex namespaceIndex) throws DMPGraphException {
-
-		if (!prefixedAttributeMap.containsKey(attribute)) {
-
-			final String attributeUri = attribute.getUri();
-
-			if (attributeUri == null || attributeUri.trim().isEmpty()) {
-
-				final String message = "attribute URI shouldn't be null or empty";
-
-				LOG.error(message);
-
-				throw new DMPGraphException(message);
-			}
-
-			final String prefixedAttributeURI = namespaceIndex.createPrefixedURI(attributeUri);
-
-			final Attribute prefixedAttribute = new Attribute(prefixedAttributeURI);
-
-			prefixedAttributeMap.put(attribute, prefixedAttribute);
-		}
-
-		return prefixedAttributeMap.get(attribute);
-	}
-
 	/**
 	 * default = false
 	 *
@@ -74,6 +74,22 @@ public abstract class GraphResource {
 		return optionalValue;
 	}
 
+	protected Optional<Boolean> getBooleanValue(final String key, final JsonNode json) {
+
+		final JsonNode node = json.get(key);
+		final Optional<Boolean> optionalValue;
+
+		if (node != null) {
+
+			optionalValue = Optional.of(node.asBoolean());
+		} else {
+
+			optionalValue = Optional.empty();
+		}
+
+		return optionalValue;
+	}
+
 	protected ObjectNode deserializeJSON(final String jsonString, final String type) throws DMPGraphException {
 
 		try {
@@ -44,7 +44,6 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Charsets;
 import com.google.common.io.Resources;
-import org.mapdb.Atomic;
 import org.mapdb.DB;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
@@ -59,6 +58,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.dswarm.common.DMPStatics;
+import org.dswarm.common.model.AttributePath;
+import org.dswarm.common.model.util.AttributePathUtil;
 import org.dswarm.common.types.Tuple;
 import org.dswarm.graph.BasicNeo4jProcessor;
 import org.dswarm.graph.DMPGraphException;
@@ -70,7 +71,11 @@ import org.dswarm.graph.deprecate.RecordsNeo4jDeprecator;
 import org.dswarm.graph.deprecate.RelationshipDeprecator;
 import org.dswarm.graph.index.MapDBUtils;
 import org.dswarm.graph.index.NamespaceIndex;
+import org.dswarm.graph.index.NamespacePrefixCache;
+import org.dswarm.graph.index.PrefixAllocator;
+import org.dswarm.graph.index.RecordIdentifierIndexUtils;
 import org.dswarm.graph.index.SchemaIndexUtils;
+import org.dswarm.graph.index.SharedLongIndex;
 import org.dswarm.graph.tx.Neo4jTransactionHandler;
 import org.dswarm.graph.tx.TransactionHandler;
 import org.dswarm.graph.utils.GraphDatabaseUtils;
@@ -95,6 +100,8 @@ public class MaintainResource extends GraphResource {
 
 	private static final String DEPRECATE_RECORDS_TYPE = "deprecate records";
 
+	private static final String REBUILD_RECORD_IDENTIFIERS_INDEX_TYPE = "rebuild record identifiers index";
+
 	public MaintainResource() {
 
 	}
@@ -203,6 +210,78 @@ public class MaintainResource extends GraphResource {
 
 	}
 
+	/**
+	 * (Re-)builds the record identifiers index entries for the records of a data model, e.g., for data models that were written before
+	 * the record identifiers index existed. Expects a JSON object with data model URI and legacy record identifier attribute path.
+	 *
+	 * @param jsonObjectString the request JSON
+	 * @param database         the graph database
+	 * @return the number of indexed records
+	 * @throws DMPGraphException
+	 */
+	@POST
+	@Path("/recordidentifiers/rebuild")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response rebuildRecordIdentifiersIndex(final String jsonObjectString, @Context final GraphDatabaseService database)
+			throws DMPGraphException {
+
+		MaintainResource.LOG.info("try to rebuild record identifiers index in graph db");
+
+		final ObjectNode requestJSON = deserializeJSON(jsonObjectString, REBUILD_RECORD_IDENTIFIERS_INDEX_TYPE);
+
+		final Optional<String> optionalDataModelUri = getStringValue(DMPStatics.DATA_MODEL_URI_IDENTIFIER, requestJSON);
+		final Optional<String> optionalRecordIdentifierAP = getStringValue(DMPStatics.LEGACY_RECORD_IDENTIFIER_ATTRIBUTE_PATH, requestJSON);
+
+		if (!optionalDataModelUri.isPresent() || !optionalRecordIdentifierAP.isPresent()) {
+
+			final String message = String.format("couldn't rebuild record identifiers index, because '%s' and '%s' need to be given",
+					DMPStatics.DATA_MODEL_URI_IDENTIFIER, DMPStatics.LEGACY_RECORD_IDENTIFIER_ATTRIBUTE_PATH);
+
+			MaintainResource.LOG.error(message);
+
+			throw new DMPGraphException(message);
+		}
+
+		final TransactionHandler tx = new Neo4jTransactionHandler(database);
+		final NamespaceIndex namespaceIndex = new NamespaceIndex(database, tx);
+
+		final String dataModelUri = optionalDataModelUri.get();
+		final AttributePath recordIdentifierAP = AttributePathUtil.parseAttributePathString(optionalRecordIdentifierAP.get());
+
+		// note: namespace prefixes are only looked up (and not minted), i.e., unknown namespaces can't be part of any record
+		final Optional<String> optionalPrefixedDataModelUri = namespaceIndex.getPrefixedURI(dataModelUri);
+		final Optional<AttributePath> optionalPrefixedRecordIdentifierAP = namespaceIndex.getPrefixedAttributePath(recordIdentifierAP);
+
+		// the rebuild runs in its own (batch) transactions
+		tx.succeedTx();
+
+		final ObjectNode resultJSON = simpleObjectMapper.createObjectNode();
+
+		if (!optionalPrefixedDataModelUri.isPresent() || !optionalPrefixedRecordIdentifierAP.isPresent()) {
+
+			MaintainResource.LOG.info("no records with record identifier attribute path '{}' in data model '{}' in graph db", recordIdentifierAP,
+					dataModelUri);
+
+			resultJSON.put("indexed", 0L);
+			final String result = serializeJSON(resultJSON, REBUILD_RECORD_IDENTIFIERS_INDEX_TYPE);
+
+			return Response.ok(result, MediaType.APPLICATION_JSON_TYPE).build();
+		}
+
+		final String prefixedDataModelUri = optionalPrefixedDataModelUri.get();
+		final long indexedRecords = RecordIdentifierIndexUtils.rebuild(database, prefixedDataModelUri,
+				optionalPrefixedRecordIdentifierAP.get());
+
+		MaintainResource.LOG.info("indexed '{}' records with record identifier attribute path '{}' in data model '{}' ('{}') in graph db",
+				indexedRecords, recordIdentifierAP, dataModelUri, prefixedDataModelUri);
+
+		resultJSON.put("indexed", indexedRecords);
+		final String result = serializeJSON(resultJSON, REBUILD_RECORD_IDENTIFIERS_INDEX_TYPE);
+
+		return Response.ok(result, MediaType.APPLICATION_JSON_TYPE).build();
+	}
+
 	/**
 	 * note utilise this endpoint with care, because it cleans your complete db!
 	 *
@@ -217,6 +296,9 @@ public class MaintainResource extends GraphResource {
 
 		final long deleted = deleteSomeStatements(database);
 
+		// prefix nodes are deleted as well
+		NamespacePrefixCache.invalidate(database);
+
 		MaintainResource.LOG.debug("finished delete-all-entities TXs");
 
 		MaintainResource.LOG.debug("start legacy indices clean-up");
@@ -407,6 +489,7 @@ public class MaintainResource extends GraphResource {
 			final Index<Node> resourceTypes = database.index().forNodes(GraphIndexStatics.RESOURCE_TYPES_INDEX_NAME);
 			final Tuple<Set<Long>, DB> statementHashesMapDBIndexTuple = getOrCreateLongIndex(GraphIndexStatics.STATEMENT_HASHES_INDEX_NAME, database);
 			final Index<Relationship> statementUUIDs = database.index().forRelationships(GraphIndexStatics.STATEMENT_UUIDS_INDEX_NAME);
+			final Index<Node> recordIdentifiers = RecordIdentifierIndexUtils.getIndex(database);
 
 			if (resources != null) {
 
@@ -440,6 +523,12 @@ public class MaintainResource extends GraphResource {
 				mapDB.close();
 			}
 
+			// (incl. its Bloom filter; a shared instance that is still in use keeps its mapping until it is released)
+			MaintainResource.LOG.debug("delete {} off-heap index", GraphIndexStatics.STATEMENT_HASHES_INDEX_NAME);
+
+			SharedLongIndex.delete(GraphDatabaseUtils.determineMapDBIndexStoreDir(database) + File.separator
+					+ GraphIndexStatics.STATEMENT_HASHES_INDEX_NAME);
+
 			if (statementUUIDs != null) {
 
 				MaintainResource.LOG.debug("delete {} legacy index", GraphIndexStatics.STATEMENT_UUIDS_INDEX_NAME);
@@ -447,6 +536,13 @@ public class MaintainResource extends GraphResource {
 				statementUUIDs.delete();
 			}
 
+			if (recordIdentifiers != null) {
+
+				MaintainResource.LOG.debug("delete {} legacy index", GraphIndexStatics.RECORD_IDENTIFIERS_INDEX_NAME);
+
+				recordIdentifiers.delete();
+			}
+
 			if (values != null) {
 
 				MaintainResource.LOG.debug("delete {} legacy index", GraphIndexStatics.VALUES_INDEX_NAME);
@@ -567,6 +663,9 @@ public class MaintainResource extends GraphResource {
 			}
 
 			tx.succeedTx();
+
+			// the cache might have been loaded before
+			NamespacePrefixCache.invalidate(database);
 		} catch (final Exception e) {
 
 			tx.failTx();
@@ -679,15 +778,8 @@ public class MaintainResource extends GraphResource {
 			// create persistent prefix counter with biggest given prefix number + 1
 			biggestPrefixNumber = biggestPrefixNumber + 1;
 
-			final String storeDir = GraphDatabaseUtils.determineMapDBIndexStoreDir(database);
-
-			final Tuple<Atomic.Long, DB> prefixCounterTuple = MapDBUtils
-					.createOrGetPersistentLongIndexGlobalTransactional(storeDir + File.separator + GraphIndexStatics.PREFIX_COUNTER_INDEX_NAME,
-							GraphIndexStatics.PREFIX_COUNTER_INDEX_NAME, biggestPrefixNumber);
-			final DB prefixCounterDB = prefixCounterTuple.v2();
-
-			prefixCounterDB.commit();
-			prefixCounterDB.close();
+			// the prefix counter file is held open by the (process-wide) prefix allocator
+			PrefixAllocator.getInstance(database).initialise(biggestPrefixNumber);
 
 			LOG.info("initialized the prefix counter index with '{}'", biggestPrefixNumber);
 
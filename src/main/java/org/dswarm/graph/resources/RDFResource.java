@@ -42,7 +42,6 @@ import javax.ws.rs.core.StreamingOutput;
 import com.google.common.base.Optional;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.ModelFactory;
 import com.sun.jersey.multipart.BodyPart;
 import com.sun.jersey.multipart.BodyPartEntity;
 import com.sun.jersey.multipart.MultiPart;
@@ -52,6 +51,11 @@ import de.knutwalker.ntparser.model.Statement;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.apache.jena.sparql.core.Quad;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.codehaus.jackson.node.ObjectNode;
 import org.neo4j.graphdb.GraphDatabaseService;
@@ -67,12 +71,13 @@ import org.dswarm.graph.rdf.RDFNeo4jProcessor;
 import org.dswarm.graph.rdf.SimpleRDFNeo4jProcessor;
 import org.dswarm.graph.rdf.export.DataModelRDFExporter;
 import org.dswarm.graph.rdf.export.GraphRDFExporter;
+import org.dswarm.graph.rdf.export.ParallelGraphRDFExporter;
 import org.dswarm.graph.rdf.export.RDFExporter;
 import org.dswarm.graph.rdf.parse.DataModelRDFNeo4jHandler;
-import org.dswarm.graph.rdf.parse.JenaModelParser;
 import org.dswarm.graph.rdf.parse.RDFHandler;
 import org.dswarm.graph.rdf.parse.RDFParser;
 import org.dswarm.graph.rdf.parse.SimpleRDFNeo4jHandler;
+import org.dswarm.graph.rdf.parse.StreamingRDFParser;
 import org.dswarm.graph.rdf.pnx.parse.PNXParser;
 import org.dswarm.graph.rdf.read.PropertyGraphRDFReader;
 import org.dswarm.graph.rdf.read.RDFReader;
@@ -87,6 +92,13 @@ public class RDFResource {
 
 	private static final Logger LOG = LoggerFactory.getLogger(RDFResource.class);
 
+	private static final int STREAMING_EXPORT_BUFFER_SIZE = 65536;
+
+	private static final String N_TRIPLES = "application/n-triples";
+
+	private static final String ERROR_IDENTIFIER                = "error";
+	private static final String COMMITTED_STATEMENTS_IDENTIFIER = "committed_statements";
+
 	/**
 	 * The object mapper that can be utilised to de-/serialise JSON nodes.
 	 */
@@ -106,6 +118,19 @@ public class RDFResource {
 		return "pong";
 	}
 
+	/**
+	 * Writes the RDF statements (serialised as Turtle or N3) of the second body part into the data model of the first body part.
+	 * The statements are written while they are deserialised and the write TX is committed in chunks (see
+	 * {@link org.dswarm.graph.parse.BaseNeo4jHandler}), i.e., if the upload is malformed, the statements of the chunks that were
+	 * already committed remain in the graph db and only the current chunk is rolled back. Hence, the response of a malformed upload
+	 * reports the number of committed statements (see {@link #createMalformedUploadResponse(Exception, RDFHandler)}).
+	 *
+	 * @param multiPart the data model URI and the RDF statements
+	 * @param database the db to write the statements into
+	 * @return 200, if all statements were written, or 400, if the upload is malformed
+	 * @throws DMPGraphException if the statements couldn't be written (completely)
+	 * @throws IOException if the input stream couldn't be closed
+	 */
 	@POST
 	@Path("/put")
 	@Consumes("multipart/mixed")
@@ -118,11 +143,6 @@ public class RDFResource {
 		final BodyPartEntity bpe = (BodyPartEntity) multiPart.getBodyParts().get(1).getEntity();
 		final InputStream rdfInputStream = bpe.getInputStream();
 
-		final Model model = ModelFactory.createDefaultModel();
-		model.read(rdfInputStream, null, "N3");
-
-		RDFResource.LOG.debug("deserialized RDF statements that were serialised as Turtle or N3");
-
 		final TransactionHandler tx = new Neo4jTransactionHandler(database);
 		final NamespaceIndex namespaceIndex = new NamespaceIndex(database, tx);
 
@@ -132,10 +152,13 @@ public class RDFResource {
 
 		final RDFNeo4jProcessor processor = new DataModelRDFNeo4jProcessor(database, tx, namespaceIndex, prefixedDataModelURI);
 
+		RDFHandler handler = null;
+
 		try {
 
-			final RDFHandler handler = new DataModelRDFNeo4jHandler(processor, true);
-			final RDFParser parser = new JenaModelParser(model);
+			handler = new DataModelRDFNeo4jHandler(processor, true);
+			// note: statements (serialised as Turtle or N3) are written while they are deserialised, i.e., the input is never held in memory as a whole
+			final RDFParser parser = new StreamingRDFParser(rdfInputStream, Lang.N3);
 			parser.setRDFHandler(handler);
 			parser.parse();
 
@@ -156,7 +179,14 @@ public class RDFResource {
 				rdfInputStream.close();
 			}
 
-			LOG.error("couldn't write RDF statements into graph db: {}", e.getMessage(), e);
+			LOG.error(
+					"couldn't write RDF statements into graph db for data model URI '{}' ('{}'); statements of already committed TX chunks remain in the graph db: {}",
+					dataModelURI, prefixedDataModelURI, e.getMessage(), e);
+
+			if (isMalformedUpload(e)) {
+
+				return createMalformedUploadResponse(e, handler);
+			}
 
 			throw e;
 		}
@@ -164,6 +194,17 @@ public class RDFResource {
 		return Response.ok().build();
 	}
 
+	/**
+	 * Writes the RDF statements (serialised as Turtle or N3). Like the multipart variant, the write TX is committed in chunks
+	 * while the statements are deserialised, i.e., a malformed upload may be ingested partially (the response reports the number of
+	 * committed statements then).
+	 *
+	 * @param inputStream the RDF statements
+	 * @param database the db to write the statements into
+	 * @return 200, if all statements were written, or 400, if the upload is malformed
+	 * @throws DMPGraphException if the statements couldn't be written (completely)
+	 * @throws IOException if the input stream couldn't be closed
+	 */
 	@POST
 	@Path("/put")
 	@Consumes(MediaType.APPLICATION_OCTET_STREAM)
@@ -171,21 +212,17 @@ public class RDFResource {
 
 		RDFResource.LOG.debug("try to process RDF statements and write them into graph db");
 
-		final Model model = ModelFactory.createDefaultModel();
-		model.read(inputStream, null, "N3");
-
-		RDFResource.LOG.debug("deserialized RDF statements that were serialised as Turtle and N3");
-
-		RDFResource.LOG.debug("try to write RDF statements into graph db");
-
 		final TransactionHandler tx = new Neo4jTransactionHandler(database);
 		final NamespaceIndex namespaceIndex = new NamespaceIndex(database, tx);
 		final RDFNeo4jProcessor processor = new SimpleRDFNeo4jProcessor(database, tx, namespaceIndex);
 
+		RDFHandler handler = null;
+
 		try {
 
-			final RDFHandler handler = new SimpleRDFNeo4jHandler(processor, true);
-			final RDFParser parser = new JenaModelParser(model);
+			handler = new SimpleRDFNeo4jHandler(processor, true);
+			// note: statements (serialised as Turtle or N3) are written while they are deserialised, i.e., the input is never held in memory as a whole
+			final RDFParser parser = new StreamingRDFParser(inputStream, Lang.N3);
 			parser.setRDFHandler(handler);
 			parser.parse();
 
@@ -205,7 +242,13 @@ public class RDFResource {
 				inputStream.close();
 			}
 
-			LOG.error("couldn't write RDF statements into graph db: {}", e.getMessage(), e);
+			LOG.error("couldn't write RDF statements into graph db; statements of already committed TX chunks remain in the graph db: {}",
+					e.getMessage(), e);
+
+			if (isMalformedUpload(e)) {
+
+				return createMalformedUploadResponse(e, handler);
+			}
 
 			throw e;
 		}
@@ -213,6 +256,33 @@ public class RDFResource {
 		return Response.ok().build();
 	}
 
+	private static boolean isMalformedUpload(final Exception e) {
+
+		// note: the streaming RDF parser wraps RIOT parse errors
+		return e instanceof DMPGraphException && e.getCause() instanceof RiotException;
+	}
+
+	/**
+	 * Creates the response of a malformed upload, i.e., a 400 with a JSON object that contains the error message ("error") and the
+	 * number of statements that were already committed and remain in the graph db ("committed_statements"). A client can utilise
+	 * the latter to decide whether it needs to clean up before retrying the upload.
+	 *
+	 * @param e the parse error
+	 * @param handler the handler that wrote the statements (if it could be created)
+	 * @return the response of the malformed upload
+	 * @throws IOException if the JSON object couldn't be serialised
+	 */
+	private Response createMalformedUploadResponse(final Exception e, final RDFHandler handler) throws IOException {
+
+		final long committedStatements = handler != null ? handler.getHandler().getCommittedStatements() : 0;
+
+		final ObjectNode resultJSON = objectMapper.createObjectNode();
+		resultJSON.put(ERROR_IDENTIFIER, e.getMessage());
+		resultJSON.put(COMMITTED_STATEMENTS_IDENTIFIER, committedStatements);
+
+		return Response.status(400).entity(objectMapper.writeValueAsString(resultJSON)).type(MediaType.APPLICATION_JSON_TYPE).build();
+	}
+
 	@POST
 	@Path("/putpnx")
 	@Consumes(MediaType.APPLICATION_OCTET_STREAM)
@@ -376,7 +446,7 @@ public class RDFResource {
 	@POST
 	@Path("/get")
 	@Consumes(MediaType.APPLICATION_JSON)
-	@Produces("application/n-triples")
+	@Produces(N_TRIPLES)
 	public Response readRDF(final String jsonObjectString, @Context final GraphDatabaseService database) throws DMPGraphException {
 
 		RDFResource.LOG.debug("try to read RDF statements from graph db");
@@ -445,7 +515,7 @@ public class RDFResource {
 			}
 		};
 
-		return Response.ok(stream, "application/n-triples").build();
+		return Response.ok(stream, N_TRIPLES).build();
 	}
 
 	/**
@@ -455,15 +525,18 @@ public class RDFResource {
 	 *
 	 * @param database the db to export the data from
 	 * @param exportFormat serialization format all data should be serialized in, injected from accept header field
+	 * @param parallelism the number of workers that export partitions of the graph concurrently (default: 1, i.e., no partitions; only
+	 *            utilised for N-Quads; at most the number of available processors)
 	 * @return all data models serialized in exportLanguage
 	 * @throws DMPGraphException in case exportFormat can not be converted to {@link MediaType}
 	 */
 	@GET
 	// SR TODO rename to /exportall
 	@Path("/getall")
-	@Produces({ MediaTypeUtil.N_QUADS, MediaTypeUtil.TRIG })
+	@Produces({ MediaTypeUtil.N_QUADS, MediaTypeUtil.TRIG, N_TRIPLES })
 	public Response exportAllRDFForDownload(@Context final GraphDatabaseService database,
-			@HeaderParam("Accept") @DefaultValue(MediaTypeUtil.N_QUADS) final String exportFormat) throws DMPGraphException {
+			@HeaderParam("Accept") @DefaultValue(MediaTypeUtil.N_QUADS) final String exportFormat,
+			@QueryParam("parallelism") @DefaultValue("1") final int parallelism) throws DMPGraphException {
 
 		RDFResource.LOG.debug("Start processing request to export all rdf data to format \"{}\"", exportFormat);
 
@@ -481,6 +554,22 @@ public class RDFResource {
 		final String fileExtension = exportLanguage.getFileExtensions().get(0);
 		RDFResource.LOG.debug("Exporting rdf data to {}", formatType);
 
+		if (parallelism > 1 && ParallelGraphRDFExporter.canConcatenate(exportLanguage)) {
+
+			final StreamingOutput stream = exportAllRDFPartitioned(database, exportLanguage, parallelism);
+
+			return Response.ok(stream).type(formatType.toString())
+					.header("Content-Disposition", "attachment; filename*=UTF-8''rdf_export." + fileExtension).build();
+		}
+
+		if (isStreamingExportLanguage(exportLanguage)) {
+
+			final StreamingOutput stream = exportAllRDFStreaming(database, exportLanguage);
+
+			return Response.ok(stream).type(formatType.toString())
+					.header("Content-Disposition", "attachment; filename*=UTF-8''rdf_export." + fileExtension).build();
+		}
+
 		final Optional<String> result = exportAllRDFInternal(database, exportLanguage);
 
 		if (result.isPresent()) {
@@ -512,7 +601,7 @@ public class RDFResource {
 	 */
 	@GET
 	@Path("/export")
-	@Produces({ MediaTypeUtil.N_QUADS, MediaTypeUtil.RDF_XML, MediaTypeUtil.TRIG, MediaTypeUtil.TURTLE, MediaTypeUtil.N3 })
+	@Produces({ MediaTypeUtil.N_QUADS, MediaTypeUtil.RDF_XML, MediaTypeUtil.TRIG, MediaTypeUtil.TURTLE, MediaTypeUtil.N3, N_TRIPLES })
 	public Response exportSingleRDFForDownload(@Context final GraphDatabaseService database,
 			@HeaderParam("Accept") @DefaultValue(MediaTypeUtil.N_QUADS) final String exportFormat,
 			@QueryParam("data_model_uri") final String dataModelURI) throws DMPGraphException {
@@ -533,6 +622,14 @@ public class RDFResource {
 		final String fileExtension = exportLanguage.getFileExtensions().get(0);
 		RDFResource.LOG.debug("Interpreting requested format \"{}\" as \"{}\"", exportFormat, formatType);
 
+		if (isStreamingExportLanguage(exportLanguage)) {
+
+			final StreamingOutput stream = exportSingleRDFStreaming(database, exportLanguage, dataModelURI);
+
+			return Response.ok(stream).type(formatType.toString())
+					.header("Content-Disposition", "attachment; filename*=UTF-8''rdf_export." + fileExtension).build();
+		}
+
 		// export and serialize data
 		final Optional<String> result = exportSingleRDFInternal(database, exportLanguage, dataModelURI);
 
@@ -550,6 +647,137 @@ public class RDFResource {
 		}
 	}
 
+	/**
+	 * line-based formats can be serialized statement by statement, i.e., they don't need an in-memory dataset for the export
+	 *
+	 * @param exportLanguage the language the data should be serialized in
+	 * @return true, if the data can be exported in a streaming manner
+	 */
+	private static boolean isStreamingExportLanguage(final Lang exportLanguage) {
+
+		return Lang.NQUADS.equals(exportLanguage) || Lang.NTRIPLES.equals(exportLanguage);
+	}
+
+	/**
+	 * @param database the db to export the data from
+	 * @param exportLanguage a line-based language the data should be serialized in
+	 * @param dataModelURI db internal identifier of the data model
+	 * @return a single data model, serialized in exportLanguage, while it is read from the db
+	 */
+	private StreamingOutput exportSingleRDFStreaming(final GraphDatabaseService database, final Lang exportLanguage, final String dataModelURI)
+			throws DMPGraphException {
+
+		final TransactionHandler tx = new Neo4jTransactionHandler(database);
+		final NamespaceIndex namespaceIndex = new NamespaceIndex(database, tx);
+
+		RDFResource.LOG.debug("try to stream all RDF statements for dataModelURI \"{}\" from graph db to format \"{}\"", dataModelURI,
+				exportLanguage.getLabel());
+
+		final RDFExporter rdfExporter = new DataModelRDFExporter(database, dataModelURI, tx, namespaceIndex);
+
+		// a single data model is serialized without graph (as it was done via the exported model)
+		return createStreamingExport(rdfExporter, exportLanguage, true);
+	}
+
+	/**
+	 * @param database the db to export the data from
+	 * @param exportLanguage a line-based language all data should be serialized in
+	 * @return all data models serialized in exportLanguage, while they are read from the db
+	 */
+	private StreamingOutput exportAllRDFStreaming(final GraphDatabaseService database, final Lang exportLanguage) throws DMPGraphException {
+
+		RDFResource.LOG.debug("try to stream all RDF statements (one graph = one data resource/model) from graph db to format \"{}\"",
+				exportLanguage.getLabel());
+
+		final TransactionHandler tx = new Neo4jTransactionHandler(database);
+		final NamespaceIndex namespaceIndex = new NamespaceIndex(database, tx);
+		final RDFExporter rdfExporter = new GraphRDFExporter(database, tx, namespaceIndex);
+
+		// note: N-Triples can't carry graphs, i.e., all data models are serialized into the default graph
+		return createStreamingExport(rdfExporter, exportLanguage, Lang.NTRIPLES.equals(exportLanguage));
+	}
+
+	/**
+	 * @param database the db to export the data from
+	 * @param exportLanguage a language all data should be serialized in, whose serialized partitions can be concatenated
+	 * @param parallelism the number of workers
+	 * @return all data models serialized in exportLanguage, while they are read from the db
+	 */
+	private StreamingOutput exportAllRDFPartitioned(final GraphDatabaseService database, final Lang exportLanguage, final int parallelism) {
+
+		RDFResource.LOG.debug("try to export all RDF statements (one graph = one data resource/model) from graph db to format \"{}\" with '{}' workers",
+				exportLanguage.getLabel(), parallelism);
+
+		final TransactionHandler tx = new Neo4jTransactionHandler(database);
+		final NamespaceIndex namespaceIndex = new NamespaceIndex(database, tx);
+		final ParallelGraphRDFExporter rdfExporter = new ParallelGraphRDFExporter(database, tx, namespaceIndex, exportLanguage, parallelism);
+
+		return new StreamingOutput() {
+
+			@Override
+			public void write(final OutputStream os) throws IOException, WebApplicationException {
+
+				final BufferedOutputStream bos = new BufferedOutputStream(os, STREAMING_EXPORT_BUFFER_SIZE);
+
+				try {
+
+					rdfExporter.stream(bos);
+				} catch (final DMPGraphException e) {
+
+					throw new WebApplicationException(e);
+				}
+
+				RDFResource.LOG
+						.debug("finished exporting RDF statements from graph db in partitions (processed statements = '{}' (successfully processed statements = '{}'), cache hit ratio = '{}')",
+								rdfExporter.processedStatements(), rdfExporter.successfullyProcessedStatements(), rdfExporter.cacheHitRatio());
+			}
+		};
+	}
+
+	private static StreamingOutput createStreamingExport(final RDFExporter rdfExporter, final Lang exportLanguage, final boolean withoutGraphs) {
+
+		return new StreamingOutput() {
+
+			@Override
+			public void write(final OutputStream os) throws IOException, WebApplicationException {
+
+				final BufferedOutputStream bos = new BufferedOutputStream(os, STREAMING_EXPORT_BUFFER_SIZE);
+				final StreamRDF writerStream = StreamRDFWriter.getWriterStream(bos, exportLanguage);
+				final StreamRDF exportStream;
+
+				if (withoutGraphs) {
+
+					exportStream = new StreamRDFWrapper(writerStream) {
+
+						@Override
+						public void quad(final Quad quad) {
+
+							other.triple(quad.asTriple());
+						}
+					};
+				} else {
+
+					exportStream = writerStream;
+				}
+
+				try {
+
+					rdfExporter.export(exportStream);
+				} catch (final DMPGraphException e) {
+
+					throw new WebApplicationException(e);
+				}
+
+				bos.flush();
+
+				RDFResource.LOG
+						.debug("finished streaming {} RDF statements from graph db (processed statements = '{}' (successfully processed statements = '{}'), cache hit ratio = '{}')",
+								rdfExporter.countStatements(), rdfExporter.processedStatements(), rdfExporter.successfullyProcessedStatements(),
+								rdfExporter.cacheHitRatio());
+			}
+		};
+	}
+
 	/**
 	 * @param database the db to export the data from
 	 * @param exportLanguage the language the data should be serialized in
@@ -581,9 +809,9 @@ public class RDFResource {
 			final String result = writer.toString();
 
 			RDFResource.LOG
-					.debug("finished exporting {} RDF statements from graph db (processed statements = '{}' (successfully processed statements = '{}')) for data model '{}' ('{}')",
+					.debug("finished exporting {} RDF statements from graph db (processed statements = '{}' (successfully processed statements = '{}'), cache hit ratio = '{}') for data model '{}' ('{}')",
 							rdfExporter.countStatements(), rdfExporter.processedStatements(), rdfExporter.successfullyProcessedStatements(),
-							dataModelURI, prefixedDataModelURI);
+							rdfExporter.cacheHitRatio(), dataModelURI, prefixedDataModelURI);
 
 			// LOG.debug("exported result:\n" + result);
 
@@ -616,8 +844,9 @@ public class RDFResource {
 			final String result = writer.toString();
 
 			RDFResource.LOG
-					.debug("finished exporting {} RDF statements from graph db (processed statements = '{}' (successfully processed statements = '{}'))",
-							rdfExporter.countStatements(), rdfExporter.processedStatements(), rdfExporter.successfullyProcessedStatements());
+					.debug("finished exporting {} RDF statements from graph db (processed statements = '{}' (successfully processed statements = '{}'), cache hit ratio = '{}')",
+							rdfExporter.countStatements(), rdfExporter.processedStatements(), rdfExporter.successfullyProcessedStatements(),
+							rdfExporter.cacheHitRatio());
 
 			return Optional.of(result);
 		}
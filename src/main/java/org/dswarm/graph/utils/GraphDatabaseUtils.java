@@ -43,9 +43,16 @@ public final class GraphDatabaseUtils {
 	private static final String KERNEL = "Kernel";
 	private static final String STORE_DIR     = "StoreDirectory";
 
-	public static String determineMapDBIndexStoreDir(final GraphDatabaseService database) {
+	private static final String DMP_GRAPH_PROPERTIES = "dmpgraph.properties";
+
+	/**
+	 * Loads the d:swarm graph extension configuration (dmpgraph.properties). Missing properties result in empty properties.
+	 *
+	 * @return the d:swarm graph extension configuration
+	 */
+	public static Properties loadDMPGraphProperties() {
 
-		final URL resource = Resources.getResource("dmpgraph.properties");
+		final URL resource = Resources.getResource(DMP_GRAPH_PROPERTIES);
 		final Properties properties = new Properties();
 
 		try {
@@ -53,9 +60,38 @@ public final class GraphDatabaseUtils {
 			properties.load(resource.openStream());
 		} catch (final IOException e) {
 
-			LOG.error("Could not load dmpgraph.properties", e);
+			LOG.error("Could not load {}", DMP_GRAPH_PROPERTIES, e);
 		}
 
+		return properties;
+	}
+
+	/**
+	 * Bounds a requested degree of parallelism (e.g., of a request) by the number of available processors, i.e., a request can't spawn
+	 * arbitrary many worker threads.
+	 *
+	 * @param requestedParallelism the requested number of workers
+	 * @return the number of workers that should be utilised (at least 1)
+	 */
+	public static int boundParallelism(final int requestedParallelism) {
+
+		final int availableProcessors = Runtime.getRuntime().availableProcessors();
+
+		if (requestedParallelism > availableProcessors) {
+
+			LOG.debug("requested parallelism of '{}' exceeds the number of available processors; utilise '{}' workers", requestedParallelism,
+					availableProcessors);
+
+			return availableProcessors;
+		}
+
+		return Math.max(1, requestedParallelism);
+	}
+
+	public static String determineMapDBIndexStoreDir(final GraphDatabaseService database) {
+
+		final Properties properties = loadDMPGraphProperties();
+
 		final String indexStoreDir = properties.getProperty("index_store_dir");
 
 		// TODO: find a better way to determine the store dir for the statement index
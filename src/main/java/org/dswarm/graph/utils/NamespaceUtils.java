@@ -18,9 +18,8 @@ package org.dswarm.graph.utils;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
-import org.mapdb.Atomic;
-import org.mapdb.DB;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
 import org.slf4j.Logger;
@@ -30,6 +29,8 @@ import org.dswarm.common.types.Tuple;
 import org.dswarm.common.web.URI;
 import org.dswarm.graph.DMPGraphException;
 import org.dswarm.graph.GraphProcessingStatics;
+import org.dswarm.graph.index.NamespacePrefixCache;
+import org.dswarm.graph.index.PrefixAllocator;
 import org.dswarm.graph.model.GraphStatics;
 import org.dswarm.graph.tx.TransactionHandler;
 
@@ -45,8 +46,8 @@ public class NamespaceUtils {
 	public static final  String PREFIX_DELIMTER_STRING = String.valueOf(PREFIX_DELIMITER);
 
 	public static String createPrefixedURI(final String fullURI, final Map<String, String> uriPrefixedURIMap,
-			final Map<String, String> tempNamespacePrefixes, final Map<String, String> inMemoryNamespacePrefixes,
-			final Tuple<Atomic.Long, DB> prefixCounterTuple, final GraphDatabaseService database,
+			final Map<String, String> tempNamespacePrefixes, final NamespacePrefixCache namespacePrefixCache,
+			final Supplier<PrefixAllocator> prefixAllocatorSupplier, final GraphDatabaseService database,
 			final TransactionHandler tx)
 			throws DMPGraphException {
 
@@ -59,7 +60,7 @@ public class NamespaceUtils {
 
 			if (!uriPrefixedURIMap.containsKey(fullURI)) {
 
-				final String prefixedURI = determinePrefixedURI(fullURI, tempNamespacePrefixes, inMemoryNamespacePrefixes, prefixCounterTuple,
+				final String prefixedURI = determinePrefixedURI(fullURI, tempNamespacePrefixes, namespacePrefixCache, prefixAllocatorSupplier,
 						database, tx);
 
 				uriPrefixedURIMap.put(fullURI, prefixedURI);
@@ -68,11 +69,12 @@ public class NamespaceUtils {
 			return uriPrefixedURIMap.get(fullURI);
 		} else {
 
-			return determinePrefixedURI(fullURI, tempNamespacePrefixes, inMemoryNamespacePrefixes, prefixCounterTuple, database, tx);
+			return determinePrefixedURI(fullURI, tempNamespacePrefixes, namespacePrefixCache, prefixAllocatorSupplier, database, tx);
 		}
 	}
 
-	public static String createFullURI(final String prefixedURI, final Map<String, String> prefixedURIURIMap, final GraphDatabaseService database,
+	public static String createFullURI(final String prefixedURI, final Map<String, String> prefixedURIURIMap,
+			final Map<String, String> tempNamespacePrefixes, final NamespacePrefixCache namespacePrefixCache, final GraphDatabaseService database,
 			final TransactionHandler tx) throws DMPGraphException {
 
 		if (prefixedURI == null) {
@@ -84,7 +86,7 @@ public class NamespaceUtils {
 
 			if (!prefixedURIURIMap.containsKey(prefixedURI)) {
 
-				final String fullURI = determineFullURI(prefixedURI, database, tx);
+				final String fullURI = determineFullURI(prefixedURI, tempNamespacePrefixes, namespacePrefixCache, database, tx);
 
 				prefixedURIURIMap.put(prefixedURI, fullURI);
 			}
@@ -92,12 +94,12 @@ public class NamespaceUtils {
 			return prefixedURIURIMap.get(prefixedURI);
 		} else {
 
-			return determineFullURI(prefixedURI, database, tx);
+			return determineFullURI(prefixedURI, tempNamespacePrefixes, namespacePrefixCache, database, tx);
 		}
 	}
 
 	public static String getPrefix(final String namespace, final Map<String, String> tempNamespacesPrefixesMap,
-			final Map<String, String> inMemoryNamespacesPrefixesMap, final Tuple<Atomic.Long, DB> prefixCounterTuple,
+			final NamespacePrefixCache namespacePrefixCache, final Supplier<PrefixAllocator> prefixAllocatorSupplier,
 			final GraphDatabaseService database, final TransactionHandler tx)
 			throws DMPGraphException {
 
@@ -111,9 +113,14 @@ public class NamespaceUtils {
 			return tempNamespacesPrefixesMap.get(namespace);
 		}
 
-		if (inMemoryNamespacesPrefixesMap != null && inMemoryNamespacesPrefixesMap.containsKey(namespace)) {
+		if (namespacePrefixCache != null) {
 
-			return inMemoryNamespacesPrefixesMap.get(namespace);
+			final String cachedPrefix = namespacePrefixCache.getPrefix(namespace);
+
+			if (cachedPrefix != null) {
+
+				return cachedPrefix;
+			}
 		}
 
 		try {
@@ -126,16 +133,16 @@ public class NamespaceUtils {
 
 				final String prefix = (String) optionalNode.get().getProperty(GraphProcessingStatics.PREFIX_PROPERTY);
 
-				if (inMemoryNamespacesPrefixesMap != null) {
+				if (namespacePrefixCache != null) {
 
-					// cache in-memory
-					inMemoryNamespacesPrefixesMap.put(namespace, prefix);
+					// (committed) prefix node, i.e., it can be cached for the whole process
+					namespacePrefixCache.put(namespace, prefix);
 				}
 
 				return prefix;
 			}
 
-			final long currentPrefixCount = getNewPrefixCount(prefixCounterTuple);
+			final long currentPrefixCount = prefixAllocatorSupplier.get().nextPrefixNumber();
 			final String prefix = NAMESPACE_PREFIX_BASE + currentPrefixCount;
 
 			if (tempNamespacesPrefixesMap != null) {
@@ -199,8 +206,8 @@ public class NamespaceUtils {
 	}
 
 	public static String determinePrefixedURI(final String fullURI, final Map<String, String> tempNamespacePrefixes,
-			final Map<String, String> inMemoryNamespacePrefixes, final Tuple<Atomic.Long, DB> prefixCounterTuple, final GraphDatabaseService database,
-			final TransactionHandler tx)
+			final NamespacePrefixCache namespacePrefixCache, final Supplier<PrefixAllocator> prefixAllocatorSupplier,
+			final GraphDatabaseService database, final TransactionHandler tx)
 			throws DMPGraphException {
 
 		final Tuple<String, String> uriParts = URI.determineParts(fullURI);
@@ -208,12 +215,13 @@ public class NamespaceUtils {
 		final String localName = uriParts.v2();
 
 		final String prefix = NamespaceUtils
-				.getPrefix(namespaceURI, tempNamespacePrefixes, inMemoryNamespacePrefixes, prefixCounterTuple, database, tx);
+				.getPrefix(namespaceURI, tempNamespacePrefixes, namespacePrefixCache, prefixAllocatorSupplier, database, tx);
 
 		return prefix + NamespaceUtils.PREFIX_DELIMITER + localName;
 	}
 
-	public static String determineFullURI(final String prefixedURI, final GraphDatabaseService database, final TransactionHandler tx)
+	public static String determineFullURI(final String prefixedURI, final Map<String, String> tempNamespacePrefixes,
+			final NamespacePrefixCache namespacePrefixCache, final GraphDatabaseService database, final TransactionHandler tx)
 			throws DMPGraphException {
 
 		final String[] splittedPrefixedURI = prefixedURI.split(PREFIX_DELIMTER_STRING);
@@ -226,20 +234,44 @@ public class NamespaceUtils {
 		final String prefix = splittedPrefixedURI[0];
 		final String localName = splittedPrefixedURI[1];
 
-		final String namespace = getNamespace(prefix, database, tx);
+		final String namespace = getNamespace(prefix, tempNamespacePrefixes, namespacePrefixCache, database, tx);
 
 		return namespace + localName;
 	}
 
-	private static long getNewPrefixCount(final Tuple<Atomic.Long, DB> prefixCounterTuple) {
+	private static String getNamespace(final String prefix, final Map<String, String> tempNamespacePrefixes,
+			final NamespacePrefixCache namespacePrefixCache, final GraphDatabaseService database, final TransactionHandler tx)
+			throws DMPGraphException {
+
+		if (namespacePrefixCache != null) {
+
+			final String cachedNamespace = namespacePrefixCache.getNamespace(prefix);
+
+			if (cachedNamespace != null) {
+
+				return cachedNamespace;
+			}
+		}
+
+		if (tempNamespacePrefixes != null) {
 
-		final Atomic.Long prefixCounter = prefixCounterTuple.v1();
-		final DB prefixCounterDB = prefixCounterTuple.v2();
+			// new (not committed) namespace prefixes
+			for (final Map.Entry<String, String> entry : tempNamespacePrefixes.entrySet()) {
 
-		final long prefixCount = prefixCounter.getAndIncrement();
+				if (entry.getValue().equals(prefix)) {
 
-		prefixCounterDB.commit();
+					return entry.getKey();
+				}
+			}
+		}
+
+		final String namespace = getNamespace(prefix, database, tx);
+
+		if (namespacePrefixCache != null) {
+
+			namespacePrefixCache.put(namespace, prefix);
+		}
 
-		return prefixCount;
+		return namespace;
 	}
 }
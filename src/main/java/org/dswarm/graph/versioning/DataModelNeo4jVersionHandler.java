@@ -90,6 +90,12 @@ public class DataModelNeo4jVersionHandler extends Neo4jVersionHandler {
 
 				latestVersion = latestVersionFromDB;
 			}
+
+			// data models that were created without marking historic statements keep on relying on the version properties only
+			marksHistoricStatements = Boolean.TRUE.equals(dataModelNode.getProperty(VersioningStatics.MARKS_HISTORIC_STATEMENTS_PROPERTY, null));
+		} else {
+
+			marksHistoricStatements = VersioningStatics.markHistoricStatements();
 		}
 
 		return latestVersion;
@@ -39,6 +39,8 @@ public abstract class Neo4jVersionHandler implements VersionHandler {
 
 	protected int latestVersion;
 
+	protected boolean marksHistoricStatements = false;
+
 	private Range range;
 
 	protected final BasicNeo4jProcessor processor;
@@ -63,6 +65,12 @@ public abstract class Neo4jVersionHandler implements VersionHandler {
 		return range;
 	}
 
+	@Override
+	public boolean marksHistoricStatements() {
+
+		return marksHistoricStatements;
+	}
+
 	protected void init() {
 
 		final int currentLatestVersion = retrieveLatestVersion();
@@ -112,6 +120,11 @@ public abstract class Neo4jVersionHandler implements VersionHandler {
 			dataModelNode.setProperty(GraphStatics.DATA_MODEL_PROPERTY, VersioningStatics.VERSIONING_DATA_MODEL_URI);
 			dataModelNode.setProperty(VersioningStatics.LATEST_VERSION_PROPERTY, range.from());
 
+			if (marksHistoricStatements) {
+
+				dataModelNode.setProperty(VersioningStatics.MARKS_HISTORIC_STATEMENTS_PROPERTY, Boolean.TRUE);
+			}
+
 			processor.addNodeToResourcesWDataModelIndex(dataModelURI, resourceUriDataModelUriHash, dataModelNode);
 
 			latestVersionInitialized = true;
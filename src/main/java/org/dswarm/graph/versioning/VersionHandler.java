@@ -32,4 +32,10 @@ public interface VersionHandler {
 	void updateLatestVersion() throws DMPGraphException;
 
 	Range getRange();
+
+	/**
+	 * @return true, if deprecated statements of this data model are additionally marked at their subject nodes (see
+	 * {@link VersioningStatics#HISTORIC_STATEMENTS_PROPERTY})
+	 */
+	boolean marksHistoricStatements();
 }
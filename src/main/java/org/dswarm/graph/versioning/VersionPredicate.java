@@ -0,0 +1,81 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.versioning;
+
+import java.util.function.Predicate;
+
+import org.neo4j.graphdb.PropertyContainer;
+
+/**
+ * Checks whether a statement (relationship) is valid in a given version, i.e., whether the version is in [valid from, valid to). The
+ * check compares the version properties directly (no range object per statement). Statements without (complete) version properties are
+ * always valid.
+ *
+ * @author tgaengler
+ */
+public final class VersionPredicate implements Predicate<PropertyContainer> {
+
+	private final int version;
+
+	public VersionPredicate(final int versionArg) {
+
+		version = versionArg;
+	}
+
+	public int getVersion() {
+
+		return version;
+	}
+
+	@Override
+	public boolean test(final PropertyContainer propertyContainer) {
+
+		return isValid(propertyContainer, version);
+	}
+
+	public static boolean isValid(final PropertyContainer propertyContainer, final int version) {
+
+		final Object validFrom = propertyContainer.getProperty(VersioningStatics.VALID_FROM_PROPERTY, null);
+
+		// TODO: require non null later, when every stmt is versioned
+		if (validFrom == null) {
+
+			return true;
+		}
+
+		final Object validTo = propertyContainer.getProperty(VersioningStatics.VALID_TO_PROPERTY, null);
+
+		return validTo == null || contains((Integer) validFrom, (Integer) validTo, version);
+	}
+
+	/**
+	 * @param propertyContainer a statement (relationship)
+	 * @return true, if the statement is valid in the current version range, i.e., in the latest version and every following one (open
+	 * upper bound, see {@link Range#range(int)}); deprecated statements aren't
+	 */
+	public static boolean isCurrent(final PropertyContainer propertyContainer) {
+
+		final Object validTo = propertyContainer.getProperty(VersioningStatics.VALID_TO_PROPERTY, null);
+
+		return validTo == null || (Integer) validTo == Integer.MAX_VALUE;
+	}
+
+	public static boolean contains(final int validFrom, final int validTo, final int version) {
+
+		return version >= validFrom && version < validTo;
+	}
+}
@@ -28,4 +28,29 @@ public final class VersioningStatics {
 	public static final String DATA_MODEL_TYPE = "avgl:DataModel";
 	//public static final String VERSIONING_DATA_MODEL_URI = "http://avantgarde-labs.de/datamodels/versioning";
 	public static final String VERSIONING_DATA_MODEL_URI = "avgl-datamodels:versioning";
+
+	/**
+	 * node property that holds the (sorted) ids of the deprecated outgoing relationships (statements) of a node (written once per
+	 * transaction; ids that are reused for new statements are removed again)
+	 */
+	public static final String HISTORIC_STATEMENTS_PROPERTY = "historic_statements";
+
+	/**
+	 * data model node property that flags whether the historic statements of a data model are marked at their subject nodes
+	 */
+	public static final String MARKS_HISTORIC_STATEMENTS_PROPERTY = "marks_historic_statements";
+
+	/**
+	 * opt-in for marking historic statements of newly created data models, e.g., -Ddswarm.graph.versioning.mark_historic_statements=true
+	 */
+	public static final String MARK_HISTORIC_STATEMENTS_SYSTEM_PROPERTY = "dswarm.graph.versioning.mark_historic_statements";
+
+	/**
+	 * @return true, if the historic statements of newly created data models should be marked (see
+	 * {@link #MARK_HISTORIC_STATEMENTS_SYSTEM_PROPERTY})
+	 */
+	public static boolean markHistoricStatements() {
+
+		return Boolean.getBoolean(MARK_HISTORIC_STATEMENTS_SYSTEM_PROPERTY);
+	}
 }
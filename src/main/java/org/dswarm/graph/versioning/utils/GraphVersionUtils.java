@@ -16,8 +16,11 @@
  */
 package org.dswarm.graph.versioning.utils;
 
+import java.util.Arrays;
+
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
 
 import org.dswarm.graph.GraphProcessingStatics;
 import org.dswarm.graph.hash.HashUtils;
@@ -40,9 +43,7 @@ public final class GraphVersionUtils {
 
 		int latestVersion = 1;
 
-		final long resourceUriDataModelUriHash = HashUtils.generateHash(dataModelUri + VersioningStatics.VERSIONING_DATA_MODEL_URI);
-
-		final Node dataModelNode = database.findNode(GraphProcessingStatics.RESOURCE_LABEL, GraphStatics.HASH, resourceUriDataModelUriHash);
+		final Node dataModelNode = getDataModelNode(dataModelUri, database);
 
 		if (dataModelNode != null) {
 
@@ -56,4 +57,146 @@ public final class GraphVersionUtils {
 
 		return latestVersion;
 	}
+
+	/**
+	 * note: must be in transaction scope
+	 *
+	 * @param dataModelUri
+	 * @param database
+	 * @return true, if the historic statements of the given data model are marked at their subject nodes
+	 */
+	public static boolean marksHistoricStatements(final String dataModelUri, final GraphDatabaseService database) {
+
+		final Node dataModelNode = getDataModelNode(dataModelUri, database);
+
+		return dataModelNode != null && Boolean.TRUE.equals(dataModelNode.getProperty(VersioningStatics.MARKS_HISTORIC_STATEMENTS_PROPERTY, null));
+	}
+
+	/**
+	 * Marks the given statements as historic at their (common) subject node, i.e., they are merged into the sorted ids of the historic
+	 * statements of this node in one go (instead of growing the id array per statement).<br/>
+	 * note: must be in transaction scope
+	 *
+	 * @param subject            the subject node of the given statements
+	 * @param historicStatements the ids of the deprecated statements (unsorted; may contain duplicates; will be sorted)
+	 * @param size               the number of ids in the given array
+	 */
+	public static void markHistoricStatements(final Node subject, final long[] historicStatements, final int size) {
+
+		if (size == 0) {
+
+			return;
+		}
+
+		Arrays.sort(historicStatements, 0, size);
+
+		final long[] markedStatements = getHistoricStatements(subject);
+		final int markedSize = markedStatements != null ? markedStatements.length : 0;
+		final long[] mergedStatements = new long[markedSize + size];
+
+		int i = 0;
+		int j = 0;
+		int k = 0;
+
+		while (i < markedSize || j < size) {
+
+			final long next;
+
+			if (j >= size || (i < markedSize && markedStatements[i] <= historicStatements[j])) {
+
+				next = markedStatements[i++];
+			} else {
+
+				next = historicStatements[j++];
+			}
+
+			if (k == 0 || mergedStatements[k - 1] != next) {
+
+				mergedStatements[k++] = next;
+			}
+		}
+
+		if (k == markedSize) {
+
+			// all statements were already marked as historic
+			return;
+		}
+
+		subject.setProperty(VersioningStatics.HISTORIC_STATEMENTS_PROPERTY,
+				k == mergedStatements.length ? mergedStatements : Arrays.copyOf(mergedStatements, k));
+	}
+
+	/**
+	 * Removes the given (new) statement from the historic statements of its subject node, i.e., relationship ids that are reused by Neo4j
+	 * (after the historic statement was deleted) are not misreported as historic.<br/>
+	 * note: must be in transaction scope
+	 *
+	 * @param rel a new statement
+	 */
+	public static void unmarkHistoricStatement(final Relationship rel) {
+
+		final Node subject = rel.getStartNode();
+		final long[] historicStatements = getHistoricStatements(subject);
+
+		if (historicStatements == null) {
+
+			return;
+		}
+
+		final int position = Arrays.binarySearch(historicStatements, rel.getId());
+
+		if (position < 0) {
+
+			return;
+		}
+
+		if (historicStatements.length == 1) {
+
+			subject.removeProperty(VersioningStatics.HISTORIC_STATEMENTS_PROPERTY);
+
+			return;
+		}
+
+		final long[] newHistoricStatements = new long[historicStatements.length - 1];
+
+		System.arraycopy(historicStatements, 0, newHistoricStatements, 0, position);
+		System.arraycopy(historicStatements, position + 1, newHistoricStatements, position, historicStatements.length - position - 1);
+
+		subject.setProperty(VersioningStatics.HISTORIC_STATEMENTS_PROPERTY, newHistoricStatements);
+	}
+
+	/**
+	 * note: must be in transaction scope
+	 *
+	 * @param node a subject node
+	 * @return the (sorted) ids of the historic statements of the given node or null, if there are none
+	 */
+	public static long[] getHistoricStatements(final Node node) {
+
+		return (long[]) node.getProperty(VersioningStatics.HISTORIC_STATEMENTS_PROPERTY, null);
+	}
+
+	/**
+	 * @param historicStatements the (sorted) ids of the historic statements of a node (may be null)
+	 * @param rel                an outgoing relationship of this node
+	 * @return true, if the given statement is marked as historic
+	 */
+	public static boolean isHistoricStatement(final long[] historicStatements, final Relationship rel) {
+
+		return historicStatements != null && Arrays.binarySearch(historicStatements, rel.getId()) >= 0;
+	}
+
+	/**
+	 * note: must be in transaction scope
+	 *
+	 * @param dataModelUri
+	 * @param database
+	 * @return the data model node of the given data model or null, if there is none (yet)
+	 */
+	public static Node getDataModelNode(final String dataModelUri, final GraphDatabaseService database) {
+
+		final long resourceUriDataModelUriHash = HashUtils.generateHash(dataModelUri + VersioningStatics.VERSIONING_DATA_MODEL_URI);
+
+		return database.findNode(GraphProcessingStatics.RESOURCE_LABEL, GraphStatics.HASH, resourceUriDataModelUriHash);
+	}
 }
@@ -39,7 +39,6 @@ import org.neo4j.graphdb.DynamicLabel;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Node;
-import org.neo4j.graphdb.PropertyContainer;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.ResourceIterator;
 import org.slf4j.Logger;
@@ -59,8 +58,7 @@ import org.dswarm.graph.json.NodeType;
 import org.dswarm.graph.json.Predicate;
 import org.dswarm.graph.model.GraphStatics;
 import org.dswarm.graph.tx.TransactionHandler;
-import org.dswarm.graph.versioning.Range;
-import org.dswarm.graph.versioning.VersioningStatics;
+import org.dswarm.graph.versioning.VersionPredicate;
 import org.dswarm.graph.versioning.utils.GraphVersionUtils;
 
 /**
@@ -112,6 +110,11 @@ public class PropertyGraphXMLReader implements XMLReader {
 
 	private final boolean allVersions;
 
+	/**
+	 * true, if the latest version of a data model that marks its historic statements is read
+	 */
+	private final boolean historicStatementsMarked;
+
 	private final boolean originalDataTypeIsXML;
 
 	private boolean isElementOpen = false;
@@ -145,10 +148,12 @@ public class PropertyGraphXMLReader implements XMLReader {
 
 			version = -1;
 			allVersions = true;
+			historicStatementsMarked = false;
 		} else if (optionalVersionArg.isPresent()) {
 
 			version = optionalVersionArg.get();
 			allVersions  = false;
+			historicStatementsMarked = false;
 		} else {
 
 			allVersions = false;
@@ -160,6 +165,7 @@ public class PropertyGraphXMLReader implements XMLReader {
 			try {
 
 				version = GraphVersionUtils.getLatestVersion(dataModelUri, database);
+				historicStatementsMarked = GraphVersionUtils.marksHistoricStatements(dataModelUri, database);
 			} catch (final Exception e) {
 
 				final String message = "couldn't retrieve latest version successfully";
@@ -412,20 +418,6 @@ public class PropertyGraphXMLReader implements XMLReader {
 		return recordCount;
 	}
 
-	private static boolean hasValidVersion(final Integer version, final PropertyContainer relationship) {
-
-		final Integer validFrom = (Integer) relationship.getProperty(VersioningStatics.VALID_FROM_PROPERTY, null);
-
-		// TODO: require non null later, when every stmt is versioned
-		if (validFrom == null) {
-			return true;
-		}
-
-		final Integer validTo = (Integer) relationship.getProperty(VersioningStatics.VALID_TO_PROPERTY, null);
-
-		return validTo == null || Range.range(validFrom, validTo).contains(version);
-	}
-
 	private static Iterable<Relationship> getSortedOutgoings(final Node node) {
 
 		final Iterable<Relationship> relationships = node.getRelationships(Direction.OUTGOING);
@@ -446,6 +438,21 @@ public class PropertyGraphXMLReader implements XMLReader {
 		return sortedRels;
 	}
 
+	private boolean isCurrentStatement(final Relationship relationship, final long[] historicStatements) {
+
+		if (allVersions) {
+
+			return true;
+		}
+
+		if (historicStatementsMarked) {
+
+			return !GraphVersionUtils.isHistoricStatement(historicStatements, relationship);
+		}
+
+		return VersionPredicate.isValid(relationship, version);
+	}
+
 	private class CBDNodeHandler implements XMLNodeHandler {
 
 		private final XMLRelationshipHandler relationshipHandler;
@@ -464,9 +471,11 @@ public class PropertyGraphXMLReader implements XMLReader {
 			// => maybe we should find an appropriated cypher query as replacement for this processing
 			if (!node.hasProperty(GraphStatics.URI_PROPERTY)) {
 
+				final long[] historicStatements = historicStatementsMarked ? GraphVersionUtils.getHistoricStatements(node) : null;
+
 				for (final Relationship relationship : getSortedOutgoings(node)) {
 
-					if (allVersions || hasValidVersion(version, relationship)) {
+					if (isCurrentStatement(relationship, historicStatements)) {
 						relationshipHandler.handleRelationship(relationship);
 					}
 				}
@@ -491,9 +500,11 @@ public class PropertyGraphXMLReader implements XMLReader {
 			// node that holds the uri of the resource (record)
 			if (node.hasProperty(GraphStatics.URI_PROPERTY)) {
 
+				final long[] historicStatements = historicStatementsMarked ? GraphVersionUtils.getHistoricStatements(node) : null;
+
 				for (final Relationship relationship : getSortedOutgoings(node)) {
 
-					if (allVersions || hasValidVersion(version, relationship)) {
+					if (isCurrentStatement(relationship, historicStatements)) {
 						relationshipHandler.handleRelationship(relationship);
 					}
 				}
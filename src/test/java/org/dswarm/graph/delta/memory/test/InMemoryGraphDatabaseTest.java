@@ -0,0 +1,241 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.delta.memory.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.graphdb.ConstraintViolationException;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.DynamicLabel;
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Path;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.ReturnableEvaluator;
+import org.neo4j.graphdb.StopEvaluator;
+import org.neo4j.graphdb.Traverser;
+import org.neo4j.graphdb.schema.IndexDefinition;
+import org.neo4j.graphdb.schema.Schema;
+
+import org.dswarm.graph.delta.memory.InMemoryGraphDatabase;
+import org.dswarm.graph.model.GraphStatics;
+
+/**
+ * @author tgaengler
+ */
+public class InMemoryGraphDatabaseTest {
+
+	private static final Label            RESOURCE  = DynamicLabel.label("RESOURCE");
+	private static final RelationshipType PREDICATE = DynamicRelationshipType.withName("http://purl.org/dc/terms/hasPart");
+	private static final String           NAME      = "name";
+
+	private InMemoryGraphDatabase database;
+
+	@Before
+	public void prepare() {
+
+		database = new InMemoryGraphDatabase("test");
+	}
+
+	@After
+	public void cleanUp() {
+
+		database.shutdown();
+	}
+
+	@Test
+	public void testNodesAndRelationships() {
+
+		final Node subject = database.createNode(RESOURCE);
+		subject.setProperty(GraphStatics.URI_PROPERTY, "http://example.com/1");
+
+		final Node object1 = database.createNode();
+		final Node object2 = database.createNode();
+		final Relationship rel1 = subject.createRelationshipTo(object1, PREDICATE);
+		final Relationship rel2 = subject.createRelationshipTo(object2, PREDICATE);
+
+		Assert.assertEquals(subject, database.findNode(RESOURCE, GraphStatics.URI_PROPERTY, "http://example.com/1"));
+		Assert.assertNull(database.findNode(RESOURCE, GraphStatics.URI_PROPERTY, "http://example.com/2"));
+		Assert.assertEquals(rel1, database.getRelationshipById(rel1.getId()));
+
+		// creation order
+		assertRelationships(subject.getRelationships(Direction.OUTGOING), rel1, rel2);
+		assertRelationships(object1.getRelationships(Direction.OUTGOING));
+		assertRelationships(object1.getRelationships(Direction.INCOMING), rel1);
+
+		rel1.delete();
+		object1.delete();
+
+		assertRelationships(subject.getRelationships(), rel2);
+		assertRelationships(database.getAllRelationships(), rel2);
+
+		database.clear();
+
+		Assert.assertFalse(database.getAllNodes().iterator().hasNext());
+		Assert.assertNull(database.findNode(RESOURCE, GraphStatics.URI_PROPERTY, "http://example.com/1"));
+		Assert.assertEquals(0, database.createNode().getId());
+	}
+
+	@Test
+	public void testSchemaIndex() {
+
+		final Node node = database.createNode(RESOURCE);
+		node.setProperty(NAME, "a");
+
+		final Schema schema = database.schema();
+		final IndexDefinition index = schema.indexFor(RESOURCE).on(NAME).create();
+
+		Assert.assertEquals(Schema.IndexState.ONLINE, schema.getIndexState(index));
+		Assert.assertEquals(1, count(schema.getIndexes(RESOURCE)));
+		Assert.assertEquals(0, count(schema.getIndexes(DynamicLabel.label("LITERAL"))));
+
+		// existing and new nodes are indexed
+		final Node otherNode = database.createNode(RESOURCE);
+		otherNode.setProperty(NAME, "b");
+
+		Assert.assertEquals(node, database.findNode(RESOURCE, NAME, "a"));
+		Assert.assertEquals(otherNode, database.findNode(RESOURCE, NAME, "b"));
+
+		// the schema survives wiping the graph
+		database.clear();
+
+		Assert.assertEquals(1, count(schema.getIndexes()));
+		Assert.assertNull(database.findNode(RESOURCE, NAME, "a"));
+
+		index.drop();
+
+		Assert.assertEquals(0, count(schema.getIndexes()));
+
+		// lookups still work without an index
+		final Node newNode = database.createNode(RESOURCE);
+		newNode.setProperty(NAME, "a");
+
+		Assert.assertEquals(newNode, database.findNode(RESOURCE, NAME, "a"));
+	}
+
+	@Test
+	public void testUniquenessConstraint() {
+
+		final Node node = database.createNode(RESOURCE);
+		node.setProperty(NAME, "a");
+
+		database.schema().constraintFor(RESOURCE).assertPropertyIsUnique(NAME).create();
+
+		final Node otherNode = database.createNode(RESOURCE);
+
+		try {
+
+			otherNode.setProperty(NAME, "a");
+
+			Assert.fail("expected a constraint violation");
+		} catch (final ConstraintViolationException e) {
+
+			// expected
+		}
+
+		final Node unlabelledNode = database.createNode();
+		unlabelledNode.setProperty(NAME, "a");
+
+		try {
+
+			unlabelledNode.addLabel(RESOURCE);
+
+			Assert.fail("expected a constraint violation");
+		} catch (final ConstraintViolationException e) {
+
+			// expected
+		}
+
+		Assert.assertFalse(unlabelledNode.hasLabel(RESOURCE));
+
+		// setting the same value again is fine
+		node.setProperty(NAME, "a");
+
+		database.schema().getConstraints(RESOURCE).iterator().next().drop();
+
+		otherNode.setProperty(NAME, "a");
+
+		Assert.assertEquals(0, count(database.schema().getIndexes()));
+	}
+
+	@Test
+	public void testTraversals() {
+
+		final Node first = database.createNode();
+		final Node second = database.createNode();
+		final Node third = database.createNode();
+		first.createRelationshipTo(second, PREDICATE);
+		second.createRelationshipTo(third, PREDICATE);
+
+		final List<Node> traversedNodes = new ArrayList<>();
+
+		for (final Node node : database.traversalDescription().depthFirst().relationships(PREDICATE, Direction.OUTGOING).traverse(first).nodes()) {
+
+			traversedNodes.add(node);
+		}
+
+		Assert.assertEquals(3, traversedNodes.size());
+
+		int paths = 0;
+
+		for (final Path path : database.bidirectionalTraversalDescription()
+				.mirroredSides(database.traversalDescription().relationships(PREDICATE, Direction.OUTGOING)).traverse(first, third)) {
+
+			Assert.assertEquals(2, path.length());
+
+			paths++;
+		}
+
+		Assert.assertEquals(1, paths);
+
+		final Traverser traverser = first.traverse(Traverser.Order.BREADTH_FIRST, StopEvaluator.END_OF_GRAPH,
+				ReturnableEvaluator.ALL_BUT_START_NODE, PREDICATE, Direction.OUTGOING);
+
+		Assert.assertEquals(2, traverser.getAllNodes().size());
+	}
+
+	private static void assertRelationships(final Iterable<Relationship> actualRelationships, final Relationship... expectedRelationships) {
+
+		final List<Relationship> relationships = new ArrayList<>();
+
+		for (final Relationship relationship : actualRelationships) {
+
+			relationships.add(relationship);
+		}
+
+		Assert.assertArrayEquals(expectedRelationships, relationships.toArray());
+	}
+
+	private static int count(final Iterable<?> iterable) {
+
+		int count = 0;
+
+		for (final Object ignored : iterable) {
+
+			count++;
+		}
+
+		return count;
+	}
+}
@@ -0,0 +1,284 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.delta.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.graphdb.GraphDatabaseService;
+import rx.Observable;
+import rx.observables.ConnectableObservable;
+
+import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.delta.ResourceDelta;
+import org.dswarm.graph.delta.ResourceDeltaPipeline;
+import org.dswarm.graph.delta.memory.InMemoryGraphDatabase;
+import org.dswarm.graph.json.Resource;
+import org.dswarm.graph.tx.TransactionHandler;
+
+/**
+ * Checks that the resource delta pipeline releases every working DB exactly once, also when the pipeline stops early.
+ *
+ * @author tgaengler
+ */
+public class ResourceDeltaPipelineTest {
+
+	private static final int RESOURCES         = 100;
+	private static final int DELTA_WORKERS     = 4;
+	private static final int DELTA_QUEUE_DEPTH = 8;
+
+	private List<GraphDatabaseService>              acquiredDBs;
+	private Map<GraphDatabaseService, AtomicInteger> releases;
+
+	@Before
+	public void prepare() {
+
+		acquiredDBs = new CopyOnWriteArrayList<>();
+		releases = Collections.synchronizedMap(new IdentityHashMap<>());
+	}
+
+	@After
+	public void cleanUp() {
+
+		acquiredDBs.forEach(GraphDatabaseService::shutdown);
+	}
+
+	@Test
+	public void testCompletePipeline() throws DMPGraphException {
+
+		final AtomicInteger writtenResourceDeltas = new AtomicInteger(0);
+
+		final ResourceDeltaPipeline pipeline = new ResourceDeltaPipeline(DELTA_WORKERS, DELTA_QUEUE_DEPTH, TestTransactionHandler::new,
+				this::calculate, resourceDelta -> writtenResourceDeltas.incrementAndGet(), this::release);
+
+		final List<Resource> newResources = pipeline.run(createModel());
+
+		// every second resource is new (see calculate)
+		Assert.assertEquals(RESOURCES / 2, newResources.size());
+		Assert.assertEquals(RESOURCES / 2, writtenResourceDeltas.get());
+
+		for (int i = 0; i < newResources.size(); i++) {
+
+			Assert.assertEquals("the new resources should be in model order", createResourceURI(2 * i), newResources.get(i).getUri());
+		}
+
+		assertReleasedExactlyOnce();
+	}
+
+	@Test
+	public void testStoppedPipeline() {
+
+		final int writableResourceDeltas = 5;
+		final AtomicInteger writtenResourceDeltas = new AtomicInteger(0);
+
+		final ResourceDeltaPipeline pipeline = new ResourceDeltaPipeline(DELTA_WORKERS, DELTA_QUEUE_DEPTH, TestTransactionHandler::new,
+				this::calculate, resourceDelta -> {
+
+			if (writtenResourceDeltas.get() == writableResourceDeltas) {
+
+				throw new DMPGraphException("couldn't write resource delta");
+			}
+
+			writtenResourceDeltas.incrementAndGet();
+		}, this::release);
+
+		try {
+
+			pipeline.run(createModel());
+
+			Assert.fail("the pipeline should stop, when the writer fails");
+		} catch (final DMPGraphException e) {
+
+			Assert.assertEquals("couldn't write resource delta", e.getMessage());
+		}
+
+		Assert.assertEquals(writableResourceDeltas, writtenResourceDeltas.get());
+		// i.e. the written ones, the failed one and the ones that were calculated in advance
+		Assert.assertTrue(acquiredDBs.size() > 2 * writableResourceDeltas);
+
+		assertReleasedExactlyOnce();
+	}
+
+	@Test
+	public void testFailingReadTXCommit() {
+
+		final List<TestTransactionHandler> txs = new CopyOnWriteArrayList<>();
+
+		final ResourceDeltaPipeline pipeline = new ResourceDeltaPipeline(DELTA_WORKERS, DELTA_QUEUE_DEPTH, () -> {
+
+			final TestTransactionHandler tx = new TestTransactionHandler(true);
+			txs.add(tx);
+
+			return tx;
+		}, this::calculate, resourceDelta -> Assert.fail("a resource delta with a failed read TX shouldn't be written"), this::release);
+
+		try {
+
+			pipeline.run(createModel());
+
+			Assert.fail("the pipeline should stop, when a read TX can't be committed");
+		} catch (final DMPGraphException e) {
+
+			Assert.assertEquals("couldn't commit read TX", e.getMessage());
+		}
+
+		Assert.assertFalse(txs.isEmpty());
+
+		for (final TestTransactionHandler tx : txs) {
+
+			Assert.assertTrue("a read TX that couldn't be committed should be failed", tx.failed);
+		}
+
+		assertReleasedExactlyOnce();
+	}
+
+	/**
+	 * Mimics the delta calculation of GDMResource: a new resource (every second one) releases its working DB before the read TX is
+	 * committed; an existing resource keeps both working DBs.
+	 */
+	private ResourceDelta calculate(final Resource newResource, final TransactionHandler tx) {
+
+		final GraphDatabaseService newResourceDB = acquire();
+
+		if (isNewResource(newResource)) {
+
+			release(newResourceDB);
+
+			return new ResourceDelta(newResource);
+		}
+
+		final GraphDatabaseService existingResourceDB = acquire();
+
+		return new ResourceDelta(newResource, new Resource(newResource.getUri()), newResourceDB, existingResourceDB, null);
+	}
+
+	private GraphDatabaseService acquire() {
+
+		final GraphDatabaseService workingDB = new InMemoryGraphDatabase("working-db-" + acquiredDBs.size());
+		acquiredDBs.add(workingDB);
+
+		return workingDB;
+	}
+
+	private void release(final GraphDatabaseService workingDB) {
+
+		synchronized (releases) {
+
+			releases.computeIfAbsent(workingDB, db -> new AtomicInteger(0)).incrementAndGet();
+		}
+	}
+
+	private void assertReleasedExactlyOnce() {
+
+		Assert.assertFalse(acquiredDBs.isEmpty());
+
+		for (final GraphDatabaseService acquiredDB : acquiredDBs) {
+
+			final AtomicInteger releaseCount = releases.get(acquiredDB);
+
+			Assert.assertNotNull("every acquired working DB should be released", releaseCount);
+			Assert.assertEquals("every acquired working DB should be released exactly once", 1, releaseCount.get());
+		}
+
+		Assert.assertEquals("only acquired working DBs should be released", acquiredDBs.size(), releases.size());
+	}
+
+	private static boolean isNewResource(final Resource resource) {
+
+		return Integer.parseInt(resource.getUri().substring(resource.getUri().lastIndexOf('/') + 1)) % 2 == 0;
+	}
+
+	private static ConnectableObservable<Resource> createModel() {
+
+		final List<Resource> resources = new ArrayList<>();
+
+		for (int i = 0; i < RESOURCES; i++) {
+
+			resources.add(new Resource(createResourceURI(i)));
+		}
+
+		return Observable.from(resources).publish();
+	}
+
+	private static String createResourceURI(final int i) {
+
+		return "http://data.slub-dresden.de/records/" + i;
+	}
+
+	private static final class TestTransactionHandler implements TransactionHandler {
+
+		private final boolean failingCommit;
+
+		private volatile boolean failed = false;
+
+		TestTransactionHandler() {
+
+			this(false);
+		}
+
+		TestTransactionHandler(final boolean failingCommitArg) {
+
+			failingCommit = failingCommitArg;
+		}
+
+		@Override
+		public void beginTx() {
+
+		}
+
+		@Override
+		public void renewTx() {
+
+		}
+
+		@Override
+		public void failTx() {
+
+			failed = true;
+		}
+
+		@Override
+		public void succeedTx() {
+
+			if (failingCommit) {
+
+				throw new RuntimeException("couldn't commit read TX");
+			}
+		}
+
+		@Override
+		public boolean ensureRunningTx() {
+
+			return false;
+		}
+
+		@Override
+		public boolean txIsClosed() {
+
+			return false;
+		}
+	}
+}
@@ -0,0 +1,173 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.delta.util.benchmark;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.DynamicLabel;
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.test.TestGraphDatabaseFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.dswarm.common.model.Attribute;
+import org.dswarm.common.model.AttributePath;
+import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.GraphProcessingStatics;
+import org.dswarm.graph.delta.util.GraphDBUtil;
+import org.dswarm.graph.index.SchemaIndexUtils;
+import org.dswarm.graph.model.GraphStatics;
+
+/**
+ * Compares the record lookup via attribute path (from the record node to the literal with the search value) via Cypher with the
+ * lookup via traversal (core API) over a synthetic graph of two data models (10000 records each) with key attribute paths of length 1
+ * to 3.<br/>
+ * run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.dswarm.graph.delta.util.benchmark.RecordLookupBenchmark
+ * (or run the main method from the IDE)
+ *
+ * @author tgaengler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class RecordLookupBenchmark {
+
+	private static final String DATABASE_PATH = "target/benchmark/record-lookup";
+
+	private static final int RECORDS = 10000;
+
+	private static final String DATA_MODEL       = "ns1:1";
+	private static final String OTHER_DATA_MODEL = "ns1:2";
+
+	private static final String[] ATTRIBUTES = { "ns2:a", "ns2:b", "ns2:c" };
+
+	@Param({ "1", "2", "3" })
+	public int pathLength;
+
+	private GraphDatabaseService database;
+	private AttributePath        keyAttributePath;
+
+	private int i = 0;
+
+	@Setup
+	public void setUp() throws DMPGraphException {
+
+		database = new TestGraphDatabaseFactory().newImpermanentDatabaseBuilder(new File(DATABASE_PATH)).newGraphDatabase();
+
+		SchemaIndexUtils.createSchemaIndices(database, DATABASE_PATH);
+
+		final LinkedList<Attribute> attributes = new LinkedList<>();
+
+		for (int j = 0; j < pathLength; j++) {
+
+			attributes.add(new Attribute(ATTRIBUTES[j]));
+		}
+
+		keyAttributePath = new AttributePath(attributes);
+
+		try (final Transaction tx = database.beginTx()) {
+
+			for (int j = 0; j < RECORDS; j++) {
+
+				createRecord(j, DATA_MODEL);
+				createRecord(j, OTHER_DATA_MODEL);
+			}
+
+			tx.success();
+		}
+	}
+
+	private void createRecord(final int recordNumber, final String dataModel) {
+
+		final Node recordNode = database.createNode(GraphProcessingStatics.RESOURCE_LABEL);
+		recordNode.setProperty(GraphStatics.URI_PROPERTY, dataModel + "/record/" + recordNumber);
+		recordNode.setProperty(GraphStatics.DATA_MODEL_PROPERTY, dataModel);
+
+		Node currentNode = recordNode;
+
+		for (int j = 0; j < pathLength - 1; j++) {
+
+			final Node bnode = database.createNode(DynamicLabel.label(GraphProcessingStatics.BNODE_NODE_TYPE));
+			currentNode.createRelationshipTo(bnode, relType(j));
+			currentNode = bnode;
+		}
+
+		// note: literals are not shared between records (as in the data models that were written as GDM)
+		final Node literalNode = database.createNode(GraphProcessingStatics.LITERAL_LABEL);
+		literalNode.setProperty(GraphStatics.VALUE_PROPERTY, searchValue(recordNumber));
+		currentNode.createRelationshipTo(literalNode, relType(pathLength - 1));
+	}
+
+	private static RelationshipType relType(final int attributeIndex) {
+
+		return DynamicRelationshipType.withName(ATTRIBUTES[attributeIndex]);
+	}
+
+	private static String searchValue(final int recordNumber) {
+
+		return "ID" + recordNumber;
+	}
+
+	@TearDown
+	public void tearDown() {
+
+		database.shutdown();
+	}
+
+	@Benchmark
+	public Collection<String> cypher() throws DMPGraphException {
+
+		return GraphDBUtil.determineRecordUrisViaCypher(searchValue(i++ % RECORDS), keyAttributePath, DATA_MODEL, database);
+	}
+
+	@Benchmark
+	public Collection<String> traversal() throws DMPGraphException {
+
+		return GraphDBUtil.determineRecordUrisViaTraversal(searchValue(i++ % RECORDS), keyAttributePath, DATA_MODEL, database);
+	}
+
+	public static void main(final String[] args) throws RunnerException {
+
+		final Options options = new OptionsBuilder().include(RecordLookupBenchmark.class.getSimpleName()).build();
+
+		new Runner(options).run();
+	}
+}
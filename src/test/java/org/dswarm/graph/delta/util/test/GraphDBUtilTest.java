@@ -0,0 +1,281 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.delta.util.test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import org.dswarm.common.model.Attribute;
+import org.dswarm.common.model.AttributePath;
+import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.GraphProcessingStatics;
+import org.dswarm.graph.delta.util.GraphDBUtil;
+import org.dswarm.graph.hash.HashUtils;
+import org.dswarm.graph.index.RecordIdentifierIndexUtils;
+import org.dswarm.graph.index.SchemaIndexUtils;
+import org.dswarm.graph.model.GraphStatics;
+import org.dswarm.graph.versioning.VersioningStatics;
+
+/**
+ * Checks that the record lookups via traversal (attribute paths up to {@link GraphDBUtil#MAX_TRAVERSAL_LOOKUP_PATH_LENGTH}), via Cypher
+ * (longer attribute paths) and via the record identifiers index determine the same records.
+ *
+ * @author tgaengler
+ */
+public class GraphDBUtilTest {
+
+	private static final String DATABASE_PATH = "target/test-data/graph-db-util";
+
+	private static final String DATA_MODEL       = "ns1:1";
+	private static final String OTHER_DATA_MODEL = "ns1:2";
+
+	private static final int RECORDS         = 10;
+	private static final int RECORD_NUMBER   = 3;
+	private static final int MAX_PATH_LENGTH = GraphDBUtil.MAX_TRAVERSAL_LOOKUP_PATH_LENGTH + 2;
+
+	private GraphDatabaseService database;
+
+	@Before
+	public void prepare() throws DMPGraphException {
+
+		database = new TestGraphDatabaseFactory().newImpermanentDatabaseBuilder(new File(DATABASE_PATH)).newGraphDatabase();
+
+		SchemaIndexUtils.createSchemaIndices(database, DATABASE_PATH);
+	}
+
+	@After
+	public void cleanUp() {
+
+		database.shutdown();
+	}
+
+	@Test
+	public void testRecordLookupViaTraversalAndCypher() throws DMPGraphException {
+
+		for (int pathLength = 1; pathLength <= MAX_PATH_LENGTH; pathLength++) {
+
+			final long[] recordIds = createRecords(pathLength);
+
+			final AttributePath attributePath = createAttributePath(pathLength);
+			final String searchValue = searchValue(pathLength, RECORD_NUMBER);
+			final String expectedRecordURI = recordURI(DATA_MODEL, pathLength, RECORD_NUMBER);
+
+			Assert.assertEquals(Collections.singletonList(expectedRecordURI),
+					new ArrayList<>(GraphDBUtil.determineRecordUris(searchValue, attributePath, DATA_MODEL, database)));
+			Assert.assertEquals(Collections.singletonList(expectedRecordURI),
+					new ArrayList<>(GraphDBUtil.determineRecordUrisViaTraversal(searchValue, attributePath, DATA_MODEL, database)));
+			Assert.assertEquals(Collections.singletonList(expectedRecordURI),
+					new ArrayList<>(GraphDBUtil.determineRecordUrisViaCypher(searchValue, attributePath, DATA_MODEL, database)));
+			Assert.assertArrayEquals(new long[] { recordIds[RECORD_NUMBER] },
+					GraphDBUtil.determineRecordIds(searchValue, attributePath, DATA_MODEL, database));
+
+			Assert.assertEquals(expectedRecordURI, GraphDBUtil.determineRecordUriViaGraph(searchValue, attributePath, DATA_MODEL, database));
+			Assert.assertEquals(expectedRecordURI, GraphDBUtil.determineRecordUri(searchValue, attributePath, DATA_MODEL, database));
+
+			// i.e. there is no such record in this data model
+			Assert.assertTrue(GraphDBUtil.determineRecordUris(searchValue(pathLength, RECORDS), attributePath, DATA_MODEL, database).isEmpty());
+			Assert.assertNull(GraphDBUtil.determineRecordUri(searchValue(pathLength, RECORDS), attributePath, DATA_MODEL, database));
+		}
+	}
+
+	@Test
+	public void testRecordUriViaIndex() throws DMPGraphException {
+
+		// i.e. via traversal and via Cypher
+		for (final int pathLength : new int[] { GraphDBUtil.MAX_TRAVERSAL_LOOKUP_PATH_LENGTH, MAX_PATH_LENGTH }) {
+
+			final long[] recordIds = createRecords(pathLength);
+
+			final AttributePath attributePath = createAttributePath(pathLength);
+			final String searchValue = searchValue(pathLength, RECORD_NUMBER);
+			final String expectedRecordURI = recordURI(DATA_MODEL, pathLength, RECORD_NUMBER);
+
+			// without record identifiers index
+			Assert.assertEquals(expectedRecordURI, GraphDBUtil.determineRecordUri(searchValue, attributePath, DATA_MODEL, database));
+
+			Assert.assertEquals(RECORDS, RecordIdentifierIndexUtils.rebuild(database, DATA_MODEL, attributePath));
+
+			// with record identifiers index
+			Assert.assertEquals(expectedRecordURI, GraphDBUtil.determineRecordUri(searchValue, attributePath, DATA_MODEL, database));
+			Assert.assertEquals(GraphDBUtil.determineRecordUriViaGraph(searchValue, attributePath, DATA_MODEL, database),
+					GraphDBUtil.determineRecordUri(searchValue, attributePath, DATA_MODEL, database));
+
+			// the record identifier changed, i.e., the index entry is not valid anymore and the (incomplete) index falls back to the graph
+			changeRecordIdentifier(recordIds[RECORD_NUMBER], pathLength, "changed" + pathLength);
+
+			Assert.assertNull(GraphDBUtil.determineRecordUri(searchValue, attributePath, DATA_MODEL, database));
+			Assert.assertEquals(expectedRecordURI, GraphDBUtil.determineRecordUri("changed" + pathLength, attributePath, DATA_MODEL, database));
+		}
+	}
+
+	@Test
+	public void testRecordUriViaCompleteIndex() throws DMPGraphException {
+
+		final int pathLength = MAX_PATH_LENGTH;
+
+		createRecords(pathLength);
+		createDataModelNode();
+
+		final AttributePath attributePath = createAttributePath(pathLength);
+
+		Assert.assertEquals(RECORDS, RecordIdentifierIndexUtils.rebuild(database, DATA_MODEL, attributePath));
+
+		try (final Transaction tx = database.beginTx()) {
+
+			Assert.assertTrue(RecordIdentifierIndexUtils.isComplete(database, DATA_MODEL, attributePath));
+
+			tx.success();
+		}
+
+		for (int recordNumber = 0; recordNumber < RECORDS; recordNumber++) {
+
+			final String searchValue = searchValue(pathLength, recordNumber);
+
+			Assert.assertEquals(recordURI(DATA_MODEL, pathLength, recordNumber),
+					GraphDBUtil.determineRecordUri(searchValue, attributePath, DATA_MODEL, database));
+			Assert.assertEquals(GraphDBUtil.determineRecordUriViaGraph(searchValue, attributePath, DATA_MODEL, database),
+					GraphDBUtil.determineRecordUri(searchValue, attributePath, DATA_MODEL, database));
+		}
+
+		Assert.assertNull(GraphDBUtil.determineRecordUri(searchValue(pathLength, RECORDS), attributePath, DATA_MODEL, database));
+	}
+
+	/**
+	 * Creates the records of both data models, i.e., each record has its record identifier at the end of an attribute path of the given
+	 * length (bnodes in between).
+	 *
+	 * @param pathLength the length of the record identifier attribute path
+	 * @return the node ids of the records of the data model
+	 */
+	private long[] createRecords(final int pathLength) {
+
+		final long[] recordIds = new long[RECORDS];
+
+		try (final Transaction tx = database.beginTx()) {
+
+			for (int recordNumber = 0; recordNumber < RECORDS; recordNumber++) {
+
+				recordIds[recordNumber] = createRecord(DATA_MODEL, pathLength, recordNumber);
+				createRecord(OTHER_DATA_MODEL, pathLength, recordNumber);
+			}
+
+			tx.success();
+		}
+
+		return recordIds;
+	}
+
+	private long createRecord(final String dataModel, final int pathLength, final int recordNumber) {
+
+		final Node recordNode = database.createNode(GraphProcessingStatics.RESOURCE_LABEL);
+		recordNode.setProperty(GraphStatics.URI_PROPERTY, recordURI(dataModel, pathLength, recordNumber));
+		recordNode.setProperty(GraphStatics.DATA_MODEL_PROPERTY, dataModel);
+
+		Node currentNode = recordNode;
+
+		for (int i = 0; i < pathLength - 1; i++) {
+
+			final Node bnode = database.createNode(GraphProcessingStatics.BNODE_LABEL);
+			currentNode.createRelationshipTo(bnode, relType(pathLength, i));
+			currentNode = bnode;
+		}
+
+		final Node literalNode = database.createNode(GraphProcessingStatics.LITERAL_LABEL);
+		literalNode.setProperty(GraphStatics.VALUE_PROPERTY, searchValue(pathLength, recordNumber));
+		currentNode.createRelationshipTo(literalNode, relType(pathLength, pathLength - 1));
+
+		return recordNode.getId();
+	}
+
+	private void changeRecordIdentifier(final long recordId, final int pathLength, final String recordIdentifier) {
+
+		try (final Transaction tx = database.beginTx()) {
+
+			Node currentNode = database.getNodeById(recordId);
+
+			for (int i = 0; i < pathLength; i++) {
+
+				currentNode = currentNode.getSingleRelationship(relType(pathLength, i), Direction.OUTGOING).getEndNode();
+			}
+
+			currentNode.setProperty(GraphStatics.VALUE_PROPERTY, recordIdentifier);
+
+			tx.success();
+		}
+	}
+
+	private void createDataModelNode() {
+
+		try (final Transaction tx = database.beginTx()) {
+
+			final Node dataModelNode = database.createNode(GraphProcessingStatics.RESOURCE_LABEL);
+			dataModelNode.setProperty(GraphStatics.URI_PROPERTY, DATA_MODEL);
+			dataModelNode.setProperty(GraphStatics.HASH, HashUtils.generateHash(DATA_MODEL + VersioningStatics.VERSIONING_DATA_MODEL_URI));
+
+			tx.success();
+		}
+	}
+
+	private static AttributePath createAttributePath(final int pathLength) {
+
+		final LinkedList<Attribute> attributes = new LinkedList<>();
+
+		for (int i = 0; i < pathLength; i++) {
+
+			attributes.add(new Attribute(attributeURI(pathLength, i)));
+		}
+
+		return new AttributePath(attributes);
+	}
+
+	/**
+	 * note: each path length has its own attributes, i.e., the records of different path lengths don't interfere
+	 */
+	private static String attributeURI(final int pathLength, final int attributeIndex) {
+
+		return "ns2:" + pathLength + "_" + attributeIndex;
+	}
+
+	private static RelationshipType relType(final int pathLength, final int attributeIndex) {
+
+		return DynamicRelationshipType.withName(attributeURI(pathLength, attributeIndex));
+	}
+
+	private static String recordURI(final String dataModel, final int pathLength, final int recordNumber) {
+
+		return dataModel + "/record/" + pathLength + "/" + recordNumber;
+	}
+
+	private static String searchValue(final int pathLength, final int recordNumber) {
+
+		return "ID" + pathLength + "-" + recordNumber;
+	}
+}
@@ -0,0 +1,46 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.gdm.read.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.gdm.read.ContinuationToken;
+
+/**
+ * @author tgaengler
+ */
+public class ContinuationTokenTest {
+
+	@Test
+	public void testEncodeDecode() throws DMPGraphException {
+
+		final ContinuationToken token = new ContinuationToken(1234567890123L, 3);
+
+		final String encodedToken = token.encode();
+
+		Assert.assertFalse(encodedToken.contains("1234567890123"));
+		Assert.assertEquals(token, ContinuationToken.decode(encodedToken));
+	}
+
+	@Test(expected = DMPGraphException.class)
+	public void testDecodeInvalidToken() throws DMPGraphException {
+
+		ContinuationToken.decode("not a token");
+	}
+}
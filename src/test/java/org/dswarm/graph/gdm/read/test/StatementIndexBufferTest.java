@@ -0,0 +1,90 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.gdm.read.test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.dswarm.graph.gdm.read.StatementIndexBuffer;
+
+/**
+ * @author tgaengler
+ */
+public class StatementIndexBufferTest {
+
+	@Test
+	public void testStableSort() {
+
+		final Random random = new Random(42);
+		final StatementIndexBuffer buffer = new StatementIndexBuffer(4);
+
+		for (int run = 0; run < 3; run++) {
+
+			buffer.clear();
+
+			final List<long[]> expected = new ArrayList<>();
+			final int size = 1000 + random.nextInt(1000);
+
+			for (long reference = 0; reference < size; reference++) {
+
+				final long index = random.nextInt(100);
+
+				buffer.add(index, reference);
+				expected.add(new long[] { index, reference });
+			}
+
+			// a stable sort, i.e., pairs with the same index stay in insertion order
+			expected.sort(Comparator.comparingLong(pair -> pair[0]));
+
+			buffer.sort();
+
+			Assert.assertEquals(expected.size(), buffer.size());
+
+			for (int i = 0; i < buffer.size(); i++) {
+
+				Assert.assertEquals(expected.get(i)[0], buffer.getIndex(i));
+				Assert.assertEquals(expected.get(i)[1], buffer.getReference(i));
+			}
+		}
+	}
+
+	@Test
+	public void testSortedBuffer() {
+
+		final StatementIndexBuffer buffer = new StatementIndexBuffer();
+
+		buffer.add(1, 10);
+		buffer.add(1, -11);
+		buffer.add(2, 12);
+		buffer.add(Long.MAX_VALUE, 13);
+
+		buffer.sort();
+
+		Assert.assertEquals(4, buffer.size());
+		Assert.assertEquals(-11, buffer.getReference(1));
+		Assert.assertEquals(13, buffer.getReference(3));
+
+		buffer.clear();
+
+		Assert.assertTrue(buffer.isEmpty());
+	}
+}
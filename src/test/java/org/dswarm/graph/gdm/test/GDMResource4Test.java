@@ -20,7 +20,13 @@ import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.ws.rs.core.MediaType;
 
@@ -41,10 +47,15 @@ import org.slf4j.LoggerFactory;
 import rx.Observable;
 
 import org.dswarm.common.DMPStatics;
+import org.dswarm.graph.json.LiteralNode;
 import org.dswarm.graph.json.Model;
+import org.dswarm.graph.json.Node;
 import org.dswarm.graph.json.Resource;
+import org.dswarm.graph.json.ResourceNode;
+import org.dswarm.graph.json.Statement;
 import org.dswarm.graph.json.stream.ModelParser;
 import org.dswarm.graph.json.util.Util;
+import org.dswarm.graph.resources.GDMResource;
 import org.dswarm.graph.test.Neo4jDBWrapper;
 
 /**
@@ -56,6 +67,10 @@ public abstract class GDMResource4Test extends BaseGDMResourceTest {
 	private static final String DATA_MODEL_URI       = "http://data.slub-dresden.de/resources/1";
 	private static final String MABXML_RESOURCE_GSON = "test-mabxml_w_data_model_resource.gson";
 
+	private static final String SEVERAL_NAMESPACES_DATA_MODEL_URI = "http://data.slub-dresden.de/resources/23";
+	private static final String SEVERAL_NAMESPACES_GSON           = "test-gdm_w_several_namespaces.gson";
+	private static final String SEVERAL_NAMESPACES_RECORD_CLASS   = "http://example.com/schema/a#RecordType";
+
 	public GDMResource4Test(final Neo4jDBWrapper neo4jDBWrapper, final String dbTypeArg) {
 
 		super(neo4jDBWrapper, dbTypeArg);
@@ -115,6 +130,231 @@ public abstract class GDMResource4Test extends BaseGDMResourceTest {
 		LOG.debug("finished read GDM model test for GDM resource at {} DB", dbType);
 	}
 
+	@Test
+	public void readStreamedGDMModelFromDBThatWasWrittenAsGDM() throws IOException {
+
+		LOG.debug("start read streamed GDM model test for GDM resource at {} DB", dbType);
+
+		writeGDMToDBInternal(DATA_MODEL_URI, MABXML_RESOURCE_GSON);
+
+		final ObjectMapper objectMapper = Util.getJSONObjectMapper();
+		final ObjectNode requestJson = objectMapper.createObjectNode();
+
+		requestJson.put(DMPStatics.RECORD_CLASS_URI_IDENTIFIER, "http://www.ddb.de/professionell/mabxml/mabxml-1.xsd#datensatzType");
+		requestJson.put(DMPStatics.DATA_MODEL_URI_IDENTIFIER, DATA_MODEL_URI);
+
+		final ClientResponse response = readGDMModel(requestJson);
+
+		Assert.assertEquals("expected 200", 200, response.getStatus());
+
+		final Model expectedModel = parseModel(response);
+
+		Assert.assertEquals(191, expectedModel.size());
+
+		// i.e. statement by statement without materialising the resources
+		requestJson.put(GDMResource.STREAMING_IDENTIFIER, true);
+
+		final ClientResponse streamedResponse = readGDMModel(requestJson);
+
+		Assert.assertEquals("expected 200", 200, streamedResponse.getStatus());
+
+		final Model actualModel = parseModel(streamedResponse);
+
+		Assert.assertEquals(expectedModel.size(), actualModel.size());
+		Assert.assertEquals(getResourceURIs(expectedModel), getResourceURIs(actualModel));
+		Assert.assertEquals(getResourcesByURI(expectedModel), getResourcesByURI(actualModel));
+
+		LOG.debug("finished read streamed GDM model test for GDM resource at {} DB", dbType);
+	}
+
+	/**
+	 * The reader helper caches the expanded URIs, the predicates and the type nodes per read. The namespaces of some predicates, types
+	 * and data models of this fixture only appear with its second record, i.e., they are expanded while the caches are already filled.
+	 */
+	@Test
+	public void readGDMModelWithSeveralNamespacesFromDBThatWasWrittenAsGDM() throws IOException {
+
+		LOG.debug("start read GDM model with several namespaces test for GDM resource at {} DB", dbType);
+
+		writeGDMToDBInternal(SEVERAL_NAMESPACES_DATA_MODEL_URI, SEVERAL_NAMESPACES_GSON);
+
+		final Model expectedModel = parseModel(Resources.getResource(SEVERAL_NAMESPACES_GSON).openStream());
+
+		Assert.assertEquals(12, expectedModel.size());
+
+		final ObjectNode requestJson = objectMapper.createObjectNode();
+
+		requestJson.put(DMPStatics.RECORD_CLASS_URI_IDENTIFIER, SEVERAL_NAMESPACES_RECORD_CLASS);
+		requestJson.put(DMPStatics.DATA_MODEL_URI_IDENTIFIER, SEVERAL_NAMESPACES_DATA_MODEL_URI);
+
+		final ClientResponse response = readGDMModel(requestJson);
+
+		Assert.assertEquals("expected 200", 200, response.getStatus());
+
+		final Model actualModel = parseModel(response);
+
+		// note: data models are not compared here, since the written resources might be assigned to the data model of the import
+		Assert.assertEquals(expectedModel.size(), actualModel.size());
+		Assert.assertEquals(getStatementsByURI(expectedModel, false), getStatementsByURI(actualModel, false));
+
+		// each record read on its own, i.e., with empty caches
+		for (final Resource actualResource : actualModel.getResources()) {
+
+			final ObjectNode recordRequestJson = objectMapper.createObjectNode();
+
+			recordRequestJson.put(DMPStatics.RECORD_URI_IDENTIFIER, actualResource.getUri());
+			recordRequestJson.put(DMPStatics.DATA_MODEL_URI_IDENTIFIER, SEVERAL_NAMESPACES_DATA_MODEL_URI);
+
+			final Resource singleResource = readGDMRecord(recordRequestJson, (int) actualResource.size());
+
+			Assert.assertEquals(getStatements(singleResource, true), getStatements(actualResource, true));
+		}
+
+		LOG.debug("finished read GDM model with several namespaces test for GDM resource at {} DB", dbType);
+	}
+
+	@Test
+	public void readPagedGDMModelFromDBThatWasWrittenAsGDM() throws IOException {
+
+		LOG.debug("start read paged GDM model test for GDM resource at {} DB", dbType);
+
+		writeGDMToDBInternal(DATA_MODEL_URI, MABXML_RESOURCE_GSON);
+
+		final ObjectMapper objectMapper = Util.getJSONObjectMapper();
+		final ObjectNode requestJson = objectMapper.createObjectNode();
+
+		requestJson.put(DMPStatics.RECORD_CLASS_URI_IDENTIFIER, "http://www.ddb.de/professionell/mabxml/mabxml-1.xsd#datensatzType");
+		requestJson.put(DMPStatics.DATA_MODEL_URI_IDENTIFIER, DATA_MODEL_URI);
+
+		final ClientResponse response = readGDMModel(requestJson);
+
+		Assert.assertEquals("expected 200", 200, response.getStatus());
+		Assert.assertNull(response.getHeaders().getFirst(GDMResource.CONTINUATION_TOKEN_HEADER));
+
+		final Model model = parseModel(response);
+		final Set<String> expectedRecordURIs = new HashSet<>(getResourceURIs(model));
+
+		final int atMost = 3;
+
+		requestJson.put(DMPStatics.AT_MOST_IDENTIFIER, atMost);
+		requestJson.put(GDMResource.PAGINATE_IDENTIFIER, true);
+
+		final List<String> actualRecordURIs = new ArrayList<>();
+		long actualStatements = 0;
+		int pages = 0;
+		String continuationToken;
+		String firstContinuationToken = null;
+
+		do {
+
+			final ClientResponse pageResponse = readGDMModel(requestJson);
+
+			Assert.assertEquals("expected 200", 200, pageResponse.getStatus());
+
+			continuationToken = pageResponse.getHeaders().getFirst(GDMResource.CONTINUATION_TOKEN_HEADER);
+
+			if (firstContinuationToken == null) {
+
+				firstContinuationToken = continuationToken;
+			}
+
+			final Model page = parseModel(pageResponse);
+			final List<String> pageRecordURIs = getResourceURIs(page);
+
+			Assert.assertTrue(pageRecordURIs.size() <= atMost);
+
+			actualRecordURIs.addAll(pageRecordURIs);
+			actualStatements += page.size();
+			pages++;
+
+			requestJson.put(GDMResource.CONTINUATION_TOKEN_IDENTIFIER, continuationToken);
+		} while (continuationToken != null);
+
+		// no overlapping and no missing records
+		Assert.assertEquals(expectedRecordURIs.size(), actualRecordURIs.size());
+		Assert.assertEquals(expectedRecordURIs, new HashSet<>(actualRecordURIs));
+		Assert.assertEquals(model.size(), actualStatements);
+		Assert.assertEquals((expectedRecordURIs.size() + atMost - 1) / atMost, pages);
+
+		requestJson.put(GDMResource.CONTINUATION_TOKEN_IDENTIFIER, "not a continuation token");
+
+		Assert.assertEquals("expected 400", 400, readGDMModel(requestJson).getStatus());
+
+		// a page (incl. a following one) requires a page size
+		requestJson.remove(GDMResource.CONTINUATION_TOKEN_IDENTIFIER);
+		requestJson.remove(DMPStatics.AT_MOST_IDENTIFIER);
+
+		Assert.assertEquals("expected 400", 400, readGDMModel(requestJson).getStatus());
+
+		requestJson.remove(GDMResource.PAGINATE_IDENTIFIER);
+		requestJson.put(GDMResource.CONTINUATION_TOKEN_IDENTIFIER, firstContinuationToken);
+
+		Assert.assertEquals("expected 400", 400, readGDMModel(requestJson).getStatus());
+
+		requestJson.put(DMPStatics.AT_MOST_IDENTIFIER, 0);
+
+		Assert.assertEquals("expected 400", 400, readGDMModel(requestJson).getStatus());
+
+		LOG.debug("finished read paged GDM model test for GDM resource at {} DB", dbType);
+	}
+
+	@Test
+	public void readParallelGDMModelFromDBThatWasWrittenAsGDM() throws IOException {
+
+		LOG.debug("start read parallel GDM model test for GDM resource at {} DB", dbType);
+
+		writeGDMToDBInternal(DATA_MODEL_URI, MABXML_RESOURCE_GSON);
+
+		final ObjectMapper objectMapper = Util.getJSONObjectMapper();
+		final ObjectNode requestJson = objectMapper.createObjectNode();
+
+		requestJson.put(DMPStatics.RECORD_CLASS_URI_IDENTIFIER, "http://www.ddb.de/professionell/mabxml/mabxml-1.xsd#datensatzType");
+		requestJson.put(DMPStatics.DATA_MODEL_URI_IDENTIFIER, DATA_MODEL_URI);
+
+		final ClientResponse response = readGDMModel(requestJson);
+
+		Assert.assertEquals("expected 200", 200, response.getStatus());
+
+		final Model expectedModel = parseModel(response);
+		final Map<String, JsonNode> expectedResources = getResourcesByURI(expectedModel);
+
+		Assert.assertEquals(191, expectedModel.size());
+
+		// the records are read in chunks by several workers (in the order of the sequential read)
+		requestJson.put(GDMResource.PARALLELISM_IDENTIFIER, 2);
+		requestJson.put(GDMResource.ORDERED_IDENTIFIER, true);
+
+		final ClientResponse orderedResponse = readGDMModel(requestJson);
+
+		Assert.assertEquals("expected 200", 200, orderedResponse.getStatus());
+
+		final Model orderedModel = parseModel(orderedResponse);
+
+		Assert.assertEquals(expectedModel.size(), orderedModel.size());
+		Assert.assertEquals(getResourceURIs(expectedModel), getResourceURIs(orderedModel));
+		Assert.assertEquals(expectedResources, getResourcesByURI(orderedModel));
+
+		requestJson.put(GDMResource.ORDERED_IDENTIFIER, false);
+
+		final ClientResponse unorderedResponse = readGDMModel(requestJson);
+
+		Assert.assertEquals("expected 200", 200, unorderedResponse.getStatus());
+
+		final Model unorderedModel = parseModel(unorderedResponse);
+
+		Assert.assertEquals(expectedModel.size(), unorderedModel.size());
+		Assert.assertEquals(expectedModel.getResources().size(), unorderedModel.getResources().size());
+		Assert.assertEquals(expectedResources, getResourcesByURI(unorderedModel));
+
+		// a parallel read doesn't select pages
+		requestJson.put(DMPStatics.AT_MOST_IDENTIFIER, 3);
+		requestJson.put(GDMResource.PAGINATE_IDENTIFIER, true);
+
+		Assert.assertEquals("expected 400", 400, readGDMModel(requestJson).getStatus());
+
+		LOG.debug("finished read parallel GDM model test for GDM resource at {} DB", dbType);
+	}
+
 	@Test
 	public void readGDMRecordByURIFromDBThatWasWrittenAsGDM() throws IOException {
 
@@ -341,6 +581,53 @@ public abstract class GDMResource4Test extends BaseGDMResourceTest {
 		LOG.debug("finished search GDM records test 3 for GDM resource at {} DB", dbType);
 	}
 
+	@Test
+	public void searchGDMRecordsFromDBThatWasWrittenAsGDM() throws IOException {
+
+		LOG.debug("start search multiple GDM records test for GDM resource at {} DB", dbType);
+
+		final String dataModelURI = "http://data.slub-dresden.de/resources/8888";
+
+		writeGDMToDBInternal(dataModelURI, "versioning/csv.gdm.v1.json");
+
+		final ObjectMapper objectMapper = Util.getJSONObjectMapper();
+		objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
+		final ObjectNode requestJson = objectMapper.createObjectNode();
+
+		final Set<String> expectedRecordURIs = new HashSet<>();
+		expectedRecordURIs
+				.add("http://data.slub-dresden.de/datamodels/DataModel-574990f5-4785-4020-b86a-9765bb084f16/records/34aa79b1-4d70-4511-a36a-4a6311300c47");
+		expectedRecordURIs
+				.add("http://data.slub-dresden.de/datamodels/DataModel-574990f5-4785-4020-b86a-9765bb084f16/records/f7a215bf-74f1-4832-8d29-4bb165d95596");
+		final String keyAP = "http://data.slub-dresden.de/resources/1/schema#year";
+		final String searchValue = "2001";
+
+		requestJson.put(DMPStatics.KEY_ATTRIBUTE_PATH_IDENTIFIER, keyAP);
+		requestJson.put(DMPStatics.SEARCH_VALUE_IDENTIFIER, searchValue);
+		requestJson.put(DMPStatics.DATA_MODEL_URI_IDENTIFIER, dataModelURI);
+
+		// all records are read in one batch
+		final List<String> actualRecordURIs = getResourceURIs(searchGDMRecords(requestJson, 12));
+
+		Assert.assertEquals(expectedRecordURIs, new HashSet<>(actualRecordURIs));
+		Assert.assertEquals(expectedRecordURIs.size(), actualRecordURIs.size());
+
+		// the records are read in chunks by several workers (in the order of the sequential read)
+		requestJson.put(GDMResource.PARALLELISM_IDENTIFIER, 2);
+		requestJson.put(GDMResource.ORDERED_IDENTIFIER, true);
+
+		Assert.assertEquals(actualRecordURIs, getResourceURIs(searchGDMRecords(requestJson, 12)));
+
+		requestJson.put(GDMResource.ORDERED_IDENTIFIER, false);
+
+		final List<String> actualUnorderedRecordURIs = getResourceURIs(searchGDMRecords(requestJson, 12));
+
+		Assert.assertEquals(expectedRecordURIs, new HashSet<>(actualUnorderedRecordURIs));
+		Assert.assertEquals(expectedRecordURIs.size(), actualUnorderedRecordURIs.size());
+
+		LOG.debug("finished search multiple GDM records test for GDM resource at {} DB", dbType);
+	}
+
 	@Ignore
 	@Test
 	public void searchGDMRecordFromDBThatWasWrittenAsGDM4() throws IOException {
@@ -438,6 +725,121 @@ public abstract class GDMResource4Test extends BaseGDMResourceTest {
 		return resource;
 	}
 
+	private ClientResponse readGDMModel(final JsonNode requestJson) throws IOException {
+
+		final String requestJsonString = objectMapper.writeValueAsString(requestJson);
+
+		// POST the request
+		return target().path("/get").type(MediaType.APPLICATION_JSON_TYPE).accept(MediaType.APPLICATION_JSON)
+				.post(ClientResponse.class, requestJsonString);
+	}
+
+	private static Model parseModel(final ClientResponse response) throws IOException {
+
+		return parseModel(response.getEntity(InputStream.class));
+	}
+
+	private static Model parseModel(final InputStream actualResult) throws IOException {
+
+		final BufferedInputStream bis = new BufferedInputStream(actualResult, 1024);
+		final ModelParser modelParser = new ModelParser(bis);
+		final Model model = new Model();
+
+		final Observable<Void> parseObservable = modelParser.parse().map(resource1 -> {
+
+			model.addResource(resource1);
+
+			return null;
+		});
+
+		final Iterator<Void> iterator = parseObservable.toBlocking().getIterator();
+
+		while (iterator.hasNext()) {
+
+			iterator.next();
+		}
+
+		bis.close();
+		actualResult.close();
+
+		return model;
+	}
+
+	private static List<String> getResourceURIs(final Model model) {
+
+		final List<String> resourceURIs = new ArrayList<>();
+
+		for (final Resource resource : model.getResources()) {
+
+			resourceURIs.add(resource.getUri());
+		}
+
+		return resourceURIs;
+	}
+
+	private static Map<String, JsonNode> getResourcesByURI(final Model model) {
+
+		final ObjectMapper objectMapper = Util.getJSONObjectMapper();
+		final Map<String, JsonNode> resources = new HashMap<>();
+
+		for (final Resource resource : model.getResources()) {
+
+			resources.put(resource.getUri(), objectMapper.valueToTree(resource));
+		}
+
+		return resources;
+	}
+
+	private static Map<String, Set<String>> getStatementsByURI(final Model model, final boolean withDataModels) {
+
+		final Map<String, Set<String>> statements = new HashMap<>();
+
+		for (final Resource resource : model.getResources()) {
+
+			statements.put(resource.getUri(), getStatements(resource, withDataModels));
+		}
+
+		return statements;
+	}
+
+	/**
+	 * @return the statements of the given resource as comparable strings, i.e., without node ids, order etc.
+	 */
+	private static Set<String> getStatements(final Resource resource, final boolean withDataModels) {
+
+		final Set<String> statements = new HashSet<>();
+
+		for (final Statement statement : resource.getStatements()) {
+
+			statements.add(serializeNode(statement.getSubject(), withDataModels) + " <" + statement.getPredicate().getUri() + "> "
+					+ serializeNode(statement.getObject(), withDataModels));
+		}
+
+		return statements;
+	}
+
+	private static String serializeNode(final Node node, final boolean withDataModel) {
+
+		if (node instanceof ResourceNode) {
+
+			final ResourceNode resourceNode = (ResourceNode) node;
+
+			if (withDataModel && resourceNode.getDataModel() != null) {
+
+				return "<" + resourceNode.getUri() + "> @ <" + resourceNode.getDataModel() + ">";
+			}
+
+			return "<" + resourceNode.getUri() + ">";
+		}
+
+		if (node instanceof LiteralNode) {
+
+			return "\"" + ((LiteralNode) node).getValue() + "\"";
+		}
+
+		return "_:bnode";
+	}
+
 	private Model searchGDMRecords(final JsonNode requestJson, final int expectedNumberOfStatements) throws IOException {
 
 		final String requestJsonString = objectMapper.writeValueAsString(requestJson);
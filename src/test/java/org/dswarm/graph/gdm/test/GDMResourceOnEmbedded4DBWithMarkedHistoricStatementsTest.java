@@ -0,0 +1,49 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.gdm.test;
+
+import org.junit.After;
+import org.junit.Before;
+
+import org.dswarm.graph.test.Neo4jEmbeddedDBWrapper;
+import org.dswarm.graph.versioning.VersioningStatics;
+
+/**
+ * Runs the (versioned) read tests with data models that mark their historic statements at their subject nodes, i.e., latest version reads
+ * skip historic statements via these marks. Only on embedded DB, since the opt-in is a system property of the server JVM.
+ *
+ * @author tgaengler
+ */
+public class GDMResourceOnEmbedded4DBWithMarkedHistoricStatementsTest extends GDMResource4Test {
+
+	public GDMResourceOnEmbedded4DBWithMarkedHistoricStatementsTest() {
+
+		super(new Neo4jEmbeddedDBWrapper("/ext"), "embedded");
+	}
+
+	@Before
+	public void enableMarkHistoricStatements() {
+
+		System.setProperty(VersioningStatics.MARK_HISTORIC_STATEMENTS_SYSTEM_PROPERTY, Boolean.TRUE.toString());
+	}
+
+	@After
+	public void disableMarkHistoricStatements() {
+
+		System.clearProperty(VersioningStatics.MARK_HISTORIC_STATEMENTS_SYSTEM_PROPERTY);
+	}
+}
@@ -0,0 +1,100 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.hash.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.dswarm.graph.NodeType;
+import org.dswarm.graph.hash.HashUtils;
+import org.dswarm.graph.hash.StreamingSipHash;
+
+/**
+ * Compares the statement hash calculation via hash string (concatenation + salt + UTF-8 encoding) with the streaming statement hash
+ * calculation (as utilised by the processors).<br/>
+ * run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.dswarm.graph.hash.benchmark.StatementHashBenchmark
+ * (or run the main method from the IDE); add -prof gc (JMH option) to compare the allocation rates
+ *
+ * @author tgaengler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class StatementHashBenchmark {
+
+	private final NodeType subjectNodeType   = NodeType.Resource;
+	private final String   subjectIdentifier = "ns12:c33e1a2a-9db1-4c9d-b2fb-a6f4d1c7b5e4";
+	private final String   predicate         = "ns3:http___www_ddb_de_ns_mabxml_1_controlfield";
+	private final NodeType objectNodeType    = NodeType.Literal;
+	private final String   objectIdentifier  = "Grundlagen der Datenbanksysteme : Ausgabe Grundstudium";
+	private final String   salt              = "ns57:DataModel-574990f4-4785-4020-b86a-9765bb084f16";
+
+	private final StreamingSipHash statementHash = HashUtils.newStreamingHash();
+
+	@Benchmark
+	public long hashString() {
+
+		final String simpleHashString = subjectNodeType.toString() + ":" + subjectIdentifier + " " + predicate + " " + objectNodeType.toString()
+				+ ":" + objectIdentifier;
+
+		final String hashString = simpleHashString + " " + salt;
+
+		return HashUtils.generateHash(hashString);
+	}
+
+	@Benchmark
+	public long streamingHash() {
+
+		statementHash.reset()
+				.putString(subjectNodeType.toString())
+				.putChar(':')
+				.putString(subjectIdentifier)
+				.putChar(' ')
+				.putString(predicate)
+				.putChar(' ')
+				.putString(objectNodeType.toString())
+				.putChar(':')
+				.putString(objectIdentifier)
+				.putChar(' ')
+				.putString(salt);
+
+		return statementHash.digest();
+	}
+
+	public static void main(final String[] args) throws RunnerException {
+
+		final Options options = new OptionsBuilder().include(StatementHashBenchmark.class.getSimpleName()).build();
+
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,106 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.hash.test;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.dswarm.graph.NodeType;
+import org.dswarm.graph.hash.HashUtils;
+import org.dswarm.graph.hash.StreamingSipHash;
+
+/**
+ * @author tgaengler
+ */
+public class StreamingSipHashTest {
+
+	@Test
+	public void testSpecVector() {
+
+		final StreamingSipHash hash = HashUtils.newStreamingHash();
+
+		for (int i = 0; i < 15; i++) {
+
+			hash.putByte((byte) i);
+		}
+
+		// Appendix A of https://131002.net/siphash/siphash.pdf
+		Assert.assertEquals(0xa129ca6149be45e5L, hash.digest());
+	}
+
+	@Test
+	public void testBitIdenticalToHashString() {
+
+		final StreamingSipHash hash = HashUtils.newStreamingHash();
+		final Random random = new Random(42);
+
+		for (int i = 0; i < 10000; i++) {
+
+			final String subjectIdentifier = randomString(random);
+			final String predicate = randomString(random);
+			final String objectIdentifier = randomString(random);
+			final String salt = randomString(random);
+
+			final String hashString = NodeType.Resource + ":" + subjectIdentifier + " " + predicate + " " + NodeType.Literal + ":" + objectIdentifier
+					+ " " + salt;
+
+			final long streamingHash = hash.putString(NodeType.Resource.toString()).putChar(':').putString(subjectIdentifier).putChar(' ')
+					.putString(predicate).putChar(' ').putString(NodeType.Literal.toString()).putChar(':').putString(objectIdentifier)
+					.putChar(' ').putString(salt).digest();
+
+			Assert.assertEquals(hashString, HashUtils.generateHash(hashString), streamingHash);
+		}
+	}
+
+	private static String randomString(final Random random) {
+
+		final int length = random.nextInt(30);
+		final StringBuilder sb = new StringBuilder(length);
+
+		for (int i = 0; i < length; i++) {
+
+			switch (random.nextInt(5)) {
+
+				case 0:
+				case 1:
+
+					sb.append((char) (' ' + random.nextInt(95)));
+
+					break;
+				case 2:
+
+					// 2 byte UTF-8 sequences, e.g. umlauts
+					sb.append((char) (0x80 + random.nextInt(0x780)));
+
+					break;
+				case 3:
+
+					// surrogate pairs + unpaired surrogates
+					sb.append((char) (0xd800 + random.nextInt(0x800)));
+
+					break;
+				default:
+
+					sb.append((char) random.nextInt(0x10000));
+			}
+		}
+
+		return sb.toString();
+	}
+}
@@ -0,0 +1,149 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.index.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.dswarm.graph.index.LongBloomFilter;
+import org.dswarm.graph.index.OffHeapLongHashSet;
+
+/**
+ * @author tgaengler
+ */
+public class LongBloomFilterTest {
+
+	private File indexFile;
+	private File filterFile;
+
+	@Before
+	public void prepare() throws IOException {
+
+		final File dir = Files.createTempDirectory("long-bloom-filter").toFile();
+
+		indexFile = new File(dir, "statement_hashes" + OffHeapLongHashSet.FILE_ENDING);
+		filterFile = new File(dir, "statement_hashes" + LongBloomFilter.FILE_ENDING);
+	}
+
+	@After
+	public void cleanUp() {
+
+		indexFile.delete();
+		filterFile.delete();
+		indexFile.getParentFile().delete();
+	}
+
+	@Test
+	public void testNoFalseNegatives() throws IOException {
+
+		final Random random = new Random(42);
+
+		try (final OffHeapLongHashSet index = OffHeapLongHashSet.openOrCreate(indexFile)) {
+
+			for (int i = 0; i < 100000; i++) {
+
+				index.addKey(random.nextLong());
+			}
+
+			index.commit();
+
+			try (final LongBloomFilter filter = LongBloomFilter.openOrRebuild(filterFile, index)) {
+
+				index.forEachKey(key -> Assert.assertTrue(filter.mightContain(key)));
+
+				int falsePositives = 0;
+
+				for (int i = 0; i < 100000; i++) {
+
+					final long key = random.nextLong();
+
+					if (filter.mightContain(key) && !index.containsKey(key)) {
+
+						falsePositives++;
+					}
+				}
+
+				Assert.assertTrue("too many false positives: " + falsePositives, falsePositives < 1000);
+			}
+		}
+	}
+
+	@Test
+	public void testRebuildOfDirtyFilter() throws IOException {
+
+		final Random random = new Random(23);
+
+		try (final OffHeapLongHashSet index = OffHeapLongHashSet.openOrCreate(indexFile)) {
+
+			index.commit();
+
+			final LongBloomFilter filter = LongBloomFilter.openOrRebuild(filterFile, index);
+
+			filter.beginUpdate();
+
+			for (int i = 0; i < 1000; i++) {
+
+				final long key = random.nextLong();
+
+				index.addKey(key);
+				filter.put(key);
+			}
+
+			index.commit();
+
+			// no filter commit, i.e., the filter stays dirty
+			filter.close();
+
+			try (final LongBloomFilter reopenedFilter = LongBloomFilter.openOrRebuild(filterFile, index)) {
+
+				index.forEachKey(key -> Assert.assertTrue(reopenedFilter.mightContain(key)));
+				Assert.assertEquals(0.0, reopenedFilter.getObservedFalsePositiveRate(), 0.0);
+			}
+		}
+	}
+
+	@Test
+	public void testRebuildOfFilterThatMissedAnIndexCommit() throws IOException {
+
+		try (final OffHeapLongHashSet index = OffHeapLongHashSet.openOrCreate(indexFile)) {
+
+			index.addKey(1L);
+			index.commit();
+
+			LongBloomFilter.openOrRebuild(filterFile, index).close();
+
+			// an index commit that bypasses the filter and keeps the index size
+			index.removeKey(1L);
+			index.addKey(2L);
+			index.commit();
+
+			Assert.assertEquals(1, index.longSize());
+
+			try (final LongBloomFilter reopenedFilter = LongBloomFilter.openOrRebuild(filterFile, index)) {
+
+				Assert.assertTrue(reopenedFilter.mightContain(2L));
+			}
+		}
+	}
+}
@@ -0,0 +1,189 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.index.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.dswarm.graph.index.OffHeapLongHashSet;
+
+/**
+ * @author tgaengler
+ */
+public class OffHeapLongHashSetTest {
+
+	private File indexFile;
+
+	@Before
+	public void prepare() throws IOException {
+
+		indexFile = new File(Files.createTempDirectory("off-heap-long-hash-set").toFile(), "statement_hashes" + OffHeapLongHashSet.FILE_ENDING);
+	}
+
+	@After
+	public void cleanUp() {
+
+		indexFile.delete();
+		indexFile.getParentFile().delete();
+	}
+
+	@Test
+	public void testInMemoryAddContainsRemove() {
+
+		final OffHeapLongHashSet set = OffHeapLongHashSet.createInMemory(16);
+		final Set<Long> expected = new HashSet<>();
+		final Random random = new Random(42);
+
+		// enforces some resizes + removals within probe sequences
+		for (int i = 0; i < 200000; i++) {
+
+			final long key = random.nextInt(50000) - 100;
+
+			if (random.nextInt(3) == 0) {
+
+				Assert.assertEquals(expected.remove(key), set.removeKey(key));
+			} else {
+
+				Assert.assertEquals(expected.add(key), set.addKey(key));
+			}
+		}
+
+		for (long key = -200; key < 50100; key++) {
+
+			Assert.assertEquals("key " + key, expected.contains(key), set.containsKey(key));
+		}
+
+		Assert.assertEquals(expected.size(), set.size());
+		Assert.assertEquals(expected, new HashSet<>(set));
+
+		set.close();
+	}
+
+	@Test
+	public void testCommitRollbackAndReopen() throws IOException {
+
+		OffHeapLongHashSet set = OffHeapLongHashSet.openOrCreate(indexFile);
+
+		set.addKey(0);
+		set.addKey(1);
+		set.addKey(Long.MIN_VALUE);
+		set.commit();
+
+		set.addKey(2);
+		set.removeKey(1);
+
+		Assert.assertTrue(set.containsKey(2));
+		Assert.assertFalse(set.containsKey(1));
+
+		set.rollback();
+
+		Assert.assertFalse(set.containsKey(2));
+		Assert.assertTrue(set.containsKey(1));
+
+		final Random random = new Random(23);
+		final Set<Long> expected = new HashSet<>(set);
+
+		// enforces a resize of the mapped file
+		for (int i = 0; i < 10000; i++) {
+
+			final long key = random.nextLong();
+
+			set.addKey(key);
+			expected.add(key);
+		}
+
+		set.commit();
+		set.close();
+
+		// uncommitted changes get lost
+		set = OffHeapLongHashSet.openOrCreate(indexFile);
+		set.addKey(3);
+		set.close();
+
+		set = OffHeapLongHashSet.openOrCreate(indexFile);
+
+		Assert.assertEquals(expected.size(), set.size());
+		Assert.assertEquals(expected, new HashSet<>(set));
+		Assert.assertFalse(set.containsKey(3));
+
+		set.close();
+	}
+
+	@Test
+	public void testMergeAndCommit() throws IOException {
+
+		final Random random = new Random(7);
+		final Set<Long> expected = new HashSet<>();
+
+		OffHeapLongHashSet set = OffHeapLongHashSet.openOrCreate(indexFile);
+
+		for (int round = 0; round < 10; round++) {
+
+			// some pending changes + a chunk with duplicates (within the chunk and with the set)
+			for (int i = 0; i < 100; i++) {
+
+				final long key = random.nextInt(1000) - 500;
+
+				if (random.nextBoolean()) {
+
+					set.removeKey(key);
+					expected.remove(key);
+				} else {
+
+					set.addKey(key);
+					expected.add(key);
+				}
+			}
+
+			final long[] chunk = new long[20000];
+
+			for (int i = 0; i < chunk.length; i++) {
+
+				chunk[i] = random.nextInt(4) == 0 ? random.nextInt(1000) - 500 : random.nextLong();
+			}
+
+			final long sizeBefore = expected.size();
+
+			for (final long key : chunk) {
+
+				expected.add(key);
+			}
+
+			Assert.assertEquals(expected.size() - sizeBefore, set.mergeAndCommit(chunk));
+			Assert.assertEquals(expected.size(), set.longSize());
+
+			if (round % 3 == 0) {
+
+				set.close();
+				set = OffHeapLongHashSet.openOrCreate(indexFile);
+			}
+
+			Assert.assertEquals(expected, new HashSet<>(set));
+		}
+
+		set.close();
+	}
+}
@@ -0,0 +1,114 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.index.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.dswarm.graph.index.LongBloomFilter;
+import org.dswarm.graph.index.SharedLongIndex;
+
+/**
+ * @author tgaengler
+ */
+public class SharedLongIndexTest {
+
+	private static final String INDEX_NAME = "statement_hashes";
+
+	private File   indexDir;
+	private String indexFileName;
+
+	@Before
+	public void prepare() throws IOException {
+
+		indexDir = Files.createTempDirectory("shared-long-index").toFile();
+		indexFileName = new File(indexDir, INDEX_NAME).getPath();
+	}
+
+	@After
+	public void cleanUp() {
+
+		final File[] files = indexDir.listFiles();
+
+		if (files != null) {
+
+			for (final File file : files) {
+
+				file.delete();
+			}
+		}
+
+		indexDir.delete();
+	}
+
+	@Test
+	public void testHandlesShareOneIndex() throws IOException {
+
+		final SharedLongIndex firstHandle = SharedLongIndex.openOrCreate(indexFileName, INDEX_NAME);
+		final SharedLongIndex secondHandle = SharedLongIndex.openOrCreate(indexFileName, INDEX_NAME);
+
+		Assert.assertEquals(3, firstHandle.commit(new long[] { 1L, 2L, 3L }));
+		Assert.assertTrue(secondHandle.containsKey(2L));
+
+		// removals are applied before the additions
+		Assert.assertEquals(1, secondHandle.commit(new long[] { 3L, 4L }, new long[] { 1L }));
+		Assert.assertFalse(firstHandle.containsKey(1L));
+		Assert.assertEquals(3, firstHandle.longSize());
+
+		// the index is released with the last handle only
+		firstHandle.close();
+		firstHandle.close();
+
+		Assert.assertTrue(firstHandle.isClosed());
+		Assert.assertTrue(secondHandle.containsKey(4L));
+
+		secondHandle.close();
+
+		try (final SharedLongIndex reopenedHandle = SharedLongIndex.openOrCreate(indexFileName, INDEX_NAME)) {
+
+			Assert.assertEquals(3, reopenedHandle.longSize());
+			Assert.assertTrue(reopenedHandle.containsKey(2L));
+			Assert.assertTrue(reopenedHandle.containsKey(3L));
+			Assert.assertTrue(reopenedHandle.containsKey(4L));
+		}
+	}
+
+	@Test
+	public void testDelete() throws IOException {
+
+		try (final SharedLongIndex index = SharedLongIndex.openOrCreate(indexFileName, INDEX_NAME)) {
+
+			index.commit(new long[] { 1L, 2L });
+		}
+
+		Assert.assertTrue(new File(indexFileName + LongBloomFilter.FILE_ENDING).exists());
+		Assert.assertTrue(SharedLongIndex.delete(indexFileName));
+		Assert.assertFalse(new File(indexFileName + LongBloomFilter.FILE_ENDING).exists());
+
+		try (final SharedLongIndex index = SharedLongIndex.openOrCreate(indexFileName, INDEX_NAME)) {
+
+			Assert.assertEquals(0, index.longSize());
+			Assert.assertFalse(index.containsKey(1L));
+		}
+	}
+}
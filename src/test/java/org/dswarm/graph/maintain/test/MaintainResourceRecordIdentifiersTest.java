@@ -0,0 +1,175 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.maintain.test;
+
+import javax.ws.rs.core.MediaType;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.jersey.api.client.ClientResponse;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.dswarm.common.DMPStatics;
+import org.dswarm.graph.gdm.test.BaseGDMResourceTest;
+import org.dswarm.graph.json.Resource;
+import org.dswarm.graph.test.Neo4jDBWrapper;
+
+/**
+ * @author tgaengler
+ */
+public abstract class MaintainResourceRecordIdentifiersTest extends BaseGDMResourceTest {
+
+	private static final Logger LOG = LoggerFactory.getLogger(MaintainResourceRecordIdentifiersTest.class);
+
+	private static final String RECORD_IDENTIFIER_AP = "http://data.slub-dresden.de/resources/1/schema#id";
+
+	public MaintainResourceRecordIdentifiersTest(final Neo4jDBWrapper neo4jDBWrapper, final String dbTypeArg) {
+
+		super(neo4jDBWrapper, dbTypeArg);
+	}
+
+	@Test
+	public void testRebuildRecordIdentifiersIndex() throws Exception {
+
+		MaintainResourceRecordIdentifiersTest.LOG.debug("start rebuild record identifiers index test for maintain resource at {} DB", dbType);
+
+		final String dataModelURI = "http://data.slub-dresden.de/resources/11111";
+
+		writeGDMToDBInternal(dataModelURI, "versioning/csv.gdm.v1.json");
+
+		final String body = rebuildRecordIdentifiersIndex(dataModelURI, RECORD_IDENTIFIER_AP);
+
+		Assert.assertEquals("{\"indexed\":19}", body);
+
+		// a rebuild replaces the existing index entries
+		final String body2 = rebuildRecordIdentifiersIndex(dataModelURI, RECORD_IDENTIFIER_AP);
+
+		Assert.assertEquals("{\"indexed\":19}", body2);
+
+		// lookup via (complete) index
+		final ObjectNode requestJson = objectMapper.createObjectNode();
+		requestJson.put(DMPStatics.RECORD_ID_IDENTIFIER, "1234");
+		requestJson.put(DMPStatics.LEGACY_RECORD_IDENTIFIER_ATTRIBUTE_PATH, RECORD_IDENTIFIER_AP);
+		requestJson.put(DMPStatics.DATA_MODEL_URI_IDENTIFIER, dataModelURI);
+
+		final ClientResponse response = service().path("/gdm/getrecord").type(MediaType.APPLICATION_JSON_TYPE).accept(MediaType.APPLICATION_JSON)
+				.post(ClientResponse.class, objectMapper.writeValueAsString(requestJson));
+
+		Assert.assertEquals("expected 200", 200, response.getStatus());
+
+		final Resource resource = objectMapper.readValue(response.getEntity(String.class), Resource.class);
+
+		Assert.assertEquals(
+				"http://data.slub-dresden.de/datamodels/DataModel-574990f5-4785-4020-b86a-9765bb084f16/records/5f7019a6-96e3-4aae-aaac-da743e2840b9",
+				resource.getUri());
+		Assert.assertEquals(6, resource.size());
+
+		MaintainResourceRecordIdentifiersTest.LOG.debug("finished rebuild record identifiers index test for maintain resource at {} DB", dbType);
+	}
+
+	@Test
+	public void testRebuildRecordIdentifiersIndexWithDeprecatedRecord() throws Exception {
+
+		MaintainResourceRecordIdentifiersTest.LOG
+				.debug("start rebuild record identifiers index with deprecated record test for maintain resource at {} DB", dbType);
+
+		final String dataModelURI = "http://data.slub-dresden.de/resources/22222";
+
+		writeGDMToDBInternal(dataModelURI, "versioning/csv.gdm.v1.json");
+
+		// i.e. 3 of the 19 records of version 1 are deprecated (incl. the one with record identifier '9843') and 2 records are added
+		final ObjectNode metadata = objectMapper.createObjectNode();
+		metadata.put(DMPStatics.DATA_MODEL_URI_IDENTIFIER, dataModelURI);
+		metadata.put(DMPStatics.RECORD_CLASS_URI_IDENTIFIER, "http://data.slub-dresden.de/resources/1/schema#RecordType");
+		metadata.put(DMPStatics.DEPRECATE_MISSING_RECORDS_IDENTIFIER, Boolean.TRUE.toString());
+
+		writeGDMToDBInternal(metadata, "versioning/csv.gdm.v2.json");
+
+		// only the records of the latest version are indexed
+		final String body = rebuildRecordIdentifiersIndex(dataModelURI, RECORD_IDENTIFIER_AP);
+
+		Assert.assertEquals("{\"indexed\":18}", body);
+
+		final ObjectNode requestJson = objectMapper.createObjectNode();
+		requestJson.put(DMPStatics.RECORD_ID_IDENTIFIER, "9843");
+		requestJson.put(DMPStatics.LEGACY_RECORD_IDENTIFIER_ATTRIBUTE_PATH, RECORD_IDENTIFIER_AP);
+		requestJson.put(DMPStatics.DATA_MODEL_URI_IDENTIFIER, dataModelURI);
+
+		// the deprecated record isn't part of the latest version (and the complete index knows that)
+		Assert.assertEquals("expected 404", 404, readRecord(requestJson).getStatus());
+
+		// ... but it is part of the former version
+		requestJson.put(DMPStatics.VERSION_IDENTIFIER, 1);
+
+		final ClientResponse response = readRecord(requestJson);
+
+		Assert.assertEquals("expected 200", 200, response.getStatus());
+
+		final Resource resource = objectMapper.readValue(response.getEntity(String.class), Resource.class);
+
+		Assert.assertEquals(
+				"http://data.slub-dresden.de/datamodels/DataModel-574990f5-4785-4020-b86a-9765bb084f16/records/7a7990dd-2e4a-4757-85f2-7de444a0e502",
+				resource.getUri());
+		Assert.assertEquals(6, resource.size());
+
+		MaintainResourceRecordIdentifiersTest.LOG
+				.debug("finished rebuild record identifiers index with deprecated record test for maintain resource at {} DB", dbType);
+	}
+
+	@Test
+	public void testRebuildRecordIdentifiersIndexOfUnknownDataModel() throws Exception {
+
+		MaintainResourceRecordIdentifiersTest.LOG
+				.debug("start rebuild record identifiers index of unknown data model test for maintain resource at {} DB", dbType);
+
+		// i.e. no namespace prefixes should be minted for these URIs
+		final String body = rebuildRecordIdentifiersIndex("http://example.org/unknown/datamodels/1", "http://example.org/unknown/schema#id");
+
+		Assert.assertEquals("{\"indexed\":0}", body);
+
+		MaintainResourceRecordIdentifiersTest.LOG
+				.debug("finished rebuild record identifiers index of unknown data model test for maintain resource at {} DB", dbType);
+	}
+
+	private ClientResponse readRecord(final ObjectNode requestJson) throws JsonProcessingException {
+
+		return service().path("/gdm/getrecord").type(MediaType.APPLICATION_JSON_TYPE).accept(MediaType.APPLICATION_JSON)
+				.post(ClientResponse.class, objectMapper.writeValueAsString(requestJson));
+	}
+
+	private String rebuildRecordIdentifiersIndex(final String dataModelURI, final String recordIdentifierAP) throws JsonProcessingException {
+
+		final ObjectNode requestJSON = objectMapper.createObjectNode();
+		requestJSON.put(DMPStatics.DATA_MODEL_URI_IDENTIFIER, dataModelURI);
+		requestJSON.put(DMPStatics.LEGACY_RECORD_IDENTIFIER_ATTRIBUTE_PATH, recordIdentifierAP);
+		final String request = objectMapper.writeValueAsString(requestJSON);
+
+		final ClientResponse response = service().path("/maintain/recordidentifiers/rebuild").type(MediaType.APPLICATION_JSON_TYPE)
+				.accept(MediaType.APPLICATION_JSON).post(ClientResponse.class, request);
+
+		Assert.assertEquals("expected 200", 200, response.getStatus());
+
+		final String body = response.getEntity(String.class);
+
+		Assert.assertNotNull("response body shouldn't be null", body);
+
+		return body;
+	}
+}
@@ -0,0 +1,265 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.rdf.export.benchmark;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.Result;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.test.TestGraphDatabaseFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.dswarm.graph.DMPGraphException;
+import org.dswarm.graph.GraphProcessingStatics;
+import org.dswarm.graph.index.NamespaceIndex;
+import org.dswarm.graph.index.SchemaIndexUtils;
+import org.dswarm.graph.model.GraphStatics;
+import org.dswarm.graph.rdf.export.BaseRDFExporter;
+import org.dswarm.graph.rdf.export.DataModelRDFExporter;
+import org.dswarm.graph.rdf.export.RDFExporter;
+import org.dswarm.graph.tx.Neo4jTransactionHandler;
+import org.dswarm.graph.tx.TransactionHandler;
+
+/**
+ * Compares the export of a data model via the former Cypher query with ORDER BY, SKIP and LIMIT (1000 relationships per page) with the
+ * linear scan of {@link DataModelRDFExporter} over a synthetic graph with 10 statements per record (100000 records = 1M statements,
+ * 1000000 records = 10M statements) plus a second data model (with 10% of the records). Both exporters stream into a sink, i.e., only the
+ * reading of the relationships and their conversion is measured. The (impermanent) graph with 1000000 records requires a large heap
+ * (see fork options) and the paged export (SKIP over all former pages) takes very long at this size.<br/>
+ * run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.dswarm.graph.rdf.export.benchmark.DataModelRDFExportBenchmark
+ * (or run the main method from the IDE)
+ *
+ * @author tgaengler
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = { "-Xmx12g" })
+public class DataModelRDFExportBenchmark {
+
+	private static final String DATABASE_PATH = "target/benchmark/data-model-rdf-export";
+
+	private static final String DATA_NAMESPACE   = "http://data.example.org/";
+	private static final String SCHEMA_NAMESPACE = "http://schema.example.org/";
+
+	private static final String DATA_MODEL_URI       = DATA_NAMESPACE + "datamodel/1";
+	private static final String OTHER_DATA_MODEL_URI = DATA_NAMESPACE + "datamodel/2";
+
+	private static final int RECORD_LITERALS = 6;
+	private static final int BNODE_LITERALS  = 3;
+
+	@Param({ "10000", "100000", "1000000" })
+	public int records;
+
+	private GraphDatabaseService database;
+	private NamespaceIndex       namespaceIndex;
+
+	@Setup
+	public void setUp() throws DMPGraphException {
+
+		database = new TestGraphDatabaseFactory().newImpermanentDatabaseBuilder(new File(DATABASE_PATH)).newGraphDatabase();
+
+		SchemaIndexUtils.createSchemaIndices(database, DATABASE_PATH);
+
+		namespaceIndex = new NamespaceIndex(database, new Neo4jTransactionHandler(database));
+
+		final String prefixedDataModelURI;
+		final String prefixedOtherDataModelURI;
+
+		try (final Transaction tx = database.beginTx()) {
+
+			namespaceIndex.addPrefix(SCHEMA_NAMESPACE, "ns1");
+
+			prefixedDataModelURI = namespaceIndex.createPrefixedURI(DATA_MODEL_URI);
+			prefixedOtherDataModelURI = namespaceIndex.createPrefixedURI(OTHER_DATA_MODEL_URI);
+
+			namespaceIndex.pumpNFlushNamespacePrefixIndex();
+
+			tx.success();
+		}
+
+		namespaceIndex.publishTXNamespaces();
+
+		createRecords(prefixedDataModelURI, records);
+		createRecords(prefixedOtherDataModelURI, records / 10);
+	}
+
+	private void createRecords(final String prefixedDataModelURI, final int numberOfRecords) {
+
+		int i = 0;
+
+		while (i < numberOfRecords) {
+
+			try (final Transaction tx = database.beginTx()) {
+
+				for (int j = 0; j < 10000 && i < numberOfRecords; j++, i++) {
+
+					createRecord(i, prefixedDataModelURI);
+				}
+
+				tx.success();
+			}
+		}
+	}
+
+	private void createRecord(final int recordNumber, final String prefixedDataModelURI) {
+
+		final Node recordNode = database.createNode(GraphProcessingStatics.RESOURCE_LABEL);
+		recordNode.setProperty(GraphStatics.URI_PROPERTY, prefixedDataModelURI + "/record/" + recordNumber);
+		recordNode.setProperty(GraphStatics.DATA_MODEL_PROPERTY, prefixedDataModelURI);
+
+		for (int j = 0; j < RECORD_LITERALS; j++) {
+
+			addLiteral(recordNode, "ns1:record" + j, "value " + recordNumber + '-' + j, prefixedDataModelURI);
+		}
+
+		final Node bnode = database.createNode(GraphProcessingStatics.BNODE_LABEL);
+		addRelationship(recordNode, "ns1:bnode", bnode, prefixedDataModelURI);
+
+		for (int j = 0; j < BNODE_LITERALS; j++) {
+
+			addLiteral(bnode, "ns1:bnode" + j, "bnode value " + recordNumber + '-' + j, prefixedDataModelURI);
+		}
+	}
+
+	private void addLiteral(final Node subjectNode, final String prefixedPredicateURI, final String value, final String prefixedDataModelURI) {
+
+		final Node literalNode = database.createNode(GraphProcessingStatics.LITERAL_LABEL);
+		literalNode.setProperty(GraphStatics.VALUE_PROPERTY, value);
+
+		addRelationship(subjectNode, prefixedPredicateURI, literalNode, prefixedDataModelURI);
+	}
+
+	private static void addRelationship(final Node subjectNode, final String prefixedPredicateURI, final Node objectNode,
+			final String prefixedDataModelURI) {
+
+		final Relationship relationship = subjectNode.createRelationshipTo(objectNode, DynamicRelationshipType.withName(prefixedPredicateURI));
+		relationship.setProperty(GraphStatics.DATA_MODEL_PROPERTY, prefixedDataModelURI);
+	}
+
+	@TearDown
+	public void tearDown() {
+
+		database.shutdown();
+	}
+
+	@Benchmark
+	public long paged() throws DMPGraphException {
+
+		return export(new PagedDataModelRDFExporter(database, DATA_MODEL_URI, new Neo4jTransactionHandler(database), namespaceIndex));
+	}
+
+	@Benchmark
+	public long scan() throws DMPGraphException {
+
+		return export(new DataModelRDFExporter(database, DATA_MODEL_URI, new Neo4jTransactionHandler(database), namespaceIndex));
+	}
+
+	private static long export(final RDFExporter rdfExporter) throws DMPGraphException {
+
+		rdfExporter.export(StreamRDFLib.sinkNull());
+
+		return rdfExporter.successfullyProcessedStatements();
+	}
+
+	/**
+	 * the former implementation of {@link DataModelRDFExporter}
+	 */
+	private static class PagedDataModelRDFExporter extends BaseRDFExporter {
+
+		private static final int CYPHER_LIMIT = 1000;
+
+		private final String             prefixedDataModelURI;
+		private final TransactionHandler tx;
+
+		PagedDataModelRDFExporter(final GraphDatabaseService databaseArg, final String dataModelURIArg, final TransactionHandler txArg,
+				final NamespaceIndex namespaceIndex) throws DMPGraphException {
+
+			super(databaseArg, namespaceIndex);
+
+			tx = txArg;
+			prefixedDataModelURI = namespaceIndex.createPrefixedURI(dataModelURIArg);
+		}
+
+		@Override
+		protected boolean exportStatements() throws DMPGraphException {
+
+			tx.ensureRunningTx();
+
+			boolean requestResults = true;
+			long start = 0;
+
+			while (requestResults) {
+
+				final Result result = database.execute("MATCH (n)-[r]->(m) WHERE r." + GraphStatics.DATA_MODEL_PROPERTY + " = \""
+						+ prefixedDataModelURI + "\" RETURN DISTINCT r ORDER BY id(r) SKIP " + start + " LIMIT " + CYPHER_LIMIT);
+
+				start += CYPHER_LIMIT;
+				requestResults = false;
+
+				while (result.hasNext()) {
+
+					final Map<String, Object> row = result.next();
+
+					for (final Object value : row.values()) {
+
+						relationshipHandler.handleRelationship((Relationship) value);
+
+						requestResults = true;
+					}
+				}
+
+				result.close();
+			}
+
+			tx.succeedTx();
+
+			return true;
+		}
+	}
+
+	public static void main(final String[] args) throws RunnerException {
+
+		final Options options = new OptionsBuilder().include(DataModelRDFExportBenchmark.class.getSimpleName()).build();
+
+		new Runner(options).run();
+	}
+}
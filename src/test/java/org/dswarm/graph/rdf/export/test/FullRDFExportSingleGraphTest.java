@@ -20,6 +20,7 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 
 import org.apache.jena.vocabulary.RDF;
 import org.junit.Assert;
@@ -71,6 +72,41 @@ public abstract class FullRDFExportSingleGraphTest extends RDFExportTest {
 		readAllRDFFromDBinternal(MediaTypeUtil.N_QUADS, HttpStatus.SC_OK, Lang.NQUADS, ".nq");
 	}
 
+	/**
+	 * request to export all data in n-triples format (streamed), i.e., all data models are serialized without graph
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void readAllRDFFromDBAcceptNtriples() throws IOException {
+
+		final String dataModelURI = "http://data.slub-dresden.de/resources/2";
+
+		writeRDFToDBInternal(dataModelURI, FullRDFExportSingleGraphTest.RDF_N3_FILE);
+
+		final ClientResponse response = service().path("/rdf/getall").accept("application/n-triples").get(ClientResponse.class);
+
+		Assert.assertEquals("expected 200", HttpStatus.SC_OK, response.getStatus());
+
+		ExportUtils.checkContentDispositionHeader(response, ".nt");
+
+		final String body = response.getEntity(String.class);
+
+		Assert.assertNotNull("response body shouldn't be null", body);
+
+		// note: this fails, if the body contains quads
+		final Model actualModel = ModelFactory.createDefaultModel();
+		RDFDataMgr.read(actualModel, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), Lang.NTRIPLES);
+
+		final Model modelFromOriginalRDFile = RDFDataMgr.loadModel(FullRDFExportSingleGraphTest.RDF_N3_FILE);
+
+		// note: remove rdf:type statements, since they won't available at read requests right now
+		modelFromOriginalRDFile.removeAll(null, RDF.type, null);
+
+		Assert.assertTrue("the RDF from the property graph is not isomorphic to the RDF in the original file ",
+				actualModel.isIsomorphicWith(modelFromOriginalRDFile));
+	}
+
 	/**
 	 * request to export all data in trig format
 	 *
@@ -119,6 +155,60 @@ public abstract class FullRDFExportSingleGraphTest extends RDFExportTest {
 		readAllRDFFromDBinternal("khlav/kalash", HttpStatus.SC_NOT_ACCEPTABLE, null, null);
 	}
 
+	/**
+	 * request to export all data in n-quads format in partitions, whereby all resources (i.e. all partitions) share one bnode. The
+	 * concatenated partitions need to refer to the same bnode (label), i.e., the exported model needs to be isomorphic to the written
+	 * one.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void readAllRDFFromDBInPartitionsWithSharedBNode() throws IOException {
+
+		FullRDFExportSingleGraphTest.LOG.debug("start export all RDF statements in partitions test for RDF resource at {} DB", dbType);
+
+		final String dataModelURI = "http://data.slub-dresden.de/resources/3";
+
+		// i.e. more resources than fit into one partition (1000 resources)
+		final StringBuilder sb = new StringBuilder("@prefix ex: <http://example.org/> .\n\n");
+
+		for (int i = 0; i < 2500; i++) {
+
+			sb.append("ex:resource").append(i).append(" ex:title \"title ").append(i).append("\" ; ex:shared _:shared .\n");
+		}
+
+		sb.append("_:shared ex:value \"shared value\" .\n");
+
+		final byte[] file = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+		writeRDFToDBInternal(dataModelURI, file);
+
+		final ClientResponse response = service().path("/rdf/getall").queryParam("parallelism", "4").accept(MediaTypeUtil.N_QUADS)
+				.get(ClientResponse.class);
+
+		Assert.assertEquals("expected 200", HttpStatus.SC_OK, response.getStatus());
+
+		final String body = response.getEntity(String.class);
+
+		Assert.assertNotNull("response body shouldn't be null", body);
+
+		final Dataset dataset = DatasetFactory.createMem();
+		RDFDataMgr.read(dataset, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), Lang.NQUADS);
+
+		Assert.assertTrue("the received dataset should contain a graph with the data model uri '" + dataModelURI + "'",
+				dataset.containsNamedModel(dataModelURI));
+
+		final Model expectedModel = ModelFactory.createDefaultModel();
+		RDFDataMgr.read(expectedModel, new ByteArrayInputStream(file), Lang.TURTLE);
+
+		final Model actualModel = dataset.getNamedModel(dataModelURI);
+
+		Assert.assertEquals("the number of statements should be " + expectedModel.size(), expectedModel.size(), actualModel.size());
+		Assert.assertTrue("the partitions should refer to one shared bnode", actualModel.isIsomorphicWith(expectedModel));
+
+		FullRDFExportSingleGraphTest.LOG.debug("finished export all RDF statements in partitions test for RDF resource at {} DB", dbType);
+	}
+
 	/**
 	 * @param requestedExportLanguage the serialization format neo4j should export the data to. (this value is used as accept
 	 *            header arg to query neo4j)
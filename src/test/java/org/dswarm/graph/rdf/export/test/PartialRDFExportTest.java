@@ -29,7 +29,6 @@ import org.apache.http.HttpStatus;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
 import org.dswarm.common.MediaTypeUtil;
-import org.dswarm.graph.rdf.export.DataModelRDFExporter;
 import org.dswarm.graph.test.Neo4jDBWrapper;
 import org.junit.Before;
 import org.junit.Test;
@@ -50,10 +49,14 @@ public abstract class PartialRDFExportTest extends RDFExportTest {
 	private final String datamodel2File    = "rdfexport_datamodel2.n3";
 	private final String datamodel4File    = "rdfexport_datamodel4.n3";
 	private final String datamodel5File = "rdfexport_datamodel5.n3";
+	private final String datamodel6File = "rdfexport_datamodel6.n3";
+	private final String datamodel7File = "rdfexport_datamodel7.n3";
 
 	private final String dataModelURI2 = "http://data.slub-dresden.de/datamodel/2/data";
 	private final String dataModelURI4 = "http://data.slub-dresden.de/datamodel/4/data";
 	private final String dataModelURI5 = "http://data.slub-dresden.de/datamodel/5/data";
+	private final String dataModelURI6 = "http://data.slub-dresden.de/datamodel/6/data";
+	private final String dataModelURI7 = "http://data.slub-dresden.de/datamodel/7/data";
 
 	public PartialRDFExportTest(final Neo4jDBWrapper neo4jDBWrapper, final String dbTypeArg) {
 
@@ -101,6 +104,17 @@ public abstract class PartialRDFExportTest extends RDFExportTest {
 		exportRDFByFormatFromDBInternal(MediaTypeUtil.N_QUADS, dataModelURI4, HttpStatus.SC_OK, Lang.NQUADS, datamodel4File, ".nq");
 	}
 
+	/**
+	 * Export the graph identified by {@code dataModelURI4} to N_TRIPLES (streamed)
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void testExportGraphDatamodel4FromDBToN_TRIPLES() throws IOException {
+
+		exportRDFByFormatFromDBInternal("application/n-triples", dataModelURI4, HttpStatus.SC_OK, Lang.NTRIPLES, datamodel4File, ".nt");
+	}
+
 	/**
 	 * Export the graph identified by {@code dataModelURI4} to TRIG
 	 *
@@ -160,32 +174,61 @@ public abstract class PartialRDFExportTest extends RDFExportTest {
 	}
 
 	/**
-	 * {@link org.dswarm.graph.rdf.export.DataModelRDFExporter#export()} uses a cypher query that makes use of order by, skip and limit to request the data
-	 * model in slices. This test makes sure the slicing works. <br />
-	 * Additionally, the test does a self-test and fails if the resource file's model contains less statements than one cypher
-	 * query returns.
+	 * {@link org.dswarm.graph.rdf.export.DataModelRDFExporter#export()} scans the data model from its resource nodes (incl. their
+	 * bnodes). This test makes sure that a data model with more statements than the former cypher page size (1000) is exported
+	 * completely. <br />
+	 * Additionally, the test does a self-test and fails if the resource file's model contains less statements than this.
 	 *
 	 * @throws IOException
 	 */
 	@Test
-	public void testExportWithCypherOrderBySkipLimt() throws IOException {
+	public void testExportOfBiggerDataModel() throws IOException {
 
 		final String dataModelURI = "http://data.slub-dresden.de/resources/2";
 		final String RDF_N3_FILE = "dmpf_bsp1.n3";
 
-		// make sure the expected model has more statements than a single cypher query returns to make sure we actually test the
-		// order by, skip and limit parameters by executing consecutive queries
+		// make sure the expected model has more statements than a former cypher page
 		// hint: this is done programmatically to fail in case someone modified RDF_N3_FILE
 		final Model expectedModel = RDFDataMgr.loadModel(RDF_N3_FILE);
 		Assert.assertNotNull("actual model shouldn't be null", expectedModel);
-		Assert.assertTrue("The cypher limit parameter must be smaller than the number of statements/relationships to be exported by this test.",
-				expectedModel.size() > DataModelRDFExporter.CYPHER_LIMIT);
+		Assert.assertTrue("The data model to be exported by this test must have more than 1000 statements/relationships.",
+				expectedModel.size() > 1000);
 
 		writeRDFToDBInternal(dataModelURI, RDF_N3_FILE);
 
 		exportRDFByFormatFromDBInternal(MediaTypeUtil.N3, dataModelURI, HttpStatus.SC_OK, Lang.N3, RDF_N3_FILE, ".n3");
 	}
 
+	/**
+	 * Export the graph identified by {@code dataModelURI6}, whose statements partly have (top-level) bnode subjects, i.e., subjects
+	 * that can't be reached from a resource node of the data model.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void testExportGraphWithTopLevelBNodesFromDBToN_QUADS() throws IOException {
+
+		writeRDFToDBInternal(dataModelURI6, datamodel6File);
+
+		exportRDFByFormatFromDBInternal(MediaTypeUtil.N_QUADS, dataModelURI6, HttpStatus.SC_OK, Lang.NQUADS, datamodel6File, ".nq");
+	}
+
+	/**
+	 * Export the graphs identified by {@code dataModelURI6} and {@code dataModelURI7}, which both have (top-level) bnode subjects, i.e.,
+	 * only the unreferenced bnodes of the exported data model should be part of the export.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void testExportGraphsWithTopLevelBNodesFromDBToN_QUADS() throws IOException {
+
+		writeRDFToDBInternal(dataModelURI6, datamodel6File);
+		writeRDFToDBInternal(dataModelURI7, datamodel7File);
+
+		exportRDFByFormatFromDBInternal(MediaTypeUtil.N_QUADS, dataModelURI6, HttpStatus.SC_OK, Lang.NQUADS, datamodel6File, ".nq");
+		exportRDFByFormatFromDBInternal(MediaTypeUtil.N_QUADS, dataModelURI7, HttpStatus.SC_OK, Lang.NQUADS, datamodel7File, ".nq");
+	}
+
 	/**
 	 * TODO: add doc
 	 *
@@ -60,6 +60,20 @@ public abstract class RDFExportTest extends BasicResourceTest {
 		final URL fileURL = Resources.getResource(rdfN3File);
 		final byte[] file = Resources.toByteArray(fileURL);
 
+		writeRDFToDBInternal(dataModelUri, file);
+
+		LOG.debug("finished writing RDF statements for RDF resource at " + dbType + " DB (to graph " + dataModelUri + ")");
+	}
+
+	/**
+	 * used as a prepare step to put some (generated) data in the graph
+	 *
+	 * @param dataModelUri the URI used as {@link GraphStatics#DATA_MODEL_PROPERTY}.
+	 * @param file the data (serialised as Turtle or N3) to be stored in the graph
+	 * @throws IOException
+	 */
+	protected void writeRDFToDBInternal(final String dataModelUri, final byte[] file) throws IOException {
+
 		// Construct a MultiPart with two body parts
 		final MultiPart multiPart = new MultiPart();
 		multiPart.bodyPart(new BodyPart(dataModelUri, MediaType.TEXT_PLAIN_TYPE)).bodyPart(
@@ -71,8 +85,6 @@ public abstract class RDFExportTest extends BasicResourceTest {
 		Assert.assertEquals("expected 200", 200, response.getStatus());
 
 		multiPart.close();
-
-		LOG.debug("finished writing RDF statements for RDF resource at " + dbType + " DB (to graph " + dataModelUri + ")");
 	}
 
 }
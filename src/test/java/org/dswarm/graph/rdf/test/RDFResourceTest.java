@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import javax.ws.rs.core.MediaType;
 
@@ -27,6 +28,7 @@ import com.google.common.io.CharSource;
 import org.apache.jena.vocabulary.RDF;
 import org.junit.Assert;
 
+import org.codehaus.jackson.JsonNode;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.codehaus.jackson.node.ObjectNode;
 import org.junit.Test;
@@ -50,6 +52,8 @@ public abstract class RDFResourceTest extends BasicResourceTest {
 
 	private static final Logger	LOG	= LoggerFactory.getLogger(RDFResourceTest.class);
 
+	private static final String TRUNCATED_DATA_MODEL_URI = "http://data.slub-dresden.de/resources/2";
+
 	public RDFResourceTest(final Neo4jDBWrapper neo4jDBWrapper, final String dbTypeArg) {
 
 		super(neo4jDBWrapper, "/rdf", dbTypeArg);
@@ -98,6 +102,58 @@ public abstract class RDFResourceTest extends BasicResourceTest {
 		LOG.debug("finished read test for RDF resource at {} DB", dbType);
 	}
 
+	@Test
+	public void writeTruncatedRDFToDB() throws IOException {
+
+		LOG.debug("start write truncated RDF test for RDF resource at {} DB", dbType);
+
+		final URL fileURL = Resources.getResource("dmpf_bsp1.n3");
+		final byte[] file = Resources.toByteArray(fileURL);
+
+		// cut the serialisation in the middle of a statement
+		final byte[] truncatedFile = Arrays.copyOf(file, file.length / 2);
+
+		final MultiPart multiPart = new MultiPart();
+		multiPart.bodyPart(new BodyPart(TRUNCATED_DATA_MODEL_URI, MediaType.TEXT_PLAIN_TYPE)).bodyPart(
+				new BodyPart(truncatedFile, MediaType.APPLICATION_OCTET_STREAM_TYPE));
+
+		final ClientResponse response = target().path("/put").type("multipart/mixed").post(ClientResponse.class, multiPart);
+
+		Assert.assertEquals("expected 400", 400, response.getStatus());
+
+		multiPart.close();
+
+		final ObjectMapper objectMapper = new ObjectMapper();
+
+		final JsonNode responseJson = objectMapper.readTree(response.getEntity(String.class));
+
+		Assert.assertNotNull("the response should contain the parse error", responseJson.get("error"));
+		Assert.assertNotNull("the response should contain the number of committed statements", responseJson.get("committed_statements"));
+		// note: the upload is smaller than one TX chunk, i.e., no statement of it was committed
+		Assert.assertEquals("the number of committed statements should be 0", 0, responseJson.get("committed_statements").asLong());
+		final ObjectNode requestJson = objectMapper.createObjectNode();
+
+		requestJson.put("record_class_uri", "http://www.openarchives.org/OAI/2.0/recordType");
+		requestJson.put("data_model_uri", TRUNCATED_DATA_MODEL_URI);
+
+		final String requestJsonString = objectMapper.writeValueAsString(requestJson);
+
+		final ClientResponse readResponse = target().path("/get").type(MediaType.APPLICATION_JSON_TYPE).accept("application/n-triples")
+				.post(ClientResponse.class, requestJsonString);
+
+		Assert.assertEquals("expected 200", 200, readResponse.getStatus());
+
+		final Model model = ModelFactory.createDefaultModel();
+		model.read(readResponse.getEntityInputStream(), null, "N-TRIPLE");
+
+		Assert.assertEquals("the number of statements should be 0", 0, model.size());
+
+		// the graph db is still writable afterwards
+		writeRDFToDBInternal();
+
+		LOG.debug("finished write truncated RDF test for RDF resource at {} DB", dbType);
+	}
+
 	private void writeRDFToDBInternal() throws IOException {
 
 		LOG.debug("start writing RDF statements for RDF resource at {} DB", dbType);
@@ -0,0 +1,155 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.versioning.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.dswarm.graph.delta.memory.InMemoryGraphDatabase;
+import org.dswarm.graph.versioning.Range;
+import org.dswarm.graph.versioning.VersionPredicate;
+import org.dswarm.graph.versioning.VersioningStatics;
+
+/**
+ * Compares the version check of the traversals via boxed version properties + range object per relationship with the version predicate
+ * over the outgoing relationships of a synthetic versioned record graph (1000 records with 20 statements each, 5 versions).<br/>
+ * run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.dswarm.graph.versioning.benchmark.VersionPredicateBenchmark
+ * (or run the main method from the IDE); add -prof gc (JMH option) to compare the allocation rates
+ *
+ * @author tgaengler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class VersionPredicateBenchmark {
+
+	private static final int RECORDS               = 1000;
+	private static final int STATEMENTS_PER_RECORD = 20;
+	private static final int VERSIONS              = 5;
+
+	private final int version = 3;
+
+	private final VersionPredicate versionPredicate = new VersionPredicate(version);
+
+	private Relationship[] relationships;
+
+	@Setup
+	public void setUp() {
+
+		final InMemoryGraphDatabase database = new InMemoryGraphDatabase("version predicate benchmark");
+		final RelationshipType predicate = DynamicRelationshipType.withName("ns1:value");
+		final Random random = new Random(42);
+		final List<Relationship> relationshipList = new ArrayList<>();
+
+		for (int i = 0; i < RECORDS; i++) {
+
+			final Node recordNode = database.createNode();
+
+			for (int j = 0; j < STATEMENTS_PER_RECORD; j++) {
+
+				final Relationship relationship = recordNode.createRelationshipTo(database.createNode(), predicate);
+
+				// i.e. the statement was valid from a random version until a later version (or is still valid)
+				final int validFrom = 1 + random.nextInt(VERSIONS);
+				final int validTo = random.nextBoolean() ? Integer.MAX_VALUE : validFrom + 1 + random.nextInt(VERSIONS);
+
+				relationship.setProperty(VersioningStatics.VALID_FROM_PROPERTY, validFrom);
+				relationship.setProperty(VersioningStatics.VALID_TO_PROPERTY, validTo);
+			}
+
+			for (final Relationship relationship : recordNode.getRelationships(Direction.OUTGOING)) {
+
+				relationshipList.add(relationship);
+			}
+		}
+
+		relationships = relationshipList.toArray(new Relationship[relationshipList.size()]);
+	}
+
+	@Benchmark
+	public int range() {
+
+		int validRelationships = 0;
+
+		for (final Relationship relationship : relationships) {
+
+			final Integer validFrom = (Integer) relationship.getProperty(VersioningStatics.VALID_FROM_PROPERTY, null);
+			final Integer validTo = (Integer) relationship.getProperty(VersioningStatics.VALID_TO_PROPERTY, null);
+
+			if (validFrom != null && validTo != null) {
+
+				if (Range.range(validFrom, validTo).contains(version)) {
+
+					validRelationships++;
+				}
+			} else {
+
+				validRelationships++;
+			}
+		}
+
+		return validRelationships;
+	}
+
+	@Benchmark
+	public int versionPredicate() {
+
+		int validRelationships = 0;
+
+		for (final Relationship relationship : relationships) {
+
+			if (versionPredicate.test(relationship)) {
+
+				validRelationships++;
+			}
+		}
+
+		return validRelationships;
+	}
+
+	public static void main(final String[] args) throws RunnerException {
+
+		final Options options = new OptionsBuilder().include(VersionPredicateBenchmark.class.getSimpleName()).build();
+
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,114 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.versioning.test;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import org.dswarm.graph.versioning.VersioningStatics;
+import org.dswarm.graph.versioning.utils.GraphVersionUtils;
+
+/**
+ * @author tgaengler
+ */
+public class GraphVersionUtilsTest {
+
+	private static final RelationshipType PREDICATE = DynamicRelationshipType.withName("http://purl.org/dc/terms/title");
+
+	private GraphDatabaseService database;
+
+	@Before
+	public void prepare() {
+
+		database = new TestGraphDatabaseFactory().newImpermanentDatabase();
+	}
+
+	@After
+	public void cleanUp() {
+
+		database.shutdown();
+	}
+
+	@Test
+	public void testMarkHistoricStatements() {
+
+		try (final Transaction tx = database.beginTx()) {
+
+			final Node subject = database.createNode();
+			final Relationship rel1 = subject.createRelationshipTo(database.createNode(), PREDICATE);
+			final Relationship rel2 = subject.createRelationshipTo(database.createNode(), PREDICATE);
+			final Relationship rel3 = subject.createRelationshipTo(database.createNode(), PREDICATE);
+			final Relationship rel4 = subject.createRelationshipTo(database.createNode(), PREDICATE);
+
+			// unsorted, with duplicates
+			GraphVersionUtils.markHistoricStatements(subject, new long[] { rel3.getId(), rel1.getId(), rel3.getId(), 0L }, 3);
+
+			Assert.assertArrayEquals(new long[] { rel1.getId(), rel3.getId() }, GraphVersionUtils.getHistoricStatements(subject));
+
+			// merged with the already marked statements
+			GraphVersionUtils.markHistoricStatements(subject, new long[] { rel2.getId(), rel3.getId() }, 2);
+
+			final long[] historicStatements = GraphVersionUtils.getHistoricStatements(subject);
+
+			Assert.assertArrayEquals(new long[] { rel1.getId(), rel2.getId(), rel3.getId() }, historicStatements);
+			Assert.assertTrue(GraphVersionUtils.isHistoricStatement(historicStatements, rel2));
+			Assert.assertFalse(GraphVersionUtils.isHistoricStatement(historicStatements, rel4));
+
+			tx.success();
+		}
+	}
+
+	@Test
+	public void testUnmarkHistoricStatement() {
+
+		try (final Transaction tx = database.beginTx()) {
+
+			final Node subject = database.createNode();
+			final Relationship rel1 = subject.createRelationshipTo(database.createNode(), PREDICATE);
+			final Relationship rel2 = subject.createRelationshipTo(database.createNode(), PREDICATE);
+			final Relationship rel3 = subject.createRelationshipTo(database.createNode(), PREDICATE);
+
+			GraphVersionUtils.markHistoricStatements(subject, new long[] { rel1.getId(), rel2.getId() }, 2);
+
+			// i.e. as it would be for a statement with a reused relationship id
+			GraphVersionUtils.unmarkHistoricStatement(rel1);
+
+			Assert.assertArrayEquals(new long[] { rel2.getId() }, GraphVersionUtils.getHistoricStatements(subject));
+
+			// not marked
+			GraphVersionUtils.unmarkHistoricStatement(rel3);
+
+			Assert.assertArrayEquals(new long[] { rel2.getId() }, GraphVersionUtils.getHistoricStatements(subject));
+
+			GraphVersionUtils.unmarkHistoricStatement(rel2);
+
+			Assert.assertNull(GraphVersionUtils.getHistoricStatements(subject));
+			Assert.assertFalse(subject.hasProperty(VersioningStatics.HISTORIC_STATEMENTS_PROPERTY));
+
+			tx.success();
+		}
+	}
+}
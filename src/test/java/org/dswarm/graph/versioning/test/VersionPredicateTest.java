@@ -0,0 +1,142 @@
+/**
+ * This file is part of d:swarm graph extension.
+ *
+ * d:swarm graph extension is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * d:swarm graph extension is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with d:swarm graph extension.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dswarm.graph.versioning.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.Relationship;
+
+import org.dswarm.graph.delta.memory.InMemoryGraphDatabase;
+import org.dswarm.graph.versioning.Range;
+import org.dswarm.graph.versioning.VersionPredicate;
+import org.dswarm.graph.versioning.VersioningStatics;
+
+/**
+ * @author tgaengler
+ */
+public class VersionPredicateTest {
+
+	private InMemoryGraphDatabase database;
+
+	@Before
+	public void prepare() {
+
+		database = new InMemoryGraphDatabase("version predicate test");
+	}
+
+	@Test
+	public void testOpenUpperBound() {
+
+		// i.e. a statement that is still valid (as written by the processors for the latest version)
+		final Relationship relationship = createStatement(2, Integer.MAX_VALUE);
+
+		Assert.assertFalse(new VersionPredicate(1).test(relationship));
+		Assert.assertTrue(new VersionPredicate(2).test(relationship));
+		Assert.assertTrue(new VersionPredicate(3).test(relationship));
+		Assert.assertTrue(new VersionPredicate(Integer.MAX_VALUE - 1).test(relationship));
+	}
+
+	@Test
+	public void testLatestVersion() {
+
+		final int latestVersion = 3;
+
+		final Relationship current = createStatement(1, Integer.MAX_VALUE);
+		final Relationship added = createStatement(latestVersion, Integer.MAX_VALUE);
+		// i.e. deprecated with the latest version
+		final Relationship deprecated = createStatement(1, latestVersion);
+
+		final VersionPredicate versionPredicate = new VersionPredicate(latestVersion);
+
+		Assert.assertTrue(versionPredicate.test(current));
+		Assert.assertTrue(versionPredicate.test(added));
+		Assert.assertFalse(versionPredicate.test(deprecated));
+
+		final VersionPredicate previousVersionPredicate = new VersionPredicate(latestVersion - 1);
+
+		Assert.assertTrue(previousVersionPredicate.test(current));
+		Assert.assertFalse(previousVersionPredicate.test(added));
+		Assert.assertTrue(previousVersionPredicate.test(deprecated));
+	}
+
+	@Test
+	public void testBoundaryVersions() {
+
+		final Relationship relationship = createStatement(2, 4);
+
+		// [valid from, valid to)
+		Assert.assertFalse(new VersionPredicate(1).test(relationship));
+		Assert.assertTrue(new VersionPredicate(2).test(relationship));
+		Assert.assertTrue(new VersionPredicate(3).test(relationship));
+		Assert.assertFalse(new VersionPredicate(4).test(relationship));
+
+		// an empty range contains no version
+		Assert.assertFalse(VersionPredicate.contains(2, 2, 2));
+
+		for (int from = 0; from < 5; from++) {
+
+			for (int to = from; to < 6; to++) {
+
+				for (int version = -1; version < 7; version++) {
+
+					Assert.assertEquals(String.format("version %d in [%d, %d)", version, from, to), Range.range(from, to).contains(version),
+							VersionPredicate.contains(from, to, version));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testCurrentStatements() {
+
+		Assert.assertTrue(VersionPredicate.isCurrent(createStatement(2, Integer.MAX_VALUE)));
+		Assert.assertTrue(VersionPredicate.isCurrent(createRelationship()));
+		// i.e. deprecated
+		Assert.assertFalse(VersionPredicate.isCurrent(createStatement(1, 3)));
+	}
+
+	@Test
+	public void testUnversionedStatements() {
+
+		final Relationship unversioned = createRelationship();
+
+		Assert.assertTrue(new VersionPredicate(1).test(unversioned));
+
+		final Relationship withoutValidTo = createRelationship();
+		withoutValidTo.setProperty(VersioningStatics.VALID_FROM_PROPERTY, 3);
+
+		Assert.assertTrue(new VersionPredicate(1).test(withoutValidTo));
+		Assert.assertTrue(new VersionPredicate(3).test(withoutValidTo));
+	}
+
+	private Relationship createStatement(final int validFrom, final int validTo) {
+
+		final Relationship relationship = createRelationship();
+
+		relationship.setProperty(VersioningStatics.VALID_FROM_PROPERTY, validFrom);
+		relationship.setProperty(VersioningStatics.VALID_TO_PROPERTY, validTo);
+
+		return relationship;
+	}
+
+	private Relationship createRelationship() {
+
+		return database.createNode().createRelationshipTo(database.createNode(), DynamicRelationshipType.withName("ns1:value"));
+	}
+}